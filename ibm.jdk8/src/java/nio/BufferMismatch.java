@@ -0,0 +1,274 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.nio;
+
+import sun.misc.Unsafe;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * Mismatch methods for buffers.  Where both buffers are backed by an array
+ * or by native memory, and store their elements in the same byte order,
+ * elements are compared eight bytes at a time on platforms that allow
+ * unaligned memory access; other buffers, such as views of a heap byte
+ * buffer or wrapped character sequences, are compared one element at a
+ * time with absolute {@code get} operations.
+ *
+ * @since 1.8
+ */
+final class BufferMismatch {
+    private static final Unsafe UNSAFE = Bits.unsafe();
+
+    private static final boolean UNALIGNED = Bits.unaligned();
+
+    private static final boolean BIG_ENDIAN
+        = Bits.byteOrder() == ByteOrder.BIG_ENDIAN;
+
+    private BufferMismatch() {}
+
+    /**
+     * Compares two regions of memory eight bytes at a time, stopping at the
+     * first word that differs or before a partial word at the end.
+     *
+     * @return the index of the first mismatching element, if one was found;
+     *         otherwise the bitwise complement of the number of leading
+     *         elements found to be equal
+     */
+    private static int vectorizedMismatch(Object a, long aOffset,
+                                          Object b, long bOffset,
+                                          int length, int log2IndexScale) {
+        long bytes = (long) length << log2IndexScale;
+        long wi = 0;
+        if (UNALIGNED) {
+            for (; wi <= bytes - 8; wi += 8) {
+                long av = UNSAFE.getLong(a, aOffset + wi);
+                long bv = UNSAFE.getLong(b, bOffset + wi);
+                if (av != bv) {
+                    long x = av ^ bv;
+                    int bit = BIG_ENDIAN
+                              ? Long.numberOfLeadingZeros(x)
+                              : Long.numberOfTrailingZeros(x);
+                    return (int) ((wi + (bit >> 3)) >> log2IndexScale);
+                }
+            }
+        }
+        return ~(int) (wi >> log2IndexScale);
+    }
+
+    // A buffer's elements can be read directly if it is a heap buffer,
+    // with a backing array, or a direct buffer, with a native address
+
+    private static boolean isRaw(Buffer buf, Object hb) {
+        return hb != null || buf instanceof DirectBuffer;
+    }
+
+    private static long rawOffset(Buffer buf, Object hb, long arrayBase,
+                                  int offset, int index, int log2IndexScale) {
+        return (hb != null)
+            ? arrayBase + ((long) (offset + index) << log2IndexScale)
+            : buf.address + ((long) index << log2IndexScale);
+    }
+
+    // Mismatch methods for each buffer type.  Each returns the index,
+    // relative to the given absolute indexes, of the first mismatching
+    // element within length elements of the two buffers, or -1 if there
+    // is none.  Elements are compared as by the buffers' equals methods.
+
+    static int mismatch(ByteBuffer a, int aIndex,
+                        ByteBuffer b, int bIndex,
+                        int length) {
+        int i = 0;
+        if (isRaw(a, a.hb) && isRaw(b, b.hb)) {
+            i = vectorizedMismatch(
+                    a.hb, rawOffset(a, a.hb, Unsafe.ARRAY_BYTE_BASE_OFFSET, a.offset, aIndex, 0),
+                    b.hb, rawOffset(b, b.hb, Unsafe.ARRAY_BYTE_BASE_OFFSET, b.offset, bIndex, 0),
+                    length, 0);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++) {
+            if (a.get(aIndex + i) != b.get(bIndex + i))
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(CharBuffer a, int aIndex,
+                        CharBuffer b, int bIndex,
+                        int length) {
+        int i = 0;
+        if (a.order() == b.order()
+                && isRaw(a, a.hb) && isRaw(b, b.hb)) {
+            i = vectorizedMismatch(
+                    a.hb, rawOffset(a, a.hb, Unsafe.ARRAY_CHAR_BASE_OFFSET, a.offset, aIndex, 1),
+                    b.hb, rawOffset(b, b.hb, Unsafe.ARRAY_CHAR_BASE_OFFSET, b.offset, bIndex, 1),
+                    length, 1);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++) {
+            if (a.get(aIndex + i) != b.get(bIndex + i))
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(ShortBuffer a, int aIndex,
+                        ShortBuffer b, int bIndex,
+                        int length) {
+        int i = 0;
+        if (a.order() == b.order()
+                && isRaw(a, a.hb) && isRaw(b, b.hb)) {
+            i = vectorizedMismatch(
+                    a.hb, rawOffset(a, a.hb, Unsafe.ARRAY_SHORT_BASE_OFFSET, a.offset, aIndex, 1),
+                    b.hb, rawOffset(b, b.hb, Unsafe.ARRAY_SHORT_BASE_OFFSET, b.offset, bIndex, 1),
+                    length, 1);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++) {
+            if (a.get(aIndex + i) != b.get(bIndex + i))
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(IntBuffer a, int aIndex,
+                        IntBuffer b, int bIndex,
+                        int length) {
+        int i = 0;
+        if (a.order() == b.order()
+                && isRaw(a, a.hb) && isRaw(b, b.hb)) {
+            i = vectorizedMismatch(
+                    a.hb, rawOffset(a, a.hb, Unsafe.ARRAY_INT_BASE_OFFSET, a.offset, aIndex, 2),
+                    b.hb, rawOffset(b, b.hb, Unsafe.ARRAY_INT_BASE_OFFSET, b.offset, bIndex, 2),
+                    length, 2);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++) {
+            if (a.get(aIndex + i) != b.get(bIndex + i))
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(LongBuffer a, int aIndex,
+                        LongBuffer b, int bIndex,
+                        int length) {
+        int i = 0;
+        if (a.order() == b.order()
+                && isRaw(a, a.hb) && isRaw(b, b.hb)) {
+            i = vectorizedMismatch(
+                    a.hb, rawOffset(a, a.hb, Unsafe.ARRAY_LONG_BASE_OFFSET, a.offset, aIndex, 3),
+                    b.hb, rawOffset(b, b.hb, Unsafe.ARRAY_LONG_BASE_OFFSET, b.offset, bIndex, 3),
+                    length, 3);
+            if (i >= 0)
+                return i;
+            i = ~i;
+        }
+        for (; i < length; i++) {
+            if (a.get(aIndex + i) != b.get(bIndex + i))
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(FloatBuffer a, int aIndex,
+                        FloatBuffer b, int bIndex,
+                        int length) {
+        int i = 0;
+        if (a.order() == b.order()
+                && isRaw(a, a.hb) && isRaw(b, b.hb)) {
+            while (i < length) {
+                int j = vectorizedMismatch(
+                        a.hb, rawOffset(a, a.hb, Unsafe.ARRAY_FLOAT_BASE_OFFSET, a.offset, aIndex + i, 2),
+                        b.hb, rawOffset(b, b.hb, Unsafe.ARRAY_FLOAT_BASE_OFFSET, b.offset, bIndex + i, 2),
+                        length - i, 2);
+                if (j < 0) {
+                    i += ~j;
+                    break;
+                }
+                i += j;
+                float x = a.get(aIndex + i), y = b.get(bIndex + i);
+                // Equal values with distinct bits: -0.0 and 0.0, or two NaNs
+                if (x != y && !(Float.isNaN(x) && Float.isNaN(y)))
+                    return i;
+                i++;
+            }
+        }
+        for (; i < length; i++) {
+            float x = a.get(aIndex + i), y = b.get(bIndex + i);
+            if (x != y && !(Float.isNaN(x) && Float.isNaN(y)))
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(DoubleBuffer a, int aIndex,
+                        DoubleBuffer b, int bIndex,
+                        int length) {
+        int i = 0;
+        if (a.order() == b.order()
+                && isRaw(a, a.hb) && isRaw(b, b.hb)) {
+            while (i < length) {
+                int j = vectorizedMismatch(
+                        a.hb, rawOffset(a, a.hb, Unsafe.ARRAY_DOUBLE_BASE_OFFSET, a.offset, aIndex + i, 3),
+                        b.hb, rawOffset(b, b.hb, Unsafe.ARRAY_DOUBLE_BASE_OFFSET, b.offset, bIndex + i, 3),
+                        length - i, 3);
+                if (j < 0) {
+                    i += ~j;
+                    break;
+                }
+                i += j;
+                double x = a.get(aIndex + i), y = b.get(bIndex + i);
+                // Equal values with distinct bits: -0.0 and 0.0, or two NaNs
+                if (x != y && !(Double.isNaN(x) && Double.isNaN(y)))
+                    return i;
+                i++;
+            }
+        }
+        for (; i < length; i++) {
+            double x = a.get(aIndex + i), y = b.get(bIndex + i);
+            if (x != y && !(Double.isNaN(x) && Double.isNaN(y)))
+                return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,528 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.nio;
+
+import java.lang.management.BufferPoolMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+
+/**
+ * A pool of direct byte buffers.
+ *
+ * <p> Each invocation of {@link ByteBuffer#allocateDirect allocateDirect}
+ * reserves native memory for the new buffer, and that memory is not freed
+ * until the buffer has been garbage collected.  When the limit on direct
+ * memory is reached the reservation requests a garbage collection and
+ * waits for buffers to be freed, which can stall the allocating thread for
+ * a long time in applications that allocate a buffer per request or per
+ * connection.  A direct buffer pool instead reserves memory in large
+ * <i>slabs</i>, each of which is divided into blocks of a single size, and
+ * allows buffers to be returned to the pool by invoking the {@link
+ * #release release} method once they are no longer needed.  </p>
+ *
+ * <p> Block sizes are powers of two, from 64 bytes up to the pool's
+ * maximum pooled capacity.  A request for a larger buffer, or for a buffer
+ * that would take the memory reserved by the pool beyond its limit, is
+ * satisfied by {@link ByteBuffer#allocateDirect allocateDirect} instead.
+ * Each thread keeps a small cache of released blocks so that a thread
+ * that repeatedly allocates and releases buffers of similar sizes does not
+ * contend with other threads.  </p>
+ *
+ * <p> A released buffer, or any view of it, must no longer be used, since
+ * its memory may be handed out again by a subsequent allocation.  Blocks
+ * held in the cache of a thread that terminates are returned to the pool
+ * when it next needs memory.  The memory of a buffer that is never
+ * released is not returned to the pool; it is freed, as for any other
+ * direct buffer, once no block of its slab is reachable.  </p>
+ *
+ * <p> The occupancy of a pool may be monitored through the {@link
+ * BufferPoolMXBean} returned by {@link #getBufferPoolMXBean()}.  </p>
+ *
+ * <p> Direct buffer pools are safe for use by multiple concurrent threads.
+ * </p>
+ *
+ * @see ByteBuffer#allocateDirect
+ * @since 1.8
+ */
+
+public final class DirectBufferPool {
+
+    // Blocks are between 2^LOG2_MIN_CAPACITY and 2^LOG2_SLAB_SIZE bytes
+    private static final int LOG2_MIN_CAPACITY = 6;
+    private static final int LOG2_SLAB_SIZE = 20;
+    private static final int SLAB_SIZE = 1 << LOG2_SLAB_SIZE;
+
+    // Each thread caches up to CACHE_SLOTS released blocks of each size no
+    // larger than MAX_CACHED_CAPACITY
+    private static final int CACHE_SLOTS = 8;
+    private static final int MAX_CACHED_CAPACITY = 1 << 15;
+
+    private final String name;
+    private final int maxPooledCapacity;
+    private final long maxMemory;
+
+    // Free blocks of each size class, shared by all threads.  A free block
+    // is represented by a buffer that starts at the block and whose
+    // attachment is the block's slab.
+    private final ArrayDeque<ByteBuffer>[] freeLists;
+
+    // Per-thread caches of free blocks, indexed by size class and then by
+    // slot; a null slot is empty
+    private final int cachedClasses;
+    private final ThreadLocal<ByteBuffer[][]> caches;
+
+    // The threads that have caches, with their caches, so that the blocks
+    // cached by threads that have terminated can be returned to the free
+    // lists.  The list is swept whenever it has doubled in size since it
+    // was last swept, and when a slab is about to be reserved, but then
+    // only if a cache has been registered since the last sweep or
+    // SWEEP_INTERVAL_NANOS have passed.  Otherwise a pool that has reached
+    // its memory limit would scan every thread on each allocation that
+    // falls back to an unpooled buffer.
+    private static final long SWEEP_INTERVAL_NANOS = 10L * 1000 * 1000;
+    private final ArrayList<ThreadCache> threadCaches = new ArrayList<>();
+    private int sweepThreshold = 16;    // guarded by threadCaches
+    private int registered;             // guarded by threadCaches
+    private int registeredAtSweep;      // guarded by threadCaches
+    private long lastSweepNanos = System.nanoTime();  // guarded by threadCaches
+
+    private static final class ThreadCache {
+        final Thread thread;
+        final ByteBuffer[][] slots;
+
+        ThreadCache(Thread thread, ByteBuffer[][] slots) {
+            this.thread = thread;
+            this.slots = slots;
+        }
+    }
+
+    private final AtomicLong reservedMemory = new AtomicLong();
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalCapacity = new LongAdder();
+
+    private volatile BufferPoolMXBean mxbean;
+
+    /**
+     * Creates a new direct buffer pool that pools buffers of up to 64
+     * kilobytes and whose slabs are limited only by the limit on direct
+     * memory.
+     *
+     * @param  name
+     *         The name of the pool, as reported by its management interface
+     */
+    public DirectBufferPool(String name) {
+        this(name, 1 << 16, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new direct buffer pool.
+     *
+     * @param  name
+     *         The name of the pool, as reported by its management interface
+     *
+     * @param  maxPooledCapacity
+     *         The capacity, in bytes, of the largest buffer to be taken from
+     *         the pool; larger buffers are allocated individually
+     *
+     * @param  maxMemory
+     *         The maximum amount of memory, in bytes, that the pool may
+     *         reserve for its slabs
+     *
+     * @throws  IllegalArgumentException
+     *          If <tt>maxPooledCapacity</tt> is negative or greater than one
+     *          megabyte, or if <tt>maxMemory</tt> is negative
+     */
+    @SuppressWarnings("unchecked")
+    public DirectBufferPool(String name, int maxPooledCapacity, long maxMemory) {
+        if (name == null)
+            throw new NullPointerException("name");
+        if (maxPooledCapacity < 0 || maxPooledCapacity > SLAB_SIZE)
+            throw new IllegalArgumentException("maxPooledCapacity: "
+                                               + maxPooledCapacity);
+        if (maxMemory < 0)
+            throw new IllegalArgumentException("maxMemory: " + maxMemory);
+        this.name = name;
+        this.maxPooledCapacity = maxPooledCapacity;
+        this.maxMemory = maxMemory;
+
+        int n = sizeClass(maxPooledCapacity) + 1;
+        freeLists = (ArrayDeque<ByteBuffer>[])new ArrayDeque<?>[n];
+        for (int i = 0; i < n; i++)
+            freeLists[i] = new ArrayDeque<ByteBuffer>();
+        cachedClasses = Math.min(n, sizeClass(MAX_CACHED_CAPACITY) + 1);
+        caches = new ThreadLocal<ByteBuffer[][]>() {
+            @Override
+            protected ByteBuffer[][] initialValue() {
+                ByteBuffer[][] slots = new ByteBuffer[cachedClasses][CACHE_SLOTS];
+                register(new ThreadCache(Thread.currentThread(), slots));
+                return slots;
+            }
+        };
+    }
+
+    // Returns the index of the smallest block size that can hold cap bytes
+    private static int sizeClass(int cap) {
+        if (cap <= (1 << LOG2_MIN_CAPACITY))
+            return 0;
+        return 32 - Integer.numberOfLeadingZeros(cap - 1) - LOG2_MIN_CAPACITY;
+    }
+
+    /**
+     * Returns the name of this pool.
+     *
+     * @return  The name of this pool
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Allocates a new direct byte buffer, taking its memory from this pool
+     * where possible.
+     *
+     * <p> The new buffer's position will be zero, its limit will be its
+     * capacity, its mark will be undefined, and its byte order will be
+     * {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}.  Unlike a buffer returned by
+     * {@link ByteBuffer#allocateDirect allocateDirect}, the initial content
+     * of a buffer taken from the pool is undefined.  </p>
+     *
+     * @param  capacity
+     *         The new buffer's capacity, in bytes
+     *
+     * @return  The new byte buffer
+     *
+     * @throws  IllegalArgumentException
+     *          If the <tt>capacity</tt> is a negative integer
+     */
+    public ByteBuffer allocate(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("capacity: " + capacity);
+        if (capacity > maxPooledCapacity)
+            return ByteBuffer.allocateDirect(capacity);
+
+        int sc = sizeClass(capacity);
+        ByteBuffer block = null;
+        if (sc < cachedClasses) {
+            ByteBuffer[] slots = caches.get()[sc];
+            for (int i = 0; i < CACHE_SLOTS; i++) {
+                if ((block = slots[i]) != null) {
+                    slots[i] = null;
+                    break;
+                }
+            }
+        }
+        if (block == null && (block = take(sc)) == null)
+            return ByteBuffer.allocateDirect(capacity);
+
+        Slab slab = (Slab)((DirectBuffer)block).attachment();
+        long address = ((DirectBuffer)block).address();
+        slab.acquire(address);
+        count.increment();
+        totalCapacity.add(capacity);
+        return new DirectByteBuffer(address, capacity, slab);
+    }
+
+    // Takes a free block from the shared free list of the given size class,
+    // reserving a new slab if the list is empty.  Returns null if the pool
+    // may not reserve any more memory.
+    private ByteBuffer take(int sc) {
+        ArrayDeque<ByteBuffer> free = freeLists[sc];
+        synchronized (free) {
+            ByteBuffer block = free.pollFirst();
+            if (block != null)
+                return block;
+        }
+        // Reclaim the blocks cached by terminated threads before reserving
+        // a new slab, if any may have terminated since the last sweep
+        synchronized (threadCaches) {
+            if (registered != registeredAtSweep
+                || System.nanoTime() - lastSweepNanos >= SWEEP_INTERVAL_NANOS)
+                sweepCaches();
+        }
+        synchronized (free) {
+            ByteBuffer block = free.pollFirst();
+            if (block == null) {
+                Slab slab = newSlab(sc);
+                if (slab == null)
+                    return null;
+                int blockSize = 1 << (sc + LOG2_MIN_CAPACITY);
+                for (int off = blockSize; off < SLAB_SIZE; off += blockSize)
+                    free.addLast(slab.block(off));
+                block = slab.block(0);
+            }
+            return block;
+        }
+    }
+
+    private void register(ThreadCache cache) {
+        synchronized (threadCaches) {
+            threadCaches.add(cache);
+            registered++;
+            if (threadCaches.size() < sweepThreshold)
+                return;
+        }
+        sweepCaches();
+    }
+
+    // Moves the blocks cached by threads that have terminated to the shared
+    // free lists, and forgets those threads.  Thread termination
+    // happens-before isAlive returns false, so the caches of terminated
+    // threads may be read safely.
+    private void sweepCaches() {
+        synchronized (threadCaches) {
+            for (Iterator<ThreadCache> it = threadCaches.iterator(); it.hasNext(); ) {
+                ThreadCache cache = it.next();
+                if (cache.thread.isAlive())
+                    continue;
+                it.remove();
+                for (int sc = 0; sc < cachedClasses; sc++) {
+                    ByteBuffer[] slots = cache.slots[sc];
+                    ArrayDeque<ByteBuffer> free = freeLists[sc];
+                    for (int i = 0; i < CACHE_SLOTS; i++) {
+                        ByteBuffer block = slots[i];
+                        if (block != null) {
+                            slots[i] = null;
+                            synchronized (free) {
+                                free.addFirst(block);
+                            }
+                        }
+                    }
+                }
+            }
+            sweepThreshold = Math.max(16, threadCaches.size() << 1);
+            registeredAtSweep = registered;
+            lastSweepNanos = System.nanoTime();
+        }
+    }
+
+    private Slab newSlab(int sc) {
+        long reserved;
+        do {
+            reserved = reservedMemory.get();
+            if (reserved > maxMemory - SLAB_SIZE)
+                return null;
+        } while (!reservedMemory.compareAndSet(reserved, reserved + SLAB_SIZE));
+        try {
+            return new Slab(this, sc);
+        } catch (OutOfMemoryError x) {
+            reservedMemory.addAndGet(-SLAB_SIZE);
+            throw x;
+        }
+    }
+
+    /**
+     * Returns a buffer to this pool.
+     *
+     * <p> If the given buffer was taken from this pool then its memory is
+     * made available to subsequent allocations, and neither the buffer nor
+     * any view of it may be used again.  A buffer that was allocated
+     * individually, because it was larger than the pool's maximum pooled
+     * capacity or because the pool had reached its memory limit, is left to
+     * be freed by the garbage collector, as is a view of a pooled buffer.
+     * </p>
+     *
+     * @param  buf
+     *         The buffer to be returned to the pool
+     *
+     * @return  <tt>true</tt> if the buffer's memory was returned to the pool
+     *
+     * @throws  IllegalArgumentException
+     *          If the buffer was taken from a different pool
+     *
+     * @throws  IllegalStateException
+     *          If the buffer has already been returned to the pool
+     */
+    public boolean release(ByteBuffer buf) {
+        if (!(buf instanceof DirectByteBuffer))
+            return false;
+        Object att = ((DirectBuffer)buf).attachment();
+        if (!(att instanceof Slab))
+            return false;
+        Slab slab = (Slab)att;
+        if (slab.pool != this)
+            throw new IllegalArgumentException("Buffer belongs to pool "
+                                               + slab.pool.name);
+        long address = ((DirectBuffer)buf).address();
+        slab.release(address);
+        count.decrement();
+        totalCapacity.add(-buf.capacity());
+
+        // The released buffer now represents the free block
+        int sc = slab.sizeClass;
+        ByteBuffer block = buf;
+        if (sc < cachedClasses) {
+            ByteBuffer[] slots = caches.get()[sc];
+            for (int i = 0; i < CACHE_SLOTS; i++) {
+                if (slots[i] == null) {
+                    slots[i] = block;
+                    return true;
+                }
+            }
+        }
+        ArrayDeque<ByteBuffer> free = freeLists[sc];
+        synchronized (free) {
+            free.addFirst(block);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the management interface of this pool.
+     *
+     * <p> The interface reports the number of buffers currently taken from
+     * the pool, their total capacity, and the amount of memory reserved by
+     * the pool for its slabs.  Its object name is
+     * <tt>java.nio:type=BufferPool,name=</tt><i>name</i>, where <i>name</i>
+     * is the name of this pool; the interface is not registered with the
+     * platform {@code MBeanServer} by this method.  </p>
+     *
+     * @return  The management interface of this pool
+     */
+    public BufferPoolMXBean getBufferPoolMXBean() {
+        BufferPoolMXBean bean = mxbean;
+        if (bean == null)
+            mxbean = bean = new PoolMXBean(this);
+        return bean;
+    }
+
+    private static final class PoolMXBean implements BufferPoolMXBean {
+        private final DirectBufferPool pool;
+
+        PoolMXBean(DirectBufferPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public ObjectName getObjectName() {
+            try {
+                return ObjectName.getInstance("java.nio:type=BufferPool,name="
+                                              + pool.name);
+            } catch (javax.management.MalformedObjectNameException x) {
+                throw new IllegalArgumentException(x);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return pool.name;
+        }
+
+        @Override
+        public long getCount() {
+            return pool.count.sum();
+        }
+
+        @Override
+        public long getTotalCapacity() {
+            return pool.totalCapacity.sum();
+        }
+
+        @Override
+        public long getMemoryUsed() {
+            return pool.reservedMemory.get();
+        }
+    }
+
+    // A slab of direct memory divided into blocks of a single size.  The
+    // slab is reachable from each of its blocks, whether free or in use, and
+    // its memory is freed, and the pool's reservation released, when it is
+    // no longer reachable.
+    private static final class Slab {
+        final DirectBufferPool pool;
+        final int sizeClass;
+        final int log2BlockSize;
+        final ByteBuffer memory;
+        final long address;
+
+        // One bit per block, set while the block is in use
+        private final AtomicLongArray inUse;
+
+        Slab(DirectBufferPool pool, int sizeClass) {
+            this.pool = pool;
+            this.sizeClass = sizeClass;
+            this.log2BlockSize = sizeClass + LOG2_MIN_CAPACITY;
+            this.memory = ByteBuffer.allocateDirect(SLAB_SIZE);
+            this.address = ((DirectBuffer)memory).address();
+            this.inUse = new AtomicLongArray(
+                Math.max(1, SLAB_SIZE >>> (log2BlockSize + 6)));
+            final AtomicLong reserved = pool.reservedMemory;
+            Cleaner.create(this, new Runnable() {
+                public void run() {
+                    reserved.addAndGet(-SLAB_SIZE);
+                }
+            });
+        }
+
+        // Returns a buffer that represents the free block at the given offset
+        ByteBuffer block(int off) {
+            return new DirectByteBuffer(address + off, 1 << log2BlockSize, this);
+        }
+
+        void acquire(long blockAddress) {
+            if (!flip(blockAddress, true))
+                throw new IllegalStateException("Block already in use");
+        }
+
+        void release(long blockAddress) {
+            if (!flip(blockAddress, false))
+                throw new IllegalStateException("Buffer already released");
+        }
+
+        // Sets or clears the in-use bit of the block at the given address,
+        // returning false if the bit already had the requested value
+        private boolean flip(long blockAddress, boolean set) {
+            int index = (int)((blockAddress - address) >>> log2BlockSize);
+            int i = index >>> 6;
+            long bit = 1L << index;
+            for (;;) {
+                long bits = inUse.get(i);
+                if (((bits & bit) != 0) == set)
+                    return false;
+                if (inUse.compareAndSet(i, bits, bits ^ bit))
+                    return true;
+            }
+        }
+    }
+
+}
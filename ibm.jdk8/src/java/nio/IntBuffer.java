@@ -1164,19 +1164,9 @@ public abstract class IntBuffer
         IntBuffer that = (IntBuffer)ob;
         if (this.remaining() != that.remaining())
             return false;
-        int p = this.position();
-        for (int i = this.limit() - 1, j = that.limit() - 1; i >= p; i--, j--)
-            if (!equals(this.get(i), that.get(j)))
-                return false;
-        return true;
-    }
-
-    private static boolean equals(int x, int y) {
-
-
-
-        return x == y;
-
+        return BufferMismatch.mismatch(this, this.position(),
+                                       that, that.position(),
+                                       this.remaining()) < 0;
     }
 
     /**
@@ -1203,12 +1193,13 @@ public abstract class IntBuffer
      *          is less than, equal to, or greater than the given buffer
      */
     public int compareTo(IntBuffer that) {
-        int n = this.position() + Math.min(this.remaining(), that.remaining());
-        for (int i = this.position(), j = that.position(); i < n; i++, j++) {
-            int cmp = compare(this.get(i), that.get(j));
-            if (cmp != 0)
-                return cmp;
-        }
+        int thisPos = this.position();
+        int thatPos = that.position();
+        int i = BufferMismatch.mismatch(this, thisPos,
+                                        that, thatPos,
+                                        Math.min(this.remaining(), that.remaining()));
+        if (i >= 0)
+            return compare(this.get(thisPos + i), that.get(thatPos + i));
         return this.remaining() - that.remaining();
     }
 
@@ -1223,6 +1214,40 @@ public abstract class IntBuffer
 
     }
 
+    /**
+     * Finds and returns the relative index of the first mismatch between this
+     * buffer and a given buffer.  The index is relative to the
+     * {@link #position() position} of each buffer and will be in the range of
+     * 0 (inclusive) up to the smaller of the {@link #remaining() remaining}
+     * elements in each buffer (exclusive).
+     *
+     * <p> If the two buffers share a common prefix then the returned index is
+     * the length of the common prefix and it follows that there is a mismatch
+     * between the two buffers at that index within the respective buffers.
+     * If one buffer is a proper prefix of the other then the returned index is
+     * the smaller of the remaining elements in each buffer, and it follows that
+     * the index is only valid for the buffer with the larger number of
+     * remaining elements.
+     * Otherwise, there is no mismatch.
+     *
+     * @param  that
+     *         The int buffer to be tested for a mismatch with this buffer
+     *
+     * @return  The relative index of the first mismatch between this and the
+     *          given buffer, otherwise -1 if no mismatch.
+     *
+     * @since 1.8
+     */
+    public int mismatch(IntBuffer that) {
+        int thisRem = this.remaining();
+        int thatRem = that.remaining();
+        int length = Math.min(thisRem, thatRem);
+        int i = BufferMismatch.mismatch(this, this.position(),
+                                        that, that.position(),
+                                        length);
+        return (i < 0 && thisRem != thatRem) ? length : i;
+    }
+
     // -- Other char stuff --
 
 
@@ -217,6 +217,21 @@ public abstract class MappedByteBuffer
         return this;
     }
 
+    // Forces any changes made to the given range of this buffer's content to
+    // be written to the storage device, as for force(); used by MappedRegion
+    //
+    final void force(int index, int length) {                 // package-private
+        checkMapped();
+        if ((address != 0) && (length != 0)) {
+            long a = address + index;
+            int ps = Bits.pageSize();
+            long offset = a % ps;
+            if (offset < 0)
+                offset += ps;
+            force0(fd, a - offset, (long)length + offset);
+        }
+    }
+
     private native boolean isLoaded0(long address, long length, int pageCount);
     private native void load0(long address, long length);
     private native void force0(FileDescriptor fd, long address, long length);
@@ -0,0 +1,973 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.nio;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import sun.misc.Cleaner;
+import sun.misc.Unsafe;
+import sun.nio.ch.DirectBuffer;
+
+
+/**
+ * A memory-mapped region of a file that may be larger than two gigabytes.
+ *
+ * <p> A {@link MappedByteBuffer} is indexed by <tt>int</tt> and so cannot
+ * map more than {@link Integer#MAX_VALUE} bytes of a file.  A mapped region
+ * is indexed by <tt>long</tt> offsets, relative to the position in the file
+ * at which the region starts, and may map a region of any size.  Mapped
+ * regions are created via the {@link #map map} method.  </p>
+ *
+ * <p> A mapped region provides absolute <i>get</i> and <i>put</i> methods
+ * for each primitive type other than <tt>boolean</tt>, bulk methods that
+ * transfer bytes between the region and a {@link ByteBuffer}, a method to
+ * {@link #force(long,long) force} changes to part of the region to be
+ * written to the storage device, and a method to {@link #unmap unmap} the
+ * region.  Multi-byte values are read and written in the region's current
+ * {@link #order() byte order}, which is initially {@link
+ * ByteOrder#BIG_ENDIAN BIG_ENDIAN}.  A mapped region has no position or
+ * limit.  </p>
+ *
+ * <p> The file is mapped in chunks of one gigabyte that do not overlap, so
+ * that every byte of the file is mapped exactly once and a region mapped in
+ * {@link FileChannel.MapMode#PRIVATE PRIVATE} mode has a single private copy
+ * of each page.  A multi-byte value whose bytes lie in two adjacent chunks
+ * is read or written one byte at a time, and so is not accessed atomically.
+ * </p>
+ *
+ * <p> A mapped region, and the file mapping that it represents, remain valid
+ * until the region is unmapped or garbage-collected, whichever comes first.
+ * Unlike a mapped byte buffer, a mapped region can be unmapped
+ * deterministically by invoking its {@link #unmap unmap} method, which
+ * releases the address space at once rather than when the garbage collector
+ * next runs.  As for any memory-mapped file, all or part of a mapped region
+ * may become inaccessible at any time, for example if the mapped file is
+ * truncated.  </p>
+ *
+ * <p> Mapped regions are safe for use by multiple concurrent threads, except
+ * that the {@link #unmap unmap} method must not be invoked while another
+ * thread may be accessing the region.  The byte order should be set before
+ * the region is shared between threads.  </p>
+ *
+ * @see java.nio.channels.FileChannel#map
+ * @since 1.8
+ */
+
+public final class MappedRegion {
+
+    private static final Unsafe UNSAFE = Bits.unsafe();
+
+    private static final boolean UNALIGNED = Bits.unaligned();
+
+    // The region is mapped in disjoint chunks of CHUNK_SIZE bytes, the last
+    // of which may be smaller.  The chunks must not overlap: in PRIVATE mode
+    // each mapping has its own copy-on-write pages, so a byte mapped twice
+    // could be written through one chunk and read back through the other.
+    private static final int LOG2_CHUNK_SIZE = 30;
+    private static final long CHUNK_SIZE = 1L << LOG2_CHUNK_SIZE;
+
+    private final long size;
+    private final boolean readOnly;
+
+    // The chunks of the region and the address of each; both null once the
+    // region has been unmapped
+    private MappedByteBuffer[] chunks;
+    private long[] addresses;
+
+    private boolean bigEndian = true;
+    private boolean nativeByteOrder
+        = (Bits.byteOrder() == ByteOrder.BIG_ENDIAN);
+
+    private MappedRegion(MappedByteBuffer[] chunks, long size, boolean readOnly) {
+        this.chunks = chunks;
+        this.size = size;
+        this.readOnly = readOnly;
+        long[] addresses = new long[chunks.length];
+        for (int i = 0; i < chunks.length; i++)
+            addresses[i] = ((DirectBuffer)chunks[i]).address();
+        this.addresses = addresses;
+    }
+
+    /**
+     * Maps a region of a channel's file directly into memory.
+     *
+     * <p> The region is mapped as if by invoking the channel's {@link
+     * FileChannel#map map} method for each chunk of the region, and the
+     * <tt>mode</tt> parameter has the same meaning as for that method.  If
+     * the requested region is not completely contained within the file, and
+     * the mode is {@link FileChannel.MapMode#READ_WRITE READ_WRITE}, then
+     * the file will be extended to contain the region.  </p>
+     *
+     * @param  channel
+     *         The channel whose file is to be mapped
+     *
+     * @param  mode
+     *         One of the constants {@link FileChannel.MapMode#READ_ONLY
+     *         READ_ONLY}, {@link FileChannel.MapMode#READ_WRITE
+     *         READ_WRITE}, or {@link FileChannel.MapMode#PRIVATE PRIVATE}
+     *         defined in the {@link FileChannel.MapMode} class
+     *
+     * @param  position
+     *         The position within the file at which the mapped region
+     *         is to start; must be non-negative
+     *
+     * @param  size
+     *         The size of the region to be mapped; must be non-negative
+     *
+     * @return  The mapped region
+     *
+     * @throws  java.nio.channels.NonReadableChannelException
+     *          If the channel was not opened for reading
+     *
+     * @throws  java.nio.channels.NonWritableChannelException
+     *          If the <tt>mode</tt> is {@link FileChannel.MapMode#READ_WRITE
+     *          READ_WRITE} or {@link FileChannel.MapMode#PRIVATE PRIVATE} but
+     *          the channel was not opened for both reading and writing
+     *
+     * @throws  IllegalArgumentException
+     *          If the preconditions on the parameters do not hold
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs
+     */
+    public static MappedRegion map(FileChannel channel, FileChannel.MapMode mode,
+                                   long position, long size)
+        throws IOException
+    {
+        if (position < 0L)
+            throw new IllegalArgumentException("Negative position");
+        if (size < 0L)
+            throw new IllegalArgumentException("Negative size");
+        if (position + size < 0)
+            throw new IllegalArgumentException("Position + size overflow");
+
+        int n = (int)((size + (CHUNK_SIZE - 1)) >>> LOG2_CHUNK_SIZE);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                long offset = (long)i << LOG2_CHUNK_SIZE;
+                long length = Math.min(CHUNK_SIZE, size - offset);
+                chunks[i] = channel.map(mode, position + offset, length);
+            }
+        } catch (Throwable x) {
+            for (MappedByteBuffer chunk : chunks) {
+                if (chunk != null)
+                    unmap(chunk);
+            }
+            throw x;
+        }
+        return new MappedRegion(chunks, size, mode == FileChannel.MapMode.READ_ONLY);
+    }
+
+    private static void unmap(MappedByteBuffer chunk) {
+        Cleaner cleaner = ((DirectBuffer)chunk).cleaner();
+        if (cleaner != null)
+            cleaner.clean();
+    }
+
+    /**
+     * Returns this region's size.
+     *
+     * @return  The size of this region, in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Tells whether or not this region is read-only.
+     *
+     * @return  <tt>true</tt> if, and only if, this region was mapped in
+     *          {@link FileChannel.MapMode#READ_ONLY READ_ONLY} mode
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Retrieves this region's byte order.
+     *
+     * <p> The byte order is used when reading or writing multibyte values.
+     * The order of a newly-mapped region is always {@link
+     * ByteOrder#BIG_ENDIAN BIG_ENDIAN}.  </p>
+     *
+     * @return  This region's byte order
+     */
+    public ByteOrder order() {
+        return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    /**
+     * Modifies this region's byte order.
+     *
+     * @param  bo
+     *         The new byte order,
+     *         either {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}
+     *         or {@link ByteOrder#LITTLE_ENDIAN LITTLE_ENDIAN}
+     *
+     * @return  This region
+     */
+    public MappedRegion order(ByteOrder bo) {
+        bigEndian = (bo == ByteOrder.BIG_ENDIAN);
+        nativeByteOrder =
+            (bigEndian == (Bits.byteOrder() == ByteOrder.BIG_ENDIAN));
+        return this;
+    }
+
+    // Returns the address of the nb bytes at the given offset, checking that
+    // they lie within the region, or zero if they straddle two chunks and so
+    // must be accessed via getSplit or putSplit
+    private long ix(long offset, int nb) {
+        long[] a = addresses;
+        if (a == null)
+            throw new IllegalStateException("Region has been unmapped");
+        if (offset < 0 || nb > size - offset)
+            throw new IndexOutOfBoundsException();
+        long pos = offset & (CHUNK_SIZE - 1);
+        if (pos > CHUNK_SIZE - nb)
+            return 0L;
+        return a[(int)(offset >>> LOG2_CHUNK_SIZE)] + pos;
+    }
+
+    // Reads the nb bytes at the given offset, which straddle two chunks, one
+    // at a time, and composes them according to the current byte order
+    private long getSplit(long offset, int nb) {
+        long[] a = addresses;
+        long x = 0L;
+        for (int i = 0; i < nb; i++) {
+            long o = offset + (bigEndian ? i : nb - 1 - i);
+            long b = UNSAFE.getByte(a[(int)(o >>> LOG2_CHUNK_SIZE)]
+                                    + (o & (CHUNK_SIZE - 1)));
+            x = (x << 8) | (b & 0xffL);
+        }
+        return x;
+    }
+
+    // Writes the low-order nb bytes of x, in the current byte order, at the
+    // given offset, which straddle two chunks, one at a time
+    private void putSplit(long offset, int nb, long x) {
+        long[] a = addresses;
+        for (int i = 0; i < nb; i++) {
+            long o = offset + (bigEndian ? nb - 1 - i : i);
+            UNSAFE.putByte(a[(int)(o >>> LOG2_CHUNK_SIZE)] + (o & (CHUNK_SIZE - 1)),
+                           (byte)x);
+            x >>>= 8;
+        }
+    }
+
+    // Returns the chunks of the region, checking that the given range lies
+    // within the region
+    private MappedByteBuffer[] checkRange(long offset, long length) {
+        MappedByteBuffer[] cs = chunks;
+        if (cs == null)
+            throw new IllegalStateException("Region has been unmapped");
+        if (offset < 0 || length < 0 || length > size - offset)
+            throw new IndexOutOfBoundsException();
+        return cs;
+    }
+
+    private void checkWritable() {
+        if (readOnly)
+            throw new ReadOnlyBufferException();
+    }
+
+    /**
+     * Absolute <i>get</i> method.  Reads the byte at the given offset.
+     *
+     * @param  offset
+     *         The offset in the region from which the byte will be read
+     *
+     * @return  The byte at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public byte get(long offset) {
+        byte y = UNSAFE.getByte(ix(offset, 1));
+        Bits.keepAlive(this);
+        return y;
+    }
+
+    /**
+     * Absolute <i>put</i> method&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> Writes the given byte into this region at the given offset.  </p>
+     *
+     * @param  offset
+     *         The offset in the region at which the byte will be written
+     *
+     * @param  value
+     *         The byte value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion put(long offset, byte value) {
+        checkWritable();
+        UNSAFE.putByte(ix(offset, 1), value);
+        Bits.keepAlive(this);
+        return this;
+    }
+
+    /**
+     * Absolute bulk <i>get</i> method.
+     *
+     * <p> This method transfers bytes from this region, starting at the
+     * given offset, into the given destination buffer.  The number of bytes
+     * transferred is the number of bytes remaining in the destination buffer,
+     * whose position is incremented by that number.  </p>
+     *
+     * @param  offset
+     *         The offset in the region of the first byte to be read
+     *
+     * @param  dst
+     *         The buffer into which bytes are to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative, or if there are fewer than
+     *          <tt>dst.remaining()</tt> bytes in the region from that offset
+     *
+     * @throws  ReadOnlyBufferException
+     *          If the destination buffer is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion get(long offset, ByteBuffer dst) {
+        int n = dst.remaining();
+        MappedByteBuffer[] cs = checkRange(offset, n);
+        while (n > 0) {
+            int pos = (int)(offset & (CHUNK_SIZE - 1));
+            int len = (int)Math.min(n, CHUNK_SIZE - pos);
+            ByteBuffer src = cs[(int)(offset >>> LOG2_CHUNK_SIZE)].duplicate();
+            src.limit(pos + len);
+            src.position(pos);
+            dst.put(src);
+            offset += len;
+            n -= len;
+        }
+        return this;
+    }
+
+    /**
+     * Absolute bulk <i>put</i> method&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> This method transfers the bytes remaining in the given source
+     * buffer into this region, starting at the given offset.  The position
+     * of the source buffer is incremented by the number of bytes
+     * transferred.  </p>
+     *
+     * @param  offset
+     *         The offset in the region at which the first byte will be
+     *         written
+     *
+     * @param  src
+     *         The buffer from which bytes are to be read
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative, or if there are fewer than
+     *          <tt>src.remaining()</tt> bytes in the region from that offset
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion put(long offset, ByteBuffer src) {
+        checkWritable();
+        int n = src.remaining();
+        MappedByteBuffer[] cs = checkRange(offset, n);
+        int lim = src.limit();
+        try {
+            while (n > 0) {
+                int pos = (int)(offset & (CHUNK_SIZE - 1));
+                int len = (int)Math.min(n, CHUNK_SIZE - pos);
+                ByteBuffer dst = cs[(int)(offset >>> LOG2_CHUNK_SIZE)].duplicate();
+                dst.position(pos);
+                src.limit(src.position() + len);
+                dst.put(src);
+                offset += len;
+                n -= len;
+            }
+        } finally {
+            src.limit(lim);
+        }
+        return this;
+    }
+
+    /**
+     * Forces any changes made to the given part of this region's content to
+     * be written to the storage device containing the mapped file.
+     *
+     * <p> If the file resides on a local storage device then when this method
+     * returns it is guaranteed that all changes made to the given part of the
+     * region since it was mapped, or since this method was last invoked for
+     * that part, will have been written to that device.  If the file does not
+     * reside on a local device then no such guarantee is made.  If this
+     * region was not mapped in {@link FileChannel.MapMode#READ_WRITE
+     * READ_WRITE} mode then invoking this method has no effect.  </p>
+     *
+     * @param  offset
+     *         The offset in the region of the first byte to be forced
+     *
+     * @param  length
+     *         The number of bytes to be forced
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> or <tt>length</tt> is negative, or if
+     *          <tt>offset + length</tt> is greater than the region's size
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion force(long offset, long length) {
+        MappedByteBuffer[] cs = checkRange(offset, length);
+        while (length > 0) {
+            int pos = (int)(offset & (CHUNK_SIZE - 1));
+            int len = (int)Math.min(length, CHUNK_SIZE - pos);
+            cs[(int)(offset >>> LOG2_CHUNK_SIZE)].force(pos, len);
+            offset += len;
+            length -= len;
+        }
+        return this;
+    }
+
+    /**
+     * Unmaps this region.
+     *
+     * <p> The address space occupied by the region is released at once,
+     * rather than when the region is garbage-collected.  Once a region has
+     * been unmapped any further attempt to access it will cause an {@link
+     * IllegalStateException} to be thrown.  If the region has already been
+     * unmapped then invoking this method has no effect.  </p>
+     *
+     * <p> The caller must ensure that no other thread is accessing the region
+     * when this method is invoked, and that no other thread accesses the
+     * region afterwards without first synchronizing with the thread that
+     * unmapped it.  Accessing memory that has been unmapped may cause the
+     * virtual machine to crash.  </p>
+     */
+    public synchronized void unmap() {
+        MappedByteBuffer[] cs = chunks;
+        if (cs == null)
+            return;
+        chunks = null;
+        addresses = null;
+        for (MappedByteBuffer chunk : cs)
+            unmap(chunk);
+    }
+
+    // -- Primitive-type accessors --
+
+    /**
+     * Absolute <i>get</i> method for reading a char value.
+     *
+     * <p> Reads two bytes at the given offset, composing them into a
+     * char value according to the current byte order.  </p>
+     *
+     * @param  offset
+     *         The offset in the region from which the bytes will be read
+     *
+     * @return  The char value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public char getChar(long offset) {
+        long a = ix(offset, 2);
+        if (a == 0L) {
+            char y = (char)getSplit(offset, 2);
+            Bits.keepAlive(this);
+            return y;
+        }
+        if (UNALIGNED) {
+            char x = UNSAFE.getChar(a);
+            char y = (nativeByteOrder ? x : Bits.swap(x));
+            Bits.keepAlive(this);
+            return y;
+        }
+        char y = Bits.getChar(a, bigEndian);
+        Bits.keepAlive(this);
+        return y;
+    }
+
+    /**
+     * Absolute <i>put</i> method for writing a char
+     * value&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> Writes two bytes containing the given char value, in the
+     * current byte order, into this region at the given offset.  </p>
+     *
+     * @param  offset
+     *         The offset in the region at which the bytes will be written
+     *
+     * @param  value
+     *         The char value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion putChar(long offset, char value) {
+        checkWritable();
+        long a = ix(offset, 2);
+        char x = value;
+        if (a == 0L) {
+            putSplit(offset, 2, x);
+        } else if (UNALIGNED) {
+            UNSAFE.putChar(a, (nativeByteOrder ? x : Bits.swap(x)));
+        } else {
+            Bits.putChar(a, x, bigEndian);
+        }
+        Bits.keepAlive(this);
+        return this;
+    }
+
+    /**
+     * Absolute <i>get</i> method for reading a short value.
+     *
+     * <p> Reads two bytes at the given offset, composing them into a
+     * short value according to the current byte order.  </p>
+     *
+     * @param  offset
+     *         The offset in the region from which the bytes will be read
+     *
+     * @return  The short value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public short getShort(long offset) {
+        long a = ix(offset, 2);
+        if (a == 0L) {
+            short y = (short)getSplit(offset, 2);
+            Bits.keepAlive(this);
+            return y;
+        }
+        if (UNALIGNED) {
+            short x = UNSAFE.getShort(a);
+            short y = (nativeByteOrder ? x : Bits.swap(x));
+            Bits.keepAlive(this);
+            return y;
+        }
+        short y = Bits.getShort(a, bigEndian);
+        Bits.keepAlive(this);
+        return y;
+    }
+
+    /**
+     * Absolute <i>put</i> method for writing a short
+     * value&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> Writes two bytes containing the given short value, in the
+     * current byte order, into this region at the given offset.  </p>
+     *
+     * @param  offset
+     *         The offset in the region at which the bytes will be written
+     *
+     * @param  value
+     *         The short value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion putShort(long offset, short value) {
+        checkWritable();
+        long a = ix(offset, 2);
+        short x = value;
+        if (a == 0L) {
+            putSplit(offset, 2, x);
+        } else if (UNALIGNED) {
+            UNSAFE.putShort(a, (nativeByteOrder ? x : Bits.swap(x)));
+        } else {
+            Bits.putShort(a, x, bigEndian);
+        }
+        Bits.keepAlive(this);
+        return this;
+    }
+
+    /**
+     * Absolute <i>get</i> method for reading an int value.
+     *
+     * <p> Reads four bytes at the given offset, composing them into a
+     * int value according to the current byte order.  </p>
+     *
+     * @param  offset
+     *         The offset in the region from which the bytes will be read
+     *
+     * @return  The int value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public int getInt(long offset) {
+        long a = ix(offset, 4);
+        if (a == 0L) {
+            int y = (int)getSplit(offset, 4);
+            Bits.keepAlive(this);
+            return y;
+        }
+        if (UNALIGNED) {
+            int x = UNSAFE.getInt(a);
+            int y = (nativeByteOrder ? x : Bits.swap(x));
+            Bits.keepAlive(this);
+            return y;
+        }
+        int y = Bits.getInt(a, bigEndian);
+        Bits.keepAlive(this);
+        return y;
+    }
+
+    /**
+     * Absolute <i>put</i> method for writing an int
+     * value&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> Writes four bytes containing the given int value, in the
+     * current byte order, into this region at the given offset.  </p>
+     *
+     * @param  offset
+     *         The offset in the region at which the bytes will be written
+     *
+     * @param  value
+     *         The int value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion putInt(long offset, int value) {
+        checkWritable();
+        long a = ix(offset, 4);
+        int x = value;
+        if (a == 0L) {
+            putSplit(offset, 4, x);
+        } else if (UNALIGNED) {
+            UNSAFE.putInt(a, (nativeByteOrder ? x : Bits.swap(x)));
+        } else {
+            Bits.putInt(a, x, bigEndian);
+        }
+        Bits.keepAlive(this);
+        return this;
+    }
+
+    /**
+     * Absolute <i>get</i> method for reading a long value.
+     *
+     * <p> Reads eight bytes at the given offset, composing them into a
+     * long value according to the current byte order.  </p>
+     *
+     * @param  offset
+     *         The offset in the region from which the bytes will be read
+     *
+     * @return  The long value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public long getLong(long offset) {
+        long a = ix(offset, 8);
+        if (a == 0L) {
+            long y = getSplit(offset, 8);
+            Bits.keepAlive(this);
+            return y;
+        }
+        if (UNALIGNED) {
+            long x = UNSAFE.getLong(a);
+            long y = (nativeByteOrder ? x : Bits.swap(x));
+            Bits.keepAlive(this);
+            return y;
+        }
+        long y = Bits.getLong(a, bigEndian);
+        Bits.keepAlive(this);
+        return y;
+    }
+
+    /**
+     * Absolute <i>put</i> method for writing a long
+     * value&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> Writes eight bytes containing the given long value, in the
+     * current byte order, into this region at the given offset.  </p>
+     *
+     * @param  offset
+     *         The offset in the region at which the bytes will be written
+     *
+     * @param  value
+     *         The long value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion putLong(long offset, long value) {
+        checkWritable();
+        long a = ix(offset, 8);
+        long x = value;
+        if (a == 0L) {
+            putSplit(offset, 8, x);
+        } else if (UNALIGNED) {
+            UNSAFE.putLong(a, (nativeByteOrder ? x : Bits.swap(x)));
+        } else {
+            Bits.putLong(a, x, bigEndian);
+        }
+        Bits.keepAlive(this);
+        return this;
+    }
+
+    /**
+     * Absolute <i>get</i> method for reading a float value.
+     *
+     * <p> Reads four bytes at the given offset, composing them into a
+     * float value according to the current byte order.  </p>
+     *
+     * @param  offset
+     *         The offset in the region from which the bytes will be read
+     *
+     * @return  The float value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public float getFloat(long offset) {
+        long a = ix(offset, 4);
+        if (a == 0L) {
+            float y = Float.intBitsToFloat((int)getSplit(offset, 4));
+            Bits.keepAlive(this);
+            return y;
+        }
+        if (UNALIGNED) {
+            int x = UNSAFE.getInt(a);
+            float y = Float.intBitsToFloat(nativeByteOrder ? x : Bits.swap(x));
+            Bits.keepAlive(this);
+            return y;
+        }
+        float y = Bits.getFloat(a, bigEndian);
+        Bits.keepAlive(this);
+        return y;
+    }
+
+    /**
+     * Absolute <i>put</i> method for writing a float
+     * value&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> Writes four bytes containing the given float value, in the
+     * current byte order, into this region at the given offset.  </p>
+     *
+     * @param  offset
+     *         The offset in the region at which the bytes will be written
+     *
+     * @param  value
+     *         The float value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion putFloat(long offset, float value) {
+        checkWritable();
+        long a = ix(offset, 4);
+        float x = value;
+        if (a == 0L) {
+            putSplit(offset, 4, Float.floatToRawIntBits(x));
+        } else if (UNALIGNED) {
+            int y = Float.floatToRawIntBits(x);
+            UNSAFE.putInt(a, (nativeByteOrder ? y : Bits.swap(y)));
+        } else {
+            Bits.putFloat(a, x, bigEndian);
+        }
+        Bits.keepAlive(this);
+        return this;
+    }
+
+    /**
+     * Absolute <i>get</i> method for reading a double value.
+     *
+     * <p> Reads eight bytes at the given offset, composing them into a
+     * double value according to the current byte order.  </p>
+     *
+     * @param  offset
+     *         The offset in the region from which the bytes will be read
+     *
+     * @return  The double value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public double getDouble(long offset) {
+        long a = ix(offset, 8);
+        if (a == 0L) {
+            double y = Double.longBitsToDouble(getSplit(offset, 8));
+            Bits.keepAlive(this);
+            return y;
+        }
+        if (UNALIGNED) {
+            long x = UNSAFE.getLong(a);
+            double y = Double.longBitsToDouble(nativeByteOrder ? x : Bits.swap(x));
+            Bits.keepAlive(this);
+            return y;
+        }
+        double y = Bits.getDouble(a, bigEndian);
+        Bits.keepAlive(this);
+        return y;
+    }
+
+    /**
+     * Absolute <i>put</i> method for writing a double
+     * value&nbsp;&nbsp;<i>(optional operation)</i>.
+     *
+     * <p> Writes eight bytes containing the given double value, in the
+     * current byte order, into this region at the given offset.  </p>
+     *
+     * @param  offset
+     *         The offset in the region at which the bytes will be written
+     *
+     * @param  value
+     *         The double value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been unmapped
+     */
+    public MappedRegion putDouble(long offset, double value) {
+        checkWritable();
+        long a = ix(offset, 8);
+        double x = value;
+        if (a == 0L) {
+            putSplit(offset, 8, Double.doubleToRawLongBits(x));
+        } else if (UNALIGNED) {
+            long y = Double.doubleToRawLongBits(x);
+            UNSAFE.putLong(a, (nativeByteOrder ? y : Bits.swap(y)));
+        } else {
+            Bits.putDouble(a, x, bigEndian);
+        }
+        Bits.keepAlive(this);
+        return this;
+    }
+
+}
@@ -0,0 +1,296 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A file-based lines spliterator, leveraging a shared file channel and
+ * memory-mapped regions of the file, for parallel streams of lines.
+ *
+ * <p>The spliterator covers a range of bytes of the file, which always starts
+ * at the beginning of a line.  It may be split only for charsets in which the
+ * encoded bytes of a line feed ('\n') and a carriage return ('\r') can never
+ * appear as part of the encoding of another character, so that a line
+ * terminator can be found by scanning the bytes of the file from any position.
+ * Splitting scans forward from the middle of the range to the end of the next
+ * line terminator, so that each half covers whole lines.
+ *
+ * <p>Lines are read by mapping successive windows of the range into memory,
+ * and decoding the bytes of each line as it is traversed.  Since a line never
+ * spans two ranges, ranges of any size, including those of files larger than
+ * can be mapped as a single buffer, may be traversed in parallel.
+ *
+ * <p>Lines are terminated as by {@link java.io.BufferedReader#readLine()}:
+ * by a line feed, a carriage return, or a carriage return followed immediately
+ * by a line feed.  As for {@code BufferedReader}, a malformed or unmappable
+ * byte sequence is reported, as an {@link UncheckedIOException}.
+ */
+final class FileChannelLinesSpliterator implements Spliterator<String> {
+
+    static final Set<String> SUPPORTED_CHARSET_NAMES;
+    static {
+        SUPPORTED_CHARSET_NAMES = new HashSet<>();
+        SUPPORTED_CHARSET_NAMES.add(StandardCharsets.UTF_8.name());
+        SUPPORTED_CHARSET_NAMES.add(StandardCharsets.ISO_8859_1.name());
+        SUPPORTED_CHARSET_NAMES.add(StandardCharsets.US_ASCII.name());
+    }
+
+    /**
+     * The initial size of each region mapped for traversal.  Regions are
+     * doubled as needed to hold a line longer than this.
+     */
+    private static final int MAP_WINDOW = 1 << 26;
+
+    /**
+     * The size of the buffer used to read bytes when looking for a line
+     * terminator at which to split.
+     */
+    private static final int SCAN_BUFFER = 1 << 13;
+
+    private final FileChannel fc;
+    private final Charset cs;
+    private long index;
+    private final long fence;
+
+    // Mapped region of the file being traversed, and its position in the file
+    private MappedByteBuffer buffer;
+    private long bufferPosition;
+
+    // Decoder for lines, created on first traversal
+    private CharsetDecoder decoder;
+
+    FileChannelLinesSpliterator(FileChannel fc, Charset cs, long index, long fence) {
+        this.fc = fc;
+        this.cs = cs;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (action == null)
+            throw new NullPointerException();
+        if (index >= fence) {
+            unmap();
+            return false;
+        }
+        action.accept(readLine());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        if (action == null)
+            throw new NullPointerException();
+        while (index < fence)
+            action.accept(readLine());
+        unmap();
+    }
+
+    /**
+     * Reads the line starting at {@code index}, and advances {@code index}
+     * past it and its terminator.
+     */
+    private String readLine() {
+        try {
+            for (int size = MAP_WINDOW;;) {
+                MappedByteBuffer b = buffer;
+                if (b == null || index < bufferPosition ||
+                    index >= bufferPosition + b.limit()) {
+                    b = map(index, size);
+                }
+                int start = (int) (index - bufferPosition);
+                int limit = b.limit();
+                boolean atFence = bufferPosition + limit == fence;
+                for (int i = start; i < limit; i++) {
+                    byte c = b.get(i);
+                    if (c == '\n' || c == '\r') {
+                        int next = i + 1;
+                        if (c == '\r') {
+                            if (next < limit) {
+                                if (b.get(next) == '\n')
+                                    next++;
+                            } else if (!atFence) {
+                                break;  // may be followed by '\n' in the file
+                            }
+                        }
+                        String line = decode(b, start, i);
+                        index = bufferPosition + next;
+                        return line;
+                    }
+                }
+                if (atFence) {
+                    String line = decode(b, start, limit);
+                    index = fence;
+                    return line;
+                }
+                // The line continues past the mapped region; map again from
+                // its start, with a larger region if it already started there
+                if (start == 0) {
+                    if (size > Integer.MAX_VALUE / 2)
+                        throw new UncheckedIOException(
+                            new IOException("Line too long"));
+                    size <<= 1;
+                }
+                unmap();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps the region of at most {@code size} bytes at the given position,
+     * but not beyond the fence, replacing any region previously mapped.
+     */
+    private MappedByteBuffer map(long position, int size) throws IOException {
+        unmap();
+        long length = Math.min((long) size, fence - position);
+        MappedByteBuffer b = fc.map(FileChannel.MapMode.READ_ONLY, position, length);
+        bufferPosition = position;
+        return buffer = b;
+    }
+
+    /**
+     * Releases the mapped region, if any.  The region is only ever accessed by
+     * the thread traversing this spliterator, and decoded lines do not refer
+     * to it, so it may be unmapped without waiting for it to be collected.
+     */
+    private void unmap() {
+        MappedByteBuffer b = buffer;
+        if (b != null) {
+            buffer = null;
+            sun.misc.Cleaner cl = ((sun.nio.ch.DirectBuffer) b).cleaner();
+            if (cl != null)
+                cl.clean();
+        }
+    }
+
+    private String decode(MappedByteBuffer b, int from, int to)
+        throws CharacterCodingException
+    {
+        if (from == to)
+            return "";
+        CharsetDecoder d = decoder;
+        if (d == null)
+            decoder = d = cs.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        ByteBuffer in = b.duplicate();
+        in.limit(to).position(from);
+        return d.decode(in).toString();
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        long lo = index, hi = fence;
+        long mid = (lo + hi) >>> 1;
+        long split;
+        try {
+            split = lineEndAtOrAfter(mid);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (split <= lo || split >= hi)
+            return null;
+
+        // The left half, covering whole lines, is returned; this spliterator
+        // is left with the lines that follow
+        index = split;
+        return new FileChannelLinesSpliterator(fc, cs, lo, split);
+    }
+
+    /**
+     * Returns the position following the first line terminator that starts
+     * at or after the given position and before the fence, or the fence if
+     * there is none.
+     */
+    private long lineEndAtOrAfter(long position) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(SCAN_BUFFER);
+        boolean sawCR = false;
+        for (long p = position; p < fence; ) {
+            b.clear();
+            if (fence - p < b.capacity())
+                b.limit((int) (fence - p));
+            int n = fc.read(b, p);
+            if (n <= 0)
+                break;  // file truncated
+            for (int i = 0; i < n; i++) {
+                byte c = b.get(i);
+                if (sawCR)
+                    return (c == '\n') ? p + i + 1 : p + i;
+                if (c == '\n')
+                    return p + i + 1;
+                sawCR = (c == '\r');
+            }
+            p += n;
+        }
+        return fence;
+    }
+
+    @Override
+    public long estimateSize() {
+        // Use the number of bytes as an estimate.
+        // We could divide by a constant that is the average number of
+        // characters per-line, but that constant will be factored out.
+        return fence - index;
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return -1;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+}
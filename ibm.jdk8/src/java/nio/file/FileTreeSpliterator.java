@@ -0,0 +1,258 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.nio.file.FileTreeWalker.Event;
+
+/**
+ * A {@code Spliterator} to traverse the nodes of a file tree.
+ *
+ * <p> When traversed sequentially the file tree is walked depth-first by a
+ * single {@link FileTreeWalker}. The spliterator splits at directory
+ * boundaries: {@link #trySplit} hands the remaining entries of the
+ * shallowest open directory to a new spliterator, and a spliterator left
+ * with a single entry opens it, if it is a directory, so that its entries
+ * can be split in turn. When the spliterator is used by a parallel stream
+ * the file attributes of the entries, and the directories below them, are
+ * thus read concurrently by the threads of the {@code ForkJoinPool} that
+ * executes the stream.
+ *
+ * <p> Entries split off are visited with the depth and ancestors of their
+ * directory, so the maximum depth and the cycle detection done when
+ * following symbolic links are the same as for a sequential walk.
+ *
+ * <pre>{@code
+ *     try (FileTreeSpliterator spliterator = new FileTreeSpliterator(start, maxDepth, options)) {
+ *         StreamSupport.stream(spliterator, true).forEach(ev -> {
+ *             Path path = ev.file();
+ *             BasicFileAttributes attrs = ev.attributes();
+ *         });
+ *     }
+ * }</pre>
+ */
+
+class FileTreeSpliterator implements Spliterator<Event>, Closeable {
+    // maximum number of entries split off a directory at a time
+    private static final int MAX_SPLIT = 1 << 10;
+
+    /**
+     * State shared by a spliterator and the spliterators split from it.
+     */
+    private static class Walk {
+        // walker from which other walkers copy their options
+        final FileTreeWalker walker;
+        // walkers with open directories
+        final Set<FileTreeWalker> open = ConcurrentHashMap.newKeySet();
+        volatile boolean closed;
+
+        Walk(FileTreeWalker walker) {
+            this.walker = walker;
+        }
+    }
+
+    private final Walk walk;
+    private FileTreeWalker walker;
+    private Event next;
+
+    // entries split off another walker, remaining in [index, fence)
+    private final FileTreeWalker.Entries entries;
+    private int index;
+    private final int fence;
+
+    /**
+     * Creates a new spliterator to walk the file tree starting at the given
+     * file.
+     *
+     * @throws  IllegalArgumentException
+     *          if {@code maxDepth} is negative
+     * @throws  IOException
+     *          if an I/O errors occurs opening the starting file
+     * @throws  SecurityException
+     *          if the security manager denies access to the starting file
+     * @throws  NullPointerException
+     *          if {@code start} or {@code options} is {@code null} or
+     *          the options array contains a {@code null} element
+     */
+    FileTreeSpliterator(Path start, int maxDepth, FileVisitOption... options)
+        throws IOException
+    {
+        this.walker = new FileTreeWalker(Arrays.asList(options), maxDepth);
+        this.walk = new Walk(walker);
+        this.next = walker.walk(start);
+        this.entries = null;
+        this.index = 0;
+        this.fence = 0;
+        assert next.type() == FileTreeWalker.EventType.ENTRY ||
+               next.type() == FileTreeWalker.EventType.START_DIRECTORY;
+
+        // IOException if there a problem accessing the starting file
+        IOException ioe = next.ioeException();
+        if (ioe != null)
+            throw ioe;
+
+        if (next.type() == FileTreeWalker.EventType.START_DIRECTORY)
+            walk.open.add(walker);
+    }
+
+    private FileTreeSpliterator(Walk walk,
+                                FileTreeWalker.Entries entries,
+                                int index,
+                                int fence)
+    {
+        this.walk = walk;
+        this.entries = entries;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    /**
+     * Starts a new walker at the next of the entries.
+     */
+    private void startWalker() {
+        List<Path> paths = entries.paths();
+        walker = new FileTreeWalker(walk.walker, entries);
+        next = walker.visitEntry(paths.get(index++));
+        if (next != null && next.type() == FileTreeWalker.EventType.START_DIRECTORY)
+            walk.open.add(walker);
+    }
+
+    private void releaseWalker() {
+        walk.open.remove(walker);
+        walker.close();
+        walker = null;
+    }
+
+    private Event nextEvent() {
+        for (;;) {
+            Event ev = next;
+            if (ev != null) {
+                next = null;
+            } else if (walker != null) {
+                ev = walker.next();
+                if (ev == null) {
+                    releaseWalker();
+                    continue;
+                }
+            } else if (index < fence) {
+                startWalker();
+                continue;
+            } else {
+                return null;
+            }
+
+            IOException ioe = ev.ioeException();
+            if (ioe != null)
+                throw new UncheckedIOException(ioe);
+
+            // END_DIRECTORY events are ignored
+            if (ev.type() != FileTreeWalker.EventType.END_DIRECTORY)
+                return ev;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Event> action) {
+        Objects.requireNonNull(action);
+        if (walk.closed)
+            throw new IllegalStateException();
+        Event ev = nextEvent();
+        if (ev == null)
+            return false;
+        action.accept(ev);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Event> trySplit() {
+        if (walk.closed)
+            return null;
+
+        // split the entries in two halves
+        int remaining = fence - index;
+        if (remaining > 1) {
+            int mid = index + (remaining >>> 1);
+            Spliterator<Event> prefix = new FileTreeSpliterator(walk, entries, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        // open the last entry so that its directory, if any, can be split
+        if (walker == null && remaining == 1)
+            startWalker();
+
+        if (walker != null) {
+            FileTreeWalker.Entries split = walker.splitEntries(MAX_SPLIT);
+            if (split != null)
+                return new FileTreeSpliterator(walk, split, 0, split.paths().size());
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.DISTINCT | Spliterator.NONNULL;
+    }
+
+    /**
+     * Closes the directories opened by this spliterator and the
+     * spliterators split from it. It is not safe to close the spliterator
+     * while it, or a spliterator split from it, is being traversed.
+     */
+    @Override
+    public void close() {
+        walk.closed = true;
+        for (FileTreeWalker w : walk.open) {
+            w.close();
+        }
+        walk.open.clear();
+    }
+}
@@ -40,8 +40,10 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import sun.nio.fs.BasicFileAttributesHolder;
 
 /**
@@ -62,6 +64,11 @@ import sun.nio.fs.BasicFileAttributesHolder;
  *     }
  * }</pre>
  *
+ * <p> A walk may be split by removing the remaining entries of a directory
+ * with {@link #splitEntries}; the entries are then visited by other walkers,
+ * possibly in other threads, created with the {@link
+ * #FileTreeWalker(FileTreeWalker,Entries)} constructor.
+ *
  * @see Files#walkFileTree
  */
 
@@ -69,6 +76,8 @@ class FileTreeWalker implements Closeable {
     private final boolean followLinks;
     private final LinkOption[] linkOptions;
     private final int maxDepth;
+    private final int baseDepth;
+    private final Ancestor ancestors;
     private final ArrayDeque<DirectoryNode> stack = new ArrayDeque<>();
     private boolean closed;
 
@@ -81,6 +90,7 @@ class FileTreeWalker implements Closeable {
         private final DirectoryStream<Path> stream;
         private final Iterator<Path> iterator;
         private boolean skipped;
+        private IOException ioe;
 
         DirectoryNode(Path dir, Object key, DirectoryStream<Path> stream) {
             this.dir = dir;
@@ -112,6 +122,54 @@ class FileTreeWalker implements Closeable {
         boolean skipped() {
             return skipped;
         }
+
+        void fail(IOException ioe) {
+            this.ioe = ioe;
+            skipped = true;
+        }
+
+        IOException ioeException() {
+            return ioe;
+        }
+    }
+
+    /**
+     * A directory that is an ancestor of the entries visited by a walker but
+     * that is not on its stack, because the walk was split at or below it.
+     */
+    static final class Ancestor {
+        final Path dir;
+        final Object key;
+        final Ancestor parent;
+
+        Ancestor(Path dir, Object key, Ancestor parent) {
+            this.dir = dir;
+            this.key = key;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * Entries of a directory that have been split off from a walk by the
+     * {@link #splitEntries} method.
+     */
+    static final class Entries {
+        private final List<Path> paths;
+        private final int depth;
+        private final Ancestor ancestors;
+
+        Entries(List<Path> paths, int depth, Ancestor ancestors) {
+            this.paths = paths;
+            this.depth = depth;
+            this.ancestors = ancestors;
+        }
+
+        /**
+         * Returns the entries, which are all in the same directory.
+         */
+        List<Path> paths() {
+            return paths;
+        }
     }
 
     /**
@@ -202,6 +260,20 @@ class FileTreeWalker implements Closeable {
         this.linkOptions = (fl) ? new LinkOption[0] :
             new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
         this.maxDepth = maxDepth;
+        this.baseDepth = 0;
+        this.ancestors = null;
+    }
+
+    /**
+     * Creates a {@code FileTreeWalker}, with the same options and maximum
+     * depth as the given walker, to visit entries split off from a walk.
+     */
+    FileTreeWalker(FileTreeWalker walker, Entries entries) {
+        this.followLinks = walker.followLinks;
+        this.linkOptions = walker.linkOptions;
+        this.maxDepth = walker.maxDepth;
+        this.baseDepth = entries.depth;
+        this.ancestors = entries.ancestors;
     }
 
     /**
@@ -245,29 +317,34 @@ class FileTreeWalker implements Closeable {
      * file system loop/cycle.
      */
     private boolean wouldLoop(Path dir, Object key) {
-        // if this directory and ancestor has a file key then we compare
-        // them; otherwise we use less efficient isSameFile test.
         for (DirectoryNode ancestor: stack) {
-            Object ancestorKey = ancestor.key();
-            if (key != null && ancestorKey != null) {
-                if (key.equals(ancestorKey)) {
-                    // cycle detected
-                    return true;
-                }
-            } else {
-                try {
-                    if (Files.isSameFile(dir, ancestor.directory())) {
-                        // cycle detected
-                        return true;
-                    }
-                } catch (IOException | SecurityException x) {
-                    // ignore
-                }
-            }
+            if (isSameDirectory(dir, key, ancestor.directory(), ancestor.key()))
+                return true;
+        }
+        for (Ancestor ancestor = ancestors; ancestor != null; ancestor = ancestor.parent) {
+            if (isSameDirectory(dir, key, ancestor.dir, ancestor.key))
+                return true;
         }
         return false;
     }
 
+    private static boolean isSameDirectory(Path dir, Object key,
+                                           Path ancestor, Object ancestorKey)
+    {
+        // if this directory and ancestor has a file key then we compare
+        // them; otherwise we use less efficient isSameFile test.
+        if (key != null && ancestorKey != null) {
+            // cycle detected if equal
+            return key.equals(ancestorKey);
+        }
+        try {
+            return Files.isSameFile(dir, ancestor);
+        } catch (IOException | SecurityException x) {
+            // ignore
+            return false;
+        }
+    }
+
     /**
      * Visits the given file, returning the {@code Event} corresponding to that
      * visit.
@@ -294,7 +371,7 @@ class FileTreeWalker implements Closeable {
         }
 
         // at maximum depth or file is not a directory
-        int depth = stack.size();
+        int depth = baseDepth + stack.size();
         if (depth >= maxDepth || !attrs.isDirectory()) {
             return new Event(EventType.ENTRY, entry, attrs);
         }
@@ -337,6 +414,20 @@ class FileTreeWalker implements Closeable {
         return ev;
     }
 
+    /**
+     * Visits an entry split off from another walk, as if it were the next
+     * entry of its directory. Returns {@code null} if the security manager
+     * denies access to the entry.
+     */
+    Event visitEntry(Path entry) {
+        if (closed)
+            throw new IllegalStateException("Closed");
+
+        return visit(entry,
+                     true,   // ignoreSecurityException
+                     true);  // canUseCached
+    }
+
     /**
      * Returns the next Event or {@code null} if there are no more events or
      * the walker is closed.
@@ -366,6 +457,8 @@ class FileTreeWalker implements Closeable {
 
             // no next entry so close and pop directory, creating corresponding event
             if (entry == null) {
+                if (ioe == null)
+                    ioe = top.ioeException();
                 try {
                     top.stream().close();
                 } catch (IOException e) {
@@ -414,6 +507,39 @@ class FileTreeWalker implements Closeable {
         }
     }
 
+    /**
+     * Removes up to {@code max} of the remaining entries of the shallowest
+     * directory on the stack that has any, so that they may be visited by
+     * other walkers instead of this one. Directories deeper in the stack,
+     * and the directory itself, remain on the stack. Returns {@code null}
+     * if no directory on the stack has any remaining entries.
+     */
+    Entries splitEntries(int max) {
+        Ancestor chain = ancestors;
+        int depth = baseDepth;
+        Iterator<DirectoryNode> nodes = stack.descendingIterator();
+        while (nodes.hasNext()) {
+            DirectoryNode node = nodes.next();
+            chain = new Ancestor(node.directory(), node.key(), chain);
+            depth++;
+            if (node.skipped())
+                continue;
+
+            List<Path> paths = new ArrayList<>();
+            Iterator<Path> iterator = node.iterator();
+            try {
+                while (paths.size() < max && iterator.hasNext())
+                    paths.add(iterator.next());
+            } catch (DirectoryIteratorException x) {
+                // reported when the directory is popped
+                node.fail(x.getCause());
+            }
+            if (!paths.isEmpty())
+                return new Entries(paths, depth, chain);
+        }
+        return null;
+    }
+
     /**
      * Returns {@code true} if the walker is open.
      */
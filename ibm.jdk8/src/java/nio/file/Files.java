@@ -2756,6 +2756,138 @@ public final class Files {
                             visitor);
     }
 
+    /**
+     * Walks a file tree in parallel.
+     *
+     * <p> This method walks a file tree rooted at a given starting file in the
+     * manner specified by the {@link #walkFileTree(Path,Set,int,FileVisitor)
+     * walkFileTree} method, except that the directories are read, the file
+     * attributes are read, and the given {@link FileVisitor} is invoked, by
+     * the threads of a {@link java.util.concurrent.ForkJoinPool ForkJoinPool}.
+     * The walk is executed in the pool of the calling thread if it is a
+     * {@link java.util.concurrent.ForkJoinTask ForkJoinTask} worker thread,
+     * or otherwise in the {@link java.util.concurrent.ForkJoinPool#commonPool()
+     * common pool}. This method returns when the walk has completed. The
+     * traversal is not depth-first, but the {@code maxDepth} parameter and
+     * the {@link FileVisitOption#FOLLOW_LINKS FOLLOW_LINKS} option, including
+     * the detection of cycles, have the same effect as for {@code
+     * walkFileTree}.
+     *
+     * <p> The visitor's methods may be invoked concurrently, so the visitor
+     * must be thread-safe. The visitor's methods are invoked in the following
+     * order:
+     * <ul>
+     *   <li> The {@link FileVisitor#preVisitDirectory preVisitDirectory} method
+     *   for a directory is invoked before the visitor's methods are invoked for
+     *   any of its entries. </li>
+     *   <li> The {@link FileVisitor#postVisitDirectory postVisitDirectory}
+     *   method for a directory is invoked after the visitor's methods for all
+     *   of its entries, and their descendants, have returned. </li>
+     *   <li> There is no ordering between the invocations of the visitor's
+     *   methods for different entries of a directory, or their descendants.
+     *   </li>
+     * </ul>
+     * The actions taken by a visitor method <i>happen-before</i> the actions
+     * of the visitor methods invoked after it in this order, and the actions
+     * of all the visitor methods <i>happen-before</i> this method returns.
+     *
+     * <p> The results of the visitor's methods have the following effect:
+     * <ul>
+     *   <li> {@link FileVisitResult#SKIP_SUBTREE SKIP_SUBTREE} from {@code
+     *   preVisitDirectory} skips the entries of the directory, as for {@code
+     *   walkFileTree}. </li>
+     *   <li> {@link FileVisitResult#SKIP_SIBLINGS SKIP_SIBLINGS} skips the
+     *   entries of the directory containing the file that have not yet been
+     *   visited; as the entries are visited concurrently, some of them may
+     *   already have been visited, or be being visited. </li>
+     *   <li> {@link FileVisitResult#TERMINATE TERMINATE} terminates the walk.
+     *   Visitor methods that have already been invoked by other threads run to
+     *   completion but no further visitor methods, including the {@code
+     *   postVisitDirectory} methods of the directories being visited, are
+     *   invoked. </li>
+     * </ul>
+     *
+     * <p> Where a visitor method terminates due an {@code IOException}, an
+     * uncaught error, or runtime exception, then the walk is terminated, as if
+     * by {@code TERMINATE}, and the error or exception is propagated to the
+     * caller of this method. If more than one visitor method terminates with
+     * an exception then the others are added to the exception that is
+     * propagated as {@linkplain Throwable#addSuppressed suppressed} exceptions.
+     * If a visitor returns a result of {@code null} then {@code
+     * NullPointerException} is thrown.
+     *
+     * @param   start
+     *          the starting file
+     * @param   options
+     *          options to configure the traversal
+     * @param   maxDepth
+     *          the maximum number of directory levels to visit
+     * @param   visitor
+     *          the thread-safe file visitor to invoke for each file
+     *
+     * @return  the starting file
+     *
+     * @throws  IllegalArgumentException
+     *          if the {@code maxDepth} parameter is negative
+     * @throws  SecurityException
+     *          If the security manager denies access to the starting file.
+     *          In the case of the default provider, the {@link
+     *          SecurityManager#checkRead(String) checkRead} method is invoked
+     *          to check read access to the directory.
+     * @throws  IOException
+     *          if an I/O error is thrown by a visitor method
+     *
+     * @see     #walkFileTree(Path,Set,int,FileVisitor)
+     * @since   1.8
+     */
+    public static Path parallelWalkFileTree(Path start,
+                                            Set<FileVisitOption> options,
+                                            int maxDepth,
+                                            FileVisitor<? super Path> visitor)
+        throws IOException
+    {
+        ParallelFileTreeWalker.walk(start, options, maxDepth, visitor);
+        return start;
+    }
+
+    /**
+     * Walks a file tree in parallel.
+     *
+     * <p> This method works as if invoking it were equivalent to evaluating the
+     * expression:
+     * <blockquote><pre>
+     * parallelWalkFileTree(start, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE, visitor)
+     * </pre></blockquote>
+     * In other words, it does not follow symbolic links, and visits all levels
+     * of the file tree.
+     *
+     * @param   start
+     *          the starting file
+     * @param   visitor
+     *          the thread-safe file visitor to invoke for each file
+     *
+     * @return  the starting file
+     *
+     * @throws  SecurityException
+     *          If the security manager denies access to the starting file.
+     *          In the case of the default provider, the {@link
+     *          SecurityManager#checkRead(String) checkRead} method is invoked
+     *          to check read access to the directory.
+     * @throws  IOException
+     *          if an I/O error is thrown by a visitor method
+     *
+     * @see     #parallelWalkFileTree(Path,Set,int,FileVisitor)
+     * @since   1.8
+     */
+    public static Path parallelWalkFileTree(Path start, FileVisitor<? super Path> visitor)
+        throws IOException
+    {
+        return parallelWalkFileTree(start,
+                                    EnumSet.noneOf(FileVisitOption.class),
+                                    Integer.MAX_VALUE,
+                                    visitor);
+    }
+
 
     // -- Utility methods for simple usages --
 
@@ -3557,6 +3689,14 @@ public final class Files {
      * UncheckedIOException} which will be thrown from the method that caused
      * the access to take place.
      *
+     * <p> If the returned stream is made {@link Stream#parallel parallel} then
+     * the file tree is split at directory boundaries and the directories are
+     * read, and the attributes of their entries are read, concurrently by the
+     * threads executing the stream pipeline. The maximum depth and, when
+     * following symbolic links, the cycle detection are as for a sequential
+     * stream, but the order in which the files are encountered is not
+     * depth-first.
+     *
      * @param   start
      *          the starting file
      * @param   maxDepth
@@ -3582,13 +3722,13 @@ public final class Files {
                                     FileVisitOption... options)
         throws IOException
     {
-        FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
+        FileTreeSpliterator spliterator = new FileTreeSpliterator(start, maxDepth, options);
         try {
-            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.DISTINCT), false)
-                                .onClose(iterator::close)
+            return StreamSupport.stream(spliterator, false)
+                                .onClose(spliterator::close)
                                 .map(entry -> entry.file());
         } catch (Error|RuntimeException e) {
-            iterator.close();
+            spliterator.close();
             throw e;
         }
     }
@@ -3664,6 +3804,14 @@ public final class Files {
      * UncheckedIOException} which will be thrown from the method that caused
      * the access to take place.
      *
+     * <p> If the returned stream is made {@link Stream#parallel parallel} then
+     * the file tree is split at directory boundaries and the directories are
+     * read, and the attributes of their entries are read, concurrently by the
+     * threads executing the stream pipeline. The maximum depth and, when
+     * following symbolic links, the cycle detection are as for a sequential
+     * stream, but the order in which the files are encountered is not
+     * depth-first.
+     *
      * @param   start
      *          the starting file
      * @param   maxDepth
@@ -3695,14 +3843,14 @@ public final class Files {
                                     FileVisitOption... options)
         throws IOException
     {
-        FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
+        FileTreeSpliterator spliterator = new FileTreeSpliterator(start, maxDepth, options);
         try {
-            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.DISTINCT), false)
-                                .onClose(iterator::close)
+            return StreamSupport.stream(spliterator, false)
+                                .onClose(spliterator::close)
                                 .filter(entry -> matcher.test(entry.file(), entry.attributes()))
                                 .map(entry -> entry.file());
         } catch (Error|RuntimeException e) {
-            iterator.close();
+            spliterator.close();
             throw e;
         }
     }
@@ -3725,12 +3873,31 @@ public final class Files {
      * place. In case an {@code IOException} is thrown when closing the file,
      * it is also wrapped as an {@code UncheckedIOException}.
      *
-     * <p> The returned stream encapsulates a {@link Reader}.  If timely
+     * <p> The returned stream contains a reference to an open file.  If timely
      * disposal of file system resources is required, the try-with-resources
      * construct should be used to ensure that the stream's
      * {@link Stream#close close} method is invoked after the stream operations
      * are completed.
      *
+     * @implNote
+     * This implementation supports good parallel stream performance for the
+     * standard charsets {@link StandardCharsets#UTF_8 UTF-8},
+     * {@link StandardCharsets#US_ASCII US-ASCII} and
+     * {@link StandardCharsets#ISO_8859_1 ISO-8859-1}, for files of the
+     * default file system.  In these <em>line-optimal</em> charsets the
+     * encoded bytes of a line feed ('\n') or a carriage return ('\r') never
+     * form part of the encoding of another character, so a line terminator
+     * can be found from any position in the file.  The stream source's
+     * spliterator then maps the file into memory, region by region, and splits
+     * by dividing its range of bytes in half at the next line terminator, so
+     * that each half covers approximately half of the lines, and decodes each
+     * line only as it is traversed.
+     *
+     * <p> For other charsets and file systems the stream source's spliterator
+     * has poor splitting properties, similar to that of a spliterator
+     * associated with an iterator or that associated with a stream returned
+     * from {@link BufferedReader#lines()}.  Poor splitting properties can
+     * result in poor parallel stream performance.
      *
      * @param   path
      *          the path to the file
@@ -3752,6 +3919,48 @@ public final class Files {
      * @since   1.8
      */
     public static Stream<String> lines(Path path, Charset cs) throws IOException {
+        // Use the splitting spliterator if the path is associated with the
+        // default file system and the charset is supported
+        if (path.getFileSystem() == FileSystems.getDefault() &&
+            FileChannelLinesSpliterator.SUPPORTED_CHARSET_NAMES.contains(cs.name())) {
+            FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+            Stream<String> lines = createFileChannelLinesStream(fc, cs);
+            if (lines != null)
+                return lines;
+            fc.close();
+        }
+        return createBufferedReaderLinesStream(path, cs);
+    }
+
+    private static Stream<String> createFileChannelLinesStream(FileChannel fc, Charset cs)
+        throws IOException
+    {
+        try {
+            // FileChannel.size() may in certain circumstances return zero
+            // for a non-zero length file, such as one that is not a regular
+            // file, so use a reader in that case
+            long length = fc.size();
+            if (length > 0) {
+                Spliterator<String> s = new FileChannelLinesSpliterator(fc, cs, 0, length);
+                return StreamSupport.stream(s, false)
+                                    .onClose(asUncheckedRunnable(fc));
+            }
+        } catch (Error|RuntimeException|IOException e) {
+            try {
+                fc.close();
+            } catch (IOException ex) {
+                try {
+                    e.addSuppressed(ex);
+                } catch (Throwable ignore) {}
+            }
+            throw e;
+        }
+        return null;
+    }
+
+    private static Stream<String> createBufferedReaderLinesStream(Path path, Charset cs)
+        throws IOException
+    {
         BufferedReader br = Files.newBufferedReader(path, cs);
         try {
             return br.lines().onClose(asUncheckedRunnable(br));
@@ -0,0 +1,283 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.IOException;
+import java.nio.file.FileTreeWalker.Event;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountedCompleter;
+
+/**
+ * Walks a file tree in parallel, invoking a {@link FileVisitor} from the
+ * threads of a {@code ForkJoinPool}.
+ *
+ * <p> A {@link DirectoryTask} reads the entries of a directory and forks an
+ * {@link EntriesTask} for each batch of entries. The {@code EntriesTask}
+ * reads the attributes of its entries and invokes the visitor; for each
+ * subdirectory whose {@code preVisitDirectory} method returns {@link
+ * FileVisitResult#CONTINUE CONTINUE} it forks a {@code DirectoryTask}. The
+ * tasks are counted completers, so a directory task completes, and the
+ * visitor's {@code postVisitDirectory} method is invoked, once all the tasks
+ * for the entries of the directory, and their descendants, have completed.
+ *
+ * <p> Each entry is visited by a {@link FileTreeWalker} created with the
+ * depth and ancestors of its directory, so the maximum depth and cycle
+ * detection are the same as for a sequential walk.
+ *
+ * @see Files#parallelWalkFileTree
+ */
+
+final class ParallelFileTreeWalker {
+    // number of entries visited by each EntriesTask
+    private static final int BATCH_SIZE = 1 << 7;
+
+    private final FileTreeWalker walker;
+    private final FileVisitor<? super Path> visitor;
+    private volatile boolean terminated;
+    private Throwable failure;   // guarded by this
+
+    private ParallelFileTreeWalker(FileTreeWalker walker,
+                                   FileVisitor<? super Path> visitor)
+    {
+        this.walker = walker;
+        this.visitor = visitor;
+    }
+
+    /**
+     * Walks the file tree rooted at the given starting file.
+     *
+     * @see Files#parallelWalkFileTree(Path,Set,int,FileVisitor)
+     */
+    static void walk(Path start,
+                     Set<FileVisitOption> options,
+                     int maxDepth,
+                     FileVisitor<? super Path> visitor)
+        throws IOException
+    {
+        Objects.requireNonNull(visitor);
+        FileTreeWalker walker = new FileTreeWalker(options, maxDepth);
+        boolean forked = false;
+        try {
+            // the starting file is visited by the caller
+            Event ev = walker.walk(start);
+            FileVisitResult result;
+            if (ev.type() == FileTreeWalker.EventType.START_DIRECTORY) {
+                result = visitor.preVisitDirectory(ev.file(), ev.attributes());
+                if (result == FileVisitResult.CONTINUE) {
+                    ParallelFileTreeWalker pw = new ParallelFileTreeWalker(walker, visitor);
+                    forked = true;
+                    pw.new DirectoryTask(null, walker, ev.file()).invoke();
+                    pw.rethrowFailure();
+                }
+            } else {
+                IOException ioe = ev.ioeException();
+                if (ioe == null) {
+                    assert ev.attributes() != null;
+                    result = visitor.visitFile(ev.file(), ev.attributes());
+                } else {
+                    result = visitor.visitFileFailed(ev.file(), ioe);
+                }
+            }
+            Objects.requireNonNull(result);
+        } finally {
+            if (!forked)
+                walker.close();
+        }
+    }
+
+    /**
+     * Stops the walk; visitor methods that are in progress are not
+     * interrupted, but no further visitor methods are invoked.
+     */
+    private void terminate() {
+        terminated = true;
+    }
+
+    /**
+     * Records an exception thrown by a visitor method, or the walk, and
+     * terminates the walk.
+     */
+    private synchronized void fail(Throwable x) {
+        if (failure == null) {
+            failure = x;
+        } else if (failure != x) {
+            failure.addSuppressed(x);
+        }
+        terminate();
+    }
+
+    private synchronized void rethrowFailure() throws IOException {
+        Throwable x = failure;
+        if (x instanceof IOException)
+            throw (IOException)x;
+        if (x instanceof RuntimeException)
+            throw (RuntimeException)x;
+        if (x instanceof Error)
+            throw (Error)x;
+        assert x == null;
+    }
+
+    /**
+     * Applies the result of a visitor method invoked for an entry of the
+     * given directory.
+     */
+    private void apply(FileVisitResult result, DirectoryTask parent) {
+        if (Objects.requireNonNull(result) == FileVisitResult.TERMINATE) {
+            terminate();
+        } else if (result == FileVisitResult.SKIP_SIBLINGS) {
+            parent.skipSiblings = true;
+        }
+    }
+
+    /**
+     * Reads the entries of a directory, which is the only directory on the
+     * stack of the task's walker, and forks a task for each batch.
+     */
+    @SuppressWarnings("serial")
+    private final class DirectoryTask extends CountedCompleter<Void> {
+        private final FileTreeWalker walker;
+        private final Path dir;
+        private IOException ioe;
+        volatile boolean skipSiblings;
+
+        DirectoryTask(CountedCompleter<?> completer, FileTreeWalker walker, Path dir) {
+            super(completer);
+            this.walker = walker;
+            this.dir = dir;
+        }
+
+        @Override
+        public void compute() {
+            try {
+                FileTreeWalker.Entries entries;
+                while (!terminated && !skipSiblings &&
+                       (entries = walker.splitEntries(BATCH_SIZE)) != null) {
+                    addToPendingCount(1);
+                    new EntriesTask(this, entries).fork();
+                }
+                if (terminated || skipSiblings)
+                    walker.skipRemainingSiblings();
+
+                // the directory is closed and popped
+                Event ev = walker.next();
+                assert ev.type() == FileTreeWalker.EventType.END_DIRECTORY;
+                ioe = ev.ioeException();
+            } catch (Throwable x) {
+                fail(x);
+            } finally {
+                walker.close();
+            }
+            tryComplete();
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (terminated)
+                return;
+            try {
+                // SKIP_SIBLINGS is a no-op for postVisitDirectory
+                FileVisitResult result = visitor.postVisitDirectory(dir, ioe);
+                if (Objects.requireNonNull(result) == FileVisitResult.TERMINATE)
+                    terminate();
+            } catch (Throwable x) {
+                fail(x);
+            }
+        }
+    }
+
+    /**
+     * Visits a batch of entries of a directory.
+     */
+    @SuppressWarnings("serial")
+    private final class EntriesTask extends CountedCompleter<Void> {
+        private final DirectoryTask parent;
+        private final FileTreeWalker.Entries entries;
+
+        EntriesTask(DirectoryTask parent, FileTreeWalker.Entries entries) {
+            super(parent);
+            this.parent = parent;
+            this.entries = entries;
+        }
+
+        @Override
+        public void compute() {
+            try {
+                for (Path entry : entries.paths()) {
+                    if (terminated || parent.skipSiblings)
+                        break;
+                    visit(entry);
+                }
+            } catch (Throwable x) {
+                fail(x);
+            }
+            tryComplete();
+        }
+
+        private void visit(Path entry) throws IOException {
+            FileTreeWalker w = new FileTreeWalker(walker, entries);
+            Event ev = w.visitEntry(entry);
+            if (ev == null)
+                return;
+
+            FileVisitResult result;
+            if (ev.type() == FileTreeWalker.EventType.START_DIRECTORY) {
+                boolean forked = false;
+                try {
+                    result = visitor.preVisitDirectory(ev.file(), ev.attributes());
+                    if (result == FileVisitResult.CONTINUE && !terminated) {
+                        addToPendingCount(1);
+                        new DirectoryTask(this, w, ev.file()).fork();
+                        forked = true;
+                    }
+                } finally {
+                    if (!forked)
+                        w.close();
+                }
+            } else {
+                IOException ioe = ev.ioeException();
+                if (ioe == null) {
+                    assert ev.attributes() != null;
+                    result = visitor.visitFile(ev.file(), ev.attributes());
+                } else {
+                    result = visitor.visitFileFailed(ev.file(), ioe);
+                }
+            }
+            apply(result, parent);
+        }
+    }
+}
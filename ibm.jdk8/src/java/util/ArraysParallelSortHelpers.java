@@ -37,6 +37,8 @@ package java.util;
 
 import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.CountedCompleter;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Helper utilities for the parallel sort methods in Arrays.parallelSort.
@@ -77,6 +79,10 @@ import java.util.concurrent.CountedCompleter;
  * The primitive class versions (FJByte... FJDouble) are
  * identical to each other except for type declarations.
  *
+ * Object leaf sorts by comparators from Comparator.comparingInt and
+ * comparingLong first order blocks of the leaf by keys extracted into
+ * primitive arrays, leaving TimSort only the merging of the blocks.
+ *
  * The base sequential sorts rely on non-public versions of TimSort,
  * ComparableTimSort, and DualPivotQuicksort sort methods that accept
  * temp workspace array slices that we will have already allocated, so
@@ -153,7 +159,7 @@ import java.util.concurrent.CountedCompleter;
                     s = new EmptyCompleter(bc);
                     n = q;
                 }
-                TimSort.sort(a, b, b + n, c, w, wb, n);
+                leafSort(a, b, n, c, w, wb);
                 s.tryComplete();
             }
         }
@@ -202,9 +208,9 @@ import java.util.concurrent.CountedCompleter;
                             break;
                         lh = ln;
                         T split = a[(rh = rn >>> 1) + rb];
-                        for (int lo = 0; lo < lh; ) {
-                            int lm = (lo + lh) >>> 1;
-                            if (c.compare(split, a[lm + lb]) <= 0)
+                        for (int lo = 0; lo < lh; ) { // left elements equal
+                            int lm = (lo + lh) >>> 1; // to split stay left
+                            if (c.compare(split, a[lm + lb]) < 0)
                                 lh = lm;
                             else
                                 lo = lm + 1;
@@ -239,6 +245,103 @@ import java.util.concurrent.CountedCompleter;
             }
 
         }
+
+        /** The number of elements presorted by extracted key at a time */
+        static final int KEY_BLOCK = 1 << 12;
+
+        /** The length of runs insertion-sorted by sortKeys */
+        static final int KEY_RUN = 1 << 5;
+
+        /** The minimum number of elements worth presorting by key */
+        static final int MIN_KEY_SORT = 1 << 8;
+
+        /**
+         * Sorts a[b, b+n) using w[wb, wb+n) as workspace.  If c compares
+         * by an extracted int or long key, each block of KEY_BLOCK
+         * elements is first stably sorted by keys extracted once per
+         * element, so that TimSort finds long runs, and invokes the
+         * comparator only to merge them.
+         */
+        static <T> void leafSort(T[] a, int b, int n, Comparator<? super T> c,
+                                 T[] w, int wb) {
+            if (n >= MIN_KEY_SORT && w != null &&
+                (c instanceof Comparators.IntKeyComparator ||
+                 c instanceof Comparators.LongKeyComparator))
+                sortKeyBlocks(a, b, n, c, w, wb);
+            TimSort.sort(a, b, b + n, c, w, wb, n);
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> void sortKeyBlocks(T[] a, int b, int n,
+                                      Comparator<? super T> c,
+                                      T[] w, int wb) {
+            ToIntFunction<? super T> ik = null;
+            ToLongFunction<? super T> lk = null;
+            if (c instanceof Comparators.IntKeyComparator)
+                ik = ((Comparators.IntKeyComparator<T>)c).keyExtractor;
+            else
+                lk = ((Comparators.LongKeyComparator<T>)c).keyExtractor;
+            int m = Math.min(n, KEY_BLOCK);
+            long[] k = new long[m], kw = new long[m];
+            int[] x = new int[m], xw = new int[m];
+            for (int lo = b, hi = b + n; lo < hi; lo += m) {
+                int len = Math.min(m, hi - lo);
+                for (int i = 0; i < len; ++i) {
+                    T t = a[lo + i];
+                    k[i] = (ik != null) ? ik.applyAsInt(t) : lk.applyAsLong(t);
+                    x[i] = i;
+                }
+                sortKeys(k, x, kw, xw, len);
+                for (int i = 0; i < len; ++i)
+                    w[wb + i] = a[lo + x[i]];
+                System.arraycopy(w, wb, a, lo, len);
+            }
+        }
+
+        /**
+         * Stably sorts k[0, n) into ascending order, permuting x[0, n)
+         * along with it, using kw and xw as workspace: insertion sorts
+         * of KEY_RUN elements, then bottom-up merges.
+         */
+        static void sortKeys(long[] k, int[] x, long[] kw, int[] xw, int n) {
+            for (int lo = 0; lo < n; lo += KEY_RUN) {
+                int hi = Math.min(lo + KEY_RUN, n);
+                for (int i = lo + 1; i < hi; ++i) {
+                    long ki = k[i]; int xi = x[i]; int j = i - 1;
+                    for (; j >= lo && k[j] > ki; --j) {
+                        k[j + 1] = k[j]; x[j + 1] = x[j];
+                    }
+                    k[j + 1] = ki; x[j + 1] = xi;
+                }
+            }
+            long[] sk = k, dk = kw; int[] sx = x, dx = xw;
+            for (int run = KEY_RUN; run < n; run <<= 1) {
+                for (int lo = 0; lo < n; lo += run << 1) {
+                    int mid = Math.min(lo + run, n), hi = Math.min(mid + run, n);
+                    int i = lo, j = mid, d = lo;
+                    while (i < mid && j < hi) {
+                        if (sk[j] < sk[i]) {
+                            dk[d] = sk[j]; dx[d++] = sx[j++];
+                        }
+                        else {
+                            dk[d] = sk[i]; dx[d++] = sx[i++];
+                        }
+                    }
+                    for (; i < mid; ++i, ++d) {
+                        dk[d] = sk[i]; dx[d] = sx[i];
+                    }
+                    for (; j < hi; ++j, ++d) {
+                        dk[d] = sk[j]; dx[d] = sx[j];
+                    }
+                }
+                long[] tk = sk; sk = dk; dk = tk;
+                int[] tx = sx; sx = dx; dx = tx;
+            }
+            if (sk != k) {
+                System.arraycopy(sk, 0, k, 0, n);
+                System.arraycopy(sx, 0, x, 0, n);
+            }
+        }
     } // FJObject
 
     /** byte support class */
@@ -0,0 +1,284 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util;
+
+import java.security.AccessController;
+
+import sun.misc.Unsafe;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * Utility methods to find the first mismatch between two arrays of a
+ * primitive type.  Elements are compared eight bytes at a time, reading
+ * words with {@code Unsafe}, on platforms that allow unaligned memory
+ * access; any remaining elements, and all elements on other platforms,
+ * are compared one at a time.
+ *
+ * <p>The methods take no locks and do no range checks; callers must check
+ * that the given ranges lie within the arrays.
+ *
+ * @since 1.8
+ */
+final class ArraysSupport {
+    private static final Unsafe U = Unsafe.getUnsafe();
+
+    private static final boolean UNALIGNED = unaligned();
+
+    private static final boolean BIG_ENDIAN
+        = U.getShort(new byte[] { 0, 1 }, (long) Unsafe.ARRAY_BYTE_BASE_OFFSET) == 1;
+
+    private static final int LOG2_ARRAY_BOOLEAN_INDEX_SCALE = 0;
+    private static final int LOG2_ARRAY_BYTE_INDEX_SCALE = 0;
+    private static final int LOG2_ARRAY_CHAR_INDEX_SCALE = 1;
+    private static final int LOG2_ARRAY_SHORT_INDEX_SCALE = 1;
+    private static final int LOG2_ARRAY_INT_INDEX_SCALE = 2;
+    private static final int LOG2_ARRAY_FLOAT_INDEX_SCALE = 2;
+    private static final int LOG2_ARRAY_LONG_INDEX_SCALE = 3;
+    private static final int LOG2_ARRAY_DOUBLE_INDEX_SCALE = 3;
+
+    private ArraysSupport() {}
+
+    /**
+     * Returns {@code true} if the platform allows longs to be read from
+     * addresses that are not eight-byte aligned.  Mirrors the test made by
+     * {@code java.nio.Bits.unaligned()}.
+     */
+    private static boolean unaligned() {
+        String arch = AccessController.doPrivileged(new GetPropertyAction("os.arch"));
+        return arch != null
+            && (arch.equals("i386") || arch.equals("x86")
+                || arch.equals("amd64") || arch.equals("x86_64")
+                || arch.equals("ppc") || arch.equals("ppc64")
+                || arch.equals("ppc64le")
+                || arch.equals("s390") || arch.equals("s390x"));
+    }
+
+    /**
+     * Compares the elements of two arrays, or two regions of memory, eight
+     * bytes at a time, stopping at the first word that differs or before a
+     * partial word at the end.
+     *
+     * @param a the first array, or {@code null} for an absolute address
+     * @param aOffset the offset of the first element to compare in {@code a}
+     * @param b the second array, or {@code null} for an absolute address
+     * @param bOffset the offset of the first element to compare in {@code b}
+     * @param length the number of elements to compare
+     * @param log2ArrayIndexScale log2 of the size in bytes of an element
+     * @return the index of the first mismatching element, if one was found;
+     *         otherwise the bitwise complement of the number of leading
+     *         elements found to be equal, which the caller should compare
+     *         individually from that index onwards
+     */
+    static int vectorizedMismatch(Object a, long aOffset,
+                                  Object b, long bOffset,
+                                  int length,
+                                  int log2ArrayIndexScale) {
+        long bytes = (long) length << log2ArrayIndexScale;
+        long wi = 0;
+        if (UNALIGNED) {
+            for (; wi <= bytes - 8; wi += 8) {
+                long av = U.getLong(a, aOffset + wi);
+                long bv = U.getLong(b, bOffset + wi);
+                if (av != bv) {
+                    long x = av ^ bv;
+                    int bit = BIG_ENDIAN
+                              ? Long.numberOfLeadingZeros(x)
+                              : Long.numberOfTrailingZeros(x);
+                    return (int) ((wi + (bit >> 3)) >> log2ArrayIndexScale);
+                }
+            }
+        }
+        return ~(int) (wi >> log2ArrayIndexScale);
+    }
+
+    // Mismatch methods for each primitive type.  Each returns the index,
+    // relative to the from indexes, of the first mismatching element within
+    // length elements of the two arrays, or -1 if there is none.
+
+    static int mismatch(boolean[] a, int aFromIndex,
+                        boolean[] b, int bFromIndex,
+                        int length) {
+        int i = vectorizedMismatch(
+                a, Unsafe.ARRAY_BOOLEAN_BASE_OFFSET + aFromIndex,
+                b, Unsafe.ARRAY_BOOLEAN_BASE_OFFSET + bFromIndex,
+                length, LOG2_ARRAY_BOOLEAN_INDEX_SCALE);
+        if (i >= 0)
+            return i;
+        for (i = ~i; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(byte[] a, int aFromIndex,
+                        byte[] b, int bFromIndex,
+                        int length) {
+        int i = vectorizedMismatch(
+                a, Unsafe.ARRAY_BYTE_BASE_OFFSET + aFromIndex,
+                b, Unsafe.ARRAY_BYTE_BASE_OFFSET + bFromIndex,
+                length, LOG2_ARRAY_BYTE_INDEX_SCALE);
+        if (i >= 0)
+            return i;
+        for (i = ~i; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(char[] a, int aFromIndex,
+                        char[] b, int bFromIndex,
+                        int length) {
+        int i = vectorizedMismatch(
+                a, Unsafe.ARRAY_CHAR_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_CHAR_INDEX_SCALE),
+                b, Unsafe.ARRAY_CHAR_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_CHAR_INDEX_SCALE),
+                length, LOG2_ARRAY_CHAR_INDEX_SCALE);
+        if (i >= 0)
+            return i;
+        for (i = ~i; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(short[] a, int aFromIndex,
+                        short[] b, int bFromIndex,
+                        int length) {
+        int i = vectorizedMismatch(
+                a, Unsafe.ARRAY_SHORT_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_SHORT_INDEX_SCALE),
+                b, Unsafe.ARRAY_SHORT_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_SHORT_INDEX_SCALE),
+                length, LOG2_ARRAY_SHORT_INDEX_SCALE);
+        if (i >= 0)
+            return i;
+        for (i = ~i; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(int[] a, int aFromIndex,
+                        int[] b, int bFromIndex,
+                        int length) {
+        int i = vectorizedMismatch(
+                a, Unsafe.ARRAY_INT_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_INT_INDEX_SCALE),
+                b, Unsafe.ARRAY_INT_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_INT_INDEX_SCALE),
+                length, LOG2_ARRAY_INT_INDEX_SCALE);
+        if (i >= 0)
+            return i;
+        for (i = ~i; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    static int mismatch(long[] a, int aFromIndex,
+                        long[] b, int bFromIndex,
+                        int length) {
+        int i = vectorizedMismatch(
+                a, Unsafe.ARRAY_LONG_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_LONG_INDEX_SCALE),
+                b, Unsafe.ARRAY_LONG_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_LONG_INDEX_SCALE),
+                length, LOG2_ARRAY_LONG_INDEX_SCALE);
+        if (i >= 0)
+            return i;
+        for (i = ~i; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Float elements are compared as if by {@link Float#floatToIntBits},
+     * as in {@link Arrays#equals(float[], float[])}: words are compared by
+     * their raw bits, and a raw mismatch between two NaNs is skipped.
+     */
+    static int mismatch(float[] a, int aFromIndex,
+                        float[] b, int bFromIndex,
+                        int length) {
+        int i = 0;
+        while (i < length) {
+            int j = vectorizedMismatch(
+                    a, Unsafe.ARRAY_FLOAT_BASE_OFFSET + ((long) (aFromIndex + i) << LOG2_ARRAY_FLOAT_INDEX_SCALE),
+                    b, Unsafe.ARRAY_FLOAT_BASE_OFFSET + ((long) (bFromIndex + i) << LOG2_ARRAY_FLOAT_INDEX_SCALE),
+                    length - i, LOG2_ARRAY_FLOAT_INDEX_SCALE);
+            if (j < 0) {
+                for (i += ~j; i < length; i++) {
+                    if (Float.floatToIntBits(a[aFromIndex + i]) != Float.floatToIntBits(b[bFromIndex + i]))
+                        return i;
+                }
+                break;
+            }
+            i += j;
+            if (!Float.isNaN(a[aFromIndex + i]) || !Float.isNaN(b[bFromIndex + i]))
+                return i;
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Double elements are compared as if by {@link Double#doubleToLongBits},
+     * as in {@link Arrays#equals(double[], double[])}: words are compared by
+     * their raw bits, and a raw mismatch between two NaNs is skipped.
+     */
+    static int mismatch(double[] a, int aFromIndex,
+                        double[] b, int bFromIndex,
+                        int length) {
+        int i = 0;
+        while (i < length) {
+            int j = vectorizedMismatch(
+                    a, Unsafe.ARRAY_DOUBLE_BASE_OFFSET + ((long) (aFromIndex + i) << LOG2_ARRAY_DOUBLE_INDEX_SCALE),
+                    b, Unsafe.ARRAY_DOUBLE_BASE_OFFSET + ((long) (bFromIndex + i) << LOG2_ARRAY_DOUBLE_INDEX_SCALE),
+                    length - i, LOG2_ARRAY_DOUBLE_INDEX_SCALE);
+            if (j < 0) {
+                for (i += ~j; i < length; i++) {
+                    if (Double.doubleToLongBits(a[aFromIndex + i]) != Double.doubleToLongBits(b[bFromIndex + i]))
+                        return i;
+                }
+                break;
+            }
+            i += j;
+            if (!Double.isNaN(a[aFromIndex + i]) || !Double.isNaN(b[bFromIndex + i]))
+                return i;
+            i++;
+        }
+        return -1;
+    }
+}
@@ -497,8 +497,7 @@ public interface Comparator<T> {
      */
     public static <T> Comparator<T> comparingInt(ToIntFunction<? super T> keyExtractor) {
         Objects.requireNonNull(keyExtractor);
-        return (Comparator<T> & Serializable)
-            (c1, c2) -> Integer.compare(keyExtractor.applyAsInt(c1), keyExtractor.applyAsInt(c2));
+        return new Comparators.IntKeyComparator<>(keyExtractor);
     }
 
     /**
@@ -518,8 +517,7 @@ public interface Comparator<T> {
      */
     public static <T> Comparator<T> comparingLong(ToLongFunction<? super T> keyExtractor) {
         Objects.requireNonNull(keyExtractor);
-        return (Comparator<T> & Serializable)
-            (c1, c2) -> Long.compare(keyExtractor.applyAsLong(c1), keyExtractor.applyAsLong(c2));
+        return new Comparators.LongKeyComparator<>(keyExtractor);
     }
 
     /**
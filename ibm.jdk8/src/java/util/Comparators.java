@@ -106,4 +106,42 @@ class Comparators {
             return new NullComparator<>(!nullFirst, real == null ? null : real.reversed());
         }
     }
+
+    /**
+     * Compares objects by an extracted {@code int} key.  Sorting methods
+     * recognize this class, and may extract each key once rather than
+     * on every comparison.
+     */
+    final static class IntKeyComparator<T> implements Comparator<T>, Serializable {
+        private static final long serialVersionUID = 6412961438215493286L;
+        final ToIntFunction<? super T> keyExtractor;
+
+        IntKeyComparator(ToIntFunction<? super T> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+        }
+
+        @Override
+        public int compare(T c1, T c2) {
+            return Integer.compare(keyExtractor.applyAsInt(c1), keyExtractor.applyAsInt(c2));
+        }
+    }
+
+    /**
+     * Compares objects by an extracted {@code long} key.  Sorting methods
+     * recognize this class, and may extract each key once rather than
+     * on every comparison.
+     */
+    final static class LongKeyComparator<T> implements Comparator<T>, Serializable {
+        private static final long serialVersionUID = -2894538816724603115L;
+        final ToLongFunction<? super T> keyExtractor;
+
+        LongKeyComparator(ToLongFunction<? super T> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+        }
+
+        @Override
+        public int compare(T c1, T c2) {
+            return Long.compare(keyExtractor.applyAsLong(c1), keyExtractor.applyAsLong(c2));
+        }
+    }
 }
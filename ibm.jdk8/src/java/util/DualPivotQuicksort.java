@@ -100,6 +100,35 @@ final class DualPivotQuicksort {
      */
     private static final int COUNTING_SORT_THRESHOLD_FOR_SHORT_OR_CHAR = 3200;
 
+    /**
+     * If the length of an int or float array to be sorted, which is not
+     * highly structured, is at least this constant, radix sort is used
+     * in preference to Quicksort.
+     */
+    private static final int RADIX_SORT_THRESHOLD_FOR_INT_OR_FLOAT = 1 << 10;
+
+    /**
+     * If the length of a long or double array to be sorted, which is not
+     * highly structured, is at least this constant, radix sort is used
+     * in preference to Quicksort.
+     */
+    private static final int RADIX_SORT_THRESHOLD_FOR_LONG_OR_DOUBLE = 1 << 11;
+
+    /**
+     * The number of bits in each digit of a radix sort.
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * Radix sort needs a workspace as large as the range being sorted.
+     * If the caller supplies no workspace slice that large, radix sort
+     * allocates one only for ranges of at most this many elements;
+     * larger ranges are sorted in place by Quicksort instead, so that
+     * sorting a large array does not need a second array of the same
+     * size.
+     */
+    private static final int MAX_RADIX_SORT_ALLOCATION = 1 << 20;
+
     /*
      * Sorting methods for seven primitive types.
      */
@@ -142,7 +171,7 @@ final class DualPivotQuicksort {
             } else { // equal
                 for (int m = MAX_RUN_LENGTH; ++k <= right && a[k - 1] == a[k]; ) {
                     if (--m == 0) {
-                        sort(a, left, right, true);
+                        sortUnstructured(a, left, right, work, workBase, workLen);
                         return;
                     }
                 }
@@ -153,7 +182,7 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                sortUnstructured(a, left, right, work, workBase, workLen);
                 return;
             }
         }
@@ -214,6 +243,85 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array, which is not highly
+     * structured, by radix sort if it is large enough, else by
+     * Dual-Pivot Quicksort.  Radix sort is only used if the workspace
+     * slice can hold the range, or if the range is small enough for
+     * radix sort to allocate its own workspace.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void sortUnstructured(int[] a, int left, int right,
+                                         int[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (n <= RADIX_SORT_THRESHOLD_FOR_INT_OR_FLOAT ||
+            n > MAX_RADIX_SORT_ALLOCATION &&
+            (work == null || workLen < n || workBase + n > work.length)) {
+            sort(a, left, right, true);
+        } else {
+            radixSort(a, left, right, work, workBase, workLen);
+        }
+    }
+
+    /**
+     * Sorts the specified range of the array by least significant
+     * digit radix sort of the values with their sign bit flipped, so
+     * that negative values order first.  All digit counts are gathered
+     * in a single pass, and digits in which all elements agree are
+     * skipped.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(int[] a, int left, int right,
+                                  int[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (work == null || workLen < n || workBase + n > work.length) {
+            work = new int[n];
+            workBase = 0;
+        }
+        int radix = 1 << RADIX_BITS, mask = radix - 1;
+        int[] count = new int[4 << RADIX_BITS];
+        for (int i = left; i <= right; ++i) {
+            int k = a[i] ^ Integer.MIN_VALUE;
+            for (int d = 0; d < 4; ++d) {
+                ++count[(d << RADIX_BITS) + ((k >>> (d * RADIX_BITS)) & mask)];
+            }
+        }
+        int[] src = a, dst = work;
+        int srcBase = left, dstBase = workBase;
+        for (int d = 0; d < 4; ++d) {
+            int shift = d * RADIX_BITS, c = d << RADIX_BITS;
+            int k0 = src[srcBase] ^ Integer.MIN_VALUE;
+            if (count[c + ((k0 >>> shift) & mask)] == n) {
+                continue; // all elements have the same digit
+            }
+            for (int i = c, sum = dstBase; i < c + radix; ++i) {
+                int t = count[i]; count[i] = sum; sum += t;
+            }
+            for (int i = srcBase, end = srcBase + n; i < end; ++i) {
+                int v = src[i];
+                int k = v ^ Integer.MIN_VALUE;
+                dst[count[c + ((k >>> shift) & mask)]++] = v;
+            }
+            int[] t = src; src = dst; dst = t;
+            int o = srcBase; srcBase = dstBase; dstBase = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcBase, a, left, n);
+        }
+    }
+
     /**
      * Sorts the specified range of the array by Dual-Pivot Quicksort.
      *
@@ -590,7 +698,7 @@ final class DualPivotQuicksort {
             } else { // equal
                 for (int m = MAX_RUN_LENGTH; ++k <= right && a[k - 1] == a[k]; ) {
                     if (--m == 0) {
-                        sort(a, left, right, true);
+                        sortUnstructured(a, left, right, work, workBase, workLen);
                         return;
                     }
                 }
@@ -601,7 +709,7 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                sortUnstructured(a, left, right, work, workBase, workLen);
                 return;
             }
         }
@@ -662,6 +770,85 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array, which is not highly
+     * structured, by radix sort if it is large enough, else by
+     * Dual-Pivot Quicksort.  Radix sort is only used if the workspace
+     * slice can hold the range, or if the range is small enough for
+     * radix sort to allocate its own workspace.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void sortUnstructured(long[] a, int left, int right,
+                                         long[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (n <= RADIX_SORT_THRESHOLD_FOR_LONG_OR_DOUBLE ||
+            n > MAX_RADIX_SORT_ALLOCATION &&
+            (work == null || workLen < n || workBase + n > work.length)) {
+            sort(a, left, right, true);
+        } else {
+            radixSort(a, left, right, work, workBase, workLen);
+        }
+    }
+
+    /**
+     * Sorts the specified range of the array by least significant
+     * digit radix sort of the values with their sign bit flipped, so
+     * that negative values order first.  All digit counts are gathered
+     * in a single pass, and digits in which all elements agree are
+     * skipped.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(long[] a, int left, int right,
+                                  long[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (work == null || workLen < n || workBase + n > work.length) {
+            work = new long[n];
+            workBase = 0;
+        }
+        int radix = 1 << RADIX_BITS, mask = radix - 1;
+        int[] count = new int[8 << RADIX_BITS];
+        for (int i = left; i <= right; ++i) {
+            long k = a[i] ^ Long.MIN_VALUE;
+            for (int d = 0; d < 8; ++d) {
+                ++count[(d << RADIX_BITS) + (int) ((k >>> (d * RADIX_BITS)) & mask)];
+            }
+        }
+        long[] src = a, dst = work;
+        int srcBase = left, dstBase = workBase;
+        for (int d = 0; d < 8; ++d) {
+            int shift = d * RADIX_BITS, c = d << RADIX_BITS;
+            long k0 = src[srcBase] ^ Long.MIN_VALUE;
+            if (count[c + (int) ((k0 >>> shift) & mask)] == n) {
+                continue; // all elements have the same digit
+            }
+            for (int i = c, sum = dstBase; i < c + radix; ++i) {
+                int t = count[i]; count[i] = sum; sum += t;
+            }
+            for (int i = srcBase, end = srcBase + n; i < end; ++i) {
+                long v = src[i];
+                long k = v ^ Long.MIN_VALUE;
+                dst[count[c + (int) ((k >>> shift) & mask)]++] = v;
+            }
+            long[] t = src; src = dst; dst = t;
+            int o = srcBase; srcBase = dstBase; dstBase = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcBase, a, left, n);
+        }
+    }
+
     /**
      * Sorts the specified range of the array by Dual-Pivot Quicksort.
      *
@@ -2138,7 +2325,7 @@ final class DualPivotQuicksort {
             } else { // equal
                 for (int m = MAX_RUN_LENGTH; ++k <= right && a[k - 1] == a[k]; ) {
                     if (--m == 0) {
-                        sort(a, left, right, true);
+                        sortUnstructured(a, left, right, work, workBase, workLen);
                         return;
                     }
                 }
@@ -2149,7 +2336,7 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                sortUnstructured(a, left, right, work, workBase, workLen);
                 return;
             }
         }
@@ -2210,6 +2397,89 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array, which is not highly
+     * structured, by radix sort if it is large enough, else by
+     * Dual-Pivot Quicksort.  Radix sort is only used if the workspace
+     * slice can hold the range, or if the range is small enough for
+     * radix sort to allocate its own workspace.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void sortUnstructured(float[] a, int left, int right,
+                                         float[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (n <= RADIX_SORT_THRESHOLD_FOR_INT_OR_FLOAT ||
+            n > MAX_RADIX_SORT_ALLOCATION &&
+            (work == null || workLen < n || workBase + n > work.length)) {
+            sort(a, left, right, true);
+        } else {
+            radixSort(a, left, right, work, workBase, workLen);
+        }
+    }
+
+    /**
+     * Sorts the specified range of the array, which must not contain
+     * NaNs, by least significant digit radix sort of the raw bits of
+     * the values, with the sign bit of positive values and all bits of
+     * negative values flipped, so that they order as the values do,
+     * with -0.0 before 0.0.  All digit counts are gathered in a single
+     * pass, and digits in which all elements agree are skipped.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(float[] a, int left, int right,
+                                  float[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (work == null || workLen < n || workBase + n > work.length) {
+            work = new float[n];
+            workBase = 0;
+        }
+        int radix = 1 << RADIX_BITS, mask = radix - 1;
+        int[] count = new int[4 << RADIX_BITS];
+        for (int i = left; i <= right; ++i) {
+            int k = Float.floatToRawIntBits(a[i]);
+            k ^= (k >> 31) | Integer.MIN_VALUE;
+            for (int d = 0; d < 4; ++d) {
+                ++count[(d << RADIX_BITS) + ((k >>> (d * RADIX_BITS)) & mask)];
+            }
+        }
+        float[] src = a, dst = work;
+        int srcBase = left, dstBase = workBase;
+        for (int d = 0; d < 4; ++d) {
+            int shift = d * RADIX_BITS, c = d << RADIX_BITS;
+            int k0 = Float.floatToRawIntBits(src[srcBase]);
+            k0 ^= (k0 >> 31) | Integer.MIN_VALUE;
+            if (count[c + ((k0 >>> shift) & mask)] == n) {
+                continue; // all elements have the same digit
+            }
+            for (int i = c, sum = dstBase; i < c + radix; ++i) {
+                int t = count[i]; count[i] = sum; sum += t;
+            }
+            for (int i = srcBase, end = srcBase + n; i < end; ++i) {
+                float v = src[i];
+                int k = Float.floatToRawIntBits(v);
+                k ^= (k >> 31) | Integer.MIN_VALUE;
+                dst[count[c + ((k >>> shift) & mask)]++] = v;
+            }
+            float[] t = src; src = dst; dst = t;
+            int o = srcBase; srcBase = dstBase; dstBase = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcBase, a, left, n);
+        }
+    }
+
     /**
      * Sorts the specified range of the array by Dual-Pivot Quicksort.
      *
@@ -2677,7 +2947,7 @@ final class DualPivotQuicksort {
             } else { // equal
                 for (int m = MAX_RUN_LENGTH; ++k <= right && a[k - 1] == a[k]; ) {
                     if (--m == 0) {
-                        sort(a, left, right, true);
+                        sortUnstructured(a, left, right, work, workBase, workLen);
                         return;
                     }
                 }
@@ -2688,7 +2958,7 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                sortUnstructured(a, left, right, work, workBase, workLen);
                 return;
             }
         }
@@ -2749,6 +3019,89 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array, which is not highly
+     * structured, by radix sort if it is large enough, else by
+     * Dual-Pivot Quicksort.  Radix sort is only used if the workspace
+     * slice can hold the range, or if the range is small enough for
+     * radix sort to allocate its own workspace.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void sortUnstructured(double[] a, int left, int right,
+                                         double[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (n <= RADIX_SORT_THRESHOLD_FOR_LONG_OR_DOUBLE ||
+            n > MAX_RADIX_SORT_ALLOCATION &&
+            (work == null || workLen < n || workBase + n > work.length)) {
+            sort(a, left, right, true);
+        } else {
+            radixSort(a, left, right, work, workBase, workLen);
+        }
+    }
+
+    /**
+     * Sorts the specified range of the array, which must not contain
+     * NaNs, by least significant digit radix sort of the raw bits of
+     * the values, with the sign bit of positive values and all bits of
+     * negative values flipped, so that they order as the values do,
+     * with -0.0 before 0.0.  All digit counts are gathered in a single
+     * pass, and digits in which all elements agree are skipped.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(double[] a, int left, int right,
+                                  double[] work, int workBase, int workLen) {
+        int n = right - left + 1;
+        if (work == null || workLen < n || workBase + n > work.length) {
+            work = new double[n];
+            workBase = 0;
+        }
+        int radix = 1 << RADIX_BITS, mask = radix - 1;
+        int[] count = new int[8 << RADIX_BITS];
+        for (int i = left; i <= right; ++i) {
+            long k = Double.doubleToRawLongBits(a[i]);
+            k ^= (k >> 63) | Long.MIN_VALUE;
+            for (int d = 0; d < 8; ++d) {
+                ++count[(d << RADIX_BITS) + (int) ((k >>> (d * RADIX_BITS)) & mask)];
+            }
+        }
+        double[] src = a, dst = work;
+        int srcBase = left, dstBase = workBase;
+        for (int d = 0; d < 8; ++d) {
+            int shift = d * RADIX_BITS, c = d << RADIX_BITS;
+            long k0 = Double.doubleToRawLongBits(src[srcBase]);
+            k0 ^= (k0 >> 63) | Long.MIN_VALUE;
+            if (count[c + (int) ((k0 >>> shift) & mask)] == n) {
+                continue; // all elements have the same digit
+            }
+            for (int i = c, sum = dstBase; i < c + radix; ++i) {
+                int t = count[i]; count[i] = sum; sum += t;
+            }
+            for (int i = srcBase, end = srcBase + n; i < end; ++i) {
+                double v = src[i];
+                long k = Double.doubleToRawLongBits(v);
+                k ^= (k >> 63) | Long.MIN_VALUE;
+                dst[count[c + (int) ((k >>> shift) & mask)]++] = v;
+            }
+            double[] t = src; src = dst; dst = t;
+            int o = srcBase; srcBase = dstBase; dstBase = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcBase, a, left, n);
+        }
+    }
+
     /**
      * Sorts the specified range of the array by Dual-Pivot Quicksort.
      *
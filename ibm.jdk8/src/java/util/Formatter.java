@@ -2503,15 +2503,49 @@ public final class Formatter implements Closeable, Flushable {
      */
     public Formatter format(Locale l, String format, Object ... args) {
         ensureOpen();
+        return format(l, FormatTemplate.cached(format).fsa, args);
+    }
 
+    /**
+     * Compiles the given format string into a reusable template.
+     *
+     * <p> Formatting with the returned template gives the same result as
+     * passing the format string to {@link #format(Locale,String,Object...)
+     * format}, but the format string is parsed and checked only once, here,
+     * rather than on each invocation.  Templates are immutable and may be
+     * shared by concurrent threads.
+     *
+     * @param  format
+     *         A format string as described in <a href="#syntax">Format string
+     *         syntax</a>
+     *
+     * @throws  IllegalFormatException
+     *          If the format string contains an illegal syntax, or a format
+     *          specifier with an illegal combination of flags, width,
+     *          precision and conversion.  For specification of all possible
+     *          formatting errors, see the <a href="#detail">Details</a>
+     *          section of the formatter class specification.
+     *
+     * @return  A template for the format string
+     *
+     * @since 1.8
+     */
+    public static FormatTemplate compile(String format) {
+        return new FormatTemplate(format);
+    }
+
+    /**
+     * Writes to this object's destination using parsed format specifiers,
+     * binding a copy of each specifier to this formatter.
+     */
+    private Formatter format(Locale l, FormatString[] fsa, Object ... args) {
         // index of last argument referenced
         int last = -1;
         // last ordinary index
         int lasto = -1;
 
-        FormatString[] fsa = parse(format);
         for (int i = 0; i < fsa.length; i++) {
-            FormatString fs = fsa[i];
+            FormatString fs = fsa[i].bind(this);
             int index = fs.index();
             try {
                 switch (index) {
@@ -2595,6 +2629,7 @@ public final class Formatter implements Closeable, Flushable {
     private interface FormatString {
         int index();
         void print(Object arg, Locale l) throws IOException;
+        FormatString bind(Formatter fmt);
         String toString();
     }
 
@@ -2604,6 +2639,9 @@ public final class Formatter implements Closeable, Flushable {
         public int index() { return -2; }
         public void print(Object arg, Locale l)
             throws IOException { a.append(s); }
+        public FormatString bind(Formatter fmt) {
+            return (fmt == Formatter.this) ? this : fmt.new FixedString(s);
+        }
         public String toString() { return s; }
     }
 
@@ -2622,6 +2660,202 @@ public final class Formatter implements Closeable, Flushable {
         DECIMAL_FLOAT
     };
 
+    /**
+     * A compiled format string.  A template is created by {@link
+     * Formatter#compile(String)}, which parses and checks the format string
+     * once; formatting with the template then writes the formatted arguments
+     * without parsing the format string again.  Templates are immutable and
+     * may be used by multiple concurrent threads.
+     *
+     * <p> Formatting with a template is equivalent to invoking {@link
+     * Formatter#format(Locale,String,Object...) format} with the template's
+     * format string on a new formatter for the given destination and locale,
+     * and throws the same exceptions for arguments that are missing or
+     * incompatible with their format specifiers.
+     *
+     * <pre>
+     *   Formatter.FormatTemplate t = Formatter.compile("%-10s %5d%n");
+     *   StringBuilder sb = new StringBuilder();
+     *   for (Item i : items)
+     *       t.formatTo(sb, i.name(), i.count());
+     * </pre>
+     *
+     * @see Formatter#compile(String)
+     * @since 1.8
+     */
+    public static final class FormatTemplate {
+        // Number of templates kept by cached(); a power of two
+        private static final int CACHE_SIZE = 64;
+
+        // Longest format string kept by cached()
+        private static final int MAX_CACHED_LENGTH = 1 << 10;
+
+        /*
+         * Templates for format strings recently passed to format(), which
+         * backs String.format and PrintStream.printf.  The cache is direct
+         * mapped by hash code, so a lookup is one probe and an entry is simply
+         * overwritten on collision.  Entries are read and written without
+         * synchronization, which is safe since a template, its specifiers and
+         * their flags are all reached through final fields and never modified
+         * after construction.
+         */
+        private static final FormatTemplate[] cache = new FormatTemplate[CACHE_SIZE];
+
+        private final String format;
+
+        // Parsed specifiers, bound to a formatter used only for parsing, and
+        // copied to the formatter doing the printing on each use
+        private final FormatString[] fsa;
+
+        private FormatTemplate(String format) {
+            this.format = format;
+            this.fsa = new Formatter((Locale) null, (Appendable) null).parse(format);
+        }
+
+        /**
+         * Returns a template for the given format string, reusing a recently
+         * compiled one if possible.
+         */
+        static FormatTemplate cached(String format) {
+            if (format.length() > MAX_CACHED_LENGTH)
+                return new FormatTemplate(format);
+            FormatTemplate[] c = cache;
+            int i = format.hashCode() & (CACHE_SIZE - 1);
+            FormatTemplate t = c[i];
+            if (t == null || !t.format.equals(format))
+                c[i] = t = new FormatTemplate(format);
+            return t;
+        }
+
+        /**
+         * Returns a formatted string using this template, the specified
+         * arguments, and the default locale for formatting.
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in this
+         *         template.  If there are more arguments than format
+         *         specifiers, the extra arguments are ignored.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, insufficient arguments are given, or other
+         *          illegal conditions.
+         *
+         * @return  A formatted string
+         *
+         * @see  java.lang.String#format(String,Object...)
+         */
+        public String format(Object ... args) {
+            return format(Locale.getDefault(Locale.Category.FORMAT), args);
+        }
+
+        /**
+         * Returns a formatted string using this template, the specified
+         * locale, and arguments.
+         *
+         * @param  l
+         *         The {@linkplain java.util.Locale locale} to apply during
+         *         formatting.  If {@code l} is {@code null} then no
+         *         localization is applied.
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in this
+         *         template.  If there are more arguments than format
+         *         specifiers, the extra arguments are ignored.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, insufficient arguments are given, or other
+         *          illegal conditions.
+         *
+         * @return  A formatted string
+         *
+         * @see  java.lang.String#format(Locale,String,Object...)
+         */
+        public String format(Locale l, Object ... args) {
+            StringBuilder sb = new StringBuilder();
+            new Formatter(l, sb).format(l, fsa, args);
+            return sb.toString();
+        }
+
+        /**
+         * Appends to the given string builder the arguments formatted using
+         * this template and the default locale for formatting.
+         *
+         * @param  sb
+         *         The destination for the formatted output
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in this
+         *         template.  If there are more arguments than format
+         *         specifiers, the extra arguments are ignored.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, insufficient arguments are given, or other
+         *          illegal conditions.
+         *
+         * @return  The given string builder
+         */
+        public StringBuilder formatTo(StringBuilder sb, Object ... args) {
+            Locale l = Locale.getDefault(Locale.Category.FORMAT);
+            new Formatter(l, Objects.requireNonNull(sb)).format(l, fsa, args);
+            return sb;
+        }
+
+        /**
+         * Appends to the given destination the arguments formatted using
+         * this template and the specified locale.
+         *
+         * <p> Unlike {@link Formatter#format(Locale,String,Object...)
+         * Formatter.format}, which records an {@code IOException} thrown by
+         * its destination for later retrieval by {@link
+         * Formatter#ioException()}, this method stops formatting and throws
+         * the exception.
+         *
+         * @param  l
+         *         The {@linkplain java.util.Locale locale} to apply during
+         *         formatting.  If {@code l} is {@code null} then no
+         *         localization is applied.
+         *
+         * @param  a
+         *         The destination for the formatted output
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in this
+         *         template.  If there are more arguments than format
+         *         specifiers, the extra arguments are ignored.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, insufficient arguments are given, or other
+         *          illegal conditions.
+         *
+         * @throws  IOException
+         *          If the destination throws an {@code IOException}
+         *
+         * @return  The given destination
+         */
+        public Appendable formatTo(Locale l, Appendable a, Object ... args)
+            throws IOException
+        {
+            Formatter fmt = new Formatter(l, Objects.requireNonNull(a));
+            fmt.format(l, fsa, args);
+            if (fmt.lastException != null)
+                throw fmt.lastException;
+            return a;
+        }
+
+        /**
+         * Returns the format string this template was compiled from.
+         *
+         * @return  The format string
+         */
+        public String toString() {
+            return format;
+        }
+    }
+
     private class FormatSpecifier implements FormatString {
         private int index = -1;
         private Flags f = Flags.NONE;
@@ -2713,6 +2947,19 @@ public final class Formatter implements Closeable, Flushable {
             return c;
         }
 
+        FormatSpecifier(FormatSpecifier fs) {
+            index = fs.index;
+            f = fs.f;
+            width = fs.width;
+            precision = fs.precision;
+            dt = fs.dt;
+            c = fs.c;
+        }
+
+        public FormatString bind(Formatter fmt) {
+            return (fmt == Formatter.this) ? this : fmt.new FormatSpecifier(this);
+        }
+
         FormatSpecifier(Matcher m) {
             int idx = 1;
 
@@ -0,0 +1,1124 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Hash table mapping primitive {@code int} keys to object values.  Unlike
+ * a {@code HashMap<Integer,V>}, this class stores neither boxed keys nor
+ * per-mapping entry objects: keys and values are held in two parallel
+ * arrays indexed by an open-addressing (linear probing) hash table.  All
+ * {@code int} values, including zero, are permitted as keys, and
+ * {@code null} is permitted as a value.  This class makes no guarantees as
+ * to the order of the map; in particular, it does not guarantee that the
+ * order will remain constant over time.
+ *
+ * <p>As with {@code HashMap}, a return value of {@code null} from
+ * {@link #get get} does not <i>necessarily</i> indicate that the map
+ * contains no mapping for the key; it's also possible that the map
+ * explicitly maps the key to {@code null}.  The {@link #containsKey
+ * containsKey} operation may be used to distinguish these two cases.
+ *
+ * <p>This implementation provides constant-time performance for the basic
+ * operations ({@code get} and {@code put}), assuming the hash function
+ * disperses the keys properly among the slots of the table.  Iteration
+ * requires time proportional to the capacity of the map plus its size.
+ * The <i>initial capacity</i> and <i>load factor</i> parameters have the
+ * same meaning as for {@link LongHashMap}; in particular the load factor
+ * must be strictly less than one.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a map concurrently, and at least one of the
+ * threads modifies the map structurally, it <i>must</i> be synchronized
+ * externally.
+ *
+ * <p>The iterators and spliterators returned by this class are
+ * <i>fail-fast</i> and the spliterators <em>late-binding</em>, in exactly
+ * the sense of those of {@link HashMap}.
+ *
+ * @param <V> the type of mapped values
+ *
+ * @see HashMap
+ * @see LongHashMap
+ * @see LongObjectMap
+ * @since 1.8
+ */
+public class IntHashMap<V> implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = -6906458101734917734L;
+
+    /*
+     * Implementation notes.
+     *
+     * The table layout, removal by backward shifting, and iteration
+     * order are the same as in LongHashMap (with int rather than long
+     * keys); see the notes there.
+     * Values of free slots are kept null so as not to retain garbage.
+     */
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified
+     * by either of the constructors with arguments.
+     * MUST be a power of two <= 1<<30.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * The keys, of length capacity + 1.  Slot capacity is reserved
+     * for the key 0.
+     */
+    transient int[] keys;
+
+    /**
+     * The values, parallel to keys.
+     */
+    transient Object[] vals;
+
+    /**
+     * Whether the key 0 is mapped (in slot keys.length - 1).
+     */
+    transient boolean containsZeroKey;
+
+    /**
+     * Capacity - 1, used to mask hashes into the table.
+     */
+    transient int mask;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     * This field is used to make iterators and spliterators fail-fast.
+     */
+    transient int modCount;
+
+    /**
+     * The size at which the table is next resized.
+     */
+    transient int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty {@code IntHashMap} with the specified initial
+     * capacity and load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not strictly between zero and one
+     */
+    public IntHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor(initialCapacity, loadFactor));
+    }
+
+    /**
+     * Constructs an empty {@code IntHashMap} with the specified initial
+     * capacity and the default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public IntHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code IntHashMap} with the default initial
+     * capacity (16) and the default load factor (0.75).
+     */
+    public IntHashMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        allocate(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@code IntHashMap} with the same mappings as the
+     * specified {@code IntHashMap}, using the default load factor and a
+     * capacity sufficient to hold those mappings.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public IntHashMap(IntHashMap<? extends V> m) {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        allocate(LongHashMap.tableSizeFor(m.size, DEFAULT_LOAD_FACTOR));
+        putAll(m);
+    }
+
+    /* ---------------- Static utilities -------------- */
+
+    /**
+     * Spreads the bits of a key so that its low-order bits, which
+     * select the slot, depend on all of the key's bits.
+     */
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int tableSizeFor(int expected, float loadFactor) {
+        return LongHashMap.tableSizeFor(expected, loadFactor);
+    }
+
+    /**
+     * Creates empty arrays for a table of the given capacity.
+     */
+    private void allocate(int cap) {
+        keys = new int[cap + 1];
+        vals = new Object[cap + 1];
+        mask = cap - 1;
+        threshold = (cap == MAXIMUM_CAPACITY) ? cap - 1 :
+            Math.min((int)Math.ceil(cap * (double)loadFactor), cap - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    final V valueAt(int i) {
+        return (V) vals[i];
+    }
+
+    /* ---------------- Table access -------------- */
+
+    /**
+     * Returns the index of the slot holding the given key, or -1 if the
+     * key is not mapped.
+     */
+    final int find(int key) {
+        int[] ks = keys;
+        if (key == 0)
+            return containsZeroKey ? ks.length - 1 : -1;
+        int m = mask, i = hash(key) & m;
+        for (int k; (k = ks[i]) != 0; i = (i + 1) & m) {
+            if (k == key)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the slot holding the given key if it is
+     * mapped, or otherwise {@code -(insertion index) - 1}.
+     */
+    final int probe(int key) {
+        int[] ks = keys;
+        if (key == 0) {
+            int z = ks.length - 1;
+            return containsZeroKey ? z : -z - 1;
+        }
+        int m = mask, i = hash(key) & m;
+        for (int k; (k = ks[i]) != 0; i = (i + 1) & m) {
+            if (k == key)
+                return i;
+        }
+        return -i - 1;
+    }
+
+    /**
+     * Stores a new mapping in the free slot i, as returned (encoded) by
+     * probe, and resizes the table if it has become too full.
+     */
+    final void insertAt(int i, int key, V value) {
+        if (key == 0)
+            containsZeroKey = true;
+        keys[i] = key;
+        vals[i] = value;
+        ++modCount;
+        if (++size > threshold)
+            resize();
+    }
+
+    /**
+     * Removes the mapping in slot i, which must be occupied.
+     */
+    final void removeAt(int i) {
+        if (i == keys.length - 1) {
+            containsZeroKey = false;
+            vals[i] = null;
+        }
+        else
+            shiftKeys(i, null);
+        --size;
+        ++modCount;
+    }
+
+    /**
+     * Frees slot pos by shifting back entries of the probe sequence
+     * following it, until reaching a free slot.  Entries that move
+     * from a lower to a higher index are reported to the given
+     * iterator, if non-null.
+     */
+    final void shiftKeys(int pos, HashIterator it) {
+        int[] ks = keys;
+        Object[] vs = vals;
+        int m = mask;
+        for (int last, slot;;) {
+            pos = ((last = pos) + 1) & m;
+            int k;
+            for (;;) {
+                if ((k = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    vs[last] = null;
+                    return;
+                }
+                slot = hash(k) & m;
+                if (last <= pos ? last >= slot || slot > pos :
+                    last >= slot && slot > pos)
+                    break;
+                pos = (pos + 1) & m;
+            }
+            if (pos < last && it != null)
+                it.addWrapped(k);
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Doubles the table size and rehashes all mappings.
+     */
+    final void resize() {
+        int[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int oldCap = oldKeys.length - 1;
+        if (oldCap >= MAXIMUM_CAPACITY) {
+            if (size >= MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Map too large");
+            threshold = MAXIMUM_CAPACITY - 1;
+            return;
+        }
+        allocate(oldCap << 1);
+        int[] ks = keys;
+        Object[] vs = vals;
+        int m = mask;
+        for (int j = 0; j < oldCap; ++j) {
+            int k;
+            if ((k = oldKeys[j]) != 0) {
+                int i = hash(k) & m;
+                while (ks[i] != 0)
+                    i = (i + 1) & m;
+                ks[i] = k;
+                vs[i] = oldVals[j];
+            }
+        }
+        vs[m + 1] = oldVals[oldCap];
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     */
+    public V get(int key) {
+        int i;
+        return ((i = find(key)) < 0) ? null : valueAt(i);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    public V getOrDefault(int key, V defaultValue) {
+        int i;
+        return ((i = find(key)) < 0) ? defaultValue : valueAt(i);
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param  key the key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key
+     */
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the
+     * capacity of the map.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(Object value) {
+        int[] ks = keys;
+        Object[] vs = vals;
+        int cap = ks.length - 1;
+        if (containsZeroKey && Objects.equals(vs[cap], value))
+            return true;
+        for (int i = 0; i < cap; ++i) {
+            if (ks[i] != 0 && Objects.equals(vs[i], value))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     *         (A {@code null} return can also indicate that the map
+     *         previously associated {@code null} with {@code key}.)
+     */
+    public V put(int key, V value) {
+        int i = probe(key);
+        if (i >= 0) {
+            V oldValue = valueAt(i);
+            vals[i] = value;
+            return oldValue;
+        }
+        insertAt(-i - 1, key, value);
+        return null;
+    }
+
+    /**
+     * Copies all of the mappings from the specified map to this map.
+     * These mappings will replace any mappings that this map had for
+     * any of the keys currently in the specified map.
+     *
+     * @param m mappings to be stored in this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public void putAll(IntHashMap<? extends V> m) {
+        int[] ks = m.keys;
+        int cap = ks.length - 1;
+        if (m.containsZeroKey)
+            put(0, m.valueAt(cap));
+        for (int i = 0; i < cap; ++i) {
+            int k;
+            if ((k = ks[i]) != 0)
+                put(k, m.valueAt(i));
+        }
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}) associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     */
+    public V putIfAbsent(int key, V value) {
+        int i = probe(key);
+        if (i >= 0) {
+            V oldValue;
+            if ((oldValue = valueAt(i)) == null)
+                vals[i] = value;
+            return oldValue;
+        }
+        insertAt(-i - 1, key, value);
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     *         (A {@code null} return can also indicate that the map
+     *         previously associated {@code null} with {@code key}.)
+     */
+    public V remove(int key) {
+        int i;
+        if ((i = find(key)) < 0)
+            return null;
+        V oldValue = valueAt(i);
+        removeAt(i);
+        return oldValue;
+    }
+
+    /**
+     * Removes the entry for the specified key only if it is currently
+     * mapped to the specified value.
+     *
+     * @param key key with which the specified value is associated
+     * @param value value expected to be associated with the specified key
+     * @return {@code true} if the value was removed
+     */
+    public boolean remove(int key, Object value) {
+        int i;
+        if ((i = find(key)) < 0 || !Objects.equals(vals[i], value))
+            return false;
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}), attempts to compute its value using the
+     * given mapping function and enters it into this map unless
+     * {@code null}.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public V computeIfAbsent(int key,
+                             IntFunction<? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        int i = probe(key);
+        V oldValue;
+        if (i >= 0 && (oldValue = valueAt(i)) != null)
+            return oldValue;
+        int mc = modCount;
+        V v = mappingFunction.apply(key);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        if (v != null) {
+            if (i >= 0)
+                vals[i] = v;
+            else
+                insertAt(-i - 1, key, v);
+        }
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value or is
+     * associated with null, associates it with the given non-null value.
+     * Otherwise, replaces the associated value with the results of the
+     * given remapping function, or removes if the result is {@code null}.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the non-null value to be merged with the existing value
+     *        associated with the key or, if no existing value or a null
+     *        value is associated with the key, to be associated with the key
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key, or null if no
+     *         value is associated with the key
+     * @throws NullPointerException if the value or remapping function is
+     *         null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         remapping function modified this map
+     */
+    public V merge(int key, V value,
+                   BiFunction<? super V, ? super V, ? extends V>
+                   remappingFunction) {
+        if (value == null || remappingFunction == null)
+            throw new NullPointerException();
+        int i = probe(key);
+        if (i < 0) {
+            insertAt(-i - 1, key, value);
+            return value;
+        }
+        V oldValue = valueAt(i), v;
+        if (oldValue == null)
+            v = value;
+        else {
+            int mc = modCount;
+            v = remappingFunction.apply(oldValue, value);
+            if (mc != modCount)
+                throw new ConcurrentModificationException();
+        }
+        if (v == null)
+            removeAt(i);
+        else
+            vals[i] = v;
+        return v;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            Arrays.fill(keys, 0);
+            Arrays.fill(vals, null);
+            containsZeroKey = false;
+            size = 0;
+        }
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if a mapping is found to be
+     *         added or removed during iteration
+     */
+    public void forEach(EntryConsumer<? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        int[] ks = keys;
+        int cap = ks.length - 1, mc = modCount;
+        if (containsZeroKey)
+            action.accept(0, valueAt(cap));
+        for (int i = 0; i < cap && modCount == mc; ++i) {
+            int k;
+            if ((k = ks[i]) != 0)
+                action.accept(k, valueAt(i));
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an iterator over the keys of this map.  The iterator
+     * supports removal of the last returned mapping.
+     *
+     * @return an iterator over the keys of this map
+     */
+    public PrimitiveIterator.OfInt keyIterator() {
+        return new KeyIterator();
+    }
+
+    /**
+     * Returns an iterator over the values of this map.  The iterator
+     * supports removal of the last returned mapping.
+     *
+     * @return an iterator over the values of this map
+     */
+    public Iterator<V> valueIterator() {
+        return new ValueIterator();
+    }
+
+    /**
+     * Returns a late-binding, fail-fast {@code Spliterator} over the keys
+     * of this map, reporting {@link Spliterator#SIZED} and
+     * {@link Spliterator#DISTINCT}.
+     *
+     * @return a {@code Spliterator} over the keys of this map
+     */
+    public Spliterator.OfInt keySpliterator() {
+        return new KeySpliterator<>(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a late-binding, fail-fast {@code Spliterator} over the
+     * values of this map, reporting {@link Spliterator#SIZED}.
+     *
+     * @return a {@code Spliterator} over the values of this map
+     */
+    public Spliterator<V> valueSpliterator() {
+        return new ValueSpliterator<>(this, 0, -1, 0, 0);
+    }
+
+    /* ------------------------------------------------------------ */
+    // Object methods, cloning and serialization
+
+    /**
+     * Compares the specified object with this map for equality.  Returns
+     * {@code true} if the given object is also a {@code IntHashMap} and
+     * the two maps represent the same mappings.
+     *
+     * @param o object to be compared for equality with this map
+     * @return {@code true} if the specified object is equal to this map
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntHashMap))
+            return false;
+        IntHashMap<?> m = (IntHashMap<?>) o;
+        if (m.size != size)
+            return false;
+        int[] ks = keys;
+        Object[] vs = vals;
+        int cap = ks.length - 1;
+        if (containsZeroKey &&
+            (!m.containsZeroKey ||
+             !Objects.equals(m.vals[m.keys.length - 1], vs[cap])))
+            return false;
+        for (int i = 0; i < cap; ++i) {
+            int k;
+            int j;
+            if ((k = ks[i]) != 0 &&
+                ((j = m.find(k)) < 0 || !Objects.equals(m.vals[j], vs[i])))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map.  This is the same value
+     * as the hash code of a {@code Map<Integer,V>} holding the same
+     * mappings: the sum of {@code Integer.hashCode(key) ^
+     * Objects.hashCode(value)} over all mappings.
+     *
+     * @return the hash code value for this map
+     */
+    public int hashCode() {
+        int[] ks = keys;
+        Object[] vs = vals;
+        int cap = ks.length - 1, h = 0;
+        if (containsZeroKey)
+            h += Objects.hashCode(vs[cap]);
+        for (int i = 0; i < cap; ++i) {
+            int k;
+            if ((k = ks[i]) != 0)
+                h += Integer.hashCode(k) ^ Objects.hashCode(vs[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map, in the same format
+     * as {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        if (size == 0)
+            return "{}";
+        int[] ks = keys;
+        Object[] vs = vals;
+        int cap = ks.length - 1;
+        StringBuilder sb = new StringBuilder().append('{');
+        if (containsZeroKey)
+            sb.append(0).append('=')
+                .append(vs[cap] == this ? "(this Map)" : vs[cap]);
+        for (int i = 0; i < cap; ++i) {
+            int k;
+            if ((k = ks[i]) != 0) {
+                if (sb.length() > 1)
+                    sb.append(',').append(' ');
+                sb.append(k).append('=')
+                    .append(vs[i] == this ? "(this Map)" : vs[i]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns a shallow copy of this {@code IntHashMap} instance: the
+     * values themselves are not cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    @Override
+    public IntHashMap<V> clone() {
+        IntHashMap<V> result;
+        try {
+            @SuppressWarnings("unchecked")
+            IntHashMap<V> r = (IntHashMap<V>)super.clone();
+            result = r;
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.keys = keys.clone();
+        result.vals = vals.clone();
+        result.modCount = 0;
+        return result;
+    }
+
+    /**
+     * Save the state of the {@code IntHashMap} instance to a stream
+     * (i.e., serialize it).
+     *
+     * @serialData The <i>capacity</i> of the map (an int), followed by
+     *             the <i>size</i> (an int, the number of key-value
+     *             mappings), followed by the key (int) and value (Object)
+     *             for each key-value mapping.  The key-value mappings are
+     *             emitted in no particular order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws IOException {
+        int[] ks = keys;
+        Object[] vs = vals;
+        int cap = ks.length - 1;
+        s.defaultWriteObject();
+        s.writeInt(cap);
+        s.writeInt(size);
+        if (containsZeroKey) {
+            s.writeInt(0);
+            s.writeObject(vs[cap]);
+        }
+        for (int i = 0; i < cap; ++i) {
+            int k;
+            if ((k = ks[i]) != 0) {
+                s.writeInt(k);
+                s.writeObject(vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the {@code IntHashMap} instance from a stream (i.e.,
+     * deserialize it).
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new InvalidObjectException("Illegal load factor: " +
+                                             loadFactor);
+        s.readInt();                // Read and ignore capacity
+        int mappings = s.readInt(); // Read number of mappings (size)
+        if (mappings < 0)
+            throw new InvalidObjectException("Illegal mappings count: " +
+                                             mappings);
+        allocate(tableSizeFor(mappings, loadFactor));
+        for (int i = 0; i < mappings; i++) {
+            int key = s.readInt();
+            @SuppressWarnings("unchecked")
+                V value = (V) s.readObject();
+            put(key, value);
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // iterators
+
+    /**
+     * Represents an operation that accepts an {@code int} key and an
+     * object value of a mapping.
+     *
+     * @param <V> the type of the value
+     * @see IntHashMap#forEach
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        /**
+         * Performs this operation on the given mapping.
+         *
+         * @param key the key of the mapping
+         * @param value the value of the mapping
+         */
+        void accept(int key, V value);
+    }
+
+    abstract class HashIterator {
+        int pos = keys.length;      // slots at and above pos were visited
+        int last = -1;              // slot of last returned, or -1
+        int remaining = size;       // mappings not yet returned
+        int[] wrapped;             // keys moved past pos by removals
+        int wrappedCount;
+        int expectedModCount = modCount;
+
+        public final boolean hasNext() {
+            return remaining != 0;
+        }
+
+        /**
+         * Returns the slot of the next mapping.  Once all slots have
+         * been visited, returns the slots of wrapped keys, recording
+         * their position in the wrapped list as a negative pos.
+         */
+        final int nextSlot() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            --remaining;
+            int[] ks = keys;
+            if (pos == ks.length && containsZeroKey)
+                return last = --pos;
+            for (;;) {
+                if (--pos < 0) {
+                    last = Integer.MIN_VALUE;
+                    return find(wrapped[-pos - 1]);
+                }
+                if (ks[pos] != 0)
+                    return last = pos;
+            }
+        }
+
+        final void addWrapped(int k) {
+            int[] w;
+            if ((w = wrapped) == null)
+                wrapped = w = new int[2];
+            else if (wrappedCount == w.length)
+                wrapped = w = Arrays.copyOf(w, wrappedCount << 1);
+            w[wrappedCount++] = k;
+        }
+
+        public final void remove() {
+            if (last == -1)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (last == Integer.MIN_VALUE)
+                removeAt(find(wrapped[-pos - 1]));
+            else if (last == keys.length - 1) {
+                containsZeroKey = false;
+                vals[last] = null;
+                --size;
+                ++modCount;
+            }
+            else {
+                shiftKeys(last, this);
+                --size;
+                ++modCount;
+            }
+            expectedModCount = modCount;
+            last = -1;
+        }
+    }
+
+    final class KeyIterator extends HashIterator
+        implements PrimitiveIterator.OfInt {
+        public final int nextInt() {
+            return keys[nextSlot()];
+        }
+    }
+
+    final class ValueIterator extends HashIterator implements Iterator<V> {
+        public final V next() {
+            return valueAt(nextSlot());
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // spliterators
+
+    static class IntHashMapSpliterator<V> {
+        final IntHashMap<V> map;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        IntHashMapSpliterator(IntHashMap<V> m, int origin,
+                                 int fence, int est,
+                                 int expectedModCount) {
+            this.map = m;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                IntHashMap<V> m = map;
+                est = m.size;
+                expectedModCount = m.modCount;
+                hi = fence = m.keys.length;
+            }
+            return hi;
+        }
+
+        /**
+         * Returns the slot of the next mapping within [index, hi) and
+         * advances index past it, or returns -1 if there is none.
+         */
+        final int advance(int[] ks, int hi) {
+            int z = ks.length - 1;
+            while (index < hi) {
+                int i = index++;
+                if (i < z ? ks[i] != 0 : map.containsZeroKey)
+                    return i;
+            }
+            return -1;
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+    }
+
+    static final class KeySpliterator<V>
+        extends IntHashMapSpliterator<V>
+        implements Spliterator.OfInt {
+        KeySpliterator(IntHashMap<V> m, int origin, int fence, int est,
+                       int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public KeySpliterator<V> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new KeySpliterator<>(map, lo, index = mid, est >>>= 1,
+                                     expectedModCount);
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            IntHashMap<V> m = map;
+            int hi = getFence(), mc = expectedModCount;
+            int[] ks = m.keys;
+            if (ks.length >= hi && index >= 0) {
+                for (int i; (i = advance(ks, hi)) >= 0; )
+                    action.accept(ks[i]);
+                if (m.modCount != mc)
+                    throw new ConcurrentModificationException();
+            }
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            IntHashMap<V> m = map;
+            int hi = getFence(), i;
+            int[] ks = m.keys;
+            if (ks.length >= hi && index >= 0 && (i = advance(ks, hi)) >= 0) {
+                action.accept(ks[i]);
+                if (m.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+
+    static final class ValueSpliterator<V>
+        extends IntHashMapSpliterator<V>
+        implements Spliterator<V> {
+        ValueSpliterator(IntHashMap<V> m, int origin, int fence, int est,
+                         int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public ValueSpliterator<V> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new ValueSpliterator<>(map, lo, index = mid, est >>>= 1,
+                                       expectedModCount);
+        }
+
+        public void forEachRemaining(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            IntHashMap<V> m = map;
+            int hi = getFence(), mc = expectedModCount;
+            int[] ks = m.keys;
+            if (ks.length >= hi && index >= 0) {
+                for (int i; (i = advance(ks, hi)) >= 0; )
+                    action.accept(m.valueAt(i));
+                if (m.modCount != mc)
+                    throw new ConcurrentModificationException();
+            }
+        }
+
+        public boolean tryAdvance(Consumer<? super V> action) {
+            if (action == null)
+                throw new NullPointerException();
+            IntHashMap<V> m = map;
+            int hi = getFence(), i;
+            int[] ks = m.keys;
+            if (ks.length >= hi && index >= 0 && (i = advance(ks, hi)) >= 0) {
+                action.accept(m.valueAt(i));
+                if (m.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0);
+        }
+    }
+}
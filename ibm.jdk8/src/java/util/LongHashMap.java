@@ -0,0 +1,1124 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Hash table mapping primitive {@code long} keys to primitive {@code long}
+ * values.  Unlike a {@code HashMap<Long,Long>}, this class stores neither
+ * boxed keys, boxed values nor per-mapping entry objects: keys and values
+ * are held in two parallel arrays indexed by an open-addressing (linear
+ * probing) hash table, so the footprint of a mapping is close to the
+ * sixteen bytes of its key and value.  All {@code long} values,
+ * including zero, are permitted as keys and as values.  This class makes
+ * no guarantees as to the order of the map; in particular, it does not
+ * guarantee that the order will remain constant over time.
+ *
+ * <p>Because there is no way to return "no value" as a primitive, the
+ * methods that in {@link Map} would return {@code null} for an absent
+ * mapping here return {@code 0}.  As with {@code HashMap} and
+ * {@code null}, a return value of {@code 0} does not <i>necessarily</i>
+ * indicate that the map contains no mapping for the key; the
+ * {@link #containsKey containsKey} or {@link #getOrDefault getOrDefault}
+ * operations may be used to distinguish these two cases.
+ *
+ * <p>This implementation provides constant-time performance for the basic
+ * operations ({@code get} and {@code put}), assuming the hash function
+ * disperses the keys properly among the slots of the table.  Iteration
+ * requires time proportional to the capacity of the map plus its size.
+ *
+ * <p>An instance of {@code LongHashMap} has two parameters that affect its
+ * performance: <i>initial capacity</i> and <i>load factor</i>.  The initial
+ * capacity is the number of mappings the map can hold before its table is
+ * first resized; the load factor is the fraction of the table's slots that
+ * may be occupied before it is doubled in size.  As every mapping occupies
+ * a slot of the table itself, the load factor must be strictly less than
+ * one.  The default load factor (.75) offers a good tradeoff between time
+ * and space costs.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a map concurrently, and at least one of the
+ * threads modifies the map structurally, it <i>must</i> be synchronized
+ * externally.  (A structural modification is any operation that adds or
+ * deletes one or more mappings; merely changing the value associated with
+ * a key that an instance already contains is not a structural
+ * modification.)
+ *
+ * <p>The iterators returned by the {@link #keyIterator} and
+ * {@link #valueIterator} methods, and the spliterators returned by
+ * {@link #keySpliterator} and {@link #valueSpliterator}, are
+ * <i>fail-fast</i> in exactly the sense of those of {@code HashMap}: if the
+ * map is structurally modified at any time after the iterator is created,
+ * in any way except through the iterator's own {@code remove} method, the
+ * iterator will throw a {@link ConcurrentModificationException} on a
+ * best-effort basis.  The spliterators are <em>late-binding</em> and
+ * report {@link Spliterator#SIZED} until they are split; key spliterators
+ * additionally report {@link Spliterator#DISTINCT}.
+ *
+ * @see HashMap
+ * @see IntHashMap
+ * @see LongObjectMap
+ * @since 1.8
+ */
+public class LongHashMap implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = -3236014432516823307L;
+
+    /*
+     * Implementation notes.
+     *
+     * Keys and values live in parallel arrays of length capacity + 1.
+     * The first capacity slots form a linearly probed table in which
+     * key 0 marks a free slot.  The (genuine) key 0 cannot be stored
+     * in the table proper, so its value, if any, is kept in the extra
+     * trailing slot, and its presence recorded in containsZeroKey.
+     * Treating the extra slot as an ordinary (last) table index lets
+     * iterators and spliterators traverse all mappings uniformly.
+     *
+     * Removal does not leave tombstones: the probe sequence following
+     * the freed slot is compacted by shifting back entries that would
+     * otherwise become unreachable (method shiftKeys).  This keeps
+     * lookups short after heavy removal, but means an entry can move
+     * while an iterator is in progress.  Iterators therefore traverse
+     * the table from high to low indices: shifting only moves entries
+     * to lower (already visited) indices, except when the probe
+     * sequence wraps around the end of the table, in which case an
+     * unvisited entry moves to a visited slot.  shiftKeys reports
+     * such entries to the iterator, which remembers their keys and
+     * returns them after the table has been exhausted.
+     *
+     * Keys are scrambled by a multiplicative (Fibonacci) hash before
+     * masking, because sequential or otherwise structured long keys
+     * are the common case and would cluster badly under linear
+     * probing if used directly.
+     */
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified
+     * by either of the constructors with arguments.
+     * MUST be a power of two <= 1<<30.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * The keys, of length capacity + 1.  Slot capacity is reserved
+     * for the key 0.
+     */
+    transient long[] keys;
+
+    /**
+     * The values, parallel to keys.
+     */
+    transient long[] vals;
+
+    /**
+     * Whether the key 0 is mapped (in slot keys.length - 1).
+     */
+    transient boolean containsZeroKey;
+
+    /**
+     * Capacity - 1, used to mask hashes into the table.
+     */
+    transient int mask;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     * This field is used to make iterators and spliterators fail-fast.
+     */
+    transient int modCount;
+
+    /**
+     * The size at which the table is next resized.
+     */
+    transient int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty {@code LongHashMap} with the specified initial
+     * capacity and load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not strictly between zero and one
+     */
+    public LongHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor(initialCapacity, loadFactor));
+    }
+
+    /**
+     * Constructs an empty {@code LongHashMap} with the specified initial
+     * capacity and the default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public LongHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code LongHashMap} with the default initial
+     * capacity (16) and the default load factor (0.75).
+     */
+    public LongHashMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        allocate(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@code LongHashMap} with the same mappings as the
+     * specified {@code LongHashMap}, using the default load factor and a
+     * capacity sufficient to hold those mappings.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public LongHashMap(LongHashMap m) {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        allocate(tableSizeFor(m.size, DEFAULT_LOAD_FACTOR));
+        putAll(m);
+    }
+
+    /* ---------------- Static utilities -------------- */
+
+    /**
+     * Spreads the bits of a key so that its low-order bits, which
+     * select the slot, depend on all of the key's bits.
+     */
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int x = (int)(h ^ (h >>> 32));
+        return x ^ (x >>> 16);
+    }
+
+    /**
+     * Returns a power of two table size large enough to hold the given
+     * number of mappings under the given load factor.
+     */
+    static int tableSizeFor(int expected, float loadFactor) {
+        long needed = (long)Math.ceil(expected / (double)loadFactor) + 1L;
+        if (needed >= MAXIMUM_CAPACITY)
+            return MAXIMUM_CAPACITY;
+        int n = -1 >>> Integer.numberOfLeadingZeros((int)needed - 1);
+        return (n < 1) ? 2 : n + 1;
+    }
+
+    /**
+     * Creates empty arrays for a table of the given capacity.
+     */
+    private void allocate(int cap) {
+        keys = new long[cap + 1];
+        vals = new long[cap + 1];
+        mask = cap - 1;
+        threshold = (cap == MAXIMUM_CAPACITY) ? cap - 1 :
+            Math.min((int)Math.ceil(cap * (double)loadFactor), cap - 1);
+    }
+
+    /* ---------------- Table access -------------- */
+
+    /**
+     * Returns the index of the slot holding the given key, or -1 if the
+     * key is not mapped.
+     */
+    final int find(long key) {
+        long[] ks = keys;
+        if (key == 0L)
+            return containsZeroKey ? ks.length - 1 : -1;
+        int m = mask, i = hash(key) & m;
+        for (long k; (k = ks[i]) != 0L; i = (i + 1) & m) {
+            if (k == key)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the slot holding the given key if it is
+     * mapped, or otherwise {@code -(insertion index) - 1}.
+     */
+    final int probe(long key) {
+        long[] ks = keys;
+        if (key == 0L) {
+            int z = ks.length - 1;
+            return containsZeroKey ? z : -z - 1;
+        }
+        int m = mask, i = hash(key) & m;
+        for (long k; (k = ks[i]) != 0L; i = (i + 1) & m) {
+            if (k == key)
+                return i;
+        }
+        return -i - 1;
+    }
+
+    /**
+     * Stores a new mapping in the free slot i, as returned (encoded) by
+     * probe, and resizes the table if it has become too full.
+     */
+    final void insertAt(int i, long key, long value) {
+        if (key == 0L)
+            containsZeroKey = true;
+        keys[i] = key;
+        vals[i] = value;
+        ++modCount;
+        if (++size > threshold)
+            resize();
+    }
+
+    /**
+     * Removes the mapping in slot i, which must be occupied.
+     */
+    final void removeAt(int i) {
+        if (i == keys.length - 1) {
+            containsZeroKey = false;
+            vals[i] = 0L;
+        }
+        else
+            shiftKeys(i, null);
+        --size;
+        ++modCount;
+    }
+
+    /**
+     * Frees slot pos by shifting back entries of the probe sequence
+     * following it, until reaching a free slot.  Entries that move
+     * from a lower to a higher index are reported to the given
+     * iterator, if non-null.
+     */
+    final void shiftKeys(int pos, HashIterator it) {
+        long[] ks = keys, vs = vals;
+        int m = mask;
+        for (int last, slot;;) {
+            pos = ((last = pos) + 1) & m;
+            long k;
+            for (;;) {
+                if ((k = ks[pos]) == 0L) {
+                    ks[last] = 0L;
+                    vs[last] = 0L;
+                    return;
+                }
+                slot = hash(k) & m;
+                if (last <= pos ? last >= slot || slot > pos :
+                    last >= slot && slot > pos)
+                    break;
+                pos = (pos + 1) & m;
+            }
+            if (pos < last && it != null)
+                it.addWrapped(k);
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Doubles the table size and rehashes all mappings.
+     */
+    final void resize() {
+        long[] oldKeys = keys, oldVals = vals;
+        int oldCap = oldKeys.length - 1;
+        if (oldCap >= MAXIMUM_CAPACITY) {
+            if (size >= MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Map too large");
+            threshold = MAXIMUM_CAPACITY - 1;
+            return;
+        }
+        allocate(oldCap << 1);
+        long[] ks = keys, vs = vals;
+        int m = mask;
+        for (int j = 0; j < oldCap; ++j) {
+            long k;
+            if ((k = oldKeys[j]) != 0L) {
+                int i = hash(k) & m;
+                while (ks[i] != 0L)
+                    i = (i + 1) & m;
+                ks[i] = k;
+                vs[i] = oldVals[j];
+            }
+        }
+        vs[m + 1] = oldVals[oldCap];
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code 0} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code 0} if this map contains no mapping for the key
+     * @see #getOrDefault(long, long)
+     */
+    public long get(long key) {
+        int i;
+        return ((i = find(key)) < 0) ? 0L : vals[i];
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        int i;
+        return ((i = find(key)) < 0) ? defaultValue : vals[i];
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param  key the key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key
+     */
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the
+     * capacity of the map.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(long value) {
+        long[] ks = keys, vs = vals;
+        int cap = ks.length - 1;
+        if (containsZeroKey && vs[cap] == value)
+            return true;
+        for (int i = 0; i < cap; ++i) {
+            if (ks[i] != 0L && vs[i] == value)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code 0} if there was no mapping for {@code key}.
+     *         (A {@code 0} return can also indicate that the map
+     *         previously associated {@code 0} with {@code key}.)
+     */
+    public long put(long key, long value) {
+        int i = probe(key);
+        if (i >= 0) {
+            long[] vs = vals;
+            long oldValue = vs[i];
+            vs[i] = value;
+            return oldValue;
+        }
+        insertAt(-i - 1, key, value);
+        return 0L;
+    }
+
+    /**
+     * Copies all of the mappings from the specified map to this map.
+     * These mappings will replace any mappings that this map had for
+     * any of the keys currently in the specified map.
+     *
+     * @param m mappings to be stored in this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public void putAll(LongHashMap m) {
+        long[] ks = m.keys, vs = m.vals;
+        int cap = ks.length - 1;
+        if (m.containsZeroKey)
+            put(0L, vs[cap]);
+        for (int i = 0; i < cap; ++i) {
+            long k;
+            if ((k = ks[i]) != 0L)
+                put(k, vs[i]);
+        }
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code 0} if there was no mapping for the key
+     */
+    public long putIfAbsent(long key, long value) {
+        int i = probe(key);
+        if (i >= 0)
+            return vals[i];
+        insertAt(-i - 1, key, value);
+        return 0L;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or
+     *         {@code 0} if there was no mapping for {@code key}.
+     *         (A {@code 0} return can also indicate that the map
+     *         previously associated {@code 0} with {@code key}.)
+     */
+    public long remove(long key) {
+        int i;
+        if ((i = find(key)) < 0)
+            return 0L;
+        long oldValue = vals[i];
+        removeAt(i);
+        return oldValue;
+    }
+
+    /**
+     * Removes the entry for the specified key only if it is currently
+     * mapped to the specified value.
+     *
+     * @param key key with which the specified value is associated
+     * @param value value expected to be associated with the specified key
+     * @return {@code true} if the value was removed
+     */
+    public boolean remove(long key, long value) {
+        int i;
+        if ((i = find(key)) < 0 || vals[i] != value)
+            return false;
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * attempts to compute its value using the given mapping function
+     * and enters it into this map.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public long computeIfAbsent(long key, LongUnaryOperator mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        int i = probe(key);
+        if (i >= 0)
+            return vals[i];
+        int mc = modCount;
+        long v = mappingFunction.applyAsLong(key);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        insertAt(-i - 1, key, v);
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.  Otherwise, replaces the
+     * value with the result of the given remapping function applied to
+     * the old and the given value.  For example, {@code merge(k, 1L,
+     * Long::sum)} counts occurrences of {@code k}.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be used if the key is absent, and the
+     *        second argument of the remapping function otherwise
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key
+     * @throws NullPointerException if the remapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         remapping function modified this map
+     */
+    public long merge(long key, long value,
+                      LongBinaryOperator remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        int i = probe(key);
+        if (i < 0) {
+            insertAt(-i - 1, key, value);
+            return value;
+        }
+        int mc = modCount;
+        long v = remappingFunction.applyAsLong(vals[i], value);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        return vals[i] = v;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            Arrays.fill(keys, 0L);
+            Arrays.fill(vals, 0L);
+            containsZeroKey = false;
+            size = 0;
+        }
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if a mapping is found to be
+     *         added or removed during iteration
+     */
+    public void forEach(EntryConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        long[] ks = keys, vs = vals;
+        int cap = ks.length - 1, mc = modCount;
+        if (containsZeroKey)
+            action.accept(0L, vs[cap]);
+        for (int i = 0; i < cap && modCount == mc; ++i) {
+            long k;
+            if ((k = ks[i]) != 0L)
+                action.accept(k, vs[i]);
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an iterator over the keys of this map.  The iterator
+     * supports removal of the last returned mapping.
+     *
+     * @return an iterator over the keys of this map
+     */
+    public PrimitiveIterator.OfLong keyIterator() {
+        return new KeyIterator();
+    }
+
+    /**
+     * Returns an iterator over the values of this map.  The iterator
+     * supports removal of the last returned mapping.
+     *
+     * @return an iterator over the values of this map
+     */
+    public PrimitiveIterator.OfLong valueIterator() {
+        return new ValueIterator();
+    }
+
+    /**
+     * Returns a late-binding, fail-fast {@code Spliterator} over the keys
+     * of this map, reporting {@link Spliterator#SIZED} and
+     * {@link Spliterator#DISTINCT}.
+     *
+     * @return a {@code Spliterator} over the keys of this map
+     */
+    public Spliterator.OfLong keySpliterator() {
+        return new KeySpliterator(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a late-binding, fail-fast {@code Spliterator} over the
+     * values of this map, reporting {@link Spliterator#SIZED}.
+     *
+     * @return a {@code Spliterator} over the values of this map
+     */
+    public Spliterator.OfLong valueSpliterator() {
+        return new ValueSpliterator(this, 0, -1, 0, 0);
+    }
+
+    /* ------------------------------------------------------------ */
+    // Object methods, cloning and serialization
+
+    /**
+     * Compares the specified object with this map for equality.  Returns
+     * {@code true} if the given object is also a {@code LongHashMap} and
+     * the two maps represent the same mappings.
+     *
+     * @param o object to be compared for equality with this map
+     * @return {@code true} if the specified object is equal to this map
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof LongHashMap))
+            return false;
+        LongHashMap m = (LongHashMap) o;
+        if (m.size != size)
+            return false;
+        long[] ks = keys, vs = vals;
+        int cap = ks.length - 1;
+        if (containsZeroKey &&
+            (!m.containsZeroKey || m.vals[m.keys.length - 1] != vs[cap]))
+            return false;
+        for (int i = 0; i < cap; ++i) {
+            long k;
+            int j;
+            if ((k = ks[i]) != 0L &&
+                ((j = m.find(k)) < 0 || m.vals[j] != vs[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map.  This is the same value
+     * as the hash code of a {@code Map<Long,Long>} holding the same
+     * mappings: the sum of {@code Long.hashCode(key) ^
+     * Long.hashCode(value)} over all mappings.
+     *
+     * @return the hash code value for this map
+     */
+    public int hashCode() {
+        long[] ks = keys, vs = vals;
+        int cap = ks.length - 1, h = 0;
+        if (containsZeroKey)
+            h += Long.hashCode(vs[cap]);
+        for (int i = 0; i < cap; ++i) {
+            long k;
+            if ((k = ks[i]) != 0L)
+                h += Long.hashCode(k) ^ Long.hashCode(vs[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map, in the same format
+     * as {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        if (size == 0)
+            return "{}";
+        long[] ks = keys, vs = vals;
+        int cap = ks.length - 1;
+        StringBuilder sb = new StringBuilder().append('{');
+        if (containsZeroKey)
+            sb.append(0L).append('=').append(vs[cap]);
+        for (int i = 0; i < cap; ++i) {
+            long k;
+            if ((k = ks[i]) != 0L) {
+                if (sb.length() > 1)
+                    sb.append(',').append(' ');
+                sb.append(k).append('=').append(vs[i]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns a shallow copy of this {@code LongHashMap} instance.
+     *
+     * @return a copy of this map
+     */
+    @Override
+    public LongHashMap clone() {
+        LongHashMap result;
+        try {
+            result = (LongHashMap)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.keys = keys.clone();
+        result.vals = vals.clone();
+        result.modCount = 0;
+        return result;
+    }
+
+    /**
+     * Save the state of the {@code LongHashMap} instance to a stream (i.e.,
+     * serialize it).
+     *
+     * @serialData The <i>capacity</i> of the map (an int), followed by
+     *             the <i>size</i> (an int, the number of key-value
+     *             mappings), followed by the key (long) and value (long)
+     *             for each key-value mapping.  The key-value mappings are
+     *             emitted in no particular order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws IOException {
+        long[] ks = keys, vs = vals;
+        int cap = ks.length - 1;
+        s.defaultWriteObject();
+        s.writeInt(cap);
+        s.writeInt(size);
+        if (containsZeroKey) {
+            s.writeLong(0L);
+            s.writeLong(vs[cap]);
+        }
+        for (int i = 0; i < cap; ++i) {
+            long k;
+            if ((k = ks[i]) != 0L) {
+                s.writeLong(k);
+                s.writeLong(vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the {@code LongHashMap} instance from a stream (i.e.,
+     * deserialize it).
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new InvalidObjectException("Illegal load factor: " +
+                                             loadFactor);
+        s.readInt();                // Read and ignore capacity
+        int mappings = s.readInt(); // Read number of mappings (size)
+        if (mappings < 0)
+            throw new InvalidObjectException("Illegal mappings count: " +
+                                             mappings);
+        allocate(tableSizeFor(mappings, loadFactor));
+        for (int i = 0; i < mappings; i++) {
+            long key = s.readLong();
+            put(key, s.readLong());
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // iterators
+
+    /**
+     * Represents an operation that accepts a {@code long} key and a
+     * {@code long} value of a mapping.
+     *
+     * @see LongHashMap#forEach
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Performs this operation on the given mapping.
+         *
+         * @param key the key of the mapping
+         * @param value the value of the mapping
+         */
+        void accept(long key, long value);
+    }
+
+    abstract class HashIterator {
+        int pos = keys.length;      // slots at and above pos were visited
+        int last = -1;              // slot of last returned, or -1
+        int remaining = size;       // mappings not yet returned
+        long[] wrapped;             // keys moved past pos by removals
+        int wrappedCount;
+        int expectedModCount = modCount;
+
+        public final boolean hasNext() {
+            return remaining != 0;
+        }
+
+        /**
+         * Returns the slot of the next mapping.  Once all slots have
+         * been visited, returns the slots of wrapped keys, recording
+         * their position in the wrapped list as a negative pos.
+         */
+        final int nextSlot() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            --remaining;
+            long[] ks = keys;
+            if (pos == ks.length && containsZeroKey)
+                return last = --pos;
+            for (;;) {
+                if (--pos < 0) {
+                    last = Integer.MIN_VALUE;
+                    return find(wrapped[-pos - 1]);
+                }
+                if (ks[pos] != 0L)
+                    return last = pos;
+            }
+        }
+
+        final void addWrapped(long k) {
+            long[] w;
+            if ((w = wrapped) == null)
+                wrapped = w = new long[2];
+            else if (wrappedCount == w.length)
+                wrapped = w = Arrays.copyOf(w, wrappedCount << 1);
+            w[wrappedCount++] = k;
+        }
+
+        public final void remove() {
+            if (last == -1)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (last == Integer.MIN_VALUE)
+                removeAt(find(wrapped[-pos - 1]));
+            else if (last == keys.length - 1) {
+                containsZeroKey = false;
+                vals[last] = 0L;
+                --size;
+                ++modCount;
+            }
+            else {
+                shiftKeys(last, this);
+                --size;
+                ++modCount;
+            }
+            expectedModCount = modCount;
+            last = -1;
+        }
+    }
+
+    final class KeyIterator extends HashIterator
+        implements PrimitiveIterator.OfLong {
+        public final long nextLong() {
+            return keys[nextSlot()];
+        }
+    }
+
+    final class ValueIterator extends HashIterator
+        implements PrimitiveIterator.OfLong {
+        public final long nextLong() {
+            return vals[nextSlot()];
+        }
+    }
+
+    /* ------------------------------------------------------------ */
+    // spliterators
+
+    static class LongHashMapSpliterator {
+        final LongHashMap map;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        LongHashMapSpliterator(LongHashMap m, int origin,
+                               int fence, int est,
+                               int expectedModCount) {
+            this.map = m;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                LongHashMap m = map;
+                est = m.size;
+                expectedModCount = m.modCount;
+                hi = fence = m.keys.length;
+            }
+            return hi;
+        }
+
+        /**
+         * Returns the slot of the next mapping within [index, hi) and
+         * advances index past it, or returns -1 if there is none.
+         */
+        final int advance(long[] ks, int hi) {
+            int z = ks.length - 1;
+            while (index < hi) {
+                int i = index++;
+                if (i < z ? ks[i] != 0L : map.containsZeroKey)
+                    return i;
+            }
+            return -1;
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+    }
+
+    static final class KeySpliterator extends LongHashMapSpliterator
+        implements Spliterator.OfLong {
+        KeySpliterator(LongHashMap m, int origin, int fence, int est,
+                       int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public KeySpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new KeySpliterator(map, lo, index = mid, est >>>= 1,
+                                   expectedModCount);
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongHashMap m = map;
+            int hi = getFence(), mc = expectedModCount;
+            long[] ks = m.keys;
+            if (ks.length >= hi && index >= 0) {
+                for (int i; (i = advance(ks, hi)) >= 0; )
+                    action.accept(ks[i]);
+                if (m.modCount != mc)
+                    throw new ConcurrentModificationException();
+            }
+        }
+
+        public boolean tryAdvance(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongHashMap m = map;
+            int hi = getFence(), i;
+            long[] ks = m.keys;
+            if (ks.length >= hi && index >= 0 && (i = advance(ks, hi)) >= 0) {
+                action.accept(ks[i]);
+                if (m.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+
+    static final class ValueSpliterator extends LongHashMapSpliterator
+        implements Spliterator.OfLong {
+        ValueSpliterator(LongHashMap m, int origin, int fence, int est,
+                         int expectedModCount) {
+            super(m, origin, fence, est, expectedModCount);
+        }
+
+        public ValueSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new ValueSpliterator(map, lo, index = mid, est >>>= 1,
+                                     expectedModCount);
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongHashMap m = map;
+            int hi = getFence(), mc = expectedModCount;
+            long[] ks = m.keys, vs = m.vals;
+            if (ks.length >= hi && index >= 0) {
+                for (int i; (i = advance(ks, hi)) >= 0; )
+                    action.accept(vs[i]);
+                if (m.modCount != mc)
+                    throw new ConcurrentModificationException();
+            }
+        }
+
+        public boolean tryAdvance(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            LongHashMap m = map;
+            int hi = getFence(), i;
+            long[] ks = m.keys;
+            if (ks.length >= hi && index >= 0 && (i = advance(ks, hi)) >= 0) {
+                action.accept(m.vals[i]);
+                if (m.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0);
+        }
+    }
+}
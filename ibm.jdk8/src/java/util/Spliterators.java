@@ -35,6 +35,8 @@
  */
 package java.util;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
 import java.util.function.IntConsumer;
@@ -489,6 +491,48 @@ public final class Spliterators {
         return new IteratorSpliterator<>(Objects.requireNonNull(iterator), characteristics);
     }
 
+    /**
+     * Creates a {@code Spliterator} using a given
+     * {@code Iterator} as the source of elements, with no initial
+     * size estimate, and sizing its splits according to the cost of each
+     * element.
+     *
+     * <p>The spliterator is not
+     * <em><a href="Spliterator.html#binding">late-binding</a></em>, inherits
+     * the <em>fail-fast</em> properties of the iterator, and implements
+     * {@code trySplit} to permit limited parallelism.  Rather than growing
+     * its splits by a fixed increment, the spliterator sizes each split so
+     * that it represents a similar amount of work, using the larger of the
+     * cost hint and the time measured to obtain elements from the iterator
+     * while filling earlier splits.  The first splits are smaller, ramping up
+     * over as many splits as the pool has workers, so that every worker is
+     * handed elements early when the source is slow.  If a non-zero cost
+     * hint is given that is too small for parallel processing to pay for
+     * copying elements into a split, the spliterator does not split.
+     *
+     * <p>Traversal of elements should be accomplished through the spliterator.
+     * The behaviour of splitting and traversal is undefined if the iterator is
+     * operated on after the spliterator is returned.
+     *
+     * @param <T> Type of elements
+     * @param iterator The iterator for the source
+     * @param characteristics Characteristics of this spliterator's source
+     *        or elements ({@code SIZED} and {@code SUBSIZED}, if supplied, are
+     *        ignored and are not reported.)
+     * @param costHint The estimated time, in nanoseconds, to obtain and
+     *        process each element, or {@code 0} if unknown, in which case
+     *        the cost is only measured
+     * @return A spliterator from an iterator
+     * @throws NullPointerException if the given iterator is {@code null}
+     * @throws IllegalArgumentException if {@code costHint} is negative
+     */
+    public static <T> Spliterator<T> spliteratorUnknownSize(Iterator<? extends T> iterator,
+                                                            int characteristics,
+                                                            long costHint) {
+        return new IteratorSpliterator<>(Objects.requireNonNull(iterator), characteristics,
+                                         new AdaptiveBatch(costHint));
+    }
+
     /**
      * Creates a {@code Spliterator.OfInt} using a given
      * {@code IntStream.IntIterator} as the source of elements, and with a given
@@ -546,6 +590,47 @@ public final class Spliterators {
         return new IntIteratorSpliterator(Objects.requireNonNull(iterator), characteristics);
     }
 
+    /**
+     * Creates a {@code Spliterator.OfInt} using a given
+     * {@code IntStream.IntIterator} as the source of elements, with no initial
+     * size estimate, and sizing its splits according to the cost of each
+     * element.
+     *
+     * <p>The spliterator is not
+     * <em><a href="Spliterator.html#binding">late-binding</a></em>, inherits
+     * the <em>fail-fast</em> properties of the iterator, and implements
+     * {@code trySplit} to permit limited parallelism.  Rather than growing
+     * its splits by a fixed increment, the spliterator sizes each split so
+     * that it represents a similar amount of work, using the larger of the
+     * cost hint and the time measured to obtain elements from the iterator
+     * while filling earlier splits.  The first splits are smaller, ramping up
+     * over as many splits as the pool has workers, so that every worker is
+     * handed elements early when the source is slow.  If a non-zero cost
+     * hint is given that is too small for parallel processing to pay for
+     * copying elements into a split, the spliterator does not split.
+     *
+     * <p>Traversal of elements should be accomplished through the spliterator.
+     * The behaviour of splitting and traversal is undefined if the iterator is
+     * operated on after the spliterator is returned.
+     *
+     * @param iterator The iterator for the source
+     * @param characteristics Characteristics of this spliterator's source
+     *        or elements ({@code SIZED} and {@code SUBSIZED}, if supplied, are
+     *        ignored and are not reported.)
+     * @param costHint The estimated time, in nanoseconds, to obtain and
+     *        process each element, or {@code 0} if unknown, in which case
+     *        the cost is only measured
+     * @return A spliterator from an iterator
+     * @throws NullPointerException if the given iterator is {@code null}
+     * @throws IllegalArgumentException if {@code costHint} is negative
+     */
+    public static Spliterator.OfInt spliteratorUnknownSize(PrimitiveIterator.OfInt iterator,
+                                                           int characteristics,
+                                                           long costHint) {
+        return new IntIteratorSpliterator(Objects.requireNonNull(iterator), characteristics,
+                                          new AdaptiveBatch(costHint));
+    }
+
     /**
      * Creates a {@code Spliterator.OfLong} using a given
      * {@code LongStream.LongIterator} as the source of elements, and with a
@@ -603,6 +688,47 @@ public final class Spliterators {
         return new LongIteratorSpliterator(Objects.requireNonNull(iterator), characteristics);
     }
 
+    /**
+     * Creates a {@code Spliterator.OfLong} using a given
+     * {@code LongStream.LongIterator} as the source of elements, with no initial
+     * size estimate, and sizing its splits according to the cost of each
+     * element.
+     *
+     * <p>The spliterator is not
+     * <em><a href="Spliterator.html#binding">late-binding</a></em>, inherits
+     * the <em>fail-fast</em> properties of the iterator, and implements
+     * {@code trySplit} to permit limited parallelism.  Rather than growing
+     * its splits by a fixed increment, the spliterator sizes each split so
+     * that it represents a similar amount of work, using the larger of the
+     * cost hint and the time measured to obtain elements from the iterator
+     * while filling earlier splits.  The first splits are smaller, ramping up
+     * over as many splits as the pool has workers, so that every worker is
+     * handed elements early when the source is slow.  If a non-zero cost
+     * hint is given that is too small for parallel processing to pay for
+     * copying elements into a split, the spliterator does not split.
+     *
+     * <p>Traversal of elements should be accomplished through the spliterator.
+     * The behaviour of splitting and traversal is undefined if the iterator is
+     * operated on after the spliterator is returned.
+     *
+     * @param iterator The iterator for the source
+     * @param characteristics Characteristics of this spliterator's source
+     *        or elements ({@code SIZED} and {@code SUBSIZED}, if supplied, are
+     *        ignored and are not reported.)
+     * @param costHint The estimated time, in nanoseconds, to obtain and
+     *        process each element, or {@code 0} if unknown, in which case
+     *        the cost is only measured
+     * @return A spliterator from an iterator
+     * @throws NullPointerException if the given iterator is {@code null}
+     * @throws IllegalArgumentException if {@code costHint} is negative
+     */
+    public static Spliterator.OfLong spliteratorUnknownSize(PrimitiveIterator.OfLong iterator,
+                                                            int characteristics,
+                                                            long costHint) {
+        return new LongIteratorSpliterator(Objects.requireNonNull(iterator), characteristics,
+                                           new AdaptiveBatch(costHint));
+    }
+
     /**
      * Creates a {@code Spliterator.OfDouble} using a given
      * {@code DoubleStream.DoubleIterator} as the source of elements, and with a
@@ -660,6 +786,47 @@ public final class Spliterators {
         return new DoubleIteratorSpliterator(Objects.requireNonNull(iterator), characteristics);
     }
 
+    /**
+     * Creates a {@code Spliterator.OfDouble} using a given
+     * {@code DoubleStream.DoubleIterator} as the source of elements, with no initial
+     * size estimate, and sizing its splits according to the cost of each
+     * element.
+     *
+     * <p>The spliterator is not
+     * <em><a href="Spliterator.html#binding">late-binding</a></em>, inherits
+     * the <em>fail-fast</em> properties of the iterator, and implements
+     * {@code trySplit} to permit limited parallelism.  Rather than growing
+     * its splits by a fixed increment, the spliterator sizes each split so
+     * that it represents a similar amount of work, using the larger of the
+     * cost hint and the time measured to obtain elements from the iterator
+     * while filling earlier splits.  The first splits are smaller, ramping up
+     * over as many splits as the pool has workers, so that every worker is
+     * handed elements early when the source is slow.  If a non-zero cost
+     * hint is given that is too small for parallel processing to pay for
+     * copying elements into a split, the spliterator does not split.
+     *
+     * <p>Traversal of elements should be accomplished through the spliterator.
+     * The behaviour of splitting and traversal is undefined if the iterator is
+     * operated on after the spliterator is returned.
+     *
+     * @param iterator The iterator for the source
+     * @param characteristics Characteristics of this spliterator's source
+     *        or elements ({@code SIZED} and {@code SUBSIZED}, if supplied, are
+     *        ignored and are not reported.)
+     * @param costHint The estimated time, in nanoseconds, to obtain and
+     *        process each element, or {@code 0} if unknown, in which case
+     *        the cost is only measured
+     * @return A spliterator from an iterator
+     * @throws NullPointerException if the given iterator is {@code null}
+     * @throws IllegalArgumentException if {@code costHint} is negative
+     */
+    public static Spliterator.OfDouble spliteratorUnknownSize(PrimitiveIterator.OfDouble iterator,
+                                                              int characteristics,
+                                                              long costHint) {
+        return new DoubleIteratorSpliterator(Objects.requireNonNull(iterator), characteristics,
+                                             new AdaptiveBatch(costHint));
+    }
+
     // Iterators from Spliterators
 
     /**
@@ -1239,6 +1406,94 @@ public final class Spliterators {
 
     //
 
+    /**
+     * The batch sizing policy of spliterators created with a cost hint.
+     * Instead of growing batches by a fixed unit, each batch is sized to
+     * represent about TARGET_BATCH_NANOS of work, dividing by the larger of
+     * the hinted per-element cost and the cost measured while filling
+     * earlier batches.  For sources such as remote cursors, where obtaining
+     * an element dominates, this yields many small splits straight away
+     * rather than leaving cores idle behind a single 1024-element batch;
+     * for cheap elements it yields few, large batches.  Until each worker
+     * of the current pool could have received a batch, sizes ramp up
+     * arithmetically, as in the default policy, so the first splits still
+     * arrive quickly.  After that, each batch is at least BATCH_UNIT
+     * elements larger than the last, as in the default policy, so that an
+     * expensive source is not split into a linear number of tiny batches
+     * whose pending tasks would exhaust memory.  No batch is more than
+     * twice the previous one plus BATCH_UNIT, so that a low measured cost
+     * does not allocate an array of up to MAX_BATCH elements for a source
+     * of unknown size that may hold only a few more.  When no hint is
+     * given and nothing has been measured yet, a small probe batch is
+     * taken.  No batches are split off at all
+     * if the caller hints a cost below MIN_SPLIT_NANOS, where copying an
+     * element into an array costs about as much as processing it.  The
+     * measured cost alone never stops splitting, since it covers only
+     * obtaining elements and not the work done on them downstream.
+     */
+    static final class AdaptiveBatch {
+        static final long TARGET_BATCH_NANOS = 1L << 20; // ~1ms of work per batch
+        static final long MIN_SPLIT_NANOS = 1L << 4;     // cheaper elements are not split
+        static final int PROBE_BATCH = 1 << 4;           // first batch if cost unknown
+        private final long costHint;  // hinted nanos per element, or 0
+        private long cost;            // measured nanos per element, 0 until sampled
+        private int splits;           // number of batches taken
+
+        AdaptiveBatch(long costHint) {
+            if (costHint < 0)
+                throw new IllegalArgumentException("Negative cost hint: " + costHint);
+            this.costHint = costHint;
+        }
+
+        /**
+         * Returns {@code true} if another batch should be split off.
+         */
+        boolean splittable() {
+            return costHint == 0 || costHint >= MIN_SPLIT_NANOS;
+        }
+
+        /**
+         * Returns the size of the next batch, between one and
+         * {@code MAX_BATCH}, given the size of the previous batch, or
+         * zero if none has been taken.
+         */
+        int size(int prev) {
+            long c = Math.max(costHint, cost);
+            if (c == 0)
+                return PROBE_BATCH;
+            long n = TARGET_BATCH_NANOS / c;
+            int p = parallelism();
+            if (splits < p)
+                n = n * (splits + 1) / p;
+            else
+                n = Math.max(n, (long) prev + AbstractSpliterator.BATCH_UNIT);
+            n = Math.min(n, 2L * prev + AbstractSpliterator.BATCH_UNIT);
+            return (int) Math.max(1L, Math.min(n, AbstractSpliterator.MAX_BATCH));
+        }
+
+        /**
+         * Records that a batch of {@code n} elements took {@code nanos}
+         * to obtain, averaging it into the measured cost.
+         */
+        void record(int n, long nanos) {
+            long c = Math.max(1L, nanos / n);
+            cost = (cost == 0) ? c : (cost + c) >>> 1;
+            if (splits < Integer.MAX_VALUE)
+                ++splits;
+        }
+
+        /**
+         * Returns the parallelism of the pool running the current thread,
+         * or of the common pool if not running in a pool.
+         */
+        static int parallelism() {
+            Thread t = Thread.currentThread();
+            return (t instanceof ForkJoinWorkerThread)
+                   ? ((ForkJoinWorkerThread) t).getPool().getParallelism()
+                   : ForkJoinPool.getCommonPoolParallelism();
+        }
+    }
+
     /**
      * An abstract {@code Spliterator} that implements {@code trySplit} to
      * permit limited parallelism.
@@ -1270,6 +1525,7 @@ public final class Spliterators {
         private final int characteristics;
         private long est;             // size estimate
         private int batch;            // batch size for splits
+        private AdaptiveBatch adaptive; // null unless given a cost hint
 
         /**
          * Creates a spliterator reporting the given estimated size and
@@ -1288,6 +1544,30 @@ public final class Spliterators {
                                    : additionalCharacteristics;
         }
 
+        /**
+         * Creates a spliterator reporting the given estimated size and
+         * additionalCharacteristics, whose splits are sized according to the
+         * cost of each element rather than growing by a fixed increment.
+         * Each split is sized to represent a similar amount of work, using
+         * the larger of the cost hint and the time measured to obtain
+         * elements via {@code tryAdvance} while filling earlier splits.
+         *
+         * @param est the estimated size of this spliterator if known, otherwise
+         *        {@code Long.MAX_VALUE}.
+         * @param additionalCharacteristics properties of this spliterator's
+         *        source or elements.  If {@code SIZED} is reported then this
+         *        spliterator will additionally report {@code SUBSIZED}.
+         * @param costHint the estimated time, in nanoseconds, to obtain and
+         *        process each element, or {@code 0} if unknown, in which case
+         *        the cost is only measured
+         * @throws IllegalArgumentException if {@code costHint} is negative
+         * @see Spliterators#spliteratorUnknownSize(Iterator, int, long)
+         */
+        protected AbstractSpliterator(long est, int additionalCharacteristics, long costHint) {
+            this(est, additionalCharacteristics);
+            this.adaptive = new AdaptiveBatch(costHint);
+        }
+
         static final class HoldingConsumer<T> implements Consumer<T> {
             Object value;
 
@@ -1318,9 +1598,10 @@ public final class Spliterators {
              * potential speedup.
              */
             HoldingConsumer<T> holder = new HoldingConsumer<>();
-            long s = est;
-            if (s > 1 && tryAdvance(holder)) {
-                int n = batch + BATCH_UNIT;
+            AdaptiveBatch ab = adaptive;
+            long s = est, start = (ab == null) ? 0L : System.nanoTime();
+            if (s > 1 && (ab == null || ab.splittable()) && tryAdvance(holder)) {
+                int n = (ab == null) ? batch + BATCH_UNIT : ab.size(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -1329,6 +1610,8 @@ public final class Spliterators {
                 int j = 0;
                 do { a[j] = holder.value; } while (++j < n && tryAdvance(holder));
                 batch = j;
+                if (ab != null)
+                    ab.record(j, System.nanoTime() - start);
                 if (est != Long.MAX_VALUE)
                     est -= j;
                 return new ArraySpliterator<>(a, 0, j, characteristics());
@@ -1393,6 +1676,7 @@ public final class Spliterators {
         private final int characteristics;
         private long est;             // size estimate
         private int batch;            // batch size for splits
+        private AdaptiveBatch adaptive; // null unless given a cost hint
 
         /**
          * Creates a spliterator reporting the given estimated size and
@@ -1411,6 +1695,30 @@ public final class Spliterators {
                                    : additionalCharacteristics;
         }
 
+        /**
+         * Creates a spliterator reporting the given estimated size and
+         * additionalCharacteristics, whose splits are sized according to the
+         * cost of each element rather than growing by a fixed increment.
+         * Each split is sized to represent a similar amount of work, using
+         * the larger of the cost hint and the time measured to obtain
+         * elements via {@code tryAdvance} while filling earlier splits.
+         *
+         * @param est the estimated size of this spliterator if known, otherwise
+         *        {@code Long.MAX_VALUE}.
+         * @param additionalCharacteristics properties of this spliterator's
+         *        source or elements.  If {@code SIZED} is reported then this
+         *        spliterator will additionally report {@code SUBSIZED}.
+         * @param costHint the estimated time, in nanoseconds, to obtain and
+         *        process each element, or {@code 0} if unknown, in which case
+         *        the cost is only measured
+         * @throws IllegalArgumentException if {@code costHint} is negative
+         * @see Spliterators#spliteratorUnknownSize(java.util.PrimitiveIterator.OfInt, int, long)
+         */
+        protected AbstractIntSpliterator(long est, int additionalCharacteristics, long costHint) {
+            this(est, additionalCharacteristics);
+            this.adaptive = new AdaptiveBatch(costHint);
+        }
+
         static final class HoldingIntConsumer implements IntConsumer {
             int value;
 
@@ -1428,9 +1736,10 @@ public final class Spliterators {
         @Override
         public Spliterator.OfInt trySplit() {
             HoldingIntConsumer holder = new HoldingIntConsumer();
-            long s = est;
-            if (s > 1 && tryAdvance(holder)) {
-                int n = batch + BATCH_UNIT;
+            AdaptiveBatch ab = adaptive;
+            long s = est, start = (ab == null) ? 0L : System.nanoTime();
+            if (s > 1 && (ab == null || ab.splittable()) && tryAdvance(holder)) {
+                int n = (ab == null) ? batch + BATCH_UNIT : ab.size(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -1439,6 +1748,8 @@ public final class Spliterators {
                 int j = 0;
                 do { a[j] = holder.value; } while (++j < n && tryAdvance(holder));
                 batch = j;
+                if (ab != null)
+                    ab.record(j, System.nanoTime() - start);
                 if (est != Long.MAX_VALUE)
                     est -= j;
                 return new IntArraySpliterator(a, 0, j, characteristics());
@@ -1503,6 +1814,7 @@ public final class Spliterators {
         private final int characteristics;
         private long est;             // size estimate
         private int batch;            // batch size for splits
+        private AdaptiveBatch adaptive; // null unless given a cost hint
 
         /**
          * Creates a spliterator reporting the given estimated size and
@@ -1521,6 +1833,30 @@ public final class Spliterators {
                                    : additionalCharacteristics;
         }
 
+        /**
+         * Creates a spliterator reporting the given estimated size and
+         * additionalCharacteristics, whose splits are sized according to the
+         * cost of each element rather than growing by a fixed increment.
+         * Each split is sized to represent a similar amount of work, using
+         * the larger of the cost hint and the time measured to obtain
+         * elements via {@code tryAdvance} while filling earlier splits.
+         *
+         * @param est the estimated size of this spliterator if known, otherwise
+         *        {@code Long.MAX_VALUE}.
+         * @param additionalCharacteristics properties of this spliterator's
+         *        source or elements.  If {@code SIZED} is reported then this
+         *        spliterator will additionally report {@code SUBSIZED}.
+         * @param costHint the estimated time, in nanoseconds, to obtain and
+         *        process each element, or {@code 0} if unknown, in which case
+         *        the cost is only measured
+         * @throws IllegalArgumentException if {@code costHint} is negative
+         * @see Spliterators#spliteratorUnknownSize(java.util.PrimitiveIterator.OfLong, int, long)
+         */
+        protected AbstractLongSpliterator(long est, int additionalCharacteristics, long costHint) {
+            this(est, additionalCharacteristics);
+            this.adaptive = new AdaptiveBatch(costHint);
+        }
+
         static final class HoldingLongConsumer implements LongConsumer {
             long value;
 
@@ -1538,9 +1874,10 @@ public final class Spliterators {
         @Override
         public Spliterator.OfLong trySplit() {
             HoldingLongConsumer holder = new HoldingLongConsumer();
-            long s = est;
-            if (s > 1 && tryAdvance(holder)) {
-                int n = batch + BATCH_UNIT;
+            AdaptiveBatch ab = adaptive;
+            long s = est, start = (ab == null) ? 0L : System.nanoTime();
+            if (s > 1 && (ab == null || ab.splittable()) && tryAdvance(holder)) {
+                int n = (ab == null) ? batch + BATCH_UNIT : ab.size(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -1549,6 +1886,8 @@ public final class Spliterators {
                 int j = 0;
                 do { a[j] = holder.value; } while (++j < n && tryAdvance(holder));
                 batch = j;
+                if (ab != null)
+                    ab.record(j, System.nanoTime() - start);
                 if (est != Long.MAX_VALUE)
                     est -= j;
                 return new LongArraySpliterator(a, 0, j, characteristics());
@@ -1613,6 +1952,7 @@ public final class Spliterators {
         private final int characteristics;
         private long est;             // size estimate
         private int batch;            // batch size for splits
+        private AdaptiveBatch adaptive; // null unless given a cost hint
 
         /**
          * Creates a spliterator reporting the given estimated size and
@@ -1631,6 +1971,30 @@ public final class Spliterators {
                                    : additionalCharacteristics;
         }
 
+        /**
+         * Creates a spliterator reporting the given estimated size and
+         * additionalCharacteristics, whose splits are sized according to the
+         * cost of each element rather than growing by a fixed increment.
+         * Each split is sized to represent a similar amount of work, using
+         * the larger of the cost hint and the time measured to obtain
+         * elements via {@code tryAdvance} while filling earlier splits.
+         *
+         * @param est the estimated size of this spliterator if known, otherwise
+         *        {@code Long.MAX_VALUE}.
+         * @param additionalCharacteristics properties of this spliterator's
+         *        source or elements.  If {@code SIZED} is reported then this
+         *        spliterator will additionally report {@code SUBSIZED}.
+         * @param costHint the estimated time, in nanoseconds, to obtain and
+         *        process each element, or {@code 0} if unknown, in which case
+         *        the cost is only measured
+         * @throws IllegalArgumentException if {@code costHint} is negative
+         * @see Spliterators#spliteratorUnknownSize(java.util.PrimitiveIterator.OfDouble, int, long)
+         */
+        protected AbstractDoubleSpliterator(long est, int additionalCharacteristics, long costHint) {
+            this(est, additionalCharacteristics);
+            this.adaptive = new AdaptiveBatch(costHint);
+        }
+
         static final class HoldingDoubleConsumer implements DoubleConsumer {
             double value;
 
@@ -1648,9 +2012,10 @@ public final class Spliterators {
         @Override
         public Spliterator.OfDouble trySplit() {
             HoldingDoubleConsumer holder = new HoldingDoubleConsumer();
-            long s = est;
-            if (s > 1 && tryAdvance(holder)) {
-                int n = batch + BATCH_UNIT;
+            AdaptiveBatch ab = adaptive;
+            long s = est, start = (ab == null) ? 0L : System.nanoTime();
+            if (s > 1 && (ab == null || ab.splittable()) && tryAdvance(holder)) {
+                int n = (ab == null) ? batch + BATCH_UNIT : ab.size(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -1659,6 +2024,8 @@ public final class Spliterators {
                 int j = 0;
                 do { a[j] = holder.value; } while (++j < n && tryAdvance(holder));
                 batch = j;
+                if (ab != null)
+                    ab.record(j, System.nanoTime() - start);
                 if (est != Long.MAX_VALUE)
                     est -= j;
                 return new DoubleArraySpliterator(a, 0, j, characteristics());
@@ -1707,6 +2074,7 @@ public final class Spliterators {
         private final int characteristics;
         private long est;             // size estimate
         private int batch;            // batch size for splits
+        private AdaptiveBatch adaptive; // null unless given a cost hint
 
         /**
          * Creates a spliterator using the given given
@@ -1761,6 +2129,21 @@ public final class Spliterators {
             this.characteristics = characteristics & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
         }
 
+        /**
+         * Creates a spliterator using the given iterator for a
+         * source of unknown size, reporting the given
+         * characteristics, and sizing splits by the given policy.
+         *
+         * @param iterator the iterator for the source
+         * @param characteristics properties of this spliterator's
+         * source or elements.
+         * @param adaptive the batch sizing policy
+         */
+        IteratorSpliterator(Iterator<? extends T> iterator, int characteristics, AdaptiveBatch adaptive) {
+            this(iterator, characteristics);
+            this.adaptive = adaptive;
+        }
+
         @Override
         public Spliterator<T> trySplit() {
             /*
@@ -1777,15 +2160,16 @@ public final class Spliterators {
              * potential speedup.
              */
             Iterator<? extends T> i;
-            long s;
+            AdaptiveBatch ab = adaptive;
+            long s, start = (ab == null) ? 0L : System.nanoTime();
             if ((i = it) == null) {
                 i = it = collection.iterator();
                 s = est = (long) collection.size();
             }
             else
                 s = est;
-            if (s > 1 && i.hasNext()) {
-                int n = batch + BATCH_UNIT;
+            if (s > 1 && (ab == null || ab.splittable()) && i.hasNext()) {
+                int n = (ab == null) ? batch + BATCH_UNIT : ab.size(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -1794,6 +2178,8 @@ public final class Spliterators {
                 int j = 0;
                 do { a[j] = i.next(); } while (++j < n && i.hasNext());
                 batch = j;
+                if (ab != null)
+                    ab.record(j, System.nanoTime() - start);
                 if (est != Long.MAX_VALUE)
                     est -= j;
                 return new ArraySpliterator<>(a, 0, j, characteristics);
@@ -1858,6 +2244,7 @@ public final class Spliterators {
         private final int characteristics;
         private long est;             // size estimate
         private int batch;            // batch size for splits
+        private AdaptiveBatch adaptive; // null unless given a cost hint
 
         /**
          * Creates a spliterator using the given iterator
@@ -1892,12 +2279,28 @@ public final class Spliterators {
             this.characteristics = characteristics & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
         }
 
+        /**
+         * Creates a spliterator using the given iterator for a
+         * source of unknown size, reporting the given
+         * characteristics, and sizing splits by the given policy.
+         *
+         * @param iterator the iterator for the source
+         * @param characteristics properties of this spliterator's
+         * source or elements.
+         * @param adaptive the batch sizing policy
+         */
+        IntIteratorSpliterator(PrimitiveIterator.OfInt iterator, int characteristics, AdaptiveBatch adaptive) {
+            this(iterator, characteristics);
+            this.adaptive = adaptive;
+        }
+
         @Override
         public OfInt trySplit() {
             PrimitiveIterator.OfInt i = it;
-            long s = est;
-            if (s > 1 && i.hasNext()) {
-                int n = batch + BATCH_UNIT;
+            AdaptiveBatch ab = adaptive;
+            long s = est, start = (ab == null) ? 0L : System.nanoTime();
+            if (s > 1 && (ab == null || ab.splittable()) && i.hasNext()) {
+                int n = (ab == null) ? batch + BATCH_UNIT : ab.size(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -1906,6 +2309,8 @@ public final class Spliterators {
                 int j = 0;
                 do { a[j] = i.nextInt(); } while (++j < n && i.hasNext());
                 batch = j;
+                if (ab != null)
+                    ab.record(j, System.nanoTime() - start);
                 if (est != Long.MAX_VALUE)
                     est -= j;
                 return new IntArraySpliterator(a, 0, j, characteristics);
@@ -1952,6 +2357,7 @@ public final class Spliterators {
         private final int characteristics;
         private long est;             // size estimate
         private int batch;            // batch size for splits
+        private AdaptiveBatch adaptive; // null unless given a cost hint
 
         /**
          * Creates a spliterator using the given iterator
@@ -1986,12 +2392,28 @@ public final class Spliterators {
             this.characteristics = characteristics & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
         }
 
+        /**
+         * Creates a spliterator using the given iterator for a
+         * source of unknown size, reporting the given
+         * characteristics, and sizing splits by the given policy.
+         *
+         * @param iterator the iterator for the source
+         * @param characteristics properties of this spliterator's
+         * source or elements.
+         * @param adaptive the batch sizing policy
+         */
+        LongIteratorSpliterator(PrimitiveIterator.OfLong iterator, int characteristics, AdaptiveBatch adaptive) {
+            this(iterator, characteristics);
+            this.adaptive = adaptive;
+        }
+
         @Override
         public OfLong trySplit() {
             PrimitiveIterator.OfLong i = it;
-            long s = est;
-            if (s > 1 && i.hasNext()) {
-                int n = batch + BATCH_UNIT;
+            AdaptiveBatch ab = adaptive;
+            long s = est, start = (ab == null) ? 0L : System.nanoTime();
+            if (s > 1 && (ab == null || ab.splittable()) && i.hasNext()) {
+                int n = (ab == null) ? batch + BATCH_UNIT : ab.size(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -2000,6 +2422,8 @@ public final class Spliterators {
                 int j = 0;
                 do { a[j] = i.nextLong(); } while (++j < n && i.hasNext());
                 batch = j;
+                if (ab != null)
+                    ab.record(j, System.nanoTime() - start);
                 if (est != Long.MAX_VALUE)
                     est -= j;
                 return new LongArraySpliterator(a, 0, j, characteristics);
@@ -2046,6 +2470,7 @@ public final class Spliterators {
         private final int characteristics;
         private long est;             // size estimate
         private int batch;            // batch size for splits
+        private AdaptiveBatch adaptive; // null unless given a cost hint
 
         /**
          * Creates a spliterator using the given iterator
@@ -2080,12 +2505,28 @@ public final class Spliterators {
             this.characteristics = characteristics & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
         }
 
+        /**
+         * Creates a spliterator using the given iterator for a
+         * source of unknown size, reporting the given
+         * characteristics, and sizing splits by the given policy.
+         *
+         * @param iterator the iterator for the source
+         * @param characteristics properties of this spliterator's
+         * source or elements.
+         * @param adaptive the batch sizing policy
+         */
+        DoubleIteratorSpliterator(PrimitiveIterator.OfDouble iterator, int characteristics, AdaptiveBatch adaptive) {
+            this(iterator, characteristics);
+            this.adaptive = adaptive;
+        }
+
         @Override
         public OfDouble trySplit() {
             PrimitiveIterator.OfDouble i = it;
-            long s = est;
-            if (s > 1 && i.hasNext()) {
-                int n = batch + BATCH_UNIT;
+            AdaptiveBatch ab = adaptive;
+            long s = est, start = (ab == null) ? 0L : System.nanoTime();
+            if (s > 1 && (ab == null || ab.splittable()) && i.hasNext()) {
+                int n = (ab == null) ? batch + BATCH_UNIT : ab.size(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -2094,6 +2535,8 @@ public final class Spliterators {
                 int j = 0;
                 do { a[j] = i.nextDouble(); } while (++j < n && i.hasNext());
                 batch = j;
+                if (ab != null)
+                    ab.record(j, System.nanoTime() - start);
                 if (est != Long.MAX_VALUE)
                     est -= j;
                 return new DoubleArraySpliterator(a, 0, j, characteristics);
@@ -36,6 +36,11 @@
 
 package java.util;
 import java.util.Date;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimingWheelScheduledExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -88,6 +93,12 @@ import java.util.concurrent.atomic.AtomicInteger;
  * scheduled tasks (thousands should present no problem).  Internally,
  * it uses a binary heap to represent its task queue, so the cost to schedule
  * a task is O(log n), where n is the number of concurrently scheduled tasks.
+ * If the system property {@code java.util.Timer.useTimingWheel} is set to
+ * {@code true}, timers instead schedule their tasks on a single-threaded
+ * {@link java.util.concurrent.TimingWheelScheduledExecutor
+ * TimingWheelScheduledExecutor} with a tick of one millisecond, so that
+ * scheduling and cancelling a task take constant time, and cancelled tasks
+ * are removed immediately.
  *
  * <p>Implementation note: All constructors start a timer thread.
  *
@@ -111,6 +122,22 @@ public class Timer {
      */
     private final TimerThread thread = new TimerThread(queue);
 
+    /**
+     * The timing wheel on which tasks are scheduled instead of the queue,
+     * or null if the timer thread uses the queue.  The timer thread is
+     * then never started, but its newTasksMayBeScheduled flag is still
+     * used, guarded by queue's monitor.
+     */
+    private final ScheduledThreadPoolExecutor wheel;
+
+    /**
+     * Whether timers use a timing wheel, as selected by a system property.
+     */
+    private static final boolean useTimingWheel =
+        java.security.AccessController.doPrivileged(
+            new sun.security.action.GetBooleanAction(
+                "java.util.Timer.useTimingWheel")).booleanValue();
+
     /**
      * This object causes the timer's task execution thread to exit
      * gracefully when there are no live references to the Timer object and no
@@ -124,6 +151,11 @@ public class Timer {
                 thread.newTasksMayBeScheduled = false;
                 queue.notify(); // In case queue is empty.
             }
+            if (wheel != null) {
+                // Let the thread exit once no tasks remain
+                wheel.setKeepAliveTime(1L, TimeUnit.SECONDS);
+                wheel.allowCoreThreadTimeOut(true);
+            }
         }
     };
 
@@ -168,7 +200,9 @@ public class Timer {
      */
     public Timer(String name) {
         thread.setName(name);
-        thread.start();
+        wheel = newWheel(name, thread.isDaemon());
+        if (wheel == null)
+            thread.start();
     }
 
     /**
@@ -184,7 +218,27 @@ public class Timer {
     public Timer(String name, boolean isDaemon) {
         thread.setName(name);
         thread.setDaemon(isDaemon);
-        thread.start();
+        wheel = newWheel(name, isDaemon);
+        if (wheel == null)
+            thread.start();
+    }
+
+    /**
+     * Returns a started timing wheel with a single thread of the given
+     * name and daemon status, or null if timers do not use timing wheels.
+     */
+    private static ScheduledThreadPoolExecutor newWheel(String name,
+                                                        boolean isDaemon) {
+        if (!useTimingWheel)
+            return null;
+        ScheduledThreadPoolExecutor w = new TimingWheelScheduledExecutor(
+            1, 1L, TimeUnit.MILLISECONDS,
+            new WheelThreadFactory(name, isDaemon),
+            new ThreadPoolExecutor.AbortPolicy());
+        w.setRemoveOnCancelPolicy(true);
+        w.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        w.prestartCoreThread();
+        return w;
     }
 
     /**
@@ -414,6 +468,13 @@ public class Timer {
                 task.nextExecutionTime = time;
                 task.period = period;
                 task.state = TimerTask.SCHEDULED;
+                if (wheel != null) {
+                    task.wheelFuture = wheel.schedule(
+                        new WheelRunner(task, queue, thread, wheel),
+                        time - System.currentTimeMillis(),
+                        TimeUnit.MILLISECONDS);
+                    return;
+                }
             }
 
             queue.add(task);
@@ -441,6 +502,8 @@ public class Timer {
             thread.newTasksMayBeScheduled = false;
             queue.clear();
             queue.notify();  // In case queue was already empty.
+            if (wheel != null)
+                wheel.shutdown();
         }
     }
 
@@ -465,6 +528,9 @@ public class Timer {
      * @since 1.5
      */
      public int purge() {
+         if (wheel != null)
+             return 0;  // Tasks are removed from the wheel when cancelled
+
          int result = 0;
 
          synchronized(queue) {
@@ -481,6 +547,81 @@ public class Timer {
 
          return result;
      }
+
+    /**
+     * Runs a task scheduled on a timer's timing wheel, first rescheduling
+     * it if it is repeating, as TimerThread.mainLoop does for tasks in
+     * the queue.  Like TimerThread, this refers to the queue rather than
+     * the Timer, so that the Timer can be reclaimed while tasks are
+     * pending.
+     */
+    private static final class WheelRunner implements Runnable {
+        private final TimerTask task;
+        private final TaskQueue queue;
+        private final TimerThread thread;
+        private final ScheduledThreadPoolExecutor wheel;
+
+        WheelRunner(TimerTask task, TaskQueue queue, TimerThread thread,
+                    ScheduledThreadPoolExecutor wheel) {
+            this.task = task;
+            this.queue = queue;
+            this.thread = thread;
+            this.wheel = wheel;
+        }
+
+        public void run() {
+            synchronized(queue) {
+                if (wheel.isShutdown())
+                    return;  // Timer cancelled
+                synchronized(task.lock) {
+                    if (task.state == TimerTask.CANCELLED)
+                        return;
+                    long currentTime = System.currentTimeMillis();
+                    long executionTime = task.nextExecutionTime;
+                    if (task.period == 0) { // Non-repeating
+                        task.state = TimerTask.EXECUTED;
+                        task.wheelFuture = null;
+                    } else { // Repeating task, reschedule
+                        long next = task.period<0 ? currentTime   - task.period
+                                                  : executionTime + task.period;
+                        task.nextExecutionTime = next;
+                        task.wheelFuture = wheel.schedule(
+                            this, next - currentTime, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                // As when the timer thread dies, behave as if Timer cancelled
+                synchronized(queue) {
+                    thread.newTasksMayBeScheduled = false;
+                    wheel.shutdown();
+                }
+                Thread t = Thread.currentThread();
+                t.getUncaughtExceptionHandler().uncaughtException(t, ex);
+            }
+        }
+    }
+
+    /**
+     * Creates the thread of a timer's timing wheel.
+     */
+    private static final class WheelThreadFactory implements ThreadFactory {
+        private final String name;
+        private final boolean isDaemon;
+
+        WheelThreadFactory(String name, boolean isDaemon) {
+            this.name = name;
+            this.isDaemon = isDaemon;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, name);
+            t.setDaemon(isDaemon);
+            return t;
+        }
+    }
 }
 
 /**
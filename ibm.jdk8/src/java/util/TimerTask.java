@@ -91,6 +91,12 @@ public abstract class TimerTask implements Runnable {
      */
     long period = 0;
 
+    /**
+     * The pending execution of this task on a timer that uses a timing
+     * wheel (see Timer), or null.
+     */
+    java.util.concurrent.Future<?> wheelFuture;
+
     /**
      * Creates a new timer task.
      */
@@ -125,11 +131,17 @@ public abstract class TimerTask implements Runnable {
      *         executions from taking place.)
      */
     public boolean cancel() {
+        boolean result;
+        java.util.concurrent.Future<?> f;
         synchronized(lock) {
-            boolean result = (state == SCHEDULED);
+            result = (state == SCHEDULED);
             state = CANCELLED;
-            return result;
+            f = wheelFuture;
+            wheelFuture = null;
         }
+        if (f != null)
+            f.cancel(false);
+        return result;
     }
 
     /**
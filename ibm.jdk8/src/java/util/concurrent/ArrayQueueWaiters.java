@@ -0,0 +1,188 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The blocking support shared by {@link SpscArrayBlockingQueue}, {@link
+ * MpscArrayBlockingQueue} and {@link MpmcArrayBlockingQueue}.
+ *
+ * <p>Insertion and removal are performed by the underlying
+ * non-blocking queue; the lock and conditions here are used only by
+ * threads that must wait.  A thread about to wait increments its
+ * waiter count while holding the lock, then retries its operation.
+ * A thread that makes progress publishes its index update, issues a
+ * full fence, and reads the waiter count, taking the lock to signal
+ * only if it is nonzero.  Either the waiter's retry sees the update or
+ * the signaller sees the waiter, in which case the signal cannot be
+ * delivered before the waiter is awaiting it, since the waiter holds
+ * the lock until then.  A waiter leaving after a signal, successfully
+ * or not, passes it on if it may still be of use, so that none is lost
+ * to timeouts or interrupts.
+ */
+final class ArrayQueueWaiters {
+
+    final ReentrantLock lock = new ReentrantLock();
+    final Condition notEmpty = lock.newCondition();
+    final Condition notFull = lock.newCondition();
+
+    /** The number of threads waiting to remove; written under lock */
+    volatile int emptyWaiters;
+
+    /** The number of threads waiting to insert; written under lock */
+    volatile int fullWaiters;
+
+    /**
+     * Wakes one (or all, if many elements were inserted) waiting
+     * consumers, if there are any.
+     */
+    void signalNotEmpty(boolean all) {
+        U.fullFence();
+        if (emptyWaiters != 0) {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                if (all)
+                    notEmpty.signalAll();
+                else
+                    notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Wakes one (or all, if many elements were removed) waiting
+     * producers, if there are any.
+     */
+    void signalNotFull(boolean all) {
+        U.fullFence();
+        if (fullWaiters != 0) {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                if (all)
+                    notFull.signalAll();
+                else
+                    notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Inserts e into q, waiting up to the given time for space if
+     * timed, else indefinitely.  Returns false on timeout.
+     */
+    <E> boolean offer(ConcurrentArrayQueue<E> q, E e, boolean timed,
+                      long nanos) throws InterruptedException {
+        if (q.offer(e))
+            return true;
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            ++fullWaiters;
+            try {
+                while (!q.offer(e)) {
+                    if (!timed)
+                        notFull.await();
+                    else if (nanos <= 0L)
+                        return false;
+                    else
+                        nanos = notFull.awaitNanos(nanos);
+                }
+                return true;
+            } finally {
+                --fullWaiters;
+                if (fullWaiters != 0 && q.size() < q.capacity())
+                    notFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the head of q, waiting up to the given time
+     * for an element if timed, else indefinitely.  Returns null on
+     * timeout.
+     */
+    <E> E poll(ConcurrentArrayQueue<E> q, boolean timed, long nanos)
+        throws InterruptedException {
+        E x = q.poll();
+        if (x != null)
+            return x;
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            ++emptyWaiters;
+            try {
+                while ((x = q.poll()) == null) {
+                    if (!timed)
+                        notEmpty.await();
+                    else if (nanos <= 0L)
+                        return null;
+                    else
+                        nanos = notEmpty.awaitNanos(nanos);
+                }
+                return x;
+            } finally {
+                --emptyWaiters;
+                if (emptyWaiters != 0 && !q.isEmpty())
+                    notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final sun.misc.Unsafe U = ConcurrentArrayQueue.U;
+}
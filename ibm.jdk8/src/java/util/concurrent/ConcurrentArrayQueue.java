@@ -0,0 +1,316 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Shared state and mechanics of the bounded, array-based, non-blocking
+ * queues {@link SpscArrayQueue}, {@link MpscArrayQueue} and {@link
+ * MpmcArrayQueue}.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+abstract class ConcurrentArrayQueue<E> extends AbstractQueue<E> {
+
+    /*
+     * Each queue holds its elements in a power-of-two sized array,
+     * indexed by ever-increasing long producer and consumer indices
+     * (which cannot overflow in practice), masked to array indices.
+     * The indices are written by different threads, so each is padded
+     * (with any state private to its end) into its own cache line.
+     *
+     * In the multi-producer queues a producer reserves a slot before
+     * writing its element, and so may be descheduled in between; a
+     * consumer finding a reserved but unwritten slot spins until the
+     * element appears rather than reporting the queue empty, so that
+     * blocking subclasses never miss an element that has been
+     * counted.  Slots reserved by fill whose supplier then fails are
+     * written with SKIP, which consumers discard.
+     *
+     * An element is removed from the interior of the queue, by
+     * remove(Object) or an iterator, by CASing its slot from the
+     * element to SKIP, so that consumers then discard it too.  Its
+     * slot is reclaimed only when it reaches the head.  Consumers
+     * take an element by atomically swapping its slot with null, so
+     * that exactly one of a consumer and a remover wins the element.
+     */
+
+    /** The number of times to spin before yielding while waiting on a slot */
+    static final int SPINS = 1 << 6;
+
+    /** Placeholder for a reserved slot that will not receive an element */
+    static final Object SKIP = new Object();
+
+    /** The elements; length is a power of two */
+    final Object[] buffer;
+
+    /** buffer.length - 1 */
+    final int mask;
+
+    /** The index of the next slot to be produced */
+    @sun.misc.Contended("p") volatile long producerIndex;
+
+    /** The index of the next slot to be consumed */
+    @sun.misc.Contended("c") volatile long consumerIndex;
+
+    ConcurrentArrayQueue(int capacity, int minCapacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException();
+        int n = Math.max(minCapacity, capacity);
+        n = (n == 1) ? 1 : Integer.highestOneBit(n - 1) << 1;
+        this.buffer = new Object[n];
+        this.mask = n - 1;
+    }
+
+    /**
+     * Returns the capacity of this queue, which is the requested
+     * capacity rounded up to a power of two.
+     *
+     * @return the capacity of this queue
+     */
+    public final int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns the address of the slot of buffer for the given index.
+     */
+    final long elementOffset(long index) {
+        return ((index & mask) << ASHIFT) + ABASE;
+    }
+
+    /**
+     * Waits for a producer that has reserved the slot at the given
+     * offset to write its element, and returns the element.
+     */
+    final Object awaitElement(long offset) {
+        Object e;
+        for (int spins = 0;
+             (e = U.getObjectVolatile(buffer, offset)) == null; ) {
+            if (++spins >= SPINS) {
+                spins = 0;
+                Thread.yield();
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Takes the element (or SKIP) from the slot at the given offset,
+     * leaving it empty, as a consumer that has claimed the slot.
+     */
+    final Object takeElement(long offset) {
+        return U.getAndSetObject(buffer, offset, null);
+    }
+
+    /**
+     * Marks the slot at the given index as removed, if it still holds
+     * the given element.
+     */
+    final boolean removeAt(long index, Object e) {
+        return index >= consumerIndex &&
+            U.compareAndSwapObject(buffer, elementOffset(index), e, SKIP);
+    }
+
+    /**
+     * Removes up to {@code limit} elements from the head of this queue,
+     * passing each to the given action in turn.  If the action throws
+     * an exception, the element it was passed has already been removed.
+     *
+     * @param action the action to perform on each element removed
+     * @param limit the maximum number of elements to remove
+     * @return the number of elements removed
+     * @throws NullPointerException if the action is null
+     */
+    public int drain(Consumer<? super E> action, int limit) {
+        if (action == null)
+            throw new NullPointerException();
+        int n = 0;
+        for (E e; n < limit && (e = poll()) != null; ) {
+            ++n;
+            action.accept(e);
+        }
+        return n;
+    }
+
+    /**
+     * Inserts up to {@code limit} elements obtained from the given
+     * supplier at the tail of this queue, stopping early if it becomes
+     * full.  The supplier is only called when there is room for the
+     * element it returns.
+     *
+     * @param supplier the source of elements to insert
+     * @param limit the maximum number of elements to insert
+     * @return the number of elements inserted
+     * @throws NullPointerException if the supplier is null or returns null
+     */
+    public abstract int fill(Supplier<? extends E> supplier, int limit);
+
+    /**
+     * Removes a single instance of the specified element from this
+     * queue, if it is present.  This method may be called by any
+     * thread.  The element's slot is reclaimed only when it reaches
+     * the head of the queue, and until then it still counts towards
+     * the {@link #size} of the queue and occupies its capacity.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        if (o != null) {
+            long c = consumerIndex, p = Math.min(producerIndex, c + mask + 1);
+            for (long i = c; i < p; ++i) {
+                Object e = U.getObjectVolatile(buffer, elementOffset(i));
+                if (e != null && e != SKIP && o.equals(e) && removeAt(i, e))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an estimate of the number of elements in this queue.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        long c = consumerIndex, p = producerIndex;
+        return (int)Math.max(0L, Math.min(p - c, (long)(mask + 1)));
+    }
+
+    public boolean isEmpty() {
+        return consumerIndex >= producerIndex;
+    }
+
+    /**
+     * Returns an iterator over the elements in this queue, in proper
+     * sequence.  The returned iterator is weakly consistent,
+     * traversing a snapshot that may reflect concurrent insertions
+     * and removals only in part.  Its {@code remove} method removes
+     * the last element returned if it is still in the queue, as for
+     * {@link #remove(Object)}.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        long c = consumerIndex, p = Math.min(producerIndex, c + mask + 1);
+        int n = (int)Math.max(0L, p - c), k = 0;
+        Object[] items = new Object[n];
+        long[] indices = new long[n];
+        for (long i = c; i < p; ++i) {
+            Object e = U.getObjectVolatile(buffer, elementOffset(i));
+            if (e != null && e != SKIP) {
+                items[k] = e;
+                indices[k++] = i;
+            }
+        }
+        return new Itr(items, indices, k);
+    }
+
+    /** Iterator over a snapshot of the elements and their indices */
+    final class Itr implements Iterator<E> {
+        private final Object[] items;
+        private final long[] indices;
+        private final int count;
+        private int cursor;
+        private int lastRet = -1;
+
+        Itr(Object[] items, long[] indices, int count) {
+            this.items = items;
+            this.indices = indices;
+            this.count = count;
+        }
+
+        public boolean hasNext() {
+            return cursor < count;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor >= count)
+                throw new NoSuchElementException();
+            return (E)items[lastRet = cursor++];
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            removeAt(indices[lastRet], items[lastRet]);
+            lastRet = -1;
+        }
+    }
+
+    // Unsafe mechanics
+    static final sun.misc.Unsafe U;
+    static final long PRODUCER_INDEX;
+    static final long CONSUMER_INDEX;
+    static final long ABASE;
+    static final int ASHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = ConcurrentArrayQueue.class;
+            PRODUCER_INDEX = U.objectFieldOffset
+                (k.getDeclaredField("producerIndex"));
+            CONSUMER_INDEX = U.objectFieldOffset
+                (k.getDeclaredField("consumerIndex"));
+            Class<?> ak = Object[].class;
+            ABASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
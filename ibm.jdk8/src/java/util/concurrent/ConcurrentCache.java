@@ -0,0 +1,1125 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A concurrent cache, bounded by the number or total weight of its
+ * entries and/or by their age, layered over a {@link ConcurrentHashMap}.
+ * Instances are created using a {@link Builder}, for example:
+ *
+ * <pre> {@code
+ * ConcurrentCache<String, Image> images =
+ *     new ConcurrentCache.Builder<String, Image>()
+ *         .setMaximumWeight(1L << 26, (key, image) -> image.getByteCount())
+ *         .setExpireAfterAccess(10, TimeUnit.MINUTES)
+ *         .build();}</pre>
+ *
+ * <p>Retrievals do not block and do not acquire locks.  Instead of
+ * reordering a shared recency list on every access, as a {@link
+ * java.util.LinkedHashMap} in access order must, accesses are recorded
+ * in a set of small striped buffers that are replayed in batches, by
+ * whichever thread finds a buffer full, under a lock that is only ever
+ * tried, never waited for, on the read path.  Writes are recorded in a
+ * similar (unbounded, but regularly drained) queue.  Bookkeeping is
+ * therefore amortized and performed asynchronously with respect to
+ * the operations that cause it: a cache may briefly exceed its bounds,
+ * and the statistics and {@link #size} are estimates.  Buffered
+ * accesses may be dropped under contention, which affects only the
+ * precision of the eviction policy.
+ *
+ * <p>When the cache exceeds its maximum weight, entries are chosen for
+ * eviction using a <em>TinyLFU</em> admission policy: recently added
+ * entries first pass through a small LRU admission window, and an entry
+ * leaving the window is admitted to the main LRU space only if it has
+ * been used more frequently than the entry it would displace, as
+ * estimated by a compact count-min sketch of the recent access history.
+ * This protects frequently used entries from being flushed out by scans
+ * of entries used only once.
+ *
+ * <p>Entries may also expire a fixed duration after they were created or
+ * last replaced ({@link Builder#setExpireAfterWrite}), or after they were
+ * last read or written ({@link Builder#setExpireAfterAccess}).  Expired
+ * entries are never returned, although they may continue to occupy space
+ * until the next batch of maintenance.
+ *
+ * <p>Like {@code ConcurrentHashMap}, this class does <em>not</em> allow
+ * {@code null} to be used as a key or value.  Hit, miss and eviction
+ * counts are always recorded, and are available from {@link #stats}.
+ *
+ * @since 1.8
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of cached values
+ */
+public class ConcurrentCache<K,V> {
+
+    /*
+     * Overview:
+     *
+     * Entries are Nodes held in a ConcurrentHashMap.  A node's
+     * value, timestamps and weight are updated in place, under the
+     * node's monitor, so that a node is never replaced while its key
+     * is mapped; removal "retires" a node (also under its monitor)
+     * before unmapping it.
+     *
+     * The eviction policy's data structures -- two access-ordered
+     * doubly linked deques (the admission window and main space), a
+     * write-ordered deque for expireAfterWrite, weight totals, and
+     * the frequency sketch -- are guarded by evictionLock and
+     * updated only during maintenance.  Reads append their node to
+     * one of a power-of-two number of fixed-size ring buffers chosen
+     * by the thread's ThreadLocalRandom probe (as in Striped64),
+     * dropping the record if the slot CAS fails or the buffer is
+     * full; a reader finding a full buffer tries the lock and, if it
+     * succeeds, performs maintenance.  Writes enqueue a task
+     * describing the change and then try the lock; if the queue has
+     * grown beyond WRITE_BUFFER_MAX they wait for it instead, so that
+     * writers cannot outpace eviction indefinitely.
+     *
+     * Because tasks for a node may be enqueued out of order (a
+     * removal's task before the task of the insertion it undoes),
+     * tasks consult the node's state rather than replaying
+     * transitions: an addition of a retired node is ignored, and
+     * removal of an unlinked node is a no-op.  Weights are likewise
+     * read from the node when the task runs.
+     *
+     * Eviction follows W-TinyLFU in simplified form.  Entries
+     * overflowing the window (1% of the maximum weight) move to the
+     * tail of the main space; while over the maximum, the first such
+     * candidate is compared with the main space's LRU victim and the
+     * less frequently used of the two is evicted.  The frequency
+     * sketch holds four 4-bit counters per entry across a long[],
+     * and halves all counters once the number of increments reaches
+     * ten times its capacity, so that it reflects recent history.
+     * To resist attacks that raise a victim's frequency, a candidate
+     * with moderate frequency is occasionally admitted at random.
+     */
+
+    /* ---------------- Constants -------------- */
+
+    /** The number of CPUS, to bound the number of read buffers */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The maximum number of striped read buffers. */
+    static final int MAX_READ_BUFFERS = 1 << 6;
+
+    /** The number of slots in each read buffer, a power of two. */
+    static final int READ_BUFFER_SIZE = 1 << 4;
+
+    /** The number of pending write tasks beyond which writers block. */
+    static final int WRITE_BUFFER_MAX = 1 << 7;
+
+    /** The fraction (1/n) of the maximum weight given to the window. */
+    static final int WINDOW_FRACTION = 100;
+
+    /** The largest number of counters in the frequency sketch. */
+    static final int MAXIMUM_SKETCH_CAPACITY = 1 << 20;
+
+    /** Access queue identifiers of nodes. */
+    static final int NONE = 0, WINDOW = 1, MAIN = 2;
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * A cache entry.
+     */
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;
+        volatile long writeTime;
+        volatile long accessTime;
+        volatile int pendingWeight; // weight of current value
+        boolean retired;            // guarded by this
+
+        // Fields below are guarded by evictionLock
+        int weight;                 // weight as accounted
+        int queue;                  // NONE, WINDOW or MAIN
+        Node<K,V> prev, next;       // access order links
+        Node<K,V> prevW, nextW;     // write order links
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.pendingWeight = weight;
+            this.writeTime = this.accessTime = now;
+        }
+    }
+
+    /**
+     * A doubly linked deque of nodes, using either the access or
+     * the write order links.
+     */
+    static final class NodeDeque<K,V> {
+        final boolean writeOrder;
+        Node<K,V> first, last;
+
+        NodeDeque(boolean writeOrder) { this.writeOrder = writeOrder; }
+
+        Node<K,V> prevOf(Node<K,V> n) { return writeOrder ? n.prevW : n.prev; }
+        Node<K,V> nextOf(Node<K,V> n) { return writeOrder ? n.nextW : n.next; }
+
+        void setPrev(Node<K,V> n, Node<K,V> p) {
+            if (writeOrder) n.prevW = p; else n.prev = p;
+        }
+
+        void setNext(Node<K,V> n, Node<K,V> s) {
+            if (writeOrder) n.nextW = s; else n.next = s;
+        }
+
+        void addLast(Node<K,V> n) {
+            Node<K,V> l = last;
+            setPrev(n, l);
+            setNext(n, null);
+            if (l == null)
+                first = n;
+            else
+                setNext(l, n);
+            last = n;
+        }
+
+        void remove(Node<K,V> n) {
+            Node<K,V> p = prevOf(n), s = nextOf(n);
+            if (p == null)
+                first = s;
+            else
+                setNext(p, s);
+            if (s == null)
+                last = p;
+            else
+                setPrev(s, p);
+            setPrev(n, null);
+            setNext(n, null);
+        }
+
+        void moveToLast(Node<K,V> n) {
+            if (n != last) {
+                remove(n);
+                addLast(n);
+            }
+        }
+    }
+
+    /* ---------------- Buffers -------------- */
+
+    /**
+     * A lossy ring buffer of read accesses.  Slots are claimed by CAS
+     * of writeCounter by any thread, and consumed under evictionLock.
+     */
+    static final class ReadBuffer<K,V> {
+        final AtomicReferenceArray<Node<K,V>> slots =
+            new AtomicReferenceArray<Node<K,V>>(READ_BUFFER_SIZE);
+        final AtomicLong writeCounter = new AtomicLong();
+        volatile long readCounter;
+
+        /**
+         * Records n, returning true if the buffer is now full.
+         */
+        boolean offer(Node<K,V> n) {
+            long tail = writeCounter.get(), size = tail - readCounter;
+            if (size >= READ_BUFFER_SIZE)
+                return true;
+            if (writeCounter.compareAndSet(tail, tail + 1L))
+                slots.lazySet((int)tail & (READ_BUFFER_SIZE - 1), n);
+            else
+                ThreadLocalRandom.advanceProbe(ThreadLocalRandom.getProbe());
+            return size + 1L >= READ_BUFFER_SIZE;
+        }
+
+        /**
+         * Applies the recorded accesses.  Called with evictionLock held.
+         */
+        void drainTo(ConcurrentCache<K,V> cache) {
+            long head = readCounter, tail = writeCounter.get();
+            for (; head != tail; ++head) {
+                int i = (int)head & (READ_BUFFER_SIZE - 1);
+                Node<K,V> n = slots.get(i);
+                if (n == null)
+                    break;          // slot claimed but not yet filled
+                slots.lazySet(i, null);
+                cache.onAccess(n);
+            }
+            readCounter = head;
+        }
+    }
+
+    /**
+     * A recorded write, applied during maintenance.
+     */
+    static final class WriteTask<K,V> {
+        static final int ADD = 0, UPDATE = 1, REMOVE = 2;
+        final Node<K,V> node;
+        final int type;
+        WriteTask(Node<K,V> node, int type) {
+            this.node = node;
+            this.type = type;
+        }
+    }
+
+    /* ---------------- Frequency sketch -------------- */
+
+    /**
+     * A count-min sketch of the access frequencies of keys, with four
+     * 4-bit counters per key, periodically halved.  Guarded by
+     * evictionLock.
+     */
+    static final class FrequencySketch {
+        static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        static final long RESET_MASK = 0x7777777777777777L;
+        static final long ONE_MASK = 0x1111111111111111L;
+
+        final long[] table;
+        final int sampleSize;
+        int size;
+
+        FrequencySketch(long maximum) {
+            int cap = (int)Math.min(Math.max(maximum, 16L),
+                                    MAXIMUM_SKETCH_CAPACITY);
+            table = new long[Integer.highestOneBit(cap - 1) << 1];
+            sampleSize = 10 * cap;
+        }
+
+        static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+
+        int indexOf(int h, int i) {
+            long x = (h + SEEDS[i]) * SEEDS[i];
+            x += x >>> 32;
+            return (int)x & (table.length - 1);
+        }
+
+        int frequency(Object key) {
+            int h = spread(key.hashCode()), start = (h & 3) << 2, f = 15;
+            for (int i = 0; i < 4; ++i) {
+                int c = (int)((table[indexOf(h, i)] >>> ((start + i) << 2)) & 0xfL);
+                f = Math.min(f, c);
+            }
+            return f;
+        }
+
+        void increment(Object key) {
+            int h = spread(key.hashCode()), start = (h & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; ++i) {
+                int j = indexOf(h, i), shift = (start + i) << 2;
+                long mask = 0xfL << shift;
+                if ((table[j] & mask) != mask) {
+                    table[j] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++size >= sampleSize)
+                reset();
+        }
+
+        void reset() {
+            int odd = 0;
+            for (int i = 0; i < table.length; ++i) {
+                odd += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size = (size >>> 1) - (odd >>> 2);
+        }
+    }
+
+    /* ---------------- Fields -------------- */
+
+    final ConcurrentHashMap<K,Node<K,V>> data;
+    final ToIntBiFunction<? super K, ? super V> weigher; // null if unweighted
+    final long maximumWeight;                 // negative if unbounded
+    final long windowMaximum;
+    final long expireAfterWriteNanos;         // negative if none
+    final long expireAfterAccessNanos;        // negative if none
+    final boolean evicts;                     // bounded or expiring
+
+    final ReentrantLock evictionLock = new ReentrantLock();
+    final ReadBuffer<K,V>[] readBuffers;
+    final ConcurrentLinkedQueue<WriteTask<K,V>> writeBuffer =
+        new ConcurrentLinkedQueue<WriteTask<K,V>>();
+    final AtomicInteger pendingWrites = new AtomicInteger();
+
+    // Guarded by evictionLock
+    final NodeDeque<K,V> window = new NodeDeque<K,V>(false);
+    final NodeDeque<K,V> main = new NodeDeque<K,V>(false);
+    final NodeDeque<K,V> writeOrder = new NodeDeque<K,V>(true);
+    final FrequencySketch sketch;
+    long weightedSize, windowWeight;
+
+    final LongAdder hitCount = new LongAdder();
+    final LongAdder missCount = new LongAdder();
+    final LongAdder evictionCount = new LongAdder();
+    final LongAdder evictionWeight = new LongAdder();
+
+    /**
+     * Creates a cache with the settings of the given builder.
+     */
+    @SuppressWarnings("unchecked")
+    ConcurrentCache(Builder<K,V> builder) {
+        this.data = new ConcurrentHashMap<K,Node<K,V>>(builder.initialCapacity);
+        this.weigher = builder.weigher;
+        this.maximumWeight = builder.maximumWeight;
+        this.windowMaximum = (maximumWeight < 0L) ? Long.MAX_VALUE :
+            Math.max(1L, maximumWeight / WINDOW_FRACTION);
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.evicts = maximumWeight >= 0L || expireAfterWriteNanos >= 0L ||
+            expireAfterAccessNanos >= 0L;
+        this.sketch = (maximumWeight < 0L) ? null :
+            new FrequencySketch(maximumWeight);
+        int n = 1;
+        while (n < NCPU && n < MAX_READ_BUFFERS)
+            n <<= 1;
+        ReadBuffer<K,V>[] rb = (ReadBuffer<K,V>[])new ReadBuffer<?,?>[evicts ? n : 0];
+        for (int i = 0; i < rb.length; ++i)
+            rb[i] = new ReadBuffer<K,V>();
+        this.readBuffers = rb;
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this cache contains no unexpired mapping for the
+     * key.  Records a hit or a miss.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if there is none
+     * @throws NullPointerException if the specified key is null
+     */
+    public V get(Object key) {
+        Node<K,V> n = data.get(key);
+        if (n == null) {
+            missCount.increment();
+            return null;
+        }
+        long now = evicts ? System.nanoTime() : 0L;
+        V v = n.value;
+        if (hasExpired(n, now)) {
+            missCount.increment();
+            afterRead(n);
+            return null;
+        }
+        hitCount.increment();
+        afterRead(n, now);
+        return v;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this
+     * cache, replacing any existing mapping.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous (unexpired) value associated with
+     *         {@code key}, or {@code null} if there was none
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * If the specified key is not already associated with an unexpired
+     * value, associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current (unexpired) value associated with {@code key},
+     *         or {@code null} if there was none
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, if
+     * present and unexpired, and otherwise attempts to compute its
+     * value using the given mapping function and enters it into this
+     * cache unless {@code null}.  As with {@link
+     * ConcurrentHashMap#computeIfAbsent}, the function is applied at
+     * most once per key, atomically, and should be short and simple.
+     * Records a hit if the mapping was present, else a miss.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the specified key or
+     *         mappingFunction is null
+     * @throws RuntimeException or Error if the mappingFunction does so,
+     *         in which case the mapping is left unestablished
+     */
+    public V computeIfAbsent(K key,
+                             Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null)
+            throw new NullPointerException();
+        long now = evicts ? System.nanoTime() : 0L;
+        Node<K,V> n = data.get(key);
+        if (n != null) {
+            V v = n.value;
+            if (!hasExpired(n, now)) {
+                hitCount.increment();
+                afterRead(n, now);
+                return v;
+            }
+            retire(n, true);
+        }
+        missCount.increment();
+        NodeFactory<K,V> factory =
+            new NodeFactory<K,V>(this, mappingFunction, now);
+        if ((n = data.computeIfAbsent(key, factory)) == null)
+            return null;
+        if (n == factory.created)
+            afterWrite(n, WriteTask.ADD);
+        else
+            afterRead(n, now);
+        return n.value;
+    }
+
+    /**
+     * Removes the mapping for a key from this cache if it is present.
+     *
+     * @param key key whose mapping is to be removed from the cache
+     * @return the previous (unexpired) value associated with
+     *         {@code key}, or {@code null} if there was none
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        Node<K,V> n = data.get(key);
+        if (n == null)
+            return null;
+        V v = n.value;
+        boolean expired = hasExpired(n, evicts ? System.nanoTime() : 0L);
+        return (retire(n, false) && !expired) ? v : null;
+    }
+
+    /**
+     * Removes all of the mappings from this cache.
+     */
+    public void clear() {
+        for (Node<K,V> n : data.values())
+            retire(n, false);
+        cleanUp();
+    }
+
+    /**
+     * Returns the approximate number of mappings in this cache,
+     * possibly including expired mappings that have not yet been
+     * removed.
+     *
+     * @return the number of mappings
+     */
+    public long size() {
+        return data.mappingCount();
+    }
+
+    /**
+     * Returns the total weight of the mappings in this cache as of the
+     * last maintenance, or their number if no weigher was specified.
+     *
+     * @return the weighted size of this cache
+     */
+    public long weightedSize() {
+        final ReentrantLock lock = evictionLock;
+        lock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Performs any pending maintenance: applies buffered accesses and
+     * writes, removes expired entries and evicts entries until the
+     * cache is within its maximum weight.  Maintenance is otherwise
+     * performed incrementally by the threads using the cache, so this
+     * method need only be called to promptly reclaim space, for example
+     * from a cache that is no longer being used.
+     */
+    public void cleanUp() {
+        final ReentrantLock lock = evictionLock;
+        lock.lock();
+        try {
+            maintenance();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return the statistics of this cache
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(),
+                         evictionCount.sum(), evictionWeight.sum());
+    }
+
+    /* ---------------- Internals -------------- */
+
+    /**
+     * Function adapter creating the node for computeIfAbsent, and
+     * recording it so the caller can tell creation from a race.
+     */
+    static final class NodeFactory<K,V> implements Function<K,Node<K,V>> {
+        final ConcurrentCache<K,V> cache;
+        final Function<? super K, ? extends V> mappingFunction;
+        final long now;
+        Node<K,V> created;
+        NodeFactory(ConcurrentCache<K,V> cache,
+                    Function<? super K, ? extends V> mappingFunction,
+                    long now) {
+            this.cache = cache;
+            this.mappingFunction = mappingFunction;
+            this.now = now;
+        }
+        public Node<K,V> apply(K key) {
+            V v;
+            if ((v = mappingFunction.apply(key)) == null)
+                return null;
+            return created = new Node<K,V>(key, v, cache.weigh(key, v), now);
+        }
+    }
+
+    final int weigh(K key, V value) {
+        ToIntBiFunction<? super K, ? super V> w;
+        if ((w = weigher) == null)
+            return 1;
+        int x = w.applyAsInt(key, value);
+        if (x < 0)
+            throw new IllegalArgumentException("negative weight");
+        return x;
+    }
+
+    final boolean hasExpired(Node<K,V> n, long now) {
+        return (expireAfterWriteNanos >= 0L &&
+                now - n.writeTime >= expireAfterWriteNanos) ||
+            (expireAfterAccessNanos >= 0L &&
+             now - n.accessTime >= expireAfterAccessNanos);
+    }
+
+    /**
+     * Implements put and putIfAbsent.
+     */
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        int weight = weigh(key, value);
+        for (;;) {
+            long now = evicts ? System.nanoTime() : 0L;
+            Node<K,V> n = data.get(key);
+            if (n == null) {
+                Node<K,V> created = new Node<K,V>(key, value, weight, now);
+                if ((n = data.putIfAbsent(key, created)) == null) {
+                    afterWrite(created, WriteTask.ADD);
+                    return null;
+                }
+            }
+            V old;
+            boolean expired;
+            synchronized (n) {
+                if (n.retired)
+                    continue;
+                old = n.value;
+                expired = hasExpired(n, now);
+                if (!onlyIfAbsent || expired) {
+                    n.value = value;
+                    n.pendingWeight = weight;
+                    n.writeTime = n.accessTime = now;
+                }
+            }
+            if (onlyIfAbsent && !expired) {
+                afterRead(n, now);
+                return old;
+            }
+            afterWrite(n, WriteTask.UPDATE);
+            return expired ? null : old;
+        }
+    }
+
+    /**
+     * Retires and unmaps n unless already retired (or, if onlyIfExpired,
+     * no longer expired), recording its removal.  Returns true if this
+     * call retired n.
+     */
+    final boolean retire(Node<K,V> n, boolean onlyIfExpired) {
+        synchronized (n) {
+            if (n.retired || (onlyIfExpired && !hasExpired(n, System.nanoTime())))
+                return false;
+            n.retired = true;
+            data.remove(n.key, n);
+        }
+        afterWrite(n, WriteTask.REMOVE);
+        return true;
+    }
+
+    final void afterRead(Node<K,V> n) {
+        afterRead(n, 0L);
+    }
+
+    /**
+     * Records a read of node n at time now (if nonzero).
+     */
+    final void afterRead(Node<K,V> n, long now) {
+        if (!evicts)
+            return;
+        if (now != 0L && expireAfterAccessNanos >= 0L)
+            n.accessTime = now;
+        int h;
+        if ((h = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.current(); // force initialization
+            h = ThreadLocalRandom.getProbe();
+        }
+        ReadBuffer<K,V>[] rb = readBuffers;
+        if (rb[h & (rb.length - 1)].offer(n))
+            tryMaintenance();
+    }
+
+    /**
+     * Records a write of node n.
+     */
+    final void afterWrite(Node<K,V> n, int type) {
+        if (!evicts)
+            return;
+        writeBuffer.add(new WriteTask<K,V>(n, type));
+        if (pendingWrites.incrementAndGet() > WRITE_BUFFER_MAX)
+            cleanUp();
+        else
+            tryMaintenance();
+    }
+
+    final void tryMaintenance() {
+        final ReentrantLock lock = evictionLock;
+        if (lock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies buffered reads and writes, and enforces the bounds.
+     * Called with evictionLock held.
+     */
+    final void maintenance() {
+        if (!evicts)
+            return;
+        for (ReadBuffer<K,V> b : readBuffers)
+            b.drainTo(this);
+        for (WriteTask<K,V> t; (t = writeBuffer.poll()) != null; ) {
+            pendingWrites.decrementAndGet();
+            onWrite(t.node, t.type);
+        }
+        if (expireAfterWriteNanos >= 0L || expireAfterAccessNanos >= 0L)
+            expireEntries();
+        if (maximumWeight >= 0L)
+            evictEntries();
+    }
+
+    final void onAccess(Node<K,V> n) {
+        if (sketch != null)
+            sketch.increment(n.key);
+        if (n.queue == WINDOW)
+            window.moveToLast(n);
+        else if (n.queue == MAIN)
+            main.moveToLast(n);
+    }
+
+    final void onWrite(Node<K,V> n, int type) {
+        if (type == WriteTask.REMOVE) {
+            unlink(n);
+            return;
+        }
+        boolean retired;
+        synchronized (n) {
+            retired = n.retired;
+        }
+        if (retired)
+            return;
+        int w = n.pendingWeight;
+        if (n.queue == NONE) {
+            n.queue = WINDOW;
+            window.addLast(n);
+            writeOrder.addLast(n);
+            windowWeight += w;
+        }
+        else {
+            if (n.queue == WINDOW) {
+                windowWeight += w - n.weight;
+                window.moveToLast(n);
+            }
+            else
+                main.moveToLast(n);
+            writeOrder.moveToLast(n);
+            weightedSize -= n.weight;
+        }
+        n.weight = w;
+        weightedSize += w;
+        if (sketch != null)
+            sketch.increment(n.key);
+    }
+
+    /**
+     * Removes n from the policy's structures if linked.
+     */
+    final void unlink(Node<K,V> n) {
+        if (n.queue == NONE)
+            return;
+        if (n.queue == WINDOW) {
+            window.remove(n);
+            windowWeight -= n.weight;
+        }
+        else
+            main.remove(n);
+        writeOrder.remove(n);
+        weightedSize -= n.weight;
+        n.queue = NONE;
+    }
+
+    /**
+     * Evicts n, returning false if it turned out not to have expired
+     * although required to.
+     */
+    final boolean evict(Node<K,V> n, boolean expiring) {
+        boolean removed;
+        synchronized (n) {
+            if (n.retired)
+                removed = false;
+            else if (expiring && !hasExpired(n, System.nanoTime()))
+                return false;
+            else {
+                n.retired = removed = true;
+                data.remove(n.key, n);
+            }
+        }
+        int w = n.weight;
+        unlink(n);
+        if (removed) {
+            evictionCount.increment();
+            evictionWeight.add(w);
+        }
+        return true;
+    }
+
+    final void expireEntries() {
+        long now = System.nanoTime();
+        if (expireAfterAccessNanos >= 0L) {
+            expireByAccess(window, now);
+            expireByAccess(main, now);
+        }
+        if (expireAfterWriteNanos >= 0L) {
+            for (Node<K,V> n; (n = writeOrder.first) != null &&
+                     now - n.writeTime >= expireAfterWriteNanos; ) {
+                if (!evict(n, true))
+                    writeOrder.moveToLast(n);   // concurrently rewritten
+            }
+        }
+    }
+
+    final void expireByAccess(NodeDeque<K,V> q, long now) {
+        for (Node<K,V> n; (n = q.first) != null &&
+                 now - n.accessTime >= expireAfterAccessNanos; ) {
+            if (!evict(n, true))
+                q.moveToLast(n);                // concurrently accessed
+        }
+    }
+
+    final void evictEntries() {
+        // Move the window's overflow into main, keeping the first as
+        // the first candidate for admission
+        Node<K,V> candidate = null;
+        for (Node<K,V> n; windowWeight > windowMaximum &&
+                 (n = window.first) != null; ) {
+            window.remove(n);
+            windowWeight -= n.weight;
+            n.queue = MAIN;
+            main.addLast(n);
+            if (candidate == null)
+                candidate = n;
+        }
+        while (weightedSize > maximumWeight) {
+            Node<K,V> victim = main.first;
+            if (victim == null) {
+                if ((victim = window.first) == null)
+                    break;
+                evict(victim, false);
+            }
+            else if (candidate == null)
+                evict(victim, false);
+            else {
+                Node<K,V> c = candidate;
+                candidate = c.next;
+                if (c == victim || c.weight > maximumWeight ||
+                    !admit(c.key, victim.key))
+                    evict(c, false);
+                else {
+                    candidate = c;
+                    evict(victim, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the candidate should replace the victim.
+     */
+    final boolean admit(K candidateKey, K victimKey) {
+        int victimFreq = sketch.frequency(victimKey);
+        int candidateFreq = sketch.frequency(candidateKey);
+        if (candidateFreq > victimFreq)
+            return true;
+        // Occasionally admit a warm candidate, so that an attacker
+        // cannot pin a victim by raising its (colliding) frequency
+        return candidateFreq > 5 &&
+            (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    /* ---------------- Builder and statistics -------------- */
+
+    /**
+     * A builder of {@link ConcurrentCache} instances.  By default, a
+     * cache is unbounded and entries do not expire.
+     *
+     * @param <K> the type of keys maintained by the cache
+     * @param <V> the type of cached values
+     */
+    public static final class Builder<K,V> {
+        int initialCapacity = 16;
+        long maximumWeight = -1L;
+        ToIntBiFunction<? super K, ? super V> weigher;
+        long expireAfterWriteNanos = -1L;
+        long expireAfterAccessNanos = -1L;
+
+        /**
+         * Constructs an empty builder.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the number of mappings the cache can initially hold
+         * without internal resizing.
+         *
+         * @param initialCapacity the initial capacity
+         * @return this builder
+         * @throws IllegalArgumentException if the initial capacity is
+         *         negative
+         */
+        public Builder<K,V> setInitialCapacity(int initialCapacity) {
+            if (initialCapacity < 0)
+                throw new IllegalArgumentException();
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Bounds the number of mappings in the cache.
+         *
+         * @param maximumSize the maximum number of mappings
+         * @return this builder
+         * @throws IllegalArgumentException if the maximum is negative
+         */
+        public Builder<K,V> setMaximumSize(long maximumSize) {
+            if (maximumSize < 0L)
+                throw new IllegalArgumentException();
+            this.maximumWeight = maximumSize;
+            this.weigher = null;
+            return this;
+        }
+
+        /**
+         * Bounds the total weight of the mappings in the cache, as
+         * computed by the given weigher when each mapping is added or
+         * replaced.  Weights must be non-negative.
+         *
+         * @param maximumWeight the maximum total weight
+         * @param weigher the function computing the weight of a mapping
+         * @return this builder
+         * @throws IllegalArgumentException if the maximum is negative
+         * @throws NullPointerException if the weigher is null
+         */
+        public Builder<K,V> setMaximumWeight(long maximumWeight,
+                                             ToIntBiFunction<? super K, ? super V> weigher) {
+            if (maximumWeight < 0L)
+                throw new IllegalArgumentException();
+            if (weigher == null)
+                throw new NullPointerException();
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Causes mappings to expire once the given duration has elapsed
+         * since they were created or their value last replaced.
+         *
+         * @param duration the duration
+         * @param unit the unit of the duration
+         * @return this builder
+         * @throws IllegalArgumentException if the duration is negative
+         * @throws NullPointerException if the unit is null
+         */
+        public Builder<K,V> setExpireAfterWrite(long duration, TimeUnit unit) {
+            if (duration < 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Causes mappings to expire once the given duration has elapsed
+         * since they were last read or written.
+         *
+         * @param duration the duration
+         * @param unit the unit of the duration
+         * @return this builder
+         * @throws IllegalArgumentException if the duration is negative
+         * @throws NullPointerException if the unit is null
+         */
+        public Builder<K,V> setExpireAfterAccess(long duration, TimeUnit unit) {
+            if (duration < 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Returns a new, empty cache with the settings of this builder.
+         *
+         * @return a new cache
+         */
+        public ConcurrentCache<K,V> build() {
+            return new ConcurrentCache<K,V>(this);
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of a {@link ConcurrentCache}.
+     */
+    public static final class Stats {
+        private final long hitCount, missCount;
+        private final long evictionCount, evictionWeight;
+
+        Stats(long hitCount, long missCount,
+              long evictionCount, long evictionWeight) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.evictionWeight = evictionWeight;
+        }
+
+        /**
+         * Returns the number of lookups that found a mapping.
+         *
+         * @return the number of hits
+         */
+        public long hitCount() { return hitCount; }
+
+        /**
+         * Returns the number of lookups that found no (unexpired)
+         * mapping.
+         *
+         * @return the number of misses
+         */
+        public long missCount() { return missCount; }
+
+        /**
+         * Returns the number of mappings removed because of the
+         * cache's size, weight or time bounds.
+         *
+         * @return the number of evictions
+         */
+        public long evictionCount() { return evictionCount; }
+
+        /**
+         * Returns the total weight of evicted mappings.
+         *
+         * @return the weight of evictions
+         */
+        public long evictionWeight() { return evictionWeight; }
+
+        /**
+         * Returns the ratio of hits to lookups, or {@code 1.0} if there
+         * have been no lookups.
+         *
+         * @return the hit rate
+         */
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return (requests == 0L) ? 1.0 : (double)hitCount / requests;
+        }
+
+        /**
+         * Returns a string identifying these statistics.
+         *
+         * @return a string identifying these statistics
+         */
+        public String toString() {
+            return "ConcurrentCache.Stats[hits=" + hitCount +
+                ", misses=" + missCount +
+                ", evictions=" + evictionCount +
+                ", evictionWeight=" + evictionWeight + "]";
+        }
+    }
+}
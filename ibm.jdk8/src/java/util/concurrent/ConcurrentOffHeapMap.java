@@ -0,0 +1,1330 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A hash table supporting full concurrency of retrievals and high
+ * expected concurrency for updates, whose mappings are stored outside of
+ * the Java heap.  Keys and values are converted to bytes by
+ * caller-supplied {@link Serializer}s and copied into large slabs of
+ * native memory obtained with {@link ByteBuffer#allocateDirect}; the only
+ * heap objects retained by the map, however many mappings it holds, are
+ * its bin table (a {@code long[]}, which the garbage collector need not
+ * scan) and the slab buffers themselves.  This makes the class suitable
+ * for very large caches whose contents would otherwise dominate heap
+ * marking time.
+ *
+ * <p>Because mappings are stored in serialized form, keys are compared by
+ * the contents of their serialized form rather than by {@code equals}:
+ * the key serializer must therefore produce the same bytes for keys that
+ * are to be considered equal.  Every retrieval deserializes a fresh copy
+ * of the value, so modifications to a returned value are not reflected in
+ * the map.  Like {@link ConcurrentHashMap}, this class does <em>not</em>
+ * allow {@code null} to be used as a key or value.
+ *
+ * <p>Retrieval operations (including {@code get}) generally do not block:
+ * they read the native memory optimistically and validate the read
+ * afterwards, in the manner of {@link
+ * java.util.concurrent.locks.StampedLock#tryOptimisticRead}, falling back
+ * to locking the bin only under sustained update contention.  Updates
+ * insert into empty bins by compare-and-set, and otherwise lock only the
+ * bin they modify.  Bulk operations ({@link #forEach(long, BiConsumer)
+ * forEach} and {@link #reduce reduce}) may be executed in parallel in
+ * the {@link ForkJoinPool#commonPool()}, under the same
+ * {@code parallelismThreshold} conventions as those of {@code
+ * ConcurrentHashMap}, and reflect the state of each bin at some point
+ * during the traversal.
+ *
+ * <p>Native memory is retained until the map is explicitly {@link #free
+ * freed}; it is reused for new mappings as mappings are removed, but never
+ * returned to the system before then.  After {@code free} returns, all
+ * other operations throw {@link IllegalStateException}.  {@code free}
+ * must not be invoked while other threads may still be accessing the map.
+ *
+ * @since 1.8
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public class ConcurrentOffHeapMap<K,V> {
+
+    /**
+     * A strategy for converting keys or values to and from the bytes
+     * stored by a {@link ConcurrentOffHeapMap}.
+     *
+     * @param <T> the type of object serialized
+     */
+    public interface Serializer<T> {
+        /**
+         * Returns the serialized form of the given object.  For keys,
+         * equal keys must have equal serialized forms.
+         *
+         * @param t the object, never null
+         * @return the serialized form
+         */
+        byte[] serialize(T t);
+
+        /**
+         * Returns an object reconstituted from the given serialized form.
+         *
+         * @param bytes the serialized form
+         * @return the object
+         */
+        T deserialize(byte[] bytes);
+    }
+
+    /*
+     * Overview:
+     *
+     * The map is a table of bins, each a long word holding the
+     * off-heap address of the first node of a singly linked chain
+     * together with a lock bit and a version number.  A node is a
+     * chunk of slab memory laid out as
+     *
+     *   [next: long][hash: int][keyLength: int][valueLength: int]
+     *   [key bytes][value bytes]
+     *
+     * and is immutable except for its next field.  Addresses encode
+     * (slab index + 1) above SLAB_SHIFT bits of offset, so that 0 is
+     * never a valid address.
+     *
+     * Updaters insert the first node of an empty bin by CAS of the
+     * bin word, as in ConcurrentHashMap.  Otherwise they acquire the
+     * bin by CASing in its LOCKED bit, modify the chain (replacing
+     * rather than overwriting nodes whose value changes), and release
+     * it by writing a new head with an incremented version.  Nodes
+     * unlinked from a chain are recycled immediately.
+     *
+     * Readers never take locks in the common case.  They read the bin
+     * word, traverse the chain, copy out what they need, and then
+     * (after a load fence) recheck that the bin word is unchanged,
+     * retrying if not, exactly as with StampedLock optimistic reads.
+     * Since every mutation of a chain, including the recycling of its
+     * nodes, happens while the bin is locked and is followed by a
+     * version change, a successful validation guarantees that
+     * everything read was consistent.  Reads that fail validation may
+     * have seen arbitrary bytes, so all optimistic traversal bounds
+     * checks addresses against the slab table, lengths against the
+     * slab size, and the number of steps taken, before touching
+     * memory.  After MAX_OPTIMISTIC_READS failures a reader locks the
+     * bin instead, so that readers cannot starve under heavy update
+     * traffic to a single bin.
+     *
+     * The table is resized when an insertion into a nonempty bin
+     * finds the map more than three quarters full.  Resizing is
+     * performed by a single thread (others proceed concurrently).  It
+     * locks each bin in turn, splits its chain into the two bins of
+     * the new table that it maps to, and then replaces it by MOVED.
+     * Operations encountering MOVED continue in the successor table
+     * (Table.next), which is complete for that bin, much as with
+     * ConcurrentHashMap's ForwardingNodes.
+     *
+     * Slab memory is managed in power-of-two size classes, each with
+     * a free list threaded through the first word of free chunks, and
+     * carved out of the most recently allocated slab otherwise.  The
+     * number of mappings is maintained in a LongAdder.
+     */
+
+    /* ---------------- Constants -------------- */
+
+    /**
+     * The largest possible table capacity.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The default initial table capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The default size of the native memory slabs.
+     */
+    private static final int DEFAULT_SLAB_SIZE = 1 << 24;
+
+    /**
+     * The number of address bits reserved for the offset within a
+     * slab; also the largest allowed slab size.
+     */
+    static final int SLAB_SHIFT = 30;
+
+    /*
+     * Encodings for bin words.
+     */
+    static final int ADDRESS_BITS = 44;
+    static final long ADDRESS_MASK  = (1L << ADDRESS_BITS) - 1L;
+    static final long OFFSET_MASK   = (1L << SLAB_SHIFT) - 1L;
+    static final long VERSION_UNIT  = 1L << ADDRESS_BITS;
+    static final long VERSION_MASK  = ((1L << 62) - 1L) & ~ADDRESS_MASK;
+    static final long LOCKED        = 1L << 62;
+    static final long MOVED         = Long.MIN_VALUE; // all other bits clear
+
+    /**
+     * The largest number of slabs that can be addressed.
+     */
+    static final int MAXIMUM_SLABS = (1 << (ADDRESS_BITS - SLAB_SHIFT)) - 1;
+
+    /*
+     * Node field offsets.
+     */
+    static final int NEXT = 0, HASH = 8, KEYLEN = 12, VALLEN = 16;
+    static final int HEADER = 20;
+
+    /**
+     * log2 of the smallest chunk size; must hold a header.
+     */
+    static final int MIN_CHUNK_SHIFT = 5;
+
+    /**
+     * The number of optimistic read attempts before locking the bin.
+     */
+    static final int MAX_OPTIMISTIC_READS = 4;
+
+    /**
+     * The number of nodes an optimistic read traverses before assuming
+     * it is following garbage and revalidating.
+     */
+    static final int MAX_OPTIMISTIC_STEPS = 1 << 10;
+
+    /**
+     * The number of spins on a locked bin between yields.
+     */
+    static final int SPINS = 1 << 6;
+
+    static final int HASH_BITS = 0x7fffffff; // usable bits of normal node hash
+
+    /** Sentinel results of lookups. */
+    static final byte[] RETRY = new byte[0], PRESENT = new byte[0];
+
+    /* ---------------- Nested classes -------------- */
+
+    /**
+     * A table of bins, linked to its successor while and after being
+     * resized.
+     */
+    static final class Table {
+        final long[] bins;
+        volatile Table next;
+        Table(int n) { bins = new long[n]; }
+    }
+
+    /**
+     * Head of the free list of a size class.
+     */
+    static final class FreeList {
+        long head;
+    }
+
+    /* ---------------- Fields -------------- */
+
+    /**
+     * The current table, or null after free().
+     */
+    private transient volatile Table table;
+
+    /**
+     * Base native addresses of the slabs, indexed by slab number.
+     * Replaced (never modified) when a slab is added.
+     */
+    private transient volatile long[] slabBases;
+
+    /**
+     * The slab buffers, parallel to slabBases, guarded by slabLock.
+     */
+    private transient ByteBuffer[] slabs;
+
+    /**
+     * The next free offset in the last slab, guarded by slabLock.
+     */
+    private transient int slabTop;
+
+    /**
+     * Lock guarding slab allocation and free().
+     */
+    private final Object slabLock = new Object();
+
+    /**
+     * Free lists by size class, each guarded by its own monitor.
+     */
+    private final FreeList[] freeLists;
+
+    /**
+     * Nonzero while a resize is in progress.
+     */
+    private transient volatile int resizing;
+
+    /**
+     * The number of mappings.
+     */
+    private final LongAdder count = new LongAdder();
+
+    private final int slabSize;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Creates a new, empty map with the default initial table size (16)
+     * and slab size (16 megabytes).
+     *
+     * @param keySerializer the serializer for keys
+     * @param valueSerializer the serializer for values
+     * @throws NullPointerException if either serializer is null
+     */
+    public ConcurrentOffHeapMap(Serializer<K> keySerializer,
+                                Serializer<V> valueSerializer) {
+        this(keySerializer, valueSerializer, DEFAULT_CAPACITY,
+             DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a new, empty map with an initial table size accommodating
+     * the specified number of elements without the need to dynamically
+     * resize, allocating native memory in slabs of the given size.  The
+     * slab size bounds the serialized size of a mapping.
+     *
+     * @param keySerializer the serializer for keys
+     * @param valueSerializer the serializer for values
+     * @param initialCapacity the implementation performs internal
+     * sizing to accommodate this many elements.
+     * @param slabSize the size in bytes of each native memory slab
+     * @throws NullPointerException if either serializer is null
+     * @throws IllegalArgumentException if the initial capacity is
+     * negative, or the slab size is less than 64 bytes or greater than
+     * 2<sup>30</sup>
+     */
+    public ConcurrentOffHeapMap(Serializer<K> keySerializer,
+                                Serializer<V> valueSerializer,
+                                int initialCapacity, int slabSize) {
+        if (keySerializer == null || valueSerializer == null)
+            throw new NullPointerException();
+        if (initialCapacity < 0 || slabSize < (1 << 6) ||
+            slabSize > (1 << SLAB_SHIFT))
+            throw new IllegalArgumentException();
+        int cap = ((initialCapacity >= (MAXIMUM_CAPACITY >>> 1)) ?
+                   MAXIMUM_CAPACITY :
+                   tableSizeFor(initialCapacity + (initialCapacity >>> 1) + 1));
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.slabSize = slabSize;
+        this.freeLists = new FreeList[SLAB_SHIFT + 1];
+        for (int c = MIN_CHUNK_SHIFT; c <= SLAB_SHIFT; ++c)
+            freeLists[c] = new FreeList();
+        this.slabs = new ByteBuffer[0];
+        this.slabBases = new long[0];
+        this.table = new Table(cap);
+    }
+
+    /**
+     * Returns the number of mappings.  The value returned is an
+     * estimate; the actual count may differ if there are concurrent
+     * insertions or removals.
+     *
+     * @return the number of mappings
+     */
+    public long mappingCount() {
+        long n = count.sum();
+        return (n < 0L) ? 0L : n; // ignore transient negative values
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map, or
+     * {@code Integer.MAX_VALUE} if there are more.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        long n = mappingCount();
+        return (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return count.sum() <= 0L; // ignore transient negative values
+    }
+
+    /**
+     * Returns the total size in bytes of the native memory slabs
+     * currently held by this map.
+     *
+     * @return the number of bytes of native memory held
+     */
+    public long offHeapCapacity() {
+        return (long)slabBases.length * slabSize;
+    }
+
+    /**
+     * Returns (a fresh copy of) the value to which the specified key is
+     * mapped, or {@code null} if this map contains no mapping for the
+     * key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code null} if this map contains no mapping for the key
+     * @throws NullPointerException if the specified key is null
+     * @throws IllegalStateException if the map has been freed
+     */
+    public V get(K key) {
+        if (key == null) throw new NullPointerException();
+        byte[] kb = keySerializer.serialize(key);
+        byte[] vb = lookup(spread(Arrays.hashCode(kb)), kb, true);
+        return (vb == null) ? null : valueSerializer.deserialize(vb);
+    }
+
+    /**
+     * Tests if the specified object is a key in this map.
+     *
+     * @param  key possible key
+     * @return {@code true} if and only if the specified object
+     *         is a key in this map
+     * @throws NullPointerException if the specified key is null
+     * @throws IllegalStateException if the map has been freed
+     */
+    public boolean containsKey(K key) {
+        if (key == null) throw new NullPointerException();
+        byte[] kb = keySerializer.serialize(key);
+        return lookup(spread(Arrays.hashCode(kb)), kb, false) != null;
+    }
+
+    /**
+     * Maps the specified key to the specified value in this map.
+     * Neither the key nor the value can be null.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the serialized mapping does
+     *         not fit in a slab
+     * @throws IllegalStateException if the map has been freed
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the serialized mapping does
+     *         not fit in a slab
+     * @throws IllegalStateException if the map has been freed
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * attempts to compute its value using the given mapping function
+     * and enters it into this map unless {@code null}.  The entire
+     * method invocation is performed atomically, so the function is
+     * applied at most once per key.  Some attempted update operations
+     * on this map by other threads may be blocked while computation is
+     * in progress, so the computation should be short and simple, and
+     * must not attempt to update any other mappings of this map.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the specified key or mappingFunction
+     *         is null
+     * @throws IllegalArgumentException if the serialized mapping does
+     *         not fit in a slab
+     * @throws IllegalStateException if the map has been freed
+     * @throws RuntimeException or Error if the mappingFunction does so,
+     *         in which case the mapping is left unestablished
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null)
+            throw new NullPointerException();
+        byte[] kb = keySerializer.serialize(key);
+        int h = spread(Arrays.hashCode(kb));
+        byte[] vb = lookup(h, kb, true);
+        if (vb != null)
+            return valueSerializer.deserialize(vb);
+        V val = null;
+        boolean added = false, collided = false;
+        Table t = liveTable();
+        for (;;) {
+            long[] bins = t.bins;
+            int i = (bins.length - 1) & h;
+            long w;
+            if ((w = lockBin(bins, i)) < 0L) {
+                t = t.next;
+                continue;
+            }
+            long head = w & ADDRESS_MASK;
+            try {
+                long p = findNode(head, h, kb);
+                if (p != 0L) {
+                    vb = copyValue(p);
+                    releaseBin(bins, i, w);
+                }
+                else if ((val = mappingFunction.apply(key)) == null)
+                    releaseBin(bins, i, w);
+                else {
+                    byte[] nb = valueSerializer.serialize(val);
+                    long a = allocate(chunkClass(HEADER + kb.length + nb.length));
+                    writeNode(a, head, h, kb, nb);
+                    publishBin(bins, i, w, a);
+                    added = true;
+                    collided = head != 0L;
+                }
+            } catch (Throwable ex) {
+                if (binAt(bins, i) == (w | LOCKED))
+                    releaseBin(bins, i, w);
+                throw ex;
+            }
+            break;
+        }
+        if (added)
+            addCount(1L, collided);
+        return (vb != null) ? valueSerializer.deserialize(vb) : val;
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map.
+     * This method does nothing if the key is not in the map.
+     *
+     * @param  key the key that needs to be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key is null
+     * @throws IllegalStateException if the map has been freed
+     */
+    public V remove(K key) {
+        if (key == null) throw new NullPointerException();
+        byte[] kb = keySerializer.serialize(key);
+        int h = spread(Arrays.hashCode(kb));
+        if (lookup(h, kb, false) == null)
+            return null;
+        byte[] old = null;
+        Table t = liveTable();
+        for (;;) {
+            long[] bins = t.bins;
+            int i = (bins.length - 1) & h;
+            long w;
+            if ((w = lockBin(bins, i)) < 0L) {
+                t = t.next;
+                continue;
+            }
+            long head = w & ADDRESS_MASK, pred = 0L, p = head;
+            while (p != 0L && !nodeMatches(p, h, kb))
+                p = nextOf(pred = p);
+            if (p == 0L)
+                releaseBin(bins, i, w);
+            else {
+                old = copyValue(p);
+                long nx = nextOf(p);
+                if (pred == 0L)
+                    head = nx;
+                else
+                    setNext(pred, nx);
+                publishBin(bins, i, w, head);
+                release(p);
+                addCount(-1L, false);
+            }
+            break;
+        }
+        return (old == null) ? null : valueSerializer.deserialize(old);
+    }
+
+    /**
+     * Removes all of the mappings from this map, retaining its native
+     * memory for reuse.
+     *
+     * @throws IllegalStateException if the map has been freed
+     */
+    public void clear() {
+        Table t = liveTable();
+        long removed = 0L;
+        for (int i = 0, n = t.bins.length; i < n; ++i)
+            removed += clearBin(t, i);
+        addCount(-removed, false);
+    }
+
+    /**
+     * Releases the native memory held by this map.  After this method
+     * returns, all other operations throw {@link IllegalStateException}.
+     * This method must not be invoked concurrently with any other
+     * operation on this map.  Invoking it on a map that has already
+     * been freed has no effect.
+     */
+    public void free() {
+        synchronized (slabLock) {
+            if (table == null)
+                return;
+            table = null;
+            ByteBuffer[] ss = slabs;
+            slabs = new ByteBuffer[0];
+            slabBases = new long[0];
+            slabTop = 0;
+            for (FreeList f : freeLists) {
+                if (f != null) {
+                    synchronized (f) {
+                        f.head = 0L;
+                    }
+                }
+            }
+            count.reset();
+            for (ByteBuffer b : ss)
+                ((sun.nio.ch.DirectBuffer)b).cleaner().clean();
+        }
+    }
+
+    // Bulk operations
+
+    /**
+     * Performs the given action for each (key, value).
+     *
+     * @param action the action
+     * @throws NullPointerException if the action is null
+     * @throws IllegalStateException if the map has been freed
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(Long.MAX_VALUE, action);
+    }
+
+    /**
+     * Performs the given action for each (key, value).
+     *
+     * @param parallelismThreshold the (estimated) number of elements
+     * needed for this operation to be executed in parallel
+     * @param action the action
+     * @throws NullPointerException if the action is null
+     * @throws IllegalStateException if the map has been freed
+     */
+    public void forEach(long parallelismThreshold,
+                        BiConsumer<? super K,? super V> action) {
+        if (action == null) throw new NullPointerException();
+        new ForEachMappingTask<K,V>
+            (null, this, batchFor(parallelismThreshold), 0,
+             0, liveTable(), action).invoke();
+    }
+
+    /**
+     * Returns the result of accumulating the given transformation
+     * of all (key, value) pairs using the given reducer to
+     * combine values, or null if none.
+     *
+     * @param parallelismThreshold the (estimated) number of elements
+     * needed for this operation to be executed in parallel
+     * @param transformer a function returning the transformation
+     * for an element, or null if there is no transformation (in
+     * which case it is not combined)
+     * @param reducer a commutative associative combining function
+     * @param <U> the return type of the transformer
+     * @return the result of accumulating the given transformation
+     * of all (key, value) pairs
+     * @throws NullPointerException if the transformer or reducer is null
+     * @throws IllegalStateException if the map has been freed
+     */
+    public <U> U reduce(long parallelismThreshold,
+                        BiFunction<? super K, ? super V, ? extends U> transformer,
+                        BiFunction<? super U, ? super U, ? extends U> reducer) {
+        if (transformer == null || reducer == null)
+            throw new NullPointerException();
+        return new MapReduceMappingsTask<K,V,U>
+            (null, this, batchFor(parallelismThreshold), 0, 0,
+             liveTable(), null, transformer, reducer).invoke();
+    }
+
+    /* ---------------- Table and bin access -------------- */
+
+    /**
+     * Spreads (XORs) higher bits of hash to lower and also forces top
+     * bit to 0, as in ConcurrentHashMap.
+     */
+    static final int spread(int h) {
+        return (h ^ (h >>> 16)) & HASH_BITS;
+    }
+
+    /**
+     * Returns a power of two table size for the given desired capacity.
+     */
+    private static final int tableSizeFor(int c) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(Math.max(c, 2) - 1);
+        return (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    static final long binAt(long[] bins, int i) {
+        return U.getLongVolatile(bins, ((long)i << LSHIFT) + LBASE);
+    }
+
+    static final boolean casBin(long[] bins, int i, long c, long v) {
+        return U.compareAndSwapLong(bins, ((long)i << LSHIFT) + LBASE, c, v);
+    }
+
+    static final void setBin(long[] bins, int i, long v) {
+        U.putLongVolatile(bins, ((long)i << LSHIFT) + LBASE, v);
+    }
+
+    /**
+     * Returns the bin word w with an incremented version and the given
+     * head address.
+     */
+    static final long nextWord(long w, long head) {
+        return ((w + VERSION_UNIT) & VERSION_MASK) | head;
+    }
+
+    /**
+     * Acquires the lock of bin i, returning its (unlocked) word, or
+     * returns MOVED if the bin has been transferred.
+     */
+    static final long lockBin(long[] bins, int i) {
+        for (int spins = 0;;) {
+            long w = binAt(bins, i);
+            if (w < 0L)
+                return w;
+            if ((w & LOCKED) == 0L) {
+                if (casBin(bins, i, w, w | LOCKED))
+                    return w;
+            }
+            else if (++spins >= SPINS) {
+                spins = 0;
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Releases a bin locked by lockBin without having modified it.
+     */
+    static final void releaseBin(long[] bins, int i, long w) {
+        setBin(bins, i, w);
+    }
+
+    /**
+     * Releases a bin locked by lockBin, installing the given head.
+     */
+    static final void publishBin(long[] bins, int i, long w, long head) {
+        setBin(bins, i, nextWord(w, head));
+    }
+
+    /**
+     * Returns the current table, throwing if the map has been freed.
+     */
+    private Table liveTable() {
+        Table t;
+        if ((t = table) == null)
+            throw new IllegalStateException("map has been freed");
+        return t;
+    }
+
+    /**
+     * Looks up the key with serialized form kb and spread hash h,
+     * returning a copy of its serialized value if copyValue is true,
+     * else PRESENT, or null if absent.
+     */
+    private byte[] lookup(int h, byte[] kb, boolean copyValue) {
+        Table t = liveTable();
+        for (int tries = 0;; ++tries) {
+            long[] bins = t.bins;
+            int i = (bins.length - 1) & h;
+            long w = binAt(bins, i);
+            if (w < 0L) {
+                t = t.next;
+                continue;
+            }
+            if (tries < MAX_OPTIMISTIC_READS) {
+                if ((w & LOCKED) == 0L) {
+                    byte[] r = readChain(slabBases, w & ADDRESS_MASK, h, kb,
+                                         copyValue, true);
+                    U.loadFence();
+                    if (r != RETRY && binAt(bins, i) == w)
+                        return r;
+                }
+                else
+                    Thread.yield();
+            }
+            else if ((w = lockBin(bins, i)) < 0L)
+                t = t.next;
+            else {
+                try {
+                    return readChain(slabBases, w & ADDRESS_MASK, h, kb,
+                                     copyValue, false);
+                } finally {
+                    releaseBin(bins, i, w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches the chain starting at address p.  When optimistic, the
+     * chain may be concurrently modified, so returns RETRY rather than
+     * touch memory outside of the slabs, or follow too long a chain.
+     */
+    private byte[] readChain(long[] bases, long p, int h, byte[] kb,
+                             boolean copyValue, boolean optimistic) {
+        int klen = kb.length;
+        for (int steps = 0; p != 0L; ) {
+            long r;
+            if ((r = rawAddress(bases, p, HEADER)) == 0L ||
+                (optimistic && ++steps > MAX_OPTIMISTIC_STEPS))
+                return RETRY;
+            if (U.getInt(r + HASH) == h && U.getInt(r + KEYLEN) == klen) {
+                int vlen = U.getInt(r + VALLEN);
+                if (vlen < 0 || rawAddress(bases, p, HEADER + klen + vlen) == 0L)
+                    return RETRY;
+                if (keyMatches(r, kb)) {
+                    if (!copyValue)
+                        return PRESENT;
+                    byte[] vb = new byte[vlen];
+                    U.copyMemory(null, r + HEADER + klen, vb, BBASE, vlen);
+                    return vb;
+                }
+            }
+            p = U.getLong(r + NEXT);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the address of the node of the (locked) chain starting
+     * at p matching the key, or 0.
+     */
+    private long findNode(long p, int h, byte[] kb) {
+        while (p != 0L && !nodeMatches(p, h, kb))
+            p = nextOf(p);
+        return p;
+    }
+
+    /**
+     * Returns true if the node at address p holds the given key.
+     */
+    private boolean nodeMatches(long p, int h, byte[] kb) {
+        long r = raw(p);
+        return U.getInt(r + HASH) == h && U.getInt(r + KEYLEN) == kb.length &&
+            keyMatches(r, kb);
+    }
+
+    /**
+     * Returns true if the key bytes of the node at raw address r equal
+     * kb, whose length must equal the key length of the node.
+     */
+    private static boolean keyMatches(long r, byte[] kb) {
+        long base = r + HEADER;
+        int n = kb.length, i = 0;
+        for (; i <= n - 8; i += 8) {
+            if (U.getLong(base + i) != U.getLong(kb, BBASE + i))
+                return false;
+        }
+        for (; i < n; ++i) {
+            if (U.getByte(base + i) != kb[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes and recycles all nodes of bin i of table t and of the
+     * bins it has been transferred to, returning the number removed.
+     */
+    private long clearBin(Table t, int i) {
+        long[] bins = t.bins;
+        long w = lockBin(bins, i), removed = 0L;
+        if (w < 0L) {
+            int n = bins.length;
+            return clearBin(t.next, i) + clearBin(t.next, i + n);
+        }
+        long p = w & ADDRESS_MASK;
+        publishBin(bins, i, w, 0L);
+        while (p != 0L) {
+            long nx = nextOf(p);
+            release(p);
+            ++removed;
+            p = nx;
+        }
+        return removed;
+    }
+
+    /**
+     * Copies the serialized keys and values of bin i of table t, and of
+     * the bins it has been transferred to, into list, as alternating
+     * elements.
+     */
+    final void snapshotBin(Table t, int i, ArrayList<byte[]> list) {
+        long[] bins = t.bins;
+        long w = lockBin(bins, i);
+        if (w < 0L) {
+            int n = bins.length;
+            snapshotBin(t.next, i, list);
+            snapshotBin(t.next, i + n, list);
+            return;
+        }
+        try {
+            for (long p = w & ADDRESS_MASK; p != 0L; p = nextOf(p)) {
+                long r = raw(p);
+                int klen = U.getInt(r + KEYLEN);
+                byte[] kb = new byte[klen];
+                U.copyMemory(null, r + HEADER, kb, BBASE, klen);
+                list.add(kb);
+                list.add(copyValue(p));
+            }
+        } finally {
+            releaseBin(bins, i, w);
+        }
+    }
+
+    /**
+     * Inserts a serialized mapping, as for put and putIfAbsent.
+     */
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null) throw new NullPointerException();
+        byte[] kb = keySerializer.serialize(key);
+        byte[] vb = valueSerializer.serialize(value);
+        int h = spread(Arrays.hashCode(kb));
+        long a = allocate(chunkClass(HEADER + kb.length + vb.length));
+        writeNode(a, 0L, h, kb, vb);
+        byte[] old = null;
+        boolean collided = false, added = false;
+        Table t = liveTable();
+        for (;;) {
+            long[] bins = t.bins;
+            int i = (bins.length - 1) & h;
+            long w = binAt(bins, i);
+            if (w < 0L) {
+                t = t.next;
+                continue;
+            }
+            if ((w & (LOCKED | ADDRESS_MASK)) == 0L) {
+                if (casBin(bins, i, w, nextWord(w, a))) {
+                    added = true;
+                    break;
+                }
+                continue;                   // lost CAS race on empty bin
+            }
+            if ((w = lockBin(bins, i)) < 0L) {
+                t = t.next;
+                continue;
+            }
+            long head = w & ADDRESS_MASK, pred = 0L, p = head;
+            while (p != 0L && !nodeMatches(p, h, kb))
+                p = nextOf(pred = p);
+            if (p == 0L) {
+                setNext(a, head);
+                publishBin(bins, i, w, a);
+                added = collided = true;
+            }
+            else {
+                old = copyValue(p);
+                if (onlyIfAbsent) {
+                    releaseBin(bins, i, w);
+                    release(a);
+                }
+                else {
+                    setNext(a, nextOf(p));
+                    if (pred == 0L)
+                        head = a;
+                    else
+                        setNext(pred, a);
+                    publishBin(bins, i, w, head);
+                    release(p);
+                }
+            }
+            break;
+        }
+        if (added)
+            addCount(1L, collided);
+        return (old == null) ? null : valueSerializer.deserialize(old);
+    }
+
+    /**
+     * Adds to count, and if the insertion collided and the table is
+     * more than three quarters full, resizes.
+     */
+    private void addCount(long x, boolean check) {
+        count.add(x);
+        Table t;
+        if (check && (t = table) != null && t.next == null && resizing == 0) {
+            int n = t.bins.length;
+            if (n < MAXIMUM_CAPACITY && count.sum() >= (long)(n - (n >>> 2)))
+                transfer(t);
+        }
+    }
+
+    /**
+     * Doubles the size of table t, unless another thread is resizing.
+     */
+    private void transfer(Table t) {
+        if (!U.compareAndSwapInt(this, RESIZING, 0, 1))
+            return;
+        try {
+            if (table != t || t.next != null)
+                return;
+            long[] bins = t.bins;
+            int n = bins.length;
+            Table nt = new Table(n << 1);
+            long[] nbins = nt.bins;
+            t.next = nt;
+            for (int i = 0; i < n; ++i) {
+                long w = lockBin(bins, i), lo = 0L, hi = 0L;
+                for (long p = w & ADDRESS_MASK, nx; p != 0L; p = nx) {
+                    nx = nextOf(p);
+                    if ((U.getInt(raw(p) + HASH) & n) == 0) {
+                        setNext(p, lo);
+                        lo = p;
+                    }
+                    else {
+                        setNext(p, hi);
+                        hi = p;
+                    }
+                }
+                setBin(nbins, i, lo);
+                setBin(nbins, i + n, hi);
+                setBin(bins, i, MOVED);
+            }
+            table = nt;
+        } finally {
+            resizing = 0;
+        }
+    }
+
+    /**
+     * Computes initial batch value for bulk tasks, as in
+     * ConcurrentHashMap.
+     */
+    final int batchFor(long b) {
+        long n;
+        if (b == Long.MAX_VALUE || (n = count.sum()) <= 1L || n < b)
+            return 0;
+        int sp = ForkJoinPool.getCommonPoolParallelism() << 2; // slack of 4
+        return (b <= 0L || (n /= b) >= sp) ? sp : (int)n;
+    }
+
+    /* ---------------- Slab memory -------------- */
+
+    /**
+     * Returns the size class (log2 of the chunk size) for a node of the
+     * given number of bytes.
+     */
+    final int chunkClass(int bytes) {
+        if (bytes < 0 || bytes > slabSize)
+            throw new IllegalArgumentException("Mapping too large: " + bytes);
+        return Math.max(MIN_CHUNK_SHIFT,
+                        32 - Integer.numberOfLeadingZeros(bytes - 1));
+    }
+
+    /**
+     * Returns the native address of the (valid) address a.
+     */
+    private long raw(long a) {
+        return slabBases[(int)(a >>> SLAB_SHIFT) - 1] + (a & OFFSET_MASK);
+    }
+
+    /**
+     * Returns the native address of address a if a and the len bytes
+     * following it lie within a slab, else 0.
+     */
+    private long rawAddress(long[] bases, long a, int len) {
+        int s = (int)(a >>> SLAB_SHIFT) - 1;
+        long off = a & OFFSET_MASK;
+        if (s < 0 || s >= bases.length || len < 0 || off + len > slabSize)
+            return 0L;
+        return bases[s] + off;
+    }
+
+    private long nextOf(long p) {
+        return U.getLong(raw(p) + NEXT);
+    }
+
+    private void setNext(long p, long next) {
+        U.putLong(raw(p) + NEXT, next);
+    }
+
+    private byte[] copyValue(long p) {
+        long r = raw(p);
+        int klen = U.getInt(r + KEYLEN), vlen = U.getInt(r + VALLEN);
+        byte[] vb = new byte[vlen];
+        U.copyMemory(null, r + HEADER + klen, vb, BBASE, vlen);
+        return vb;
+    }
+
+    private void writeNode(long a, long next, int h, byte[] kb, byte[] vb) {
+        long r = raw(a);
+        U.putLong(r + NEXT, next);
+        U.putInt(r + HASH, h);
+        U.putInt(r + KEYLEN, kb.length);
+        U.putInt(r + VALLEN, vb.length);
+        U.copyMemory(kb, BBASE, null, r + HEADER, kb.length);
+        U.copyMemory(vb, BBASE, null, r + HEADER + kb.length, vb.length);
+    }
+
+    /**
+     * Returns the address of a free chunk of size class c.
+     */
+    private long allocate(int c) {
+        FreeList f = freeLists[c];
+        synchronized (f) {
+            long a;
+            if ((a = f.head) != 0L) {
+                f.head = U.getLong(raw(a));
+                return a;
+            }
+        }
+        int size = 1 << c;
+        synchronized (slabLock) {
+            if (table == null)
+                throw new IllegalStateException("map has been freed");
+            if (slabs.length == 0 || slabTop > slabSize - size)
+                addSlab();
+            long a = ((long)slabs.length << SLAB_SHIFT) | slabTop;
+            slabTop += size;
+            return a;
+        }
+    }
+
+    /**
+     * Returns the chunk of node p to its free list.
+     */
+    private void release(long p) {
+        long r = raw(p);
+        release(p, chunkClass(HEADER + U.getInt(r + KEYLEN) +
+                              U.getInt(r + VALLEN)));
+    }
+
+    private void release(long a, int c) {
+        FreeList f = freeLists[c];
+        synchronized (f) {
+            U.putLong(raw(a), f.head);
+            f.head = a;
+        }
+    }
+
+    /**
+     * Adds a new slab, after carving the unused tail of the current one
+     * into free chunks.  Called with slabLock held.
+     */
+    private void addSlab() {
+        ByteBuffer[] ss = slabs;
+        int n = ss.length;
+        if (n >= MAXIMUM_SLABS)
+            throw new OutOfMemoryError("Off-heap map slab limit reached");
+        if (n > 0) {
+            int top = slabTop;
+            for (int c; slabSize - top >= (1 << MIN_CHUNK_SHIFT); ) {
+                c = 31 - Integer.numberOfLeadingZeros(slabSize - top);
+                release(((long)n << SLAB_SHIFT) | top, c);
+                top += 1 << c;
+            }
+        }
+        ByteBuffer b = ByteBuffer.allocateDirect(slabSize);
+        long[] bases = Arrays.copyOf(slabBases, n + 1);
+        bases[n] = ((sun.nio.ch.DirectBuffer)b).address();
+        ss = Arrays.copyOf(ss, n + 1);
+        ss[n] = b;
+        slabs = ss;
+        slabTop = 0;
+        slabBases = bases;
+    }
+
+    /* ---------------- Bulk tasks -------------- */
+
+    /**
+     * Base class for bulk tasks, each traversing a range of bins of
+     * the table current at the start of the operation (and of their
+     * successors, if transferred).
+     */
+    @SuppressWarnings("serial")
+    abstract static class BulkTask<K,V,R> extends CountedCompleter<R> {
+        final ConcurrentOffHeapMap<K,V> map;
+        final Table tab;
+        int batch;                  // split control
+        int baseIndex, baseLimit;
+
+        BulkTask(BulkTask<K,V,?> par, ConcurrentOffHeapMap<K,V> map,
+                 int b, int i, int f, Table t) {
+            super(par);
+            this.map = map;
+            this.batch = b;
+            this.baseIndex = i;
+            this.tab = t;
+            this.baseLimit = (par == null) ? t.bins.length : f;
+        }
+
+        /**
+         * Invokes fn for each mapping in bins [baseIndex, baseLimit).
+         */
+        final void traverse(BiConsumer<? super K, ? super V> fn) {
+            ConcurrentOffHeapMap<K,V> m = map;
+            ArrayList<byte[]> list = new ArrayList<byte[]>();
+            for (int i = baseIndex; i < baseLimit; ++i) {
+                list.clear();
+                m.snapshotBin(tab, i, list);
+                for (int j = 0, n = list.size(); j < n; j += 2)
+                    fn.accept(m.keySerializer.deserialize(list.get(j)),
+                              m.valueSerializer.deserialize(list.get(j + 1)));
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static final class ForEachMappingTask<K,V>
+        extends BulkTask<K,V,Void> {
+        final BiConsumer<? super K, ? super V> action;
+        ForEachMappingTask
+            (BulkTask<K,V,?> p, ConcurrentOffHeapMap<K,V> map, int b,
+             int i, int f, Table t,
+             BiConsumer<? super K,? super V> action) {
+            super(p, map, b, i, f, t);
+            this.action = action;
+        }
+        public final void compute() {
+            final BiConsumer<? super K, ? super V> action;
+            if ((action = this.action) != null) {
+                for (int i = baseIndex, f, h; batch > 0 &&
+                         (h = ((f = baseLimit) + i) >>> 1) > i;) {
+                    addToPendingCount(1);
+                    new ForEachMappingTask<K,V>
+                        (this, map, batch >>>= 1, baseLimit = h, f, tab,
+                         action).fork();
+                }
+                traverse(action);
+                propagateCompletion();
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static final class MapReduceMappingsTask<K,V,U>
+        extends BulkTask<K,V,U> {
+        final BiFunction<? super K, ? super V, ? extends U> transformer;
+        final BiFunction<? super U, ? super U, ? extends U> reducer;
+        U result;
+        MapReduceMappingsTask<K,V,U> rights, nextRight;
+        MapReduceMappingsTask
+            (BulkTask<K,V,?> p, ConcurrentOffHeapMap<K,V> map, int b,
+             int i, int f, Table t,
+             MapReduceMappingsTask<K,V,U> nextRight,
+             BiFunction<? super K, ? super V, ? extends U> transformer,
+             BiFunction<? super U, ? super U, ? extends U> reducer) {
+            super(p, map, b, i, f, t); this.nextRight = nextRight;
+            this.transformer = transformer;
+            this.reducer = reducer;
+        }
+        public final U getRawResult() { return result; }
+        public final void compute() {
+            final BiFunction<? super K, ? super V, ? extends U> transformer;
+            final BiFunction<? super U, ? super U, ? extends U> reducer;
+            if ((transformer = this.transformer) != null &&
+                (reducer = this.reducer) != null) {
+                for (int i = baseIndex, f, h; batch > 0 &&
+                         (h = ((f = baseLimit) + i) >>> 1) > i;) {
+                    addToPendingCount(1);
+                    (rights = new MapReduceMappingsTask<K,V,U>
+                     (this, map, batch >>>= 1, baseLimit = h, f, tab,
+                      rights, transformer, reducer)).fork();
+                }
+                traverse((k, v) -> {
+                    U u;
+                    if ((u = transformer.apply(k, v)) != null)
+                        result = (result == null) ? u : reducer.apply(result, u);
+                });
+                CountedCompleter<?> c;
+                for (c = firstComplete(); c != null; c = c.nextComplete()) {
+                    @SuppressWarnings("unchecked")
+                    MapReduceMappingsTask<K,V,U>
+                        t = (MapReduceMappingsTask<K,V,U>)c,
+                        s = t.rights;
+                    while (s != null) {
+                        U tr, sr;
+                        if ((sr = s.result) != null)
+                            t.result = (((tr = t.result) == null) ? sr :
+                                        reducer.apply(tr, sr));
+                        s = t.rights = s.nextRight;
+                    }
+                }
+            }
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long RESIZING;
+    private static final long LBASE;
+    private static final int LSHIFT;
+    private static final long BBASE;
+
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = ConcurrentOffHeapMap.class;
+            RESIZING = U.objectFieldOffset
+                (k.getDeclaredField("resizing"));
+            Class<?> ak = long[].class;
+            LBASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            LSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            BBASE = U.arrayBaseOffset(byte[].class);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
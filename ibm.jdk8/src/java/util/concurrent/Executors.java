@@ -165,6 +165,48 @@ public class Executors {
                                       threadFactory);
     }
 
+    /**
+     * Creates a thread pool that reuses a fixed number of threads
+     * operating off an unbounded {@link ShardedBlockingQueue}, in which
+     * submitting threads and workers contend on per-thread shards
+     * rather than a single queue, and idle workers steal tasks from
+     * other shards.  Otherwise equivalent to {@link
+     * #newFixedThreadPool(int)}, except that tasks are not executed in
+     * FIFO order across submitting threads.
+     *
+     * @param nThreads the number of threads in the pool
+     * @return the newly created thread pool
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @since 1.8
+     */
+    public static ExecutorService newShardedThreadPool(int nThreads) {
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new ShardedBlockingQueue<Runnable>());
+    }
+
+    /**
+     * Creates a thread pool that reuses a fixed number of threads
+     * operating off an unbounded {@link ShardedBlockingQueue}, using
+     * the provided ThreadFactory to create new threads when needed.
+     * Otherwise equivalent to {@link #newFixedThreadPool(int,
+     * ThreadFactory)}, except that tasks are not executed in FIFO
+     * order across submitting threads.
+     *
+     * @param nThreads the number of threads in the pool
+     * @param threadFactory the factory to use when creating new threads
+     * @return the newly created thread pool
+     * @throws NullPointerException if threadFactory is null
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @since 1.8
+     */
+    public static ExecutorService newShardedThreadPool(int nThreads, ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new ShardedBlockingQueue<Runnable>(),
+                                      threadFactory);
+    }
+
     /**
      * Creates an Executor that uses a single worker thread operating
      * off an unbounded queue. (Note however that if this single
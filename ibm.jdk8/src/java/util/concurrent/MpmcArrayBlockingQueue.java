@@ -0,0 +1,216 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@linkplain BlockingQueue blocking} version of {@link MpmcArrayQueue}.
+ * Threads that find the queue full or empty wait on a lock and
+ * condition that are otherwise untouched, so the cost of insertion and
+ * removal when no thread is waiting is that of {@code MpmcArrayQueue}
+ * plus a fence.
+ *
+ * <p>This queue may be used as the work queue of a {@link
+ * ThreadPoolExecutor}, in place of an {@link ArrayBlockingQueue}, to
+ * reduce contention between threads submitting and running tasks.
+ * Tasks removed by {@link ThreadPoolExecutor#remove} or {@link
+ * ThreadPoolExecutor#purge} keep their slots until they reach the
+ * head, so they still count towards the capacity of the queue until
+ * then.
+ *
+ * <p>All the constraints of {@code MpmcArrayQueue} apply.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ */
+public class MpmcArrayBlockingQueue<E> extends MpmcArrayQueue<E>
+    implements BlockingQueue<E> {
+
+    private final ArrayQueueWaiters waiters = new ArrayQueueWaiters();
+
+    /**
+     * Creates a {@code MpmcArrayBlockingQueue} with (at least) the given
+     * capacity.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is less than
+     *         1 or greater than 2<sup>30</sup>
+     */
+    public MpmcArrayBlockingQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * not full.
+     *
+     * @return {@code true} if the element was added, else {@code false}
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (!super.offer(e))
+            return false;
+        waiters.signalNotEmpty(false);
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * if necessary for space to become available.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        if (e == null)
+            throw new NullPointerException();
+        waiters.offer(this, e, false, 0L);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * up to the specified wait time for space to become available.
+     *
+     * @return {@code true} if successful, or {@code false} if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (e == null)
+            throw new NullPointerException();
+        return waiters.offer(this, e, true, unit.toNanos(timeout));
+    }
+
+    public E poll() {
+        long c = consumerIndex;
+        E x = super.poll();
+        if (consumerIndex != c)         // also if only removed slots were freed
+            waiters.signalNotFull(false);
+        return x;
+    }
+
+    public E take() throws InterruptedException {
+        return waiters.poll(this, false, 0L);
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return waiters.poll(this, true, unit.toNanos(timeout));
+    }
+
+    public int drain(Consumer<? super E> action, int limit) {
+        long c = consumerIndex;
+        try {
+            return super.drain(action, limit);
+        } finally {
+            long n = consumerIndex - c;
+            if (n > 0)
+                waiters.signalNotFull(n > 1);
+        }
+    }
+
+    public int fill(Supplier<? extends E> supplier, int limit) {
+        int n = 0;
+        try {
+            n = super.fill(supplier, limit);
+        } finally {
+            if (n > 0)
+                waiters.signalNotEmpty(n > 1);
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of additional elements that this queue can
+     * ideally (in the absence of memory or resource constraints) accept
+     * without blocking.  The result is only an estimate while the
+     * queue is in use.
+     */
+    public int remainingCapacity() {
+        return capacity() - size();
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        long start = consumerIndex;
+        int n = 0;
+        try {
+            for (E x; n < maxElements && (x = super.poll()) != null; ) {
+                ++n;
+                c.add(x);
+            }
+        } finally {
+            long freed = consumerIndex - start;
+            if (freed > 0)
+                waiters.signalNotFull(freed > 1);
+        }
+        return n;
+    }
+}
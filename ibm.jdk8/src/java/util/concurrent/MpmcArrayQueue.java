@@ -0,0 +1,272 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+import java.util.function.Supplier;
+
+/**
+ * A bounded {@linkplain java.util.Queue queue} backed by an array, for
+ * use by any number of producer and consumer threads.  Each slot
+ * carries a sequence number recording whether it is ready to be
+ * produced or consumed in the current pass over the array, so that
+ * producers and consumers claim slots by atomically advancing their
+ * own shared index, without locking, allocating, or contending with
+ * the other end except when the queue is nearly full or empty.  The
+ * two ends' indices are padded to avoid false sharing.
+ *
+ * <p>A consumer may briefly wait for a producer that has been
+ * descheduled between claiming a slot and writing its element, and
+ * vice versa.  Methods {@link #size} and {@link #isEmpty} return only
+ * estimates while the queue is in use.  Any thread may remove an
+ * element with {@link #remove(Object)} or the weakly consistent
+ * iterator; its slot is reclaimed only when it reaches the head.  This
+ * queue does not permit {@code null} elements.
+ *
+ * <p>The capacity is rounded up to the next power of two, and is at
+ * least two.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ * @see MpmcArrayBlockingQueue
+ */
+public class MpmcArrayQueue<E> extends ConcurrentArrayQueue<E> {
+
+    /*
+     * The sequence number of slot i starts at i.  A producer may claim
+     * index p if its slot's sequence is p, and afterwards sets it to
+     * p + 1; a consumer may claim index c if its slot's sequence is
+     * c + 1, and afterwards sets it to c + capacity, the next index
+     * that maps to the slot.  A capacity of one would make these
+     * states ambiguous.
+     */
+
+    /** The sequence numbers of the slots of buffer */
+    private final long[] sequences;
+
+    /**
+     * Creates a {@code MpmcArrayQueue} with (at least) the given
+     * capacity.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is less than
+     *         1 or greater than 2<sup>30</sup>
+     */
+    public MpmcArrayQueue(int capacity) {
+        super(capacity, 2);
+        long[] seqs = new long[mask + 1];
+        for (int i = 0; i < seqs.length; ++i)
+            seqs[i] = i;
+        this.sequences = seqs;
+    }
+
+    private long sequenceOffset(long index) {
+        return ((index & mask) << LSHIFT) + LBASE;
+    }
+
+    /**
+     * Claims the slot at the tail, returning its index, or -1 if the
+     * queue is full.
+     */
+    private long claimProducerIndex() {
+        long cap = mask + 1;
+        for (int spins = 0;;) {
+            long p = producerIndex;
+            long s = U.getLongVolatile(sequences, sequenceOffset(p));
+            if (s == p) {
+                if (U.compareAndSwapLong(this, PRODUCER_INDEX, p, p + 1L))
+                    return p;
+            }
+            else if (s < p) {
+                if (p - cap >= consumerIndex)
+                    return -1L;
+                if (++spins >= SPINS) {     // consumer still in slot
+                    spins = 0;
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims the slot at the head, returning its index, or -1 if the
+     * queue is empty.
+     */
+    private long claimConsumerIndex() {
+        for (int spins = 0;;) {
+            long c = consumerIndex;
+            long s = U.getLongVolatile(sequences, sequenceOffset(c));
+            if (s == c + 1L) {
+                if (U.compareAndSwapLong(this, CONSUMER_INDEX, c, c + 1L))
+                    return c;
+            }
+            else if (s < c + 1L) {
+                if (c >= producerIndex)
+                    return -1L;
+                if (++spins >= SPINS) {     // producer still in slot
+                    spins = 0;
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes x into the claimed slot at index p and releases it to
+     * consumers.
+     */
+    private void produce(long p, Object x) {
+        U.putObject(buffer, elementOffset(p), x);
+        U.putOrderedLong(sequences, sequenceOffset(p), p + 1L);
+    }
+
+    /**
+     * Takes the element from the claimed slot at index c and releases
+     * the slot to producers.
+     */
+    private Object consume(long c) {
+        Object x = takeElement(elementOffset(c));
+        U.putOrderedLong(sequences, sequenceOffset(c), c + mask + 1L);
+        return x;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * not full.
+     *
+     * @return {@code true} if the element was added, else {@code false}
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        long p = claimProducerIndex();
+        if (p < 0L)
+            return false;
+        produce(p, e);
+        return true;
+    }
+
+    /**
+     * Removes and returns the head of this queue, or returns
+     * {@code null} if it is empty.
+     *
+     * @return the head of this queue, or {@code null} if empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        for (long c; (c = claimConsumerIndex()) >= 0L; ) {
+            Object x = consume(c);
+            if (x != SKIP)
+                return (E)x;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the head of this queue, or {@code null} if it is empty.
+     * The result may already have been removed by another consumer.
+     *
+     * @return the head of this queue, or {@code null} if empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (;;) {
+            long c = consumerIndex;
+            long s = U.getLongVolatile(sequences, sequenceOffset(c));
+            if (s == c + 1L) {
+                Object x = U.getObjectVolatile(buffer, elementOffset(c));
+                if (x == null || consumerIndex != c)
+                    continue;               // raced with a consumer
+                if (x != SKIP)
+                    return (E)x;
+                if (U.compareAndSwapLong(this, CONSUMER_INDEX, c, c + 1L))
+                    consume(c);
+            }
+            else if (s < c + 1L && c >= producerIndex)
+                return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}  If the supplier throws an exception (including
+     * by returning null), the slot claimed for its element is left
+     * empty.
+     */
+    public int fill(Supplier<? extends E> supplier, int limit) {
+        if (supplier == null)
+            throw new NullPointerException();
+        int n = 0;
+        for (long p; n < limit && (p = claimProducerIndex()) >= 0L; ++n) {
+            Object x = SKIP;
+            try {
+                E e = supplier.get();
+                if (e == null)
+                    throw new NullPointerException();
+                x = e;
+            } finally {
+                produce(p, x);
+            }
+        }
+        return n;
+    }
+
+    // Unsafe mechanics
+    private static final long LBASE;
+    private static final int LSHIFT;
+    static {
+        try {
+            Class<?> lk = long[].class;
+            LBASE = U.arrayBaseOffset(lk);
+            int scale = U.arrayIndexScale(lk);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            LSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
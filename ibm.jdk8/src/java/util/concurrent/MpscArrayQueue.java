@@ -0,0 +1,209 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+import java.util.function.Supplier;
+
+/**
+ * A bounded {@linkplain java.util.Queue queue} backed by an array, for
+ * use by any number of producer threads and one consumer thread at a
+ * time.  Producers claim slots by atomically advancing a shared index
+ * and the consumer advances its own index with an ordered write, so
+ * neither insertion nor removal allocates or locks.  The two ends'
+ * state is padded to avoid false sharing.  Method {@link #fill}
+ * claims all the room it needs with a single atomic update, making it
+ * considerably cheaper than repeated calls to {@link #offer} when
+ * there are many producers.
+ *
+ * <p>Methods {@link #poll}, {@link #remove()}, {@link #peek} and
+ * {@link #drain} may be called only by the consumer; the effects of
+ * calls from other threads are undefined.  (Different threads may act
+ * as consumer at different times, if handing over the role establishes
+ * a <i>happens-before</i> relation.)  Because a producer writes its
+ * element after claiming its slot, a consumer may briefly wait for a
+ * producer that has been descheduled between the two.  Methods {@link
+ * #size} and {@link #isEmpty} return only estimates while the queue is
+ * in use.  Any thread may remove an element with {@link
+ * #remove(Object)} or the weakly consistent iterator; its slot is
+ * reclaimed only when it reaches the head.  This queue does not permit
+ * {@code null} elements.
+ *
+ * <p>The capacity is rounded up to the next power of two.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ * @see MpscArrayBlockingQueue
+ */
+public class MpscArrayQueue<E> extends ConcurrentArrayQueue<E> {
+
+    /**
+     * A past value of the consumer index plus capacity, below which
+     * producers may claim slots without reading the consumer index.
+     * Updated racily; a stale value merely causes an extra read.
+     */
+    @sun.misc.Contended("p") volatile long producerLimit;
+
+    /**
+     * Creates a {@code MpscArrayQueue} with (at least) the given
+     * capacity.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is less than
+     *         1 or greater than 2<sup>30</sup>
+     */
+    public MpscArrayQueue(int capacity) {
+        super(capacity, 1);
+        this.producerLimit = mask + 1;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * not full.
+     *
+     * @return {@code true} if the element was added, else {@code false}
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        long limit = producerLimit, p;
+        do {
+            p = producerIndex;
+            if (p >= limit) {
+                limit = consumerIndex + mask + 1;
+                if (p >= limit)
+                    return false;
+                producerLimit = limit;
+            }
+        } while (!U.compareAndSwapLong(this, PRODUCER_INDEX, p, p + 1L));
+        U.putOrderedObject(buffer, elementOffset(p), e);
+        return true;
+    }
+
+    /**
+     * Removes and returns the head of this queue, or returns
+     * {@code null} if it is empty.  Call only from the consumer thread.
+     *
+     * @return the head of this queue, or {@code null} if empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        for (;;) {
+            long c = consumerIndex;
+            long offset = elementOffset(c);
+            if (U.getObjectVolatile(buffer, offset) == null) {
+                if (c >= producerIndex)
+                    return null;
+                awaitElement(offset);
+            }
+            Object e = takeElement(offset);
+            U.putOrderedLong(this, CONSUMER_INDEX, c + 1L);
+            if (e != SKIP)
+                return (E)e;
+        }
+    }
+
+    /**
+     * Returns the head of this queue, or {@code null} if it is empty.
+     * Call only from the consumer thread.
+     *
+     * @return the head of this queue, or {@code null} if empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (;;) {
+            long c = consumerIndex;
+            long offset = elementOffset(c);
+            Object e = U.getObjectVolatile(buffer, offset);
+            if (e == null) {
+                if (c >= producerIndex)
+                    return null;
+                e = awaitElement(offset);
+            }
+            if (e != SKIP)
+                return (E)e;
+            U.putObject(buffer, offset, null);
+            U.putOrderedLong(this, CONSUMER_INDEX, c + 1L);
+        }
+    }
+
+    /**
+     * {@inheritDoc}  If the supplier throws an exception (including
+     * by returning null), the slots claimed for the remaining elements
+     * are left empty.
+     */
+    public int fill(Supplier<? extends E> supplier, int limit) {
+        if (supplier == null)
+            throw new NullPointerException();
+        if (limit <= 0)
+            return 0;
+        long bound = producerLimit, p, n;
+        do {
+            p = producerIndex;
+            if (p >= bound) {
+                bound = consumerIndex + mask + 1;
+                if (p >= bound)
+                    return 0;
+                producerLimit = bound;
+            }
+            n = Math.min(bound - p, (long)limit);
+        } while (!U.compareAndSwapLong(this, PRODUCER_INDEX, p, p + n));
+        long i = p, end = p + n;
+        try {
+            for (; i < end; ++i) {
+                E e = supplier.get();
+                if (e == null)
+                    throw new NullPointerException();
+                U.putOrderedObject(buffer, elementOffset(i), e);
+            }
+        } finally {
+            for (; i < end; ++i)
+                U.putOrderedObject(buffer, elementOffset(i), SKIP);
+        }
+        return (int)n;
+    }
+}
@@ -213,6 +213,11 @@ public class ScheduledThreadPoolExecutor
          */
         int heapIndex;
 
+        /**
+         * Node in a timing wheel queue, to support faster cancellation.
+         */
+        TimingWheelQueue.TimerNode wheelNode;
+
         /**
          * Creates a one-shot action with given nanoTime-based trigger time.
          */
@@ -497,6 +502,20 @@ public class ScheduledThreadPoolExecutor
               new DelayedWorkQueue(), threadFactory, handler);
     }
 
+    /**
+     * Creates a new ScheduledThreadPoolExecutor with the given
+     * initial parameters, using the given queue, which must hold
+     * only RunnableScheduledFutures and release them no sooner than
+     * their delays have elapsed.
+     */
+    ScheduledThreadPoolExecutor(int corePoolSize,
+                                BlockingQueue<Runnable> workQueue,
+                                ThreadFactory threadFactory,
+                                RejectedExecutionHandler handler) {
+        super(corePoolSize, Integer.MAX_VALUE, 0, NANOSECONDS,
+              workQueue, threadFactory, handler);
+    }
+
     /**
      * Returns the trigger time of a delayed action.
      */
@@ -1291,4 +1310,637 @@ public class ScheduledThreadPoolExecutor
             }
         }
     }
+
+    /**
+     * Hierarchical timing wheel used by {@link
+     * TimingWheelScheduledExecutor}.  As with DelayedWorkQueue, this
+     * class must be declared as a BlockingQueue<Runnable> even though
+     * it can only hold RunnableScheduledFutures.
+     */
+    static class TimingWheelQueue extends AbstractQueue<Runnable>
+        implements BlockingQueue<Runnable> {
+
+        /*
+         * Time is divided into ticks of tickNanos since the queue was
+         * created.  A task is due in the first tick at or after its
+         * trigger time, so tasks may run up to one tick late but
+         * never early.  The wheel has LEVELS levels of SLOTS buckets;
+         * viewing tick numbers as base-SLOTS numerals, a task whose
+         * tick first differs from currentTick in digit L is kept in
+         * bucket (L, that digit) of level L.  Level-0 buckets thus
+         * hold tasks due in a single tick, level-1 buckets tasks due
+         * in one of SLOTS ticks, and so on; tasks too far in the
+         * future for the wheel are kept in an overflow list.  Tasks
+         * whose tick has been reached are moved to a FIFO ready list.
+         * Each bucket is a doubly linked list of TimerNodes, so
+         * insertion and removal are O(1), and a 64-bit occupancy
+         * mask per level (SLOTS is 64) lets the next bucket to
+         * process be found in O(LEVELS).
+         *
+         * When currentTick advances to the start of an occupied
+         * bucket, the bucket is emptied and its tasks re-placed
+         * relative to the new currentTick: those of a level-0 bucket
+         * become ready; those of higher levels move to lower levels
+         * (or become ready).  Each task is therefore moved at most
+         * LEVELS times, and all tasks due in a tick are expired as a
+         * batch.  Advancing jumps directly from one occupied bucket
+         * to the next, rather than stepping through empty ticks.
+         *
+         * As in DelayedWorkQueue, ScheduledFutureTasks record their
+         * node (and set heapIndex to 0 while queued), so that
+         * cancellation removes them without search; other
+         * RunnableScheduledFutures fall back to linear search.
+         * Waiting uses the same Leader-Follower pattern, the leader
+         * waiting until the start of the next occupied bucket.
+         * Unlike DelayedWorkQueue, tasks due in the same tick are
+         * released in the order they were placed in their bucket,
+         * rather than in exact order of trigger time.
+         */
+
+        static final int SLOT_BITS = 6;
+        static final int SLOTS = 1 << SLOT_BITS;
+        static final int LEVELS = 6;
+        static final int WHEEL_BITS = SLOT_BITS * LEVELS;
+
+        /** Pseudo-bucket indices */
+        static final int OVERFLOW = LEVELS * SLOTS;
+        static final int READY = OVERFLOW + 1;
+        static final int NONE = -1;
+
+        /**
+         * A queued task.
+         */
+        static final class TimerNode {
+            final TimingWheelQueue queue;
+            final RunnableScheduledFuture<?> task;
+            final long tick;
+            int bucket = NONE;
+            TimerNode prev, next;
+            TimerNode(TimingWheelQueue queue, RunnableScheduledFuture<?> task,
+                      long tick) {
+                this.queue = queue;
+                this.task = task;
+                this.tick = tick;
+            }
+        }
+
+        private final long tickNanos;
+        private final long origin = System.nanoTime();
+        private final TimerNode[] heads = new TimerNode[READY + 1];
+        private final TimerNode[] tails = new TimerNode[READY + 1];
+        private final long[] occupied = new long[LEVELS];
+        private long currentTick;
+        private int size;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Thread designated to wait for the next occupied bucket; see
+         * DelayedWorkQueue.leader.
+         */
+        private Thread leader = null;
+
+        /** The tick the leader is waiting for, or Long.MAX_VALUE */
+        private long leaderTick = Long.MAX_VALUE;
+
+        /**
+         * Condition signalled when a task becomes due earlier than
+         * the leader expects, or a new thread may need to become leader.
+         */
+        private final Condition available = lock.newCondition();
+
+        TimingWheelQueue(long tickNanos) {
+            if (tickNanos <= 0L)
+                throw new IllegalArgumentException();
+            this.tickNanos = tickNanos;
+        }
+
+        /**
+         * Returns the tick duration in nanoseconds.
+         */
+        final long tickNanos() {
+            return tickNanos;
+        }
+
+        /**
+         * Returns the number of the tick containing the given time.
+         */
+        private long tickAt(long now) {
+            long d = now - origin;
+            return (d <= 0L) ? 0L : d / tickNanos;
+        }
+
+        /**
+         * Returns the first tick starting at or after the given delay
+         * from now.
+         */
+        private long tickFor(long now, long delay) {
+            long d = now - origin;
+            if (delay > 0L)
+                d = (d > Long.MAX_VALUE - delay) ? Long.MAX_VALUE : d + delay;
+            if (d <= 0L)
+                return 0L;
+            long t = d / tickNanos;
+            return (t * tickNanos == d) ? t : t + 1L;
+        }
+
+        /**
+         * Returns the first tick starting at or after the trigger
+         * time of task e.
+         */
+        private long tickOf(RunnableScheduledFuture<?> e) {
+            if (e instanceof ScheduledFutureTask) {
+                // exact, whenever now is sampled
+                long now = System.nanoTime();
+                return tickFor(now, ((ScheduledFutureTask<?>)e).time - now);
+            }
+            // sample now after the delay, so that any pause between
+            // the two makes the tick late rather than early
+            long delay = e.getDelay(NANOSECONDS);
+            return tickFor(System.nanoTime(), delay);
+        }
+
+        /**
+         * Returns the nanoseconds from now until the start of tick t.
+         */
+        private long nanosUntil(long t, long now) {
+            return (t >= Long.MAX_VALUE / tickNanos) ? Long.MAX_VALUE :
+                t * tickNanos - (now - origin);
+        }
+
+        /**
+         * Sets f's node and heapIndex if it is a ScheduledFutureTask.
+         */
+        private static void setNode(RunnableScheduledFuture<?> f, TimerNode n) {
+            if (f instanceof ScheduledFutureTask) {
+                ScheduledFutureTask<?> t = (ScheduledFutureTask<?>)f;
+                t.wheelNode = n;
+                t.heapIndex = (n == null) ? -1 : 0;
+            }
+        }
+
+        /**
+         * Appends n to bucket b.  Call only when holding lock.
+         */
+        private void link(TimerNode n, int b) {
+            TimerNode t = tails[b];
+            n.bucket = b;
+            n.prev = t;
+            n.next = null;
+            if (t == null)
+                heads[b] = n;
+            else
+                t.next = n;
+            tails[b] = n;
+            if (b < OVERFLOW)
+                occupied[b >>> SLOT_BITS] |= 1L << (b & (SLOTS - 1));
+        }
+
+        /**
+         * Removes n from its bucket.  Call only when holding lock.
+         */
+        private void unlink(TimerNode n) {
+            int b = n.bucket;
+            TimerNode p = n.prev, s = n.next;
+            if (p == null)
+                heads[b] = s;
+            else
+                p.next = s;
+            if (s == null)
+                tails[b] = p;
+            else
+                s.prev = p;
+            n.prev = n.next = null;
+            n.bucket = NONE;
+            if (b < OVERFLOW && heads[b] == null)
+                occupied[b >>> SLOT_BITS] &= ~(1L << (b & (SLOTS - 1)));
+        }
+
+        /**
+         * Links n into the bucket for its tick relative to
+         * currentTick.  Call only when holding lock.
+         */
+        private void place(TimerNode n) {
+            long t = n.tick, cur = currentTick;
+            if (t <= cur)
+                link(n, READY);
+            else {
+                int level = (63 - Long.numberOfLeadingZeros(t ^ cur)) / SLOT_BITS;
+                if (level >= LEVELS)
+                    link(n, OVERFLOW);
+                else
+                    link(n, (level << SLOT_BITS) |
+                         (int)(t >>> (level * SLOT_BITS)) & (SLOTS - 1));
+            }
+        }
+
+        /**
+         * Returns the tick at which the next occupied bucket starts,
+         * or Long.MAX_VALUE if there is none.  Call only when
+         * holding lock.
+         */
+        private long nextEventTick() {
+            long cur = currentTick, next = Long.MAX_VALUE;
+            for (int level = 0; level < LEVELS; ++level) {
+                long occ = occupied[level];
+                if (occ != 0L) {
+                    int shift = level * SLOT_BITS;
+                    int digit = (int)(cur >>> shift) & (SLOTS - 1);
+                    long later = (digit == SLOTS - 1) ? 0L :
+                        occ & (-1L << (digit + 1));
+                    if (later != 0L) {
+                        int hi = shift + SLOT_BITS;
+                        long t = ((cur >>> hi) << hi) |
+                            ((long)Long.numberOfTrailingZeros(later) << shift);
+                        if (t < next)
+                            next = t;
+                    }
+                }
+            }
+            if (heads[OVERFLOW] != null) {
+                long t = ((cur >>> WHEEL_BITS) + 1L) << WHEEL_BITS;
+                if (t < next)
+                    next = t;
+            }
+            return next;
+        }
+
+        /**
+         * Empties bucket b, re-placing its tasks.  Call only when
+         * holding lock.
+         */
+        private void cascade(int b) {
+            TimerNode n = heads[b];
+            if (n != null) {
+                heads[b] = tails[b] = null;
+                if (b < OVERFLOW)
+                    occupied[b >>> SLOT_BITS] &= ~(1L << (b & (SLOTS - 1)));
+                while (n != null) {
+                    TimerNode next = n.next;
+                    place(n);
+                    n = next;
+                }
+            }
+        }
+
+        /**
+         * Advances currentTick to the given tick, moving tasks that
+         * are then due to the ready list.  Call only when holding lock.
+         */
+        private void advance(long tick) {
+            for (long t; (t = nextEventTick()) <= tick; ) {
+                currentTick = t;
+                for (int level = 0; level < LEVELS; ++level) {
+                    int shift = level * SLOT_BITS;
+                    if ((t & ((1L << shift) - 1L)) != 0L)
+                        break;  // not the start of a bucket at this level
+                    cascade((level << SLOT_BITS) |
+                            (int)(t >>> shift) & (SLOTS - 1));
+                }
+                if ((t & ((1L << WHEEL_BITS) - 1L)) == 0L)
+                    cascade(OVERFLOW);
+            }
+            if (tick > currentTick)
+                currentTick = tick;
+        }
+
+        /**
+         * Returns the node holding x, or null if absent.
+         */
+        private TimerNode nodeOf(Object x) {
+            if (x != null) {
+                if (x instanceof ScheduledFutureTask) {
+                    TimerNode n = ((ScheduledFutureTask<?>)x).wheelNode;
+                    // Sanity check; x could conceivably be a
+                    // ScheduledFutureTask from some other pool.
+                    if (n != null && n.queue == this && n.bucket != NONE)
+                        return n;
+                } else {
+                    for (int b = 0; b <= READY; ++b)
+                        for (TimerNode n = heads[b]; n != null; n = n.next)
+                            if (x.equals(n.task))
+                                return n;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Removes and returns the task of node n.  Call only when
+         * holding lock.
+         */
+        private RunnableScheduledFuture<?> finishPoll(TimerNode n) {
+            unlink(n);
+            --size;
+            setNode(n.task, null);
+            return n.task;
+        }
+
+        public boolean contains(Object x) {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                return nodeOf(x) != null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public boolean remove(Object x) {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                TimerNode n = nodeOf(x);
+                if (n == null)
+                    return false;
+                finishPoll(n);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int size() {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        public int remainingCapacity() {
+            return Integer.MAX_VALUE;
+        }
+
+        /**
+         * Returns a due task if there is one, else one of the tasks
+         * in the earliest occupied bucket, or null if empty.
+         */
+        public RunnableScheduledFuture<?> peek() {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                advance(tickAt(System.nanoTime()));
+                TimerNode n = heads[READY];
+                for (int level = 0; n == null && level < LEVELS; ++level) {
+                    int shift = level * SLOT_BITS;
+                    int digit = (int)(currentTick >>> shift) & (SLOTS - 1);
+                    long later = (digit == SLOTS - 1) ? 0L :
+                        occupied[level] & (-1L << (digit + 1));
+                    if (later != 0L)
+                        n = heads[(level << SLOT_BITS) |
+                                  Long.numberOfTrailingZeros(later)];
+                }
+                if (n == null)
+                    n = heads[OVERFLOW];
+                return (n == null) ? null : n.task;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public boolean offer(Runnable x) {
+            if (x == null)
+                throw new NullPointerException();
+            RunnableScheduledFuture<?> e = (RunnableScheduledFuture<?>)x;
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                TimerNode n = new TimerNode(this, e, tickOf(e));
+                place(n);
+                ++size;
+                setNode(e, n);
+                if (n.tick < leaderTick) {
+                    leader = null;
+                    leaderTick = Long.MAX_VALUE;
+                    available.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return true;
+        }
+
+        public void put(Runnable e) {
+            offer(e);
+        }
+
+        public boolean add(Runnable e) {
+            return offer(e);
+        }
+
+        public boolean offer(Runnable e, long timeout, TimeUnit unit) {
+            return offer(e);
+        }
+
+        public RunnableScheduledFuture<?> poll() {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                advance(tickAt(System.nanoTime()));
+                TimerNode first = heads[READY];
+                return (first == null) ? null : finishPoll(first);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public RunnableScheduledFuture<?> take() throws InterruptedException {
+            final ReentrantLock lock = this.lock;
+            lock.lockInterruptibly();
+            try {
+                for (;;) {
+                    long now = System.nanoTime();
+                    advance(tickAt(now));
+                    TimerNode first = heads[READY];
+                    if (first != null)
+                        return finishPoll(first);
+                    long t = nextEventTick();
+                    if (t == Long.MAX_VALUE || leader != null)
+                        available.await();
+                    else {
+                        Thread thisThread = Thread.currentThread();
+                        leader = thisThread;
+                        leaderTick = t;
+                        try {
+                            available.awaitNanos(nanosUntil(t, now));
+                        } finally {
+                            if (leader == thisThread) {
+                                leader = null;
+                                leaderTick = Long.MAX_VALUE;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                if (leader == null && size != 0)
+                    available.signal();
+                lock.unlock();
+            }
+        }
+
+        public RunnableScheduledFuture<?> poll(long timeout, TimeUnit unit)
+            throws InterruptedException {
+            long nanos = unit.toNanos(timeout);
+            final ReentrantLock lock = this.lock;
+            lock.lockInterruptibly();
+            try {
+                for (;;) {
+                    long now = System.nanoTime();
+                    advance(tickAt(now));
+                    TimerNode first = heads[READY];
+                    if (first != null)
+                        return finishPoll(first);
+                    if (nanos <= 0)
+                        return null;
+                    long t = nextEventTick();
+                    long delay = (t == Long.MAX_VALUE) ? Long.MAX_VALUE :
+                        nanosUntil(t, now);
+                    if (nanos < delay || leader != null)
+                        nanos = available.awaitNanos(nanos);
+                    else {
+                        Thread thisThread = Thread.currentThread();
+                        leader = thisThread;
+                        leaderTick = t;
+                        try {
+                            long timeLeft = available.awaitNanos(delay);
+                            nanos -= delay - timeLeft;
+                        } finally {
+                            if (leader == thisThread) {
+                                leader = null;
+                                leaderTick = Long.MAX_VALUE;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                if (leader == null && size != 0)
+                    available.signal();
+                lock.unlock();
+            }
+        }
+
+        public void clear() {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                for (int b = 0; b <= READY; ++b) {
+                    for (TimerNode n = heads[b], next; n != null; n = next) {
+                        next = n.next;
+                        n.prev = n.next = null;
+                        n.bucket = NONE;
+                        setNode(n.task, null);
+                    }
+                    heads[b] = tails[b] = null;
+                }
+                for (int level = 0; level < LEVELS; ++level)
+                    occupied[level] = 0L;
+                size = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int drainTo(Collection<? super Runnable> c) {
+            return drainTo(c, Integer.MAX_VALUE);
+        }
+
+        public int drainTo(Collection<? super Runnable> c, int maxElements) {
+            if (c == null)
+                throw new NullPointerException();
+            if (c == this)
+                throw new IllegalArgumentException();
+            if (maxElements <= 0)
+                return 0;
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                advance(tickAt(System.nanoTime()));
+                TimerNode first;
+                int n = 0;
+                while (n < maxElements && (first = heads[READY]) != null) {
+                    c.add(first.task);   // In this order, in case add() throws.
+                    finishPoll(first);
+                    ++n;
+                }
+                return n;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Returns the queued tasks, ready tasks first.
+         */
+        private RunnableScheduledFuture<?>[] snapshot() {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                RunnableScheduledFuture<?>[] a = new RunnableScheduledFuture<?>[size];
+                int i = 0;
+                for (int b = READY; b >= 0; --b)
+                    for (TimerNode n = heads[b]; n != null; n = n.next)
+                        a[i++] = n.task;
+                return a;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public Object[] toArray() {
+            RunnableScheduledFuture<?>[] s = snapshot();
+            return Arrays.copyOf(s, s.length, Object[].class);
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T[] toArray(T[] a) {
+            RunnableScheduledFuture<?>[] s = snapshot();
+            if (a.length < s.length)
+                return (T[]) Arrays.copyOf(s, s.length, a.getClass());
+            System.arraycopy(s, 0, a, 0, s.length);
+            if (a.length > s.length)
+                a[s.length] = null;
+            return a;
+        }
+
+        public Iterator<Runnable> iterator() {
+            return new Itr(snapshot());
+        }
+
+        /**
+         * Snapshot iterator that works off a copy of the queued tasks.
+         */
+        private class Itr implements Iterator<Runnable> {
+            final RunnableScheduledFuture<?>[] array;
+            int cursor = 0;     // index of next element to return
+            int lastRet = -1;   // index of last element, or -1 if no such
+
+            Itr(RunnableScheduledFuture<?>[] array) {
+                this.array = array;
+            }
+
+            public boolean hasNext() {
+                return cursor < array.length;
+            }
+
+            public Runnable next() {
+                if (cursor >= array.length)
+                    throw new NoSuchElementException();
+                lastRet = cursor;
+                return array[cursor++];
+            }
+
+            public void remove() {
+                if (lastRet < 0)
+                    throw new IllegalStateException();
+                TimingWheelQueue.this.remove(array[lastRet]);
+                lastRet = -1;
+            }
+        }
+    }
 }
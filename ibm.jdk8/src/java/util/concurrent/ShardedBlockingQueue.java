@@ -0,0 +1,726 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@linkplain BlockingQueue blocking queue} partitioned into a number
+ * of independently locked array-based shards, intended as the work
+ * queue of a {@link ThreadPoolExecutor} whose many producers and
+ * workers would otherwise contend on the single pair of locks of a
+ * {@link LinkedBlockingQueue}.
+ *
+ * <p>Each thread has a home shard, selected (as in {@link LongAdder})
+ * by a per-thread hash that is changed when the thread encounters
+ * contention.  Insertions are made to the inserting thread's home
+ * shard, so tasks submitted by a pool's own workers tend to be taken
+ * by the same worker, and removals take from the remover's home shard
+ * first, then "steal" from the others in turn, as the workers of a
+ * {@link ForkJoinPool} do.  Locks are only held for the few
+ * instructions needed to update a shard, and threads only wait on a
+ * shared lock when the queue is empty (or, if bounded, full).
+ *
+ * <p>This queue orders elements FIFO within each shard, but makes no
+ * guarantee about the relative order of elements in different shards.
+ * It is optionally bounded: the capacity is distributed evenly among
+ * the shards, so {@link #offer} may fail only when all shards are full,
+ * and the effective capacity may be rounded up to a multiple of the
+ * number of shards.  Methods {@link #size}, {@link #isEmpty}, {@link
+ * #remainingCapacity} and iteration traverse all the shards, and so
+ * are not atomic with respect to concurrent insertions and removals.
+ * The iterator is weakly consistent, traversing a snapshot of the
+ * elements present at some point at or since its creation.
+ *
+ * <p>This class and its iterator implement all of the <em>optional</em>
+ * methods of the {@link Collection} and {@link Iterator} interfaces.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ * @see Executors#newShardedThreadPool(int)
+ */
+public class ShardedBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /*
+     * Each Shard is a circular array guarded by a spinlock acquired
+     * by CAS, with a volatile count so that scans can skip empty
+     * shards without locking.  A thread failing to acquire the lock
+     * of its home shard advances its ThreadLocalRandom probe (as in
+     * Striped64) and tries the shard it now hashes to, so that
+     * contending threads spread out over the shards.  Threads that
+     * must lock a particular shard (for removal of an arbitrary
+     * element, or to take a snapshot) spin with Thread.yield, as do
+     * threads that fail to lock any shard in a full round of
+     * attempts.
+     *
+     * Blocking uses a conventional lock and conditions, entered only
+     * when a scan found the queue empty (or full).  A waiter
+     * increments the volatile count of waiters under the lock and
+     * then rescans before awaiting; producers write a shard's count
+     * before reading the count of waiters, and only if it is nonzero
+     * acquire the lock to signal.  As all of these accesses are
+     * volatile, either the producer sees the waiter, or the waiter's
+     * rescan sees the element, so no wakeups are lost.  As in
+     * LinkedBlockingQueue, to avoid locking on every insertion, only
+     * insertions into an empty shard signal; a thread that takes an
+     * element while others are waiting signals again if the queue
+     * is still nonempty, so that wakeups cascade (and symmetrically
+     * for puts waiting on a full bounded queue).
+     */
+
+    /** The number of CPUS, to size the array of shards */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The maximum number of shards. */
+    static final int MAX_SHARDS = 1 << 8;
+
+    /** The initial length of each shard's array. */
+    static final int INITIAL_SHARD_CAPACITY = 1 << 4;
+
+    /**
+     * A circular array of elements, locked for all updates.
+     */
+    static final class Shard {
+        volatile int lock;          // 1 if locked
+        volatile int count;         // written only when locked
+        final int capacity;
+        Object[] items = new Object[INITIAL_SHARD_CAPACITY];
+        int takeIndex;
+
+        Shard(int capacity) { this.capacity = capacity; }
+
+        boolean tryLock() {
+            return lock == 0 && U.compareAndSwapInt(this, LOCK, 0, 1);
+        }
+
+        void lock() {
+            while (!tryLock())
+                Thread.yield();
+        }
+
+        void unlock() { lock = 0; }
+
+        /**
+         * Appends x unless full, returning the previous count, or -1
+         * if full.  Call only when locked.
+         */
+        int add(Object x) {
+            int n = count;
+            if (n >= capacity)
+                return -1;
+            Object[] a = items;
+            if (n == a.length) {
+                Object[] b = new Object[n << 1];
+                for (int i = 0; i < n; ++i)
+                    b[i] = a[(takeIndex + i) & (n - 1)];
+                items = a = b;
+                takeIndex = 0;
+            }
+            a[(takeIndex + n) & (a.length - 1)] = x;
+            count = n + 1;
+            return n;
+        }
+
+        /** Removes and returns the first element, if any.  Call only when locked. */
+        Object poll() {
+            int n = count;
+            if (n == 0)
+                return null;
+            Object[] a = items;
+            int i = takeIndex;
+            Object x = a[i];
+            a[i] = null;
+            takeIndex = (i + 1) & (a.length - 1);
+            count = n - 1;
+            return x;
+        }
+
+        /** Returns the first element, if any.  Call only when locked. */
+        Object peek() {
+            return (count == 0) ? null : items[takeIndex];
+        }
+
+        /**
+         * Removes the first element equal to o, or, if identity is
+         * true, the first element that is o.  Call only when locked.
+         */
+        boolean remove(Object o, boolean identity) {
+            Object[] a = items;
+            int n = count, m = a.length - 1;
+            for (int k = 0; k < n; ++k) {
+                Object x = a[(takeIndex + k) & m];
+                if (identity ? o == x : o.equals(x)) {
+                    for (int j = k; j < n - 1; ++j)
+                        a[(takeIndex + j) & m] = a[(takeIndex + j + 1) & m];
+                    a[(takeIndex + n - 1) & m] = null;
+                    count = n - 1;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Appends the elements to list.  Call only when locked. */
+        void copyTo(ArrayList<Object> list) {
+            Object[] a = items;
+            for (int k = 0, n = count; k < n; ++k)
+                list.add(a[(takeIndex + k) & (a.length - 1)]);
+        }
+
+        // Unsafe mechanics
+        private static final sun.misc.Unsafe U;
+        private static final long LOCK;
+        static {
+            try {
+                U = sun.misc.Unsafe.getUnsafe();
+                LOCK = U.objectFieldOffset
+                    (Shard.class.getDeclaredField("lock"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /** The shards; length is a power of two */
+    final Shard[] shards;
+
+    /** The capacity bound, or Integer.MAX_VALUE if none */
+    private final int capacity;
+
+    /** Lock held by waiting takes and puts */
+    private final ReentrantLock waitLock = new ReentrantLock();
+
+    /** Wait queue for waiting takes */
+    private final Condition notEmpty = waitLock.newCondition();
+
+    /** Wait queue for waiting puts */
+    private final Condition notFull = waitLock.newCondition();
+
+    /** Number of threads awaiting notEmpty; written under waitLock */
+    private volatile int emptyWaiters;
+
+    /** Number of threads awaiting notFull; written under waitLock */
+    private volatile int fullWaiters;
+
+    /**
+     * Creates a {@code ShardedBlockingQueue} with a capacity of
+     * {@link Integer#MAX_VALUE}, and a number of shards based on the
+     * number of available processors.
+     */
+    public ShardedBlockingQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a {@code ShardedBlockingQueue} with the given (fixed)
+     * capacity, and a number of shards based on the number of
+     * available processors, but no more than the capacity.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is not greater
+     *         than zero
+     */
+    public ShardedBlockingQueue(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException();
+        int n = 1, limit = Math.min(Math.min(NCPU, MAX_SHARDS), capacity);
+        while (n < limit)
+            n <<= 1;
+        if (n > capacity)
+            n >>>= 1;
+        Shard[] ss = new Shard[n];
+        int c = (capacity == Integer.MAX_VALUE) ? capacity :
+            (capacity + n - 1) / n;
+        for (int i = 0; i < n; ++i)
+            ss[i] = new Shard(c);
+        this.shards = ss;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates a {@code ShardedBlockingQueue} with a capacity of
+     * {@link Integer#MAX_VALUE}, initially containing the elements of
+     * the given collection, added in traversal order of the
+     * collection's iterator.
+     *
+     * @param c the collection of elements to initially contain
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements are null
+     */
+    public ShardedBlockingQueue(Collection<? extends E> c) {
+        this(Integer.MAX_VALUE);
+        for (E e : c)
+            add(e);
+    }
+
+    /**
+     * Returns the calling thread's probe, initializing it if necessary.
+     */
+    static int probe() {
+        int h;
+        if ((h = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.localInit();
+            h = ThreadLocalRandom.getProbe();
+        }
+        return h;
+    }
+
+    /**
+     * Signals a waiting take, if any.
+     */
+    private void signalNotEmpty() {
+        if (emptyWaiters != 0) {
+            final ReentrantLock lock = this.waitLock;
+            lock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Signals a waiting put, if any.
+     */
+    private void signalNotFull() {
+        if (fullWaiters != 0) {
+            final ReentrantLock lock = this.waitLock;
+            lock.lock();
+            try {
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns true if all shards are full.
+     */
+    private boolean isFull() {
+        for (Shard s : shards) {
+            if (s.count < s.capacity)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Waits, unless the queue is found to be nonempty, until signalled
+     * or (if timed) the given time elapses.
+     */
+    private void awaitNotEmpty(boolean timed, long nanos)
+        throws InterruptedException {
+        final ReentrantLock lock = this.waitLock;
+        lock.lockInterruptibly();
+        try {
+            ++emptyWaiters;
+            try {
+                if (isEmpty()) {
+                    if (timed)
+                        notEmpty.awaitNanos(nanos);
+                    else
+                        notEmpty.await();
+                }
+            } finally {
+                --emptyWaiters;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits, unless the queue is found to be not full, until signalled
+     * or (if timed) the given time elapses.
+     */
+    private void awaitNotFull(boolean timed, long nanos)
+        throws InterruptedException {
+        final ReentrantLock lock = this.waitLock;
+        lock.lockInterruptibly();
+        try {
+            ++fullWaiters;
+            try {
+                if (isFull()) {
+                    if (timed)
+                        notFull.awaitNanos(nanos);
+                    else
+                        notFull.await();
+                }
+            } finally {
+                --fullWaiters;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the specified element into this queue if it is possible
+     * to do so immediately without violating capacity restrictions,
+     * returning {@code true} upon success and {@code false} if all
+     * shards are full.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        Shard[] ss = shards;
+        int m = ss.length - 1, h = probe();
+        for (int full = 0, misses = 0;;) {
+            Shard s = ss[h & m];
+            if (s.count >= s.capacity) {
+                if (++full > m)
+                    return false;
+                ++h;                    // try the next shard
+            }
+            else if (s.tryLock()) {
+                int c;
+                try {
+                    c = s.add(e);
+                } finally {
+                    s.unlock();
+                }
+                if (c >= 0) {
+                    if (c == 0)
+                        signalNotEmpty();
+                    if (fullWaiters != 0 && !isFull())
+                        signalNotFull();
+                    return true;
+                }
+            }
+            else {
+                h = ThreadLocalRandom.advanceProbe(h);
+                if (++misses > m) {     // holders may be descheduled
+                    misses = 0;
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the specified element into this queue, waiting if
+     * necessary for space to become available.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        while (!offer(e))
+            awaitNotFull(false, 0L);
+    }
+
+    /**
+     * Inserts the specified element into this queue, waiting if
+     * necessary up to the specified wait time for space to become
+     * available.
+     *
+     * @return {@code true} if successful, or {@code false} if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + nanos;
+        while (!offer(e)) {
+            if (nanos <= 0L)
+                return false;
+            awaitNotFull(true, nanos);
+            nanos = deadline - System.nanoTime();
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        Shard[] ss = shards;
+        int n = ss.length, h = probe();
+        for (;;) {
+            boolean contended = false;
+            for (int i = 0; i < n; ++i) {
+                Shard s = ss[(h + i) & (n - 1)];
+                if (s.count == 0)
+                    continue;
+                if (!s.tryLock()) {
+                    contended = true;
+                    continue;
+                }
+                Object x;
+                int c;
+                try {
+                    c = s.count;
+                    x = s.poll();
+                } finally {
+                    s.unlock();
+                }
+                if (x != null) {
+                    if (emptyWaiters != 0 && !isEmpty())
+                        signalNotEmpty();
+                    if (c == s.capacity)
+                        signalNotFull();
+                    return (E)x;
+                }
+            }
+            if (!contended)
+                return null;
+            Thread.yield();
+        }
+    }
+
+    public E take() throws InterruptedException {
+        E x;
+        while ((x = poll()) == null)
+            awaitNotEmpty(false, 0L);
+        return x;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + nanos;
+        E x;
+        while ((x = poll()) == null) {
+            if (nanos <= 0L)
+                return null;
+            awaitNotEmpty(true, nanos);
+            nanos = deadline - System.nanoTime();
+        }
+        return x;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        Shard[] ss = shards;
+        int n = ss.length, h = probe();
+        for (int i = 0; i < n; ++i) {
+            Shard s = ss[(h + i) & (n - 1)];
+            if (s.count != 0) {
+                Object x;
+                s.lock();
+                try {
+                    x = s.peek();
+                } finally {
+                    s.unlock();
+                }
+                if (x != null)
+                    return (E)x;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of elements in this queue.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        long sum = 0L;
+        for (Shard s : shards)
+            sum += s.count;
+        return (sum >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)sum;
+    }
+
+    public boolean isEmpty() {
+        for (Shard s : shards) {
+            if (s.count != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of additional elements that this queue can
+     * ideally (in the absence of memory or resource constraints)
+     * accept without blocking.  This is always equal to the initial
+     * capacity of this queue less the current {@code size} of this
+     * queue, or {@code Integer.MAX_VALUE} if unbounded.
+     */
+    public int remainingCapacity() {
+        return (capacity == Integer.MAX_VALUE) ? capacity :
+            Math.max(0, capacity - size());
+    }
+
+    /**
+     * Removes a single instance of the specified element from this
+     * queue, if it is present.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        if (o == null) return false;
+        return remove(o, false);
+    }
+
+    /**
+     * Removes the first element equal to, or if identity is true the
+     * first element that is, o from the first shard that has one.
+     */
+    private boolean remove(Object o, boolean identity) {
+        for (Shard s : shards) {
+            if (s.count == 0)
+                continue;
+            boolean removed;
+            s.lock();
+            try {
+                removed = s.remove(o, identity);
+            } finally {
+                s.unlock();
+            }
+            if (removed) {
+                signalNotFull();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the elements of this queue, shard by shard.
+     */
+    private ArrayList<Object> snapshot() {
+        ArrayList<Object> list = new ArrayList<Object>();
+        for (Shard s : shards) {
+            if (s.count != 0) {
+                s.lock();
+                try {
+                    s.copyTo(list);
+                } finally {
+                    s.unlock();
+                }
+            }
+        }
+        return list;
+    }
+
+    public Object[] toArray() {
+        return snapshot().toArray();
+    }
+
+    public <T> T[] toArray(T[] a) {
+        return snapshot().toArray(a);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        int n = 0;
+        for (E x; n < maxElements && (x = poll()) != null; ++n)
+            c.add(x);
+        return n;
+    }
+
+    /**
+     * Returns an iterator over the elements in this queue, in no
+     * particular order.
+     *
+     * <p>The returned iterator is
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        return new Itr(snapshot().toArray());
+    }
+
+    final class Itr implements Iterator<E> {
+        final Object[] array;
+        int cursor;
+        int lastRet = -1;
+
+        Itr(Object[] array) { this.array = array; }
+
+        public boolean hasNext() {
+            return cursor < array.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor >= array.length)
+                throw new NoSuchElementException();
+            lastRet = cursor;
+            return (E)array[cursor++];
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            // remove by identity, not equals, as the queue may hold
+            // other elements equal to the one returned
+            ShardedBlockingQueue.this.remove(array[lastRet], true);
+            lastRet = -1;
+        }
+    }
+}
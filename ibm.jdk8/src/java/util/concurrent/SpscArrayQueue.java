@@ -0,0 +1,209 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded {@linkplain java.util.Queue queue} backed by an array, for
+ * use by one producer thread and one consumer thread at a time.
+ * Insertion and removal are wait-free and allocate nothing: each end
+ * advances its own index with an ordered write, and reads the other
+ * end's index only when its cached copy suggests that the queue may be
+ * full (or empty).  The two ends' state is padded to avoid false
+ * sharing.
+ *
+ * <p>Methods {@link #offer}, {@link #add} and {@link #fill} may be
+ * called only by the producer, and {@link #poll}, {@link #remove()},
+ * {@link #peek} and {@link #drain} only by the consumer; the effects of
+ * calls from other threads are undefined.  (Different threads may act
+ * as producer or consumer at different times, if handing over the
+ * role establishes a <i>happens-before</i> relation.)  Methods {@link
+ * #size} and {@link #isEmpty} may be called by any thread, but return
+ * only estimates while the queue is in use.  Any thread may remove an
+ * element with {@link #remove(Object)} or the weakly consistent
+ * iterator; its slot is reclaimed only when it reaches the head.  This
+ * queue does not permit {@code null} elements.
+ *
+ * <p>The capacity is rounded up to the next power of two.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ * @see SpscArrayBlockingQueue
+ */
+public class SpscArrayQueue<E> extends ConcurrentArrayQueue<E> {
+
+    /** The consumer index plus capacity, below which the producer may insert */
+    @sun.misc.Contended("p") long producerLimit;
+
+    /** A producer index, below which the consumer may remove */
+    @sun.misc.Contended("c") long consumerLimit;
+
+    /**
+     * Creates a {@code SpscArrayQueue} with (at least) the given
+     * capacity.
+     *
+     * @param capacity the minimum capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is less than
+     *         1 or greater than 2<sup>30</sup>
+     */
+    public SpscArrayQueue(int capacity) {
+        super(capacity, 1);
+        this.producerLimit = mask + 1;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * not full.  Call only from the producer thread.
+     *
+     * @return {@code true} if the element was added, else {@code false}
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        long p = producerIndex;
+        if (p >= producerLimit) {
+            long limit = consumerIndex + mask + 1;
+            if (p >= limit)
+                return false;
+            producerLimit = limit;
+        }
+        U.putObject(buffer, elementOffset(p), e);
+        U.putOrderedLong(this, PRODUCER_INDEX, p + 1L);
+        return true;
+    }
+
+    /**
+     * Removes and returns the head of this queue, or returns
+     * {@code null} if it is empty.  Call only from the consumer thread.
+     *
+     * @return the head of this queue, or {@code null} if empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        for (;;) {
+            long c = consumerIndex;
+            if (c >= consumerLimit) {
+                long p = producerIndex;
+                if (c >= p)
+                    return null;
+                consumerLimit = p;
+            }
+            Object e = takeElement(elementOffset(c));
+            U.putOrderedLong(this, CONSUMER_INDEX, c + 1L);
+            if (e != SKIP)
+                return (E)e;
+        }
+    }
+
+    /**
+     * Returns the head of this queue, or {@code null} if it is empty.
+     * Call only from the consumer thread.
+     *
+     * @return the head of this queue, or {@code null} if empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (;;) {
+            long c = consumerIndex;
+            if (c >= consumerLimit) {
+                long p = producerIndex;
+                if (c >= p)
+                    return null;
+                consumerLimit = p;
+            }
+            long offset = elementOffset(c);
+            Object e = U.getObjectVolatile(buffer, offset);
+            if (e != SKIP)
+                return (E)e;
+            U.putObject(buffer, offset, null);
+            U.putOrderedLong(this, CONSUMER_INDEX, c + 1L);
+        }
+    }
+
+    /**
+     * {@inheritDoc}  Call only from the consumer thread.
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> action, int limit) {
+        if (action == null)
+            throw new NullPointerException();
+        long c = consumerIndex;
+        long n = Math.min(producerIndex - c, (long)Math.max(limit, 0));
+        int taken = 0;
+        for (long i = c, end = c + n; i < end; ++i) {
+            Object e = takeElement(elementOffset(i));
+            U.putOrderedLong(this, CONSUMER_INDEX, i + 1L);
+            if (e != SKIP) {
+                ++taken;
+                action.accept((E)e);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * {@inheritDoc}  Call only from the producer thread.
+     */
+    public int fill(Supplier<? extends E> supplier, int limit) {
+        if (supplier == null)
+            throw new NullPointerException();
+        long p = producerIndex;
+        long n = Math.min(consumerIndex + mask + 1 - p,
+                          (long)Math.max(limit, 0));
+        for (long i = p, end = p + n; i < end; ++i) {
+            E e = supplier.get();
+            if (e == null)
+                throw new NullPointerException();
+            U.putObject(buffer, elementOffset(i), e);
+            U.putOrderedLong(this, PRODUCER_INDEX, i + 1L);
+        }
+        return (int)n;
+    }
+}
@@ -0,0 +1,179 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent;
+
+/**
+ * A {@link ScheduledThreadPoolExecutor} that keeps its delayed tasks
+ * in a hierarchical timing wheel rather than a binary heap.  Scheduling
+ * and cancelling (with {@link #setRemoveOnCancelPolicy
+ * removeOnCancelPolicy} set) a task take constant time, and tasks that
+ * become due together are released as a batch, which makes this class
+ * preferable when very many tasks are pending at once, most of which
+ * are cancelled before they run, as is typical of timeouts.
+ *
+ * <p>The price is a coarser notion of time: delays are rounded up to a
+ * whole number of <em>ticks</em> (by default one millisecond), so
+ * tasks run no earlier than requested but may run up to one tick
+ * later, and tasks due in the same tick are not necessarily started in
+ * order of their trigger times.  In all other respects this class
+ * behaves as, and may be used in place of, a {@code
+ * ScheduledThreadPoolExecutor}.
+ *
+ * @since 1.8
+ */
+public class TimingWheelScheduledExecutor extends ScheduledThreadPoolExecutor {
+
+    /** The default tick duration, in nanoseconds */
+    static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the
+     * given core pool size and a tick of one millisecond.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @throws IllegalArgumentException if {@code corePoolSize < 0}
+     */
+    public TimingWheelScheduledExecutor(int corePoolSize) {
+        this(corePoolSize, DEFAULT_TICK_NANOS, TimeUnit.NANOSECONDS,
+             Executors.defaultThreadFactory(),
+             new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the
+     * given initial parameters and a tick of one millisecond.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @throws IllegalArgumentException if {@code corePoolSize < 0}
+     * @throws NullPointerException if {@code threadFactory} is null
+     */
+    public TimingWheelScheduledExecutor(int corePoolSize,
+                                        ThreadFactory threadFactory) {
+        this(corePoolSize, DEFAULT_TICK_NANOS, TimeUnit.NANOSECONDS,
+             threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the
+     * given initial parameters and a tick of one millisecond.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param handler the handler to use when execution is blocked
+     *        because the thread bounds and queue capacities are reached
+     * @throws IllegalArgumentException if {@code corePoolSize < 0}
+     * @throws NullPointerException if {@code handler} is null
+     */
+    public TimingWheelScheduledExecutor(int corePoolSize,
+                                        RejectedExecutionHandler handler) {
+        this(corePoolSize, DEFAULT_TICK_NANOS, TimeUnit.NANOSECONDS,
+             Executors.defaultThreadFactory(), handler);
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the
+     * given initial parameters and a tick of one millisecond.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @param handler the handler to use when execution is blocked
+     *        because the thread bounds and queue capacities are reached
+     * @throws IllegalArgumentException if {@code corePoolSize < 0}
+     * @throws NullPointerException if {@code threadFactory} or
+     *         {@code handler} is null
+     */
+    public TimingWheelScheduledExecutor(int corePoolSize,
+                                        ThreadFactory threadFactory,
+                                        RejectedExecutionHandler handler) {
+        this(corePoolSize, DEFAULT_TICK_NANOS, TimeUnit.NANOSECONDS,
+             threadFactory, handler);
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the
+     * given initial parameters.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param tickDuration the granularity of scheduling
+     * @param unit the time unit of the {@code tickDuration} argument
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @param handler the handler to use when execution is blocked
+     *        because the thread bounds and queue capacities are reached
+     * @throws IllegalArgumentException if {@code corePoolSize < 0}, or
+     *         the tick duration is less than one nanosecond
+     * @throws NullPointerException if {@code unit}, {@code threadFactory}
+     *         or {@code handler} is null
+     */
+    public TimingWheelScheduledExecutor(int corePoolSize,
+                                        long tickDuration,
+                                        TimeUnit unit,
+                                        ThreadFactory threadFactory,
+                                        RejectedExecutionHandler handler) {
+        super(corePoolSize, new TimingWheelQueue(unit.toNanos(tickDuration)),
+              threadFactory, handler);
+    }
+
+    /**
+     * Returns the tick duration, the granularity with which tasks are
+     * scheduled.
+     *
+     * @param unit the desired time unit
+     * @return the tick duration
+     */
+    public long getTickDuration(TimeUnit unit) {
+        return unit.convert(((TimingWheelQueue)super.getQueue()).tickNanos(),
+                            TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,459 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent.atomic;
+
+/**
+ * A histogram of non-negative {@code long} values, such as latencies
+ * in nanoseconds, that may be recorded concurrently by many threads.
+ * Values are counted in log-linear buckets: each power-of-two range
+ * is divided into {@code 2^precisionBits} equal buckets, so that the
+ * value reported for any recorded value is within a relative error of
+ * {@code 2^-precisionBits}, and values less than {@code
+ * 2^precisionBits} are counted exactly.  Values larger than the
+ * highest trackable value are counted in the highest bucket.
+ *
+ * <p>Counts are maintained in a {@link LongAdderArray}, so under
+ * contention threads record into separate rows of buckets, and method
+ * {@link #record} performs a single atomic update without allocation
+ * once the rows in use have been created.  Method {@link #snapshot}
+ * returns an immutable {@link Snapshot} from which the count, range
+ * and percentiles of the recorded values may be read.  Method {@link
+ * #snapshotThenReset} additionally resets the counts, in such a way
+ * that each recorded value is included in exactly one snapshot, so it
+ * may be used to report values per interval:
+ *
+ * <pre> {@code
+ * ConcurrentLongHistogram latencies = new ConcurrentLongHistogram();
+ *
+ * // on each request
+ * long start = System.nanoTime();
+ * handle(request);
+ * latencies.record(System.nanoTime() - start);
+ *
+ * // once per interval
+ * ConcurrentLongHistogram.Snapshot s = latencies.snapshotThenReset();
+ * report(s.getCount(), s.getPercentile(50.0), s.getPercentile(99.9));
+ * }</pre>
+ *
+ * <p>This class does <em>not</em> define methods such as {@code
+ * equals} and {@code hashCode} because instances are expected to be
+ * mutated.
+ *
+ * @since 1.8
+ */
+public class ConcurrentLongHistogram {
+
+    /*
+     * A value v < 2^p (where p is precisionBits) is counted in bucket
+     * v.  A larger value, whose highest one bit is bit e, is counted
+     * in bucket 2^p + (e - p) * 2^p + s, where s is the p bits of v
+     * following the highest one bit.  Bucket indices therefore
+     * increase with values, and each is computed with a shift and a
+     * mask, without division or search.
+     */
+
+    /** Default precision, for relative error of about 3% */
+    private static final int DEFAULT_PRECISION_BITS = 5;
+
+    /** Greatest supported precision */
+    private static final int MAX_PRECISION_BITS = 16;
+
+    private final long highestTrackableValue;
+    private final int precisionBits;
+    private final LongAdderArray counts;
+
+    /**
+     * Creates a new histogram able to track all non-negative {@code
+     * long} values with a relative error of about 3 percent.
+     */
+    public ConcurrentLongHistogram() {
+        this(Long.MAX_VALUE, DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * Creates a new histogram able to track values from zero through
+     * the given value, with a relative error of at most {@code
+     * 2^-precisionBits}.
+     *
+     * @param highestTrackableValue the highest value that is counted
+     *        separately from others
+     * @param precisionBits the number of bits of each value retained,
+     *        from 1 to 16
+     * @throws IllegalArgumentException if {@code highestTrackableValue}
+     *         is less than one or {@code precisionBits} is out of range
+     */
+    public ConcurrentLongHistogram(long highestTrackableValue,
+                                   int precisionBits) {
+        if (highestTrackableValue < 1L || precisionBits < 1 ||
+            precisionBits > MAX_PRECISION_BITS)
+            throw new IllegalArgumentException();
+        this.highestTrackableValue = highestTrackableValue;
+        this.precisionBits = precisionBits;
+        this.counts = new LongAdderArray
+            (bucketIndex(highestTrackableValue, precisionBits) + 1);
+    }
+
+    /**
+     * Returns the index of the bucket counting the given value.
+     */
+    static int bucketIndex(long value, int precisionBits) {
+        int e = 63 - Long.numberOfLeadingZeros(value);
+        if (e < precisionBits)
+            return (int) value;
+        int shift = e - precisionBits;
+        int mask = (1 << precisionBits) - 1;
+        return ((shift + 1) << precisionBits) +
+            ((int) (value >>> shift) & mask);
+    }
+
+    /**
+     * Returns the least value counted in the given bucket.
+     */
+    static long bucketLowerBound(int index, int precisionBits) {
+        int shift = (index >>> precisionBits) - 1;
+        if (shift < 0)
+            return index;
+        int mask = (1 << precisionBits) - 1;
+        return ((1L << precisionBits) | (index & mask)) << shift;
+    }
+
+    /**
+     * Returns the greatest value counted in the given bucket.
+     */
+    static long bucketUpperBound(int index, int precisionBits) {
+        int shift = (index >>> precisionBits) - 1;
+        if (shift < 0)
+            return index;
+        return bucketLowerBound(index, precisionBits) + (1L << shift) - 1L;
+    }
+
+    /**
+     * Returns the highest value that is counted separately from others.
+     *
+     * @return the highest trackable value
+     */
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Returns the number of bits of each value retained in its bucket.
+     *
+     * @return the precision in bits
+     */
+    public int getPrecisionBits() {
+        return precisionBits;
+    }
+
+    /**
+     * Records the given value.
+     *
+     * @param value the value
+     * @throws IllegalArgumentException if {@code value} is negative
+     */
+    public void record(long value) {
+        counts.add(indexFor(value), 1L);
+    }
+
+    /**
+     * Records the given value {@code count} times.
+     *
+     * @param value the value
+     * @param count the number of occurrences
+     * @throws IllegalArgumentException if {@code value} or {@code count}
+     *         is negative
+     */
+    public void record(long value, long count) {
+        if (count < 0L)
+            throw new IllegalArgumentException();
+        if (count != 0L)
+            counts.add(indexFor(value), count);
+    }
+
+    private int indexFor(long value) {
+        if (value < 0L)
+            throw new IllegalArgumentException();
+        return bucketIndex(Math.min(value, highestTrackableValue),
+                           precisionBits);
+    }
+
+    /**
+     * Returns a snapshot of the counts of values recorded so far.  The
+     * returned snapshot is <em>NOT</em> atomic with respect to
+     * concurrent recording: a value recorded while the snapshot is
+     * taken may or may not be included.  The snapshot is nevertheless
+     * internally consistent: its count is the sum of its bucket counts.
+     *
+     * @return a snapshot of the histogram
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(counts.sums(), precisionBits);
+    }
+
+    /**
+     * Returns a snapshot of the counts of values recorded so far, and
+     * resets them to zero.  Each recorded value is included in
+     * exactly one snapshot returned by this method, even if recorded
+     * concurrently with it.
+     *
+     * @return a snapshot of the histogram
+     */
+    public Snapshot snapshotThenReset() {
+        return new Snapshot(counts.sumsThenReset(), precisionBits);
+    }
+
+    /**
+     * Resets all counts to zero.  This method is only effective if
+     * there are no concurrent calls to {@link #record}.
+     */
+    public void reset() {
+        counts.reset();
+    }
+
+    /**
+     * Returns a String representation of a snapshot of this histogram.
+     * @return a String representation of a snapshot of this histogram
+     */
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * An immutable view of the counts of a {@link ConcurrentLongHistogram}
+     * at some point in time.  Values reported by a snapshot are those
+     * of bucket boundaries, so are accurate to within the precision
+     * of the histogram.
+     *
+     * @since 1.8
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final int precisionBits;
+        private final long count;
+
+        Snapshot(long[] counts, int precisionBits) {
+            long c = 0L;
+            for (long n : counts)
+                c += n;
+            this.counts = counts;
+            this.precisionBits = precisionBits;
+            this.count = c;
+        }
+
+        /**
+         * Returns the number of values recorded.
+         *
+         * @return the number of values recorded
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the least value of the bucket holding the smallest
+         * recorded value, or zero if no values were recorded.
+         *
+         * @return the minimum recorded value, to within the precision
+         * of the histogram
+         */
+        public long getMin() {
+            for (int i = 0; i < counts.length; ++i) {
+                if (counts[i] != 0L)
+                    return bucketLowerBound(i, precisionBits);
+            }
+            return 0L;
+        }
+
+        /**
+         * Returns the greatest value of the bucket holding the largest
+         * recorded value, or zero if no values were recorded.
+         *
+         * @return the maximum recorded value, to within the precision
+         * of the histogram
+         */
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; --i) {
+                if (counts[i] != 0L)
+                    return bucketUpperBound(i, precisionBits);
+            }
+            return 0L;
+        }
+
+        /**
+         * Returns the mean of the recorded values, taking each to lie
+         * at the midpoint of its bucket, or zero if no values were
+         * recorded.
+         *
+         * @return the mean recorded value, to within the precision of
+         * the histogram
+         */
+        public double getMean() {
+            if (count == 0L)
+                return 0.0;
+            double total = 0.0;
+            for (int i = 0; i < counts.length; ++i) {
+                long n = counts[i];
+                if (n != 0L) {
+                    double lo = bucketLowerBound(i, precisionBits);
+                    double hi = bucketUpperBound(i, precisionBits);
+                    total += n * ((lo + hi) / 2.0);
+                }
+            }
+            return total / count;
+        }
+
+        /**
+         * Returns the value at or below which the given percentage of
+         * recorded values lie: the greatest value of the bucket
+         * holding the recorded value of that rank.  Returns zero if no
+         * values were recorded.
+         *
+         * @param percentile the percentage, from 0.0 to 100.0
+         * @return the value at the given percentile, to within the
+         * precision of the histogram
+         * @throws IllegalArgumentException if {@code percentile} is out
+         *         of range
+         */
+        public long getPercentile(double percentile) {
+            if (!(percentile >= 0.0 && percentile <= 100.0))
+                throw new IllegalArgumentException();
+            if (count == 0L)
+                return 0L;
+            long rank = (long) Math.ceil(percentile / 100.0 * count);
+            if (rank < 1L)
+                rank = 1L;
+            long seen = 0L;
+            int last = 0;
+            for (int i = 0; i < counts.length; ++i) {
+                long n = counts[i];
+                if (n != 0L) {
+                    last = i;
+                    if ((seen += n) >= rank)
+                        break;
+                }
+            }
+            return bucketUpperBound(last, precisionBits);
+        }
+
+        /**
+         * Returns the number of recorded values less than or equal to
+         * the given value, counting those in the bucket holding that
+         * value as well.
+         *
+         * @param value the value
+         * @return the number of recorded values up to {@code value}, to
+         * within the precision of the histogram
+         */
+        public long getCountAtOrBelow(long value) {
+            if (value < 0L)
+                return 0L;
+            int last = Math.min(bucketIndex(value, precisionBits),
+                                counts.length - 1);
+            long c = 0L;
+            for (int i = 0; i <= last; ++i)
+                c += counts[i];
+            return c;
+        }
+
+        /**
+         * Returns the number of buckets of this snapshot.
+         *
+         * @return the number of buckets
+         */
+        public int getBucketCount() {
+            return counts.length;
+        }
+
+        /**
+         * Returns the number of values recorded in the given bucket.
+         *
+         * @param index the bucket index
+         * @return the count of the bucket
+         * @throws IndexOutOfBoundsException if {@code index} is out of range
+         */
+        public long getCount(int index) {
+            return counts[index];
+        }
+
+        /**
+         * Returns the least value counted in the given bucket.
+         *
+         * @param index the bucket index
+         * @return the lower bound of the bucket
+         * @throws IndexOutOfBoundsException if {@code index} is out of range
+         */
+        public long getLowerBound(int index) {
+            if (index < 0 || index >= counts.length)
+                throw new IndexOutOfBoundsException("index " + index);
+            return bucketLowerBound(index, precisionBits);
+        }
+
+        /**
+         * Returns the greatest value counted in the given bucket.
+         *
+         * @param index the bucket index
+         * @return the upper bound of the bucket
+         * @throws IndexOutOfBoundsException if {@code index} is out of range
+         */
+        public long getUpperBound(int index) {
+            if (index < 0 || index >= counts.length)
+                throw new IndexOutOfBoundsException("index " + index);
+            return bucketUpperBound(index, precisionBits);
+        }
+
+        /**
+         * Returns a String summarizing this snapshot.
+         * @return a String summarizing this snapshot
+         */
+        public String toString() {
+            return "[count=" + count + ", min=" + getMin() +
+                ", p50=" + getPercentile(50.0) +
+                ", p99=" + getPercentile(99.0) +
+                ", max=" + getMax() + "]";
+        }
+    }
+}
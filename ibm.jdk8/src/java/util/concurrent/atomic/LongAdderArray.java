@@ -0,0 +1,449 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent.atomic;
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An array of {@code long} sums, each of which is maintained as by a
+ * {@link LongAdder}: when updates (method {@link #add}) are contended
+ * across threads, the set of variables maintaining the sums may grow
+ * dynamically to reduce contention.  Method {@link #sum} returns the
+ * current total for one index, combined across the variables.
+ *
+ * <p>An array is considerably more compact than the same number of
+ * separate {@code LongAdder}s when the sums are updated together, as
+ * in counting events by category or values by range.  Each thread
+ * that encounters contention updates a private row of the array, so
+ * that an update touches a single cache line no matter how many sums
+ * are updated; the price is that each such row occupies space for
+ * every index.  See {@link ConcurrentLongHistogram} for an example.
+ *
+ * <p>This class does <em>not</em> define methods such as {@code
+ * equals} and {@code hashCode} because instances are expected to be
+ * mutated.
+ *
+ * @since 1.8
+ */
+public class LongAdderArray implements Serializable {
+    private static final long serialVersionUID = -2378516745237109431L;
+
+    /*
+     * This class follows the design of Striped64, with rows of longs
+     * in place of Cells, updated by CAS of their elements.  The base
+     * and table rows are padded at both ends so that elements of
+     * different rows do not share cache lines.  New rows are created
+     * empty, and the update that created them retried, so that they
+     * need no safe publication of their contents.
+     */
+
+    /** The number of padding elements before and after each row */
+    private static final int PAD = 16;
+
+    /** The number of sums */
+    private final int length;
+
+    /** The base row, used mainly when there is no contention */
+    private transient final long[] base;
+
+    /** Table of rows.  When non-null, size is a power of 2. */
+    private transient volatile long[][] cells;
+
+    /** Spinlock (locked via CAS) used when resizing and/or creating rows */
+    private transient volatile int cellsBusy;
+
+    /**
+     * Creates a new array of the given length, with all sums zero.
+     *
+     * @param length the length of the new array
+     * @throws IllegalArgumentException if {@code length} is negative or
+     *         too large
+     */
+    public LongAdderArray(int length) {
+        if (length < 0 || length > Integer.MAX_VALUE - 2 * PAD - 8)
+            throw new IllegalArgumentException();
+        this.length = length;
+        this.base = newRow();
+    }
+
+    private long[] newRow() {
+        return new long[length + 2 * PAD];
+    }
+
+    private long checkedByteOffset(int i) {
+        if (i < 0 || i >= length)
+            throw new IndexOutOfBoundsException("index " + i);
+        return ((long) (i + PAD) << ASHIFT) + ABASE;
+    }
+
+    /**
+     * Returns the length of the array.
+     *
+     * @return the length of the array
+     */
+    public final int length() {
+        return length;
+    }
+
+    /**
+     * Adds the given value to the sum at index {@code i}.
+     *
+     * @param i the index
+     * @param x the value to add
+     * @throws IndexOutOfBoundsException if {@code i} is out of range
+     */
+    public void add(int i, long x) {
+        long offset = checkedByteOffset(i);
+        long[][] as; long[] a; long b, v; int m;
+        if ((as = cells) != null ||
+            !U.compareAndSwapLong(base, offset,
+                                  b = U.getLongVolatile(base, offset), b + x)) {
+            boolean uncontended = true;
+            if (as == null || (m = as.length - 1) < 0 ||
+                (a = as[Striped64.getProbe() & m]) == null ||
+                !(uncontended = U.compareAndSwapLong
+                  (a, offset, v = U.getLongVolatile(a, offset), v + x)))
+                accumulate(offset, x, uncontended);
+        }
+    }
+
+    /**
+     * Equivalent to {@code add(i, 1)}.
+     *
+     * @param i the index
+     * @throws IndexOutOfBoundsException if {@code i} is out of range
+     */
+    public void increment(int i) {
+        add(i, 1L);
+    }
+
+    /**
+     * Equivalent to {@code add(i, -1)}.
+     *
+     * @param i the index
+     * @throws IndexOutOfBoundsException if {@code i} is out of range
+     */
+    public void decrement(int i) {
+        add(i, -1L);
+    }
+
+    /**
+     * Handles updates involving initialization, resizing, creating new
+     * rows, and/or contention, as does Striped64.longAccumulate.
+     */
+    private void accumulate(long offset, long x, boolean wasUncontended) {
+        int h;
+        if ((h = Striped64.getProbe()) == 0) {
+            ThreadLocalRandom.current(); // force initialization
+            h = Striped64.getProbe();
+            wasUncontended = true;
+        }
+        boolean collide = false;                // True if last slot nonempty
+        for (;;) {
+            long[][] as; long[] a; int n; long v;
+            if ((as = cells) != null && (n = as.length) > 0) {
+                if ((a = as[(n - 1) & h]) == null) {
+                    if (cellsBusy == 0) {       // Try to attach new row
+                        long[] r = newRow();    // Optimistically create
+                        if (cellsBusy == 0 && casCellsBusy()) {
+                            try {               // Recheck under lock
+                                long[][] rs; int m, j;
+                                if ((rs = cells) != null &&
+                                    (m = rs.length) > 0 &&
+                                    rs[j = (m - 1) & h] == null)
+                                    rs[j] = r;
+                            } finally {
+                                cellsBusy = 0;
+                            }
+                            continue;           // Retry on the new row
+                        }
+                    }
+                    collide = false;
+                }
+                else if (!wasUncontended)       // CAS already known to fail
+                    wasUncontended = true;      // Continue after rehash
+                else if (U.compareAndSwapLong(a, offset,
+                                              v = U.getLongVolatile(a, offset),
+                                              v + x))
+                    break;
+                else if (n >= Striped64.NCPU || cells != as)
+                    collide = false;            // At max size or stale
+                else if (!collide)
+                    collide = true;
+                else if (cellsBusy == 0 && casCellsBusy()) {
+                    try {
+                        if (cells == as) {      // Expand table unless stale
+                            long[][] rs = new long[n << 1][];
+                            for (int i = 0; i < n; ++i)
+                                rs[i] = as[i];
+                            cells = rs;
+                        }
+                    } finally {
+                        cellsBusy = 0;
+                    }
+                    collide = false;
+                    continue;                   // Retry with expanded table
+                }
+                h = Striped64.advanceProbe(h);
+            }
+            else if (cellsBusy == 0 && cells == as && casCellsBusy()) {
+                try {                           // Initialize table
+                    if (cells == as) {
+                        long[][] rs = new long[2][];
+                        rs[h & 1] = newRow();
+                        cells = rs;
+                    }
+                } finally {
+                    cellsBusy = 0;
+                }
+            }
+            else if (U.compareAndSwapLong(base, offset,
+                                          v = U.getLongVolatile(base, offset),
+                                          v + x))
+                break;                          // Fall back on using base
+        }
+    }
+
+    private boolean casCellsBusy() {
+        return U.compareAndSwapInt(this, CELLSBUSY, 0, 1);
+    }
+
+    /**
+     * Returns the current sum at index {@code i}.  The returned value
+     * is <em>NOT</em> an atomic snapshot; invocation in the absence of
+     * concurrent updates returns an accurate result, but concurrent
+     * updates that occur while the sum is being calculated might not
+     * be incorporated.
+     *
+     * @param i the index
+     * @return the sum
+     * @throws IndexOutOfBoundsException if {@code i} is out of range
+     */
+    public long sum(int i) {
+        long offset = checkedByteOffset(i);
+        long[][] as = cells; long[] a;
+        long sum = U.getLongVolatile(base, offset);
+        if (as != null) {
+            for (int j = 0; j < as.length; ++j) {
+                if ((a = as[j]) != null)
+                    sum += U.getLongVolatile(a, offset);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the current sums, as by calling {@link #sum} for each
+     * index in turn.
+     *
+     * @return an array of the sums
+     */
+    public long[] sums() {
+        return sums(false);
+    }
+
+    /**
+     * Resets the sum at index {@code i} to zero, returning its
+     * previous value.  Each update is reflected in exactly one result
+     * of this method (or of {@link #sumsThenReset}), even if
+     * performed concurrently with it, although it is unspecified which.
+     *
+     * @param i the index
+     * @return the sum
+     * @throws IndexOutOfBoundsException if {@code i} is out of range
+     */
+    public long sumThenReset(int i) {
+        long offset = checkedByteOffset(i);
+        long[][] as = cells; long[] a;
+        long sum = U.getAndSetLong(base, offset, 0L);
+        if (as != null) {
+            for (int j = 0; j < as.length; ++j) {
+                if ((a = as[j]) != null)
+                    sum += U.getAndSetLong(a, offset, 0L);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Resets all sums to zero, returning their previous values, as by
+     * calling {@link #sumThenReset} for each index in turn.
+     *
+     * @return an array of the sums
+     */
+    public long[] sumsThenReset() {
+        return sums(true);
+    }
+
+    /**
+     * Resets all sums to zero.  This method is only effective if there
+     * are no concurrent updates.
+     */
+    public void reset() {
+        long[][] as = cells; long[] a;
+        resetRow(base);
+        if (as != null) {
+            for (int j = 0; j < as.length; ++j) {
+                if ((a = as[j]) != null)
+                    resetRow(a);
+            }
+        }
+    }
+
+    private void resetRow(long[] a) {
+        for (int i = PAD, end = PAD + length; i < end; ++i)
+            U.putLongVolatile(a, ((long) i << ASHIFT) + ABASE, 0L);
+    }
+
+    /**
+     * Sums rows into a new array, row by row for locality.
+     */
+    private long[] sums(boolean reset) {
+        long[] sums = new long[length];
+        long[][] as = cells; long[] a;
+        addRow(base, sums, reset);
+        if (as != null) {
+            for (int j = 0; j < as.length; ++j) {
+                if ((a = as[j]) != null)
+                    addRow(a, sums, reset);
+            }
+        }
+        return sums;
+    }
+
+    private void addRow(long[] a, long[] sums, boolean reset) {
+        for (int i = 0; i < sums.length; ++i) {
+            long offset = ((long) (i + PAD) << ASHIFT) + ABASE;
+            sums[i] += reset ? U.getAndSetLong(a, offset, 0L) :
+                U.getLongVolatile(a, offset);
+        }
+    }
+
+    /**
+     * Returns the String representation of the current sums.
+     * @return the String representation of the current sums
+     */
+    public String toString() {
+        return java.util.Arrays.toString(sums());
+    }
+
+    /**
+     * Serialization proxy, used to avoid reference to the non-public
+     * Striped64-like internals in the serialized form.
+     * @serial include
+     */
+    private static class SerializationProxy implements Serializable {
+        private static final long serialVersionUID = 4931742536251209154L;
+
+        /**
+         * The current values returned by sums().
+         * @serial
+         */
+        private final long[] values;
+
+        SerializationProxy(LongAdderArray a) {
+            values = a.sums();
+        }
+
+        /**
+         * Return a {@code LongAdderArray} object with initial state
+         * held by this proxy.
+         *
+         * @return a {@code LongAdderArray} object with initial state
+         * held by this proxy.
+         */
+        private Object readResolve() {
+            LongAdderArray a = new LongAdderArray(values.length);
+            for (int i = 0; i < values.length; ++i)
+                a.base[i + PAD] = values[i];
+            return a;
+        }
+    }
+
+    /**
+     * Returns a
+     * <a href="../../../../serialized-form.html#java.util.concurrent.atomic.LongAdderArray.SerializationProxy">
+     * SerializationProxy</a>
+     * representing the state of this instance.
+     *
+     * @return a {@link SerializationProxy}
+     * representing the state of this instance
+     */
+    private Object writeReplace() {
+        return new SerializationProxy(this);
+    }
+
+    /**
+     * @param s the stream
+     * @throws java.io.InvalidObjectException always
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws java.io.InvalidObjectException {
+        throw new java.io.InvalidObjectException("Proxy required");
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long CELLSBUSY;
+    private static final long ABASE;
+    private static final int ASHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            CELLSBUSY = U.objectFieldOffset
+                (LongAdderArray.class.getDeclaredField("cellsBusy"));
+            Class<?> ak = long[].class;
+            ABASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
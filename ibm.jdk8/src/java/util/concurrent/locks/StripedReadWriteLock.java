@@ -0,0 +1,888 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+/*
+ *
+ *
+ *
+ *
+ *
+ * Written by Doug Lea with assistance from members of JCP JSR-166
+ * Expert Group and released to the public domain, as explained at
+ * http://creativecommons.org/publicdomain/zero/1.0/
+ */
+
+package java.util.concurrent.locks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ReadWriteLock} for read-mostly data accessed by many
+ * threads in parallel.  In a {@link ReentrantReadWriteLock}, every
+ * acquisition and release of the read lock updates a single shared
+ * word, so read throughput stops improving, and may fall, as threads
+ * are added.  Here, a reader records its hold in one of a set of
+ * counters, or <em>stripes</em>, chosen by a per-thread hash and
+ * padded to avoid false sharing, so that readers running on different
+ * processors usually touch only their own cache lines.  The price is
+ * paid by writers, which must examine every stripe, and by memory, as
+ * each lock occupies a cache line per stripe.
+ *
+ * <p>This class has the following properties:
+ *
+ * <ul>
+ * <li><b>Fair writers</b>
+ * <p>Threads acquire the write lock in approximately arrival order,
+ * as for a fair {@link ReentrantReadWriteLock}.  Once a thread is
+ * waiting for or holds the write lock, new readers wait behind it,
+ * while those already holding the read lock are allowed to finish,
+ * so writers are not starved by a continuous stream of readers.  The
+ * untimed {@link ReadLock#tryLock()} and {@link WriteLock#tryLock()}
+ * methods do not honor this fairness, acquiring the lock if possible
+ * regardless of waiting threads.
+ *
+ * <li><b>Reentrancy</b>
+ * <p>The write lock is reentrant, and a writer may acquire the read
+ * lock, so that the write lock can be downgraded to a read lock by
+ * acquiring the read lock and then releasing the write lock.  Upgrading
+ * from a read lock to the write lock is not possible.  Because holds
+ * are not recorded per thread, the read lock is <em>not</em> reentrant
+ * for threads other than the writer: a reader that tries to acquire
+ * the read lock again will deadlock if a writer has started waiting in
+ * the meantime.  For the same reason, the read lock does not detect
+ * release by a thread that does not hold it; the effect of doing so is
+ * undefined.
+ *
+ * <li><b>Interruption and timeouts</b>
+ * <p>A writer that has been granted the write lock waits for the
+ * readers holding the read lock to release it.  For {@link
+ * WriteLock#lockInterruptibly} and {@link WriteLock#tryLock(long,
+ * TimeUnit)} this wait is interruptible and bounded by the timeout; a
+ * writer that is interrupted or times out while waiting for readers
+ * gives the write lock up, and the threads queued behind it proceed.
+ * For {@link WriteLock#lock} the wait is not interruptible: the
+ * interrupt status of a thread interrupted while waiting for readers
+ * is set on return.
+ *
+ * <li><b>Condition support</b>
+ * <p>The write lock provides a {@link Condition} implementation that
+ * behaves in the same way, with respect to the write lock, as the
+ * {@link Condition} implementation provided by {@link
+ * ReentrantLock#newCondition}.  A thread must not hold the read lock
+ * while awaiting a condition.  The read lock does not support a
+ * {@link Condition}.
+ *
+ * <li><b>Instrumentation</b>
+ * <p>This class supports methods to determine whether locks are held
+ * or contended.  These methods are designed for monitoring system
+ * state, not for synchronization control.
+ * </ul>
+ *
+ * <p>Serialization of this class behaves in the same way as built-in
+ * locks: a deserialized lock is in the unlocked state, regardless of
+ * its state when serialized.
+ *
+ * @since 1.8
+ */
+public class StripedReadWriteLock implements ReadWriteLock, java.io.Serializable {
+    private static final long serialVersionUID = 4328410287345236103L;
+
+    /** Number of CPUS, to place bounds on the number of stripes */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The maximum number of stripes */
+    private static final int MAXIMUM_STRIPES = 1 << 10;
+
+    /**
+     * The number of times a writer checks for active readers before
+     * parking; no spinning is useful on a uniprocessor.
+     */
+    private static final int SPINS = (NCPU > 1) ? 1 << 6 : 0;
+
+    /** Inner class providing readlock */
+    private final StripedReadWriteLock.ReadLock readerLock;
+    /** Inner class providing writelock */
+    private final StripedReadWriteLock.WriteLock writerLock;
+    /** Performs all synchronization mechanics */
+    final Sync sync;
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with one stripe per
+     * available processor.
+     */
+    public StripedReadWriteLock() {
+        this(NCPU);
+    }
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with at least the
+     * given number of stripes, which should approximate the number of
+     * threads expected to hold the read lock at the same time.  Larger
+     * values reduce contention between readers, at the expense of
+     * space and of time taken by writers.
+     *
+     * @param concurrencyLevel the estimated number of concurrent readers
+     * @throws IllegalArgumentException if {@code concurrencyLevel} is
+     *         not positive
+     */
+    public StripedReadWriteLock(int concurrencyLevel) {
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException();
+        int n = Math.min(concurrencyLevel, MAXIMUM_STRIPES);
+        n = (n == 1) ? 1 : Integer.highestOneBit(n - 1) << 1;
+        sync = new Sync(n);
+        readerLock = new ReadLock(this);
+        writerLock = new WriteLock(this);
+    }
+
+    public StripedReadWriteLock.WriteLock writeLock() { return writerLock; }
+    public StripedReadWriteLock.ReadLock  readLock()  { return readerLock; }
+
+    /**
+     * Synchronization implementation.  The AQS state is the write hold
+     * count, and the AQS queue holds waiting writers, and readers
+     * waiting behind a writer.  Read holds are counted in the stripes,
+     * each of which may become negative if a thread's hash changes
+     * while it holds the read lock; only their sum is meaningful.
+     *
+     * A reader increments a stripe and then checks that the state is
+     * zero (or that it holds the write lock), and otherwise undoes the
+     * increment.  A writer sets the state and then waits for the
+     * stripes to sum to zero.  Both steps on each side are volatile
+     * accesses, so at least one of the two sees the other.  Since, once
+     * the state is set, stripes only decrease except for transient
+     * increments that are undone, a sum of zero read stripe by stripe
+     * means that no reader remains.  A writer waiting for readers
+     * publishes itself in field drainer, read by every reader release,
+     * again after and before checking the stripes respectively.
+     */
+    static final class Sync extends AbstractQueuedSynchronizer {
+        private static final long serialVersionUID = -3072619839815294875L;
+
+        /** The number of stripes; a power of two */
+        final int stripeCount;
+
+        /**
+         * The read hold counts, one per STRIDE elements, so that each
+         * stripe has a cache line to itself.  The first STRIDE
+         * elements are unused, to separate the stripes from the array
+         * header and other objects.
+         */
+        transient long[] stripes;
+
+        /** The writer waiting for readers to release, if any */
+        transient volatile Thread drainer;
+
+        /**
+         * Argument to acquire a single write hold without waiting for
+         * readers; the caller then waits with awaitReadersNanos, so
+         * that the wait may be interrupted or timed.
+         */
+        static final int NO_AWAIT_READERS = Integer.MIN_VALUE;
+
+        Sync(int stripeCount) {
+            this.stripeCount = stripeCount;
+            this.stripes = new long[(stripeCount + 1) * STRIDE];
+        }
+
+        /**
+         * Returns the address of the stripe for the given hash.
+         */
+        final long stripeOffset(int h) {
+            return ((long)(((h & (stripeCount - 1)) + 1) * STRIDE) << LSHIFT)
+                + LBASE;
+        }
+
+        /**
+         * Adds a read hold on the caller's stripe, returning its
+         * address.  A thread failing to update its stripe on first try
+         * moves to another, so that threads contending for a stripe
+         * tend to spread out.
+         */
+        final long addReader() {
+            long[] a = stripes;
+            int h;
+            if ((h = getProbe()) == 0) {
+                ThreadLocalRandom.current(); // force initialization
+                h = getProbe();
+            }
+            long offset = stripeOffset(h), v;
+            if (!U.compareAndSwapLong(a, offset,
+                                      v = U.getLongVolatile(a, offset), v + 1L)) {
+                offset = stripeOffset(advanceProbe(h));
+                U.getAndAddLong(a, offset, 1L);
+            }
+            return offset;
+        }
+
+        /**
+         * Removes a read hold from the stripe at the given address,
+         * waking any writer waiting for readers.
+         */
+        final void removeReader(long offset) {
+            U.getAndAddLong(stripes, offset, -1L);
+            Thread w = drainer;
+            if (w != null)
+                LockSupport.unpark(w);
+        }
+
+        /**
+         * Returns the number of read holds.
+         */
+        final long readerCount() {
+            long[] a = stripes;
+            long sum = 0L;
+            for (int i = 1; i <= stripeCount; ++i)
+                sum += U.getLongVolatile(a, ((long)(i * STRIDE) << LSHIFT) + LBASE);
+            return sum;
+        }
+
+        /**
+         * Called by a thread that has just set the state from zero, to
+         * wait for active readers to release the read lock.
+         */
+        final void awaitReaders(Thread current) {
+            if (readerCount() == 0L)
+                return;
+            boolean interrupted = false;
+            drainer = current;
+            for (int spins = SPINS; readerCount() != 0L; ) {
+                if (spins > 0)
+                    --spins;
+                else {
+                    LockSupport.park(this);
+                    if (Thread.interrupted())
+                        interrupted = true;
+                }
+            }
+            drainer = null;
+            if (interrupted)
+                current.interrupt();
+        }
+
+        /**
+         * Called by a thread that has just acquired the write lock with
+         * NO_AWAIT_READERS, to wait as for awaitReaders, but giving up
+         * if interrupted or, if timed, once the given time has elapsed.
+         * On giving up the write lock is released, waking queued
+         * threads.
+         *
+         * @return false if timed out
+         * @throws InterruptedException if interrupted
+         */
+        final boolean awaitReadersNanos(boolean timed, long nanos)
+                throws InterruptedException {
+            if (readerCount() == 0L)
+                return true;
+            final long deadline = timed ? System.nanoTime() + nanos : 0L;
+            drainer = Thread.currentThread();
+            try {
+                for (int spins = SPINS; readerCount() != 0L; ) {
+                    if (Thread.interrupted()) {
+                        release(1);
+                        throw new InterruptedException();
+                    }
+                    if (timed && (nanos = deadline - System.nanoTime()) <= 0L) {
+                        release(1);
+                        return false;
+                    }
+                    if (spins > 0)
+                        --spins;
+                    else if (timed)
+                        LockSupport.parkNanos(this, nanos);
+                    else
+                        LockSupport.park(this);
+                }
+                return true;
+            } finally {
+                drainer = null;
+            }
+        }
+
+        /**
+         * Read lock fast path: succeeds if no thread holds or is waiting
+         * for the write lock.
+         */
+        final boolean tryReadFast() {
+            if (getState() != 0 || hasQueuedThreads())
+                return false;
+            long offset = addReader();
+            if (getState() == 0)
+                return true;
+            removeReader(offset);
+            return false;
+        }
+
+        /**
+         * Performs tryLock for read, barging past waiting writers.
+         */
+        final boolean tryReadLock() {
+            Thread current = Thread.currentThread();
+            for (;;) {
+                if (getState() != 0 && getExclusiveOwnerThread() != current)
+                    return false;
+                long offset = addReader();
+                if (getState() == 0 || getExclusiveOwnerThread() == current)
+                    return true;
+                removeReader(offset);
+            }
+        }
+
+        /**
+         * Performs tryLock for write, barging past waiting threads, and
+         * failing rather than waiting for readers.
+         */
+        final boolean tryWriteLock() {
+            Thread current = Thread.currentThread();
+            int c = getState();
+            if (c != 0) {
+                if (current != getExclusiveOwnerThread())
+                    return false;
+                if (c == Integer.MAX_VALUE)
+                    throw new Error("Maximum lock count exceeded");
+                setState(c + 1);
+                return true;
+            }
+            if (readerCount() != 0L || !compareAndSetState(0, 1))
+                return false;
+            if (readerCount() != 0L) {      // lost race with a reader
+                setState(0);
+                releaseShared(0);           // wake threads that saw us
+                return false;
+            }
+            setExclusiveOwnerThread(current);
+            return true;
+        }
+
+        protected final boolean tryAcquire(int acquires) {
+            boolean await = (acquires != NO_AWAIT_READERS);
+            if (!await)
+                acquires = 1;
+            Thread current = Thread.currentThread();
+            int c = getState();
+            if (c == 0) {
+                if (hasQueuedPredecessors() ||
+                    !compareAndSetState(0, acquires))
+                    return false;
+                setExclusiveOwnerThread(current);
+                if (await)
+                    awaitReaders(current);
+                return true;
+            }
+            if (current == getExclusiveOwnerThread()) {
+                int nextc = c + acquires;
+                if (nextc < 0)
+                    throw new Error("Maximum lock count exceeded");
+                setState(nextc);
+                return true;
+            }
+            return false;
+        }
+
+        protected final boolean tryRelease(int releases) {
+            if (Thread.currentThread() != getExclusiveOwnerThread())
+                throw new IllegalMonitorStateException();
+            int c = getState() - releases;
+            boolean free = (c == 0);
+            if (free)
+                setExclusiveOwnerThread(null);
+            setState(c);
+            return free;
+        }
+
+        protected final int tryAcquireShared(int unused) {
+            Thread current = Thread.currentThread();
+            for (;;) {
+                if (getState() != 0) {
+                    if (getExclusiveOwnerThread() != current)
+                        return -1;
+                }
+                else if (hasQueuedPredecessors())
+                    return -1;
+                long offset = addReader();
+                if (getState() == 0 || getExclusiveOwnerThread() == current)
+                    return 1;
+                removeReader(offset);
+            }
+        }
+
+        /**
+         * Read holds are released directly on the stripes; this is
+         * invoked only to wake the first waiting thread.  A reader
+         * that acquires through the queue must do so, since a writer
+         * queued behind it would otherwise never be woken.
+         */
+        protected final boolean tryReleaseShared(int unused) {
+            return true;
+        }
+
+        protected final boolean isHeldExclusively() {
+            return getExclusiveOwnerThread() == Thread.currentThread();
+        }
+
+        final ConditionObject newCondition() {
+            return new ConditionObject();
+        }
+
+        final Thread getOwner() {
+            return getState() == 0 ? null : getExclusiveOwnerThread();
+        }
+
+        final int getWriteHoldCount() {
+            return isHeldExclusively() ? getState() : 0;
+        }
+
+        final int getReadLockCount() {
+            return (int)Math.max(0L, Math.min(readerCount(),
+                                              (long)Integer.MAX_VALUE));
+        }
+
+        /**
+         * Reconstitutes the instance from a stream (that is, deserializes it).
+         */
+        private void readObject(java.io.ObjectInputStream s)
+            throws java.io.IOException, ClassNotFoundException {
+            s.defaultReadObject();
+            stripes = new long[(stripeCount + 1) * STRIDE];
+            setState(0); // reset to unlocked state
+        }
+
+        static final int getProbe() {
+            return U.getInt(Thread.currentThread(), PROBE);
+        }
+
+        static final int advanceProbe(int probe) {
+            probe ^= probe << 13;   // xorshift
+            probe ^= probe >>> 17;
+            probe ^= probe << 5;
+            U.putInt(Thread.currentThread(), PROBE, probe);
+            return probe;
+        }
+
+        /** The number of array elements between stripes */
+        static final int STRIDE = 16;
+
+        // Unsafe mechanics
+        private static final sun.misc.Unsafe U;
+        private static final long PROBE;
+        private static final long LBASE;
+        private static final int LSHIFT;
+        static {
+            try {
+                U = sun.misc.Unsafe.getUnsafe();
+                PROBE = U.objectFieldOffset
+                    (Thread.class.getDeclaredField("threadLocalRandomProbe"));
+                Class<?> lk = long[].class;
+                LBASE = U.arrayBaseOffset(lk);
+                int scale = U.arrayIndexScale(lk);
+                if ((scale & (scale - 1)) != 0)
+                    throw new Error("data type scale not a power of two");
+                LSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#readLock}.
+     */
+    public static class ReadLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = 2709887461209541823L;
+        private final Sync sync;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected ReadLock(StripedReadWriteLock lock) {
+            sync = lock.sync;
+        }
+
+        /**
+         * Acquires the read lock.
+         *
+         * <p>Acquires the read lock if the write lock is not held by
+         * another thread and no thread is waiting for it, and returns
+         * immediately.
+         *
+         * <p>Otherwise the current thread becomes disabled for thread
+         * scheduling purposes and lies dormant until the read lock has
+         * been acquired.
+         */
+        public void lock() {
+            if (!sync.tryReadFast()) {
+                sync.acquireShared(1);
+                sync.releaseShared(0);
+            }
+        }
+
+        /**
+         * Acquires the read lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * <p>Behaves as {@link #lock}, except that if the current
+         * thread is interrupted before or while waiting, {@link
+         * InterruptedException} is thrown and the current thread's
+         * interrupted status is cleared.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (!sync.tryReadFast()) {
+                sync.acquireSharedInterruptibly(1);
+                sync.releaseShared(0);
+            }
+        }
+
+        /**
+         * Acquires the read lock only if the write lock is not held by
+         * another thread at the time of invocation, even if a writer
+         * is waiting.
+         *
+         * @return {@code true} if the read lock was acquired
+         */
+        public boolean tryLock() {
+            return sync.tryReadLock();
+        }
+
+        /**
+         * Acquires the read lock if the write lock is not held by
+         * another thread within the given waiting time and the current
+         * thread has not been {@linkplain Thread#interrupt interrupted}.
+         * Writers waiting for the lock are honored, as by {@link #lock}.
+         *
+         * @param timeout the time to wait for the read lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the read lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (sync.tryReadFast())
+                return true;
+            if (!sync.tryAcquireSharedNanos(1, unit.toNanos(timeout)))
+                return false;
+            sync.releaseShared(0);
+            return true;
+        }
+
+        /**
+         * Releases a read hold.  The caller must hold the read lock;
+         * this is not checked.
+         */
+        public void unlock() {
+            sync.removeReader(sync.stripeOffset(Sync.getProbe()));
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because
+         * {@code ReadLocks} do not support conditions.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock state.
+         * The state, in brackets, includes the String {@code "Read locks ="}
+         * followed by the number of held read locks.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            int r = sync.getReadLockCount();
+            return super.toString() +
+                "[Read locks = " + r + "]";
+        }
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#writeLock}.
+     */
+    public static class WriteLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = -6431745934281742985L;
+        private final Sync sync;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected WriteLock(StripedReadWriteLock lock) {
+            sync = lock.sync;
+        }
+
+        /**
+         * Acquires the write lock.
+         *
+         * <p>Acquires the write lock if neither the read nor write lock
+         * are held by another thread and no thread is waiting for
+         * either, and returns immediately, setting the write lock hold
+         * count to one.  If the current thread already holds the write
+         * lock then the hold count is incremented by one and the method
+         * returns immediately.
+         *
+         * <p>Otherwise the current thread becomes disabled for thread
+         * scheduling purposes and lies dormant until the write lock
+         * has been acquired and all readers have released the read
+         * lock.
+         */
+        public void lock() {
+            sync.acquire(1);
+        }
+
+        /**
+         * Acquires the write lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * <p>Behaves as {@link #lock}, except that if the current
+         * thread is interrupted before being granted the write lock,
+         * or while waiting for readers to release the read lock,
+         * {@link InterruptedException} is thrown, the current
+         * thread's interrupted status is cleared, and the write lock
+         * is not held.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            sync.acquireInterruptibly(Sync.NO_AWAIT_READERS);
+            if (sync.getWriteHoldCount() == 1)
+                sync.awaitReadersNanos(false, 0L);
+        }
+
+        /**
+         * Acquires the write lock only if neither the read nor write
+         * lock are held by another thread at the time of invocation,
+         * even if other threads are waiting.  If the current thread
+         * already holds this lock then the hold count is incremented
+         * by one and the method returns {@code true}.
+         *
+         * @return {@code true} if the lock was free and was acquired
+         * by the current thread, or the write lock was already held
+         * by the current thread; and {@code false} otherwise.
+         */
+        public boolean tryLock( ) {
+            return sync.tryWriteLock();
+        }
+
+        /**
+         * Acquires the write lock if it is not held by another thread,
+         * and readers have released the read lock, within the given
+         * waiting time and the current thread has not been
+         * {@linkplain Thread#interrupt interrupted}.  If the waiting
+         * time elapses, or the thread is interrupted, while waiting
+         * for readers, the write lock is given up.
+         *
+         * @param timeout the time to wait for the write lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            long nanos = unit.toNanos(timeout);
+            final long deadline = System.nanoTime() + nanos;
+            if (!sync.tryAcquireNanos(Sync.NO_AWAIT_READERS, nanos))
+                return false;
+            return sync.getWriteHoldCount() != 1 ||
+                sync.awaitReadersNanos(true, deadline - System.nanoTime());
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * <p>If the current thread is the holder of this lock then
+         * the hold count is decremented. If the hold count is now
+         * zero then the lock is released.  If the current thread is
+         * not the holder of this lock then {@link
+         * IllegalMonitorStateException} is thrown.
+         *
+         * @throws IllegalMonitorStateException if the current thread does not
+         * hold this lock
+         */
+        public void unlock() {
+            sync.release(1);
+        }
+
+        /**
+         * Returns a {@link Condition} instance for use with this
+         * {@link Lock} instance, with the properties described in the
+         * class documentation.
+         *
+         * @return the Condition object
+         */
+        public Condition newCondition() {
+            return sync.newCondition();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock
+         * state.  The state, in brackets includes either the String
+         * {@code "Unlocked"} or the String {@code "Locked by"}
+         * followed by the {@linkplain Thread#getName name} of the owning thread.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            Thread o = sync.getOwner();
+            return super.toString() + ((o == null) ?
+                                       "[Unlocked]" :
+                                       "[Locked by thread " + o.getName() + "]");
+        }
+
+        /**
+         * Queries if this write lock is held by the current thread.
+         *
+         * @return {@code true} if the current thread holds this lock and
+         *         {@code false} otherwise
+         */
+        public boolean isHeldByCurrentThread() {
+            return sync.isHeldExclusively();
+        }
+
+        /**
+         * Queries the number of holds on this write lock by the current
+         * thread.
+         *
+         * @return the number of holds on this lock by the current thread,
+         *         or zero if this lock is not held by the current thread
+         */
+        public int getHoldCount() {
+            return sync.getWriteHoldCount();
+        }
+    }
+
+    /**
+     * Queries the number of read locks held for this lock.  This
+     * method is designed for use in monitoring system state, not for
+     * synchronization control.
+     *
+     * @return the number of read locks held
+     */
+    public int getReadLockCount() {
+        return sync.getReadLockCount();
+    }
+
+    /**
+     * Queries if the write lock is held by any thread.  This method is
+     * designed for use in monitoring system state, not for
+     * synchronization control.
+     *
+     * @return {@code true} if any thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLocked() {
+        return sync.getState() != 0;
+    }
+
+    /**
+     * Queries if the write lock is held by the current thread.
+     *
+     * @return {@code true} if the current thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        return sync.isHeldExclusively();
+    }
+
+    /**
+     * Queries the number of reentrant write holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the write lock by the current thread,
+     *         or zero if the write lock is not held by the current thread
+     */
+    public int getWriteHoldCount() {
+        return sync.getWriteHoldCount();
+    }
+
+    /**
+     * Queries whether any threads are waiting to acquire the read or
+     * write lock.  Note that because cancellations may occur at any
+     * time, a {@code true} return does not guarantee that any other
+     * thread will ever acquire a lock.  This method is designed
+     * primarily for use in monitoring of the system state.
+     *
+     * @return {@code true} if there may be other threads waiting to
+     *         acquire the lock
+     */
+    public final boolean hasQueuedThreads() {
+        return sync.hasQueuedThreads();
+    }
+
+    /**
+     * Returns an estimate of the number of threads waiting to acquire
+     * either the read or write lock.  The value is only an estimate
+     * because the number of threads may change dynamically while this
+     * method traverses internal data structures.  This method is
+     * designed for use in monitoring of the system state, not for
+     * synchronization control.
+     *
+     * @return the estimated number of threads waiting for this lock
+     */
+    public final int getQueueLength() {
+        return sync.getQueueLength();
+    }
+
+    /**
+     * Returns a string identifying this lock, as well as its lock state.
+     * The state, in brackets, includes the String {@code "Write locks ="}
+     * followed by the number of reentrantly held write locks, and the
+     * String {@code "Read locks ="} followed by the number of held
+     * read locks.
+     *
+     * @return a string identifying this lock, as well as its lock state
+     */
+    public String toString() {
+        int w = sync.getState();
+        int r = sync.getReadLockCount();
+
+        return super.toString() +
+            "[Write locks = " + w + ", Read locks = " + r + "]";
+    }
+}
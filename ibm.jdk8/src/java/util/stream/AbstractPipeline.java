@@ -37,6 +37,9 @@ package java.util.stream;
 
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
@@ -159,6 +162,18 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * The pool in which to evaluate a parallel pipeline, or null for the
+     * common pool; only valid for the source stage.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The profile recording the evaluation of the pipeline, if profiling has
+     * been requested, otherwise null; only valid for the source stage.
+     */
+    private StreamProfile profile;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -240,6 +255,23 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             throw new IllegalStateException(MSG_STREAM_LINKED);
         linkedOrConsumed = true;
 
+        ForkJoinPool pool = evaluationPool();
+        if (pool != null)
+            return new PoolEvaluation<>(() -> evaluateTerminal(terminalOp)).invokeIn(pool);
+        return evaluateTerminal(terminalOp);
+    }
+
+    private <R> R evaluateTerminal(TerminalOp<E_OUT, R> terminalOp) {
+        StreamProfile profile = sourceStage.profile;
+        if (profile != null) {
+            long start = System.nanoTime();
+            R result = isParallel()
+                       ? terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags()))
+                       : terminalOp.evaluateSequential(this, sourceSpliterator(terminalOp.getOpFlags()));
+            profile.evaluated(System.nanoTime() - start);
+            return result;
+        }
+
         return isParallel()
                ? terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags()))
                : terminalOp.evaluateSequential(this, sourceSpliterator(terminalOp.getOpFlags()));
@@ -257,14 +289,32 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             throw new IllegalStateException(MSG_STREAM_LINKED);
         linkedOrConsumed = true;
 
+        ForkJoinPool pool = evaluationPool();
+        if (pool != null)
+            return new PoolEvaluation<>(() -> evaluateArrayNode(generator)).invokeIn(pool);
+        return evaluateArrayNode(generator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<E_OUT> evaluateArrayNode(IntFunction<E_OUT[]> generator) {
+        StreamProfile profile = sourceStage.profile;
+        long start = (profile != null) ? System.nanoTime() : 0L;
+        Node<E_OUT> node;
+
         // If the last intermediate operation is stateful then
         // evaluate directly to avoid an extra collection step
         if (isParallel() && previousStage != null && opIsStateful()) {
-            return opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
+            node = opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
+            if (profile != null)
+                profile.evaluated(this, System.nanoTime() - start);
         }
         else {
-            return evaluate(sourceSpliterator(0), true, generator);
+            node = evaluate(sourceSpliterator(0), true, generator);
         }
+
+        if (profile != null)
+            profile.evaluated(System.nanoTime() - start);
+        return node;
     }
 
     /**
@@ -308,6 +358,7 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     @SuppressWarnings("unchecked")
     public final S sequential() {
         sourceStage.parallel = false;
+        sourceStage.pool = null;
         return (S) this;
     }
 
@@ -315,9 +366,72 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     @SuppressWarnings("unchecked")
     public final S parallel() {
         sourceStage.parallel = true;
+        sourceStage.pool = null;
         return (S) this;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final S parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        sourceStage.parallel = true;
+        sourceStage.pool = pool;
+        return (S) this;
+    }
+
+    /**
+     * Returns the pool in which the terminal operation must be submitted for
+     * evaluation, or null if it may be evaluated by the current thread: if the
+     * pipeline is sequential, evaluated in the common pool, or the current
+     * thread is already a worker of the requested pool.
+     */
+    private ForkJoinPool evaluationPool() {
+        ForkJoinPool pool = sourceStage.pool;
+        if (pool == null || !isParallel())
+            return null;
+        Thread t = Thread.currentThread();
+        if (t instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) t).getPool() == pool)
+            return null;
+        return pool;
+    }
+
+    /**
+     * A task that evaluates a terminal operation in a requested pool.  A
+     * RuntimeException or Error thrown by the evaluation is caught by the
+     * task and rethrown as is by the submitting thread, rather than joining
+     * the failed task, which would throw a reflectively constructed copy of
+     * the exception.
+     */
+    @SuppressWarnings("serial")
+    private static final class PoolEvaluation<R> extends RecursiveTask<R> {
+        private final Supplier<R> evaluation;
+        private Throwable failure;
+
+        PoolEvaluation(Supplier<R> evaluation) {
+            this.evaluation = evaluation;
+        }
+
+        @Override
+        protected R compute() {
+            try {
+                return evaluation.get();
+            } catch (RuntimeException | Error e) {
+                failure = e;
+                return null;
+            }
+        }
+
+        R invokeIn(ForkJoinPool pool) {
+            R result = pool.invoke(this);
+            Throwable x = failure;
+            if (x instanceof RuntimeException)
+                throw (RuntimeException) x;
+            if (x != null)
+                throw (Error) x;
+            return result;
+        }
+    }
+
     @Override
     public void close() {
         linkedOrConsumed = true;
@@ -479,7 +593,11 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
                  u = p, p = p.nextStage) {
 
                 if (p.opIsStateful()) {
+                    StreamProfile profile = sourceStage.profile;
+                    long start = (profile != null) ? System.nanoTime() : 0L;
                     spliterator = p.opEvaluateParallelLazy(u, spliterator);
+                    if (profile != null)
+                        profile.evaluated(p, System.nanoTime() - start);
                 }
             }
         }
@@ -555,12 +673,66 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     final <P_IN> Sink<P_IN> wrapSink(Sink<E_OUT> sink) {
         Objects.requireNonNull(sink);
 
+        StreamProfile profile = sourceStage.profile;
+        if (profile != null)
+            return wrapProfiledSink(profile, sink);
+
         for ( @SuppressWarnings("rawtypes") AbstractPipeline p=AbstractPipeline.this; p.depth > 0; p=p.previousStage) {
             sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
         }
         return (Sink<P_IN>) sink;
     }
 
+    /**
+     * Wraps a sink as by {@link #wrapSink}, interposing a sink that records
+     * each stage's elements and time in the profile.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <P_IN> Sink<P_IN> wrapProfiledSink(StreamProfile profile, Sink<E_OUT> sink) {
+        StreamProfile.ProfilingSink nested;
+        sink = nested = profile.wrap(nextStage, getOutputShape(), sink, null);
+        for (AbstractPipeline p=AbstractPipeline.this; p.depth > 0; p=p.previousStage) {
+            sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
+            sink = nested = profile.wrap(p, p.previousStage.getOutputShape(), sink, nested);
+        }
+        return (Sink<P_IN>) sink;
+    }
+
+    @Override
+    final StreamProfile getProfile() {
+        return sourceStage.profile;
+    }
+
+    /**
+     * Returns the profile of this pipeline, requesting profiling if not
+     * already requested.
+     *
+     * @throws IllegalStateException if this stage has been linked or consumed
+     */
+    final StreamProfile profile() {
+        if (linkedOrConsumed)
+            throw new IllegalStateException(MSG_STREAM_LINKED);
+        StreamProfile p = sourceStage.profile;
+        if (p == null)
+            sourceStage.profile = p = new StreamProfile(sourceStage);
+        return p;
+    }
+
+    /**
+     * Returns the stage following this one, or null if there is none.
+     */
+    final AbstractPipeline<?, ?, ?> nextStage() {
+        return nextStage;
+    }
+
+    /**
+     * Returns the stage preceding this one, or null if this is the source
+     * stage.
+     */
+    final AbstractPipeline<?, ?, ?> previousStage() {
+        return previousStage;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     final <P_IN> Spliterator<E_OUT> wrapSpliterator(Spliterator<P_IN> sourceSpliterator) {
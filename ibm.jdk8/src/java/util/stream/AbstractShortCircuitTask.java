@@ -116,6 +116,9 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
         boolean forkRight = false;
         @SuppressWarnings("unchecked") K task = (K) this;
         AtomicReference<R> sr = sharedResult;
+        StreamProfile profile = helper.getProfile();
+        if (profile != null)
+            profile.started(this);
         R result;
         while ((result = sr.get()) == null) {
             if (task.taskCanceled()) {
@@ -123,6 +126,8 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
                 break;
             }
             if (sizeEstimate <= sizeThreshold || (ls = rs.trySplit()) == null) {
+                if (profile != null)
+                    profile.leaf(task, sizeEstimate);
                 result = task.doLeaf();
                 break;
             }
@@ -141,6 +146,8 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
                 task = rightChild;
                 taskToFork = leftChild;
             }
+            if (profile != null)
+                profile.forked(taskToFork);
             taskToFork.fork();
             sizeEstimate = rs.estimateSize();
         }
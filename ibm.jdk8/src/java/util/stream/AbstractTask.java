@@ -38,6 +38,7 @@ package java.util.stream;
 import java.util.Spliterator;
 import java.util.concurrent.CountedCompleter;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 /**
  * Abstract base class for most fork-join tasks used to implement stream ops.
@@ -107,6 +108,22 @@ abstract class AbstractTask<P_IN, P_OUT, R,
      */
     static final int LEAF_TARGET = ForkJoinPool.getCommonPoolParallelism() << 2;
 
+    /**
+     * Returns the target factor of leaf tasks for a computation started by
+     * the current thread: based on the parallelism of its pool if it is a
+     * fork/join worker thread, otherwise on that of the common pool, into
+     * which it would fork.
+     *
+     * @return the target factor of leaf tasks
+     */
+    static int getLeafTarget() {
+        Thread t = Thread.currentThread();
+        if (t instanceof ForkJoinWorkerThread)
+            return ((ForkJoinWorkerThread) t).getPool().getParallelism() << 2;
+        else
+            return LEAF_TARGET;
+    }
+
     /** The pipeline helper, common to all tasks in a computation */
     protected final PipelineHelper<P_OUT> helper;
 
@@ -192,7 +209,7 @@ abstract class AbstractTask<P_IN, P_OUT, R,
      * @return suggested target leaf size
      */
     public static long suggestTargetSize(long sizeEstimate) {
-        long est = sizeEstimate / LEAF_TARGET;
+        long est = sizeEstimate / getLeafTarget();
         return est > 0L ? est : 1L;
     }
 
@@ -305,6 +322,9 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         long sizeThreshold = getTargetSize(sizeEstimate);
         boolean forkRight = false;
         @SuppressWarnings("unchecked") K task = (K) this;
+        StreamProfile profile = helper.getProfile();
+        if (profile != null)
+            profile.started(this);
         while (sizeEstimate > sizeThreshold && (ls = rs.trySplit()) != null) {
             K leftChild, rightChild, taskToFork;
             task.leftChild  = leftChild = task.makeChild(ls);
@@ -321,9 +341,13 @@ abstract class AbstractTask<P_IN, P_OUT, R,
                 task = rightChild;
                 taskToFork = leftChild;
             }
+            if (profile != null)
+                profile.forked(taskToFork);
             taskToFork.fork();
             sizeEstimate = rs.estimateSize();
         }
+        if (profile != null)
+            profile.leaf(task, sizeEstimate);
         task.setLocalResult(task.doLeaf());
         task.tryComplete();
     }
@@ -40,8 +40,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
@@ -127,6 +129,40 @@ public interface BaseStream<T, S extends BaseStream<T, S>>
      */
     S parallel();
 
+    /**
+     * Returns an equivalent stream that is parallel, and whose terminal
+     * operation is evaluated by tasks of the given pool rather than of the
+     * {@link ForkJoinPool#commonPool() common pool}, and partitioned according
+     * to the parallelism of the given pool.  This allows a pipeline whose
+     * operations may block, or which should otherwise not compete with other
+     * parallel streams, to be confined to a pool of its own.  May return
+     * itself, either because the stream was already parallel, or because the
+     * underlying stream state was modified to be parallel.
+     *
+     * <p>A subsequent call to {@link #parallel()} or {@link #sequential()}
+     * reverts to evaluation as for that method.  The pool is used for the
+     * evaluation of terminal operations that produce a result or side-effect;
+     * traversal of the {@link #iterator()} or {@link #spliterator()} of a
+     * stream takes place in the thread performing the traversal.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation returns {@link #parallel()}, ignoring the
+     * given pool.  Streams created by {@link StreamSupport} or by operations
+     * of this package evaluate their terminal operation in the given pool.
+     *
+     * @param pool the pool in which to evaluate the terminal operation
+     * @return a parallel stream
+     * @throws NullPointerException if {@code pool} is null
+     * @since 1.8
+     */
+    default S parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return parallel();
+    }
+
     /**
      * Returns an equivalent stream that is
      * <a href="package-summary.html#Ordering">unordered</a>.  May return
@@ -0,0 +1,856 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Factory methods for grouping the elements of a stream into consecutive
+ * batches or sliding windows.
+ *
+ * <p>Every operation is described by a {@link Batcher}, a sink that fills a
+ * buffer of up to {@code size} elements, starts a new window every
+ * {@code step} elements, and passes each completed window downstream.  A
+ * batch is a window whose step equals its size, and which may be passed
+ * downstream partially filled at the end of the stream, or when its time
+ * bound expires.
+ *
+ * <p>Parallel evaluation uses a {@link BatchSpliterator}, which splits the
+ * upstream spliterator such that each part starts at a window boundary.  This
+ * requires the size of every part to be known, that is the upstream pipeline
+ * must be {@code SIZED} and its spliterator {@code SUBSIZED}; otherwise, or if
+ * batches are bounded in time, the batching stage and the stages before it
+ * are evaluated sequentially.
+ *
+ * @since 1.8
+ */
+final class BatchOps {
+
+    private BatchOps() { }
+
+    /**
+     * Initial capacity of a buffer that has not yet been filled; subsequent
+     * buffers are allocated at full size.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Flags for a batching operation; the batches are neither sorted nor
+     * distinct, and their number is not known.
+     */
+    private static final int FLAGS = StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT |
+                                     StreamOpFlag.NOT_SIZED;
+
+    /**
+     * Converts a time bound to nanoseconds.
+     *
+     * @param timeout the maximum time, non-negative
+     * @param unit the time unit of {@code timeout}
+     * @return the time bound in nanoseconds
+     * @throws IllegalArgumentException if {@code timeout} is negative
+     * @throws NullPointerException if {@code unit} is null
+     */
+    static long timeoutNanos(long timeout, TimeUnit unit) {
+        if (timeout < 0)
+            throw new IllegalArgumentException("Timeout must be non-negative: " + timeout);
+        return unit.toNanos(timeout);
+    }
+
+    /**
+     * Appends a batching operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param <T> the type of input elements
+     * @param upstream a reference stream with element type T
+     * @param size the maximum number of elements in a batch, positive
+     * @param step the distance between the first elements of successive
+     *        batches, positive
+     * @param partial whether a batch with fewer than {@code size} elements is
+     *        passed downstream at the end of the stream
+     * @param timeoutNanos the time after which a batch is passed downstream
+     *        when its next element arrives, or -1 if batches are not bounded
+     *        in time
+     * @return the new stream
+     */
+    static <T> Stream<List<T>> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                       int size, int step, boolean partial, long timeoutNanos) {
+        return make(upstream, StreamShape.REFERENCE,
+                    new Batcher.OfRef<>(size, step, partial, timeoutNanos));
+    }
+
+    /**
+     * Appends a batching operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream an int stream
+     * @param size the maximum number of elements in a batch, positive
+     * @param step the distance between the first elements of successive
+     *        batches, positive
+     * @param partial whether a batch with fewer than {@code size} elements is
+     *        passed downstream at the end of the stream
+     * @param timeoutNanos the time after which a batch is passed downstream
+     *        when its next element arrives, or -1 if batches are not bounded
+     *        in time
+     * @return the new stream
+     */
+    static Stream<int[]> makeInt(AbstractPipeline<?, Integer, ?> upstream,
+                                 int size, int step, boolean partial, long timeoutNanos) {
+        return make(upstream, StreamShape.INT_VALUE,
+                    new Batcher.OfInt(size, step, partial, timeoutNanos));
+    }
+
+    /**
+     * Appends a batching operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream a long stream
+     * @param size the maximum number of elements in a batch, positive
+     * @param step the distance between the first elements of successive
+     *        batches, positive
+     * @param partial whether a batch with fewer than {@code size} elements is
+     *        passed downstream at the end of the stream
+     * @param timeoutNanos the time after which a batch is passed downstream
+     *        when its next element arrives, or -1 if batches are not bounded
+     *        in time
+     * @return the new stream
+     */
+    static Stream<long[]> makeLong(AbstractPipeline<?, Long, ?> upstream,
+                                   int size, int step, boolean partial, long timeoutNanos) {
+        return make(upstream, StreamShape.LONG_VALUE,
+                    new Batcher.OfLong(size, step, partial, timeoutNanos));
+    }
+
+    /**
+     * Appends a batching operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream a double stream
+     * @param size the maximum number of elements in a batch, positive
+     * @param step the distance between the first elements of successive
+     *        batches, positive
+     * @param partial whether a batch with fewer than {@code size} elements is
+     *        passed downstream at the end of the stream
+     * @param timeoutNanos the time after which a batch is passed downstream
+     *        when its next element arrives, or -1 if batches are not bounded
+     *        in time
+     * @return the new stream
+     */
+    static Stream<double[]> makeDouble(AbstractPipeline<?, Double, ?> upstream,
+                                       int size, int step, boolean partial, long timeoutNanos) {
+        return make(upstream, StreamShape.DOUBLE_VALUE,
+                    new Batcher.OfDouble(size, step, partial, timeoutNanos));
+    }
+
+    /**
+     * Returns a stream of the batches of the elements of a stream that is not
+     * a pipeline of this package, traversing its spliterator.
+     *
+     * @param <T> the type of input elements
+     * @param stream the stream whose elements are batched
+     * @param size the maximum number of elements in a batch, positive
+     * @param step the distance between the first elements of successive
+     *        batches, positive
+     * @param partial whether a batch with fewer than {@code size} elements is
+     *        passed downstream at the end of the stream
+     * @param timeoutNanos the time after which a batch is passed downstream
+     *        when its next element arrives, or -1 if batches are not bounded
+     *        in time
+     * @return the new stream
+     */
+    static <T> Stream<List<T>> wrapRef(Stream<T> stream,
+                                       int size, int step, boolean partial, long timeoutNanos) {
+        return wrap(stream, new Batcher.OfRef<>(size, step, partial, timeoutNanos));
+    }
+
+    /**
+     * Returns a stream of the batches of the elements of an int stream that
+     * is not a pipeline of this package, traversing its spliterator.
+     *
+     * @param stream the stream whose elements are batched
+     * @param size the maximum number of elements in a batch, positive
+     * @param step the distance between the first elements of successive
+     *        batches, positive
+     * @param partial whether a batch with fewer than {@code size} elements is
+     *        passed downstream at the end of the stream
+     * @param timeoutNanos the time after which a batch is passed downstream
+     *        when its next element arrives, or -1 if batches are not bounded
+     *        in time
+     * @return the new stream
+     */
+    static Stream<int[]> wrapInt(IntStream stream,
+                                 int size, int step, boolean partial, long timeoutNanos) {
+        return wrap(stream, new Batcher.OfInt(size, step, partial, timeoutNanos));
+    }
+
+    /**
+     * Returns a stream of the batches of the elements of a long stream that
+     * is not a pipeline of this package, traversing its spliterator.
+     *
+     * @param stream the stream whose elements are batched
+     * @param size the maximum number of elements in a batch, positive
+     * @param step the distance between the first elements of successive
+     *        batches, positive
+     * @param partial whether a batch with fewer than {@code size} elements is
+     *        passed downstream at the end of the stream
+     * @param timeoutNanos the time after which a batch is passed downstream
+     *        when its next element arrives, or -1 if batches are not bounded
+     *        in time
+     * @return the new stream
+     */
+    static Stream<long[]> wrapLong(LongStream stream,
+                                   int size, int step, boolean partial, long timeoutNanos) {
+        return wrap(stream, new Batcher.OfLong(size, step, partial, timeoutNanos));
+    }
+
+    /**
+     * Returns a stream of the batches of the elements of a double stream that
+     * is not a pipeline of this package, traversing its spliterator.
+     *
+     * @param stream the stream whose elements are batched
+     * @param size the maximum number of elements in a batch, positive
+     * @param step the distance between the first elements of successive
+     *        batches, positive
+     * @param partial whether a batch with fewer than {@code size} elements is
+     *        passed downstream at the end of the stream
+     * @param timeoutNanos the time after which a batch is passed downstream
+     *        when its next element arrives, or -1 if batches are not bounded
+     *        in time
+     * @return the new stream
+     */
+    static Stream<double[]> wrapDouble(DoubleStream stream,
+                                       int size, int step, boolean partial, long timeoutNanos) {
+        return wrap(stream, new Batcher.OfDouble(size, step, partial, timeoutNanos));
+    }
+
+    private static <E, A, R> Stream<R> make(AbstractPipeline<?, E, ?> upstream,
+                                            StreamShape inputShape,
+                                            Batcher<E, A, R> template) {
+        return new ReferencePipeline.StatefulOp<E, R>(upstream, inputShape, FLAGS) {
+            @Override
+            Sink<E> opWrapSink(int flags, Sink<R> sink) {
+                return template.newBatcher(0, sink);
+            }
+
+            @Override
+            <P_IN> Spliterator<R> opEvaluateParallelLazy(PipelineHelper<R> helper,
+                                                         Spliterator<P_IN> spliterator) {
+                // The helper describes the upstream pipeline, whose output
+                // elements are the input elements of this operation
+                @SuppressWarnings("unchecked")
+                PipelineHelper<E> upstreamHelper = (PipelineHelper<E>) (PipelineHelper<?>) helper;
+                return new BatchSpliterator<>(upstreamHelper, spliterator, template);
+            }
+
+            @Override
+            <P_IN> Node<R> opEvaluateParallel(PipelineHelper<R> helper,
+                                              Spliterator<P_IN> spliterator,
+                                              IntFunction<R[]> generator) {
+                // Collect using this pipeline, which is empty and therefore
+                // can be used with the batching spliterator
+                return Nodes.collect(this, opEvaluateParallelLazy(helper, spliterator),
+                                     true, generator);
+            }
+        };
+    }
+
+    private static <E, A, R> Stream<R> wrap(BaseStream<E, ?> stream, Batcher<E, A, R> template) {
+        return StreamSupport.stream(new BatchSpliterator<>(stream.spliterator(), template),
+                                    stream.isParallel())
+                            .onClose(stream::close);
+    }
+
+    /**
+     * A sink that groups the elements it accepts into windows of {@code size}
+     * elements, the first of which starts at the first element, and each of
+     * the following {@code step} elements after the previous one.  When
+     * {@code step} is greater than {@code size} the elements between windows
+     * are dropped.
+     *
+     * <p>A completed window is passed to the downstream sink as a newly
+     * allocated array, wrapped as appropriate for its shape.
+     *
+     * @param <E> the type of input elements
+     * @param <A> the type of the buffer array
+     * @param <R> the type of a window
+     */
+    abstract static class Batcher<E, A, R> implements Sink<E> {
+        final int size;
+        final int step;
+        final boolean partial;
+        final long timeoutNanos;
+
+        Sink<? super R> downstream;
+
+        // The current window, lazily allocated
+        A buffer;
+        int capacity;
+        int count;
+
+        // The number of elements to drop before the next window starts
+        long gap;
+
+        // True if a window has been filled, after which buffers are
+        // allocated at full size
+        boolean filled;
+
+        // The time at which the first element of the current window arrived
+        long start;
+
+        // The number of windows passed downstream
+        long emitted;
+
+        Batcher(int size, int step, boolean partial, long timeoutNanos) {
+            if (size <= 0)
+                throw new IllegalArgumentException("Size must be positive: " + size);
+            if (step <= 0)
+                throw new IllegalArgumentException("Step must be positive: " + step);
+            this.size = size;
+            this.step = step;
+            this.partial = partial;
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        /**
+         * Creates a new batcher with the same parameters as this one, for the
+         * elements following the given index of the stream.
+         *
+         * @param origin the index of the first element that will be accepted,
+         *        which is at a window boundary or between windows
+         * @param downstream the sink to which windows are passed
+         */
+        final Batcher<E, A, R> newBatcher(long origin, Sink<? super R> downstream) {
+            Batcher<E, A, R> b = copy();
+            long offset = origin % step;
+            b.gap = offset == 0 ? 0 : step - offset;
+            b.downstream = downstream;
+            return b;
+        }
+
+        abstract Batcher<E, A, R> copy();
+
+        abstract A newArray(int length);
+
+        abstract R wrap(A array);
+
+        abstract StreamShape shape();
+
+        abstract Node.Builder<E> nodeBuilder(long exactSize);
+
+        /**
+         * Prepares to store an element in the buffer.
+         *
+         * @return false if the element falls between windows and is dropped
+         */
+        final boolean admit() {
+            if (gap > 0) {
+                gap--;
+                return false;
+            }
+            if (count == 0 && timeoutNanos >= 0)
+                start = System.nanoTime();
+            if (buffer == null) {
+                capacity = filled ? size : Math.min(size, INITIAL_CAPACITY);
+                buffer = newArray(capacity);
+            }
+            else if (count == capacity) {
+                int newCapacity = (int) Math.min(size, (long) capacity << 1);
+                A b = newArray(newCapacity);
+                System.arraycopy(buffer, 0, b, 0, count);
+                buffer = b;
+                capacity = newCapacity;
+            }
+            return true;
+        }
+
+        /**
+         * Completes the storing of an element, passing the window downstream
+         * if it is full or its time bound has expired.
+         */
+        final void stored() {
+            if (count == size) {
+                filled = true;
+                if (step < size) {
+                    A window = copyOf(size);
+                    System.arraycopy(buffer, step, buffer, 0, count = size - step);
+                    emit(window);
+                }
+                else {
+                    A window = buffer;
+                    buffer = null;
+                    count = 0;
+                    gap = step - size;
+                    emit(window);
+                }
+            }
+            else if (timeoutNanos >= 0 && System.nanoTime() - start >= timeoutNanos) {
+                flush();
+            }
+        }
+
+        /**
+         * Passes the current window downstream if it is not empty and partial
+         * windows are permitted, otherwise discards it.
+         */
+        final void flush() {
+            int n = count;
+            count = 0;
+            if (n > 0 && partial) {
+                A window;
+                if (n == capacity) {
+                    window = buffer;
+                    buffer = null;
+                }
+                else {
+                    window = copyOf(n);
+                }
+                emit(window);
+            }
+        }
+
+        private A copyOf(int n) {
+            A b = newArray(n);
+            System.arraycopy(buffer, 0, b, 0, n);
+            return b;
+        }
+
+        private void emit(A window) {
+            emitted++;
+            downstream.accept(wrap(window));
+        }
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(-1);
+        }
+
+        @Override
+        public void end() {
+            if (!downstream.cancellationRequested())
+                flush();
+            buffer = null;
+            count = 0;
+            downstream.end();
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return downstream.cancellationRequested();
+        }
+
+        static final class OfRef<T> extends Batcher<T, Object[], List<T>> {
+            OfRef(int size, int step, boolean partial, long timeoutNanos) {
+                super(size, step, partial, timeoutNanos);
+            }
+
+            @Override
+            OfRef<T> copy() {
+                return new OfRef<>(size, step, partial, timeoutNanos);
+            }
+
+            @Override
+            Object[] newArray(int length) {
+                return new Object[length];
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            List<T> wrap(Object[] array) {
+                return Arrays.asList((T[]) array);
+            }
+
+            @Override
+            StreamShape shape() {
+                return StreamShape.REFERENCE;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            Node.Builder<T> nodeBuilder(long exactSize) {
+                return Nodes.builder(exactSize, n -> (T[]) new Object[n]);
+            }
+
+            @Override
+            public void accept(T t) {
+                if (admit()) {
+                    buffer[count++] = t;
+                    stored();
+                }
+            }
+        }
+
+        static final class OfInt extends Batcher<Integer, int[], int[]>
+                implements Sink.OfInt {
+            OfInt(int size, int step, boolean partial, long timeoutNanos) {
+                super(size, step, partial, timeoutNanos);
+            }
+
+            @Override
+            Batcher.OfInt copy() {
+                return new Batcher.OfInt(size, step, partial, timeoutNanos);
+            }
+
+            @Override
+            int[] newArray(int length) {
+                return new int[length];
+            }
+
+            @Override
+            int[] wrap(int[] array) {
+                return array;
+            }
+
+            @Override
+            StreamShape shape() {
+                return StreamShape.INT_VALUE;
+            }
+
+            @Override
+            Node.Builder<Integer> nodeBuilder(long exactSize) {
+                return Nodes.intBuilder(exactSize);
+            }
+
+            @Override
+            public void accept(int t) {
+                if (admit()) {
+                    buffer[count++] = t;
+                    stored();
+                }
+            }
+        }
+
+        static final class OfLong extends Batcher<Long, long[], long[]>
+                implements Sink.OfLong {
+            OfLong(int size, int step, boolean partial, long timeoutNanos) {
+                super(size, step, partial, timeoutNanos);
+            }
+
+            @Override
+            Batcher.OfLong copy() {
+                return new Batcher.OfLong(size, step, partial, timeoutNanos);
+            }
+
+            @Override
+            long[] newArray(int length) {
+                return new long[length];
+            }
+
+            @Override
+            long[] wrap(long[] array) {
+                return array;
+            }
+
+            @Override
+            StreamShape shape() {
+                return StreamShape.LONG_VALUE;
+            }
+
+            @Override
+            Node.Builder<Long> nodeBuilder(long exactSize) {
+                return Nodes.longBuilder(exactSize);
+            }
+
+            @Override
+            public void accept(long t) {
+                if (admit()) {
+                    buffer[count++] = t;
+                    stored();
+                }
+            }
+        }
+
+        static final class OfDouble extends Batcher<Double, double[], double[]>
+                implements Sink.OfDouble {
+            OfDouble(int size, int step, boolean partial, long timeoutNanos) {
+                super(size, step, partial, timeoutNanos);
+            }
+
+            @Override
+            Batcher.OfDouble copy() {
+                return new Batcher.OfDouble(size, step, partial, timeoutNanos);
+            }
+
+            @Override
+            double[] newArray(int length) {
+                return new double[length];
+            }
+
+            @Override
+            double[] wrap(double[] array) {
+                return array;
+            }
+
+            @Override
+            StreamShape shape() {
+                return StreamShape.DOUBLE_VALUE;
+            }
+
+            @Override
+            Node.Builder<Double> nodeBuilder(long exactSize) {
+                return Nodes.doubleBuilder(exactSize);
+            }
+
+            @Override
+            public void accept(double t) {
+                if (admit()) {
+                    buffer[count++] = t;
+                    stored();
+                }
+            }
+        }
+    }
+
+    /**
+     * A spliterator of the windows of the elements of an upstream pipeline.
+     *
+     * <p>The elements covered are those of an optional {@code head}, followed
+     * by those output by the upstream pipeline for the source spliterator
+     * {@code s}, followed by those of an optional {@code tail}; the first of
+     * them has index {@code origin}, which is at a window boundary or between
+     * windows.  If the upstream pipeline is {@code SIZED} and {@code s} is
+     * {@code SUBSIZED} it is split such that the prefix covers the windows
+     * starting before a window boundary, the elements of the suffix needed to
+     * complete those windows being taken into the tail of the prefix.  When
+     * windows overlap, those of the taken elements at or after the boundary
+     * also form the head of the suffix.
+     *
+     * <p>The source spliterator, rather than one wrapping the upstream
+     * pipeline, is split and traversed, since taking elements does not then
+     * prevent it from being split further.
+     *
+     * @param <P_IN> the type of source elements
+     * @param <E> the type of input elements
+     * @param <A> the type of the buffer array
+     * @param <R> the type of a window
+     */
+    static final class BatchSpliterator<P_IN, E, A, R> implements Spliterator<R> {
+        private final Batcher<E, A, R> template;
+        // The upstream pipeline, or null if s is not the source of a pipeline
+        private final PipelineHelper<E> helper;
+        // True if each element of s produces exactly one input element
+        private final boolean sized;
+        private Spliterator<E> head;
+        private final Spliterator<P_IN> s;
+        private Spliterator<E> tail;
+        private long origin;
+
+        // The batcher used for traversal, non-null once traversal has started
+        private Batcher<E, A, R> batcher;
+        // The batcher wrapped by the upstream pipeline
+        private Sink<P_IN> sourceSink;
+        // True if the batcher has been ended
+        private boolean finished;
+
+        BatchSpliterator(PipelineHelper<E> helper, Spliterator<P_IN> s,
+                         Batcher<E, A, R> template) {
+            this(template, helper,
+                 StreamOpFlag.SIZED.isKnown(helper.getStreamAndOpFlags()), null, s, null, 0);
+        }
+
+        @SuppressWarnings("unchecked")
+        BatchSpliterator(Spliterator<E> s, Batcher<E, A, R> template) {
+            this(template, null, true, null, (Spliterator<P_IN>) s, null, 0);
+        }
+
+        private BatchSpliterator(Batcher<E, A, R> template, PipelineHelper<E> helper,
+                                 boolean sized, Spliterator<E> head, Spliterator<P_IN> s,
+                                 Spliterator<E> tail, long origin) {
+            this.template = template;
+            this.helper = helper;
+            this.sized = sized;
+            this.head = head;
+            this.s = s;
+            this.tail = tail;
+            this.origin = origin;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Sink<P_IN> wrap(Sink<E> sink) {
+            return helper != null ? helper.wrapSink(sink) : (Sink<P_IN>) sink;
+        }
+
+        private Batcher<E, A, R> batcher(Consumer<? super R> action) {
+            if (batcher == null) {
+                batcher = template.newBatcher(origin, action::accept);
+                sourceSink = wrap(batcher);
+                sourceSink.begin(-1);
+            }
+            else {
+                batcher.downstream = action::accept;
+            }
+            return batcher;
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                sourceSink.end();
+            }
+        }
+
+        private boolean advance() {
+            if (head != null) {
+                if (head.tryAdvance(batcher))
+                    return true;
+                head = null;
+            }
+            if (s.tryAdvance(sourceSink))
+                return true;
+            if (tail != null) {
+                if (tail.tryAdvance(batcher))
+                    return true;
+                tail = null;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            Batcher<E, A, R> b = batcher(action);
+            long emitted = b.emitted;
+            do {
+                if (!advance()) {
+                    finish();
+                    break;
+                }
+            } while (b.emitted == emitted);
+            return b.emitted != emitted;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action) {
+            Batcher<E, A, R> b = batcher(action);
+            if (head != null) {
+                head.forEachRemaining(b);
+                head = null;
+            }
+            s.forEachRemaining(sourceSink);
+            if (tail != null) {
+                tail.forEachRemaining(b);
+                tail = null;
+            }
+            finish();
+        }
+
+        /**
+         * Takes the next {@code n} input elements, which are known to be
+         * available, from {@code s} followed by {@code tail}.
+         */
+        private Node<E> take(long n) {
+            Node.Builder<E> nb = template.nodeBuilder(-1);
+            Sink<P_IN> sink = wrap(nb);
+            long i = 0;
+            sink.begin(-1);
+            while (i < n && s.tryAdvance(sink))
+                i++;
+            while (i < n && tail.tryAdvance(nb))
+                i++;
+            sink.end();
+            return nb.build();
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            // Windows bounded in time depend on the arrival of elements, and
+            // the boundaries of windows can only be found if sizes are known
+            if (batcher != null || template.timeoutNanos >= 0 || !sized ||
+                !s.hasCharacteristics(Spliterator.SUBSIZED))
+                return null;
+            Spliterator<P_IN> p = s.trySplit();
+            if (p == null)
+                return null;
+            long k = p.getExactSizeIfKnown();
+            long available = s.getExactSizeIfKnown();
+            if (tail != null)
+                available += tail.getExactSizeIfKnown();
+            if (k <= 0 || available < 0)
+                return null;
+
+            // The index following the last element of p, the first window
+            // boundary at or after it, and the index following the last
+            // element of the last window starting before that boundary
+            int step = template.step;
+            long end = origin + (head != null ? head.getExactSizeIfKnown() : 0) + k;
+            long cut = end + (step - end % step) % step;
+            long prefixEnd = cut - step + template.size;
+
+            long prefixOrigin = origin;
+            Node<E> taken = null, shared = null;
+            long need = Math.min(prefixEnd - end, available);
+            if (need > 0) {
+                long own = Math.min(need, cut - end);
+                taken = take(own);
+                if (need > own) {
+                    shared = take(need - own);
+                    taken = Nodes.conc(template.shape(), taken, shared);
+                }
+                if (tail != null && tail.getExactSizeIfKnown() == 0)
+                    tail = null;
+                origin = end + own;
+            }
+            else {
+                origin = end;
+            }
+            Spliterator<R> prefix = new BatchSpliterator<>(
+                    template, helper, sized, head, p,
+                    taken != null ? taken.spliterator() : null, prefixOrigin);
+            head = shared != null ? shared.spliterator() : null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long n = s.estimateSize();
+            if (head != null)
+                n += head.estimateSize();
+            if (tail != null)
+                n += tail.estimateSize();
+            if (n < 0)
+                return Long.MAX_VALUE;
+            int step = template.step;
+            return n / step + (n % step == 0 ? 0 : 1);
+        }
+
+        @Override
+        public int characteristics() {
+            return (s.characteristics() & Spliterator.ORDERED) | Spliterator.NONNULL;
+        }
+    }
+}
@@ -46,9 +46,12 @@ import java.util.DoubleSummaryStatistics;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IntHashMap;
 import java.util.IntSummaryStatistics;
 import java.util.Iterator;
 import java.util.List;
+import java.util.LongHashMap;
+import java.util.LongObjectMap;
 import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.Objects;
@@ -62,6 +65,7 @@ import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.function.ToDoubleFunction;
@@ -149,6 +153,66 @@ public final class Collectors {
         return i -> (R) i;
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> T[] castingArray(Object[] array) {
+        return (T[]) array;
+    }
+
+    /**
+     * The largest number of mappings for which a hash table is presized.  The
+     * number of elements is only an upper bound on the number of distinct
+     * keys, so for streams with many duplicates presizing wastes the unused
+     * part of the table.  This bound limits that waste to a table of about
+     * two million references, 8-16MB, while a stream whose keys are all
+     * distinct would need many times that for its entries anyway; beyond it
+     * the table grows as usual.
+     */
+    private static final int MAX_HASH_PRESIZE = 1 << 20;
+
+    /**
+     * Returns the initial capacity of a hash table holding the given number
+     * of mappings, up to {@link #MAX_HASH_PRESIZE}, without being resized.
+     */
+    private static int hashCapacity(int expectedSize) {
+        return (int) (Math.min(expectedSize, MAX_HASH_PRESIZE) / 0.75f) + 1;
+    }
+
+    /**
+     * Returns a function that creates a container for a given number of
+     * elements to be accumulated by the collector, or {@code null} if the
+     * collector does not presize its containers.  The number of elements is
+     * an exact count for a list, and an upper bound on the size of a set or
+     * map.
+     *
+     * @param <A> the type of the container
+     * @param collector the collector
+     * @return a function creating a presized container, or {@code null}
+     */
+    static <A> IntFunction<A> sizedSupplier(Collector<?, A, ?> collector) {
+        return collector instanceof CollectorImpl
+               ? ((CollectorImpl<?, A, ?>) collector).sizedSupplier
+               : null;
+    }
+
+    /**
+     * Returns a function that creates the container accumulated by the
+     * collector from an array of all the elements in encounter order, or
+     * {@code null} if the collector cannot do so.  This allows the elements
+     * of a parallel stream of known size to be gathered into a single array,
+     * as for {@link Stream#toArray()}, rather than into containers that are
+     * combined.
+     *
+     * @param <A> the type of the container
+     * @param collector the collector
+     * @return a function creating the container from an array, or
+     *         {@code null}
+     */
+    static <A> Function<Object[], A> arrayFunction(Collector<?, A, ?> collector) {
+        return collector instanceof CollectorImpl
+               ? ((CollectorImpl<?, A, ?>) collector).arrayFunction
+               : null;
+    }
+
     /**
      * Simple implementation class for {@code Collector}.
      *
@@ -161,13 +225,27 @@ public final class Collectors {
         private final BinaryOperator<A> combiner;
         private final Function<A, R> finisher;
         private final Set<Characteristics> characteristics;
+        private final IntFunction<A> sizedSupplier;
+        private final Function<Object[], A> arrayFunction;
+
+        CollectorImpl(Supplier<A> supplier,
+                      BiConsumer<A, T> accumulator,
+                      BinaryOperator<A> combiner,
+                      Function<A,R> finisher,
+                      Set<Characteristics> characteristics) {
+            this(supplier, null, null, accumulator, combiner, finisher, characteristics);
+        }
 
         CollectorImpl(Supplier<A> supplier,
+                      IntFunction<A> sizedSupplier,
+                      Function<Object[], A> arrayFunction,
                       BiConsumer<A, T> accumulator,
                       BinaryOperator<A> combiner,
                       Function<A,R> finisher,
                       Set<Characteristics> characteristics) {
             this.supplier = supplier;
+            this.sizedSupplier = sizedSupplier;
+            this.arrayFunction = arrayFunction;
             this.accumulator = accumulator;
             this.combiner = combiner;
             this.finisher = finisher;
@@ -232,15 +310,23 @@ public final class Collectors {
      * serializability, or thread-safety of the {@code List} returned; if more
      * control over the returned {@code List} is required, use {@link #toCollection(Supplier)}.
      *
+     * @implNote
+     * If the number of elements of the stream is known, the {@code List} is
+     * allocated with exactly that capacity; for a parallel stream the elements
+     * are first gathered into a single array, as by {@link Stream#toArray()}.
+     *
      * @param <T> the type of the input elements
      * @return a {@code Collector} which collects all the input elements into a
      * {@code List}, in encounter order
      */
     public static <T>
     Collector<T, ?, List<T>> toList() {
-        return new CollectorImpl<>((Supplier<List<T>>) ArrayList::new, List::add,
+        return new CollectorImpl<>((Supplier<List<T>>) ArrayList::new,
+                                   ArrayList::new,
+                                   array -> new ArrayList<>(Arrays.<T>asList(Collectors.<T>castingArray(array))),
+                                   List::add,
                                    (left, right) -> { left.addAll(right); return left; },
-                                   CH_ID);
+                                   castingIdentity(), CH_ID);
     }
 
     /**
@@ -253,15 +339,22 @@ public final class Collectors {
      * <p>This is an {@link Collector.Characteristics#UNORDERED unordered}
      * Collector.
      *
+     * @implNote
+     * If the number of elements of the stream is known, the {@code Set} is
+     * allocated with a capacity sufficient to hold that many elements.
+     *
      * @param <T> the type of the input elements
      * @return a {@code Collector} which collects all the input elements into a
      * {@code Set}
      */
     public static <T>
     Collector<T, ?, Set<T>> toSet() {
-        return new CollectorImpl<>((Supplier<Set<T>>) HashSet::new, Set::add,
+        return new CollectorImpl<>((Supplier<Set<T>>) HashSet::new,
+                                   n -> new HashSet<>(hashCapacity(n)),
+                                   null,
+                                   Set::add,
                                    (left, right) -> { left.addAll(right); return left; },
-                                   CH_UNORDERED_ID);
+                                   castingIdentity(), CH_UNORDERED_ID);
     }
 
     /**
@@ -1102,6 +1195,307 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to an
+     * {@code int} classification function, and returning the results in an
+     * {@link IntHashMap}, whose keys are not boxed.
+     *
+     * <p>The classification function maps elements to some key.  The
+     * collector produces an {@code IntHashMap<List<T>>} whose keys are the
+     * values resulting from applying the classification function to the input
+     * elements, and whose corresponding values are {@code List}s containing
+     * the input elements which map to the associated key under the
+     * classification function.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability, or
+     * thread-safety of the {@code List} objects returned.
+     *
+     * @implSpec
+     * This produces a result similar to:
+     * <pre>{@code
+     *     groupingByInt(classifier, toList());
+     * }</pre>
+     *
+     * @implNote
+     * The returned {@code Collector} is not concurrent.  For parallel stream
+     * pipelines the map of each leaf is merged into that of its sibling
+     * holding more keys, the merges of distinct subtrees proceeding in
+     * parallel.
+     *
+     * @param <T> the type of the input elements
+     * @param classifier the classifier function mapping input elements to keys
+     * @return a {@code Collector} implementing the group-by operation
+     *
+     * @see #groupingByInt(ToIntFunction, Collector)
+     * @see #groupingBy(Function)
+     * @since 1.8
+     */
+    public static <T> Collector<T, ?, IntHashMap<List<T>>>
+    groupingByInt(ToIntFunction<? super T> classifier) {
+        return groupingByInt(classifier, toList());
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by" operation
+     * on input elements of type {@code T}, grouping elements according to an
+     * {@code int} classification function, and then performing a reduction
+     * operation on the values associated with a given key using the specified
+     * downstream {@code Collector}.  The results are returned in an
+     * {@link IntHashMap}, whose keys are not boxed.
+     *
+     * <p>The classification function maps elements to some key.  The
+     * downstream collector operates on elements of type {@code T} and produces
+     * a result of type {@code D}.  The resulting collector produces an
+     * {@code IntHashMap<D>}.
+     *
+     * @implNote
+     * The returned {@code Collector} is not concurrent.  For parallel stream
+     * pipelines the map of each leaf is merged into that of its sibling
+     * holding more keys, the merges of distinct subtrees proceeding in
+     * parallel.  The values of each key are combined in encounter order.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingByInt(ToIntFunction)
+     * @see #groupingBy(Function, Collector)
+     * @since 1.8
+     */
+    public static <T, A, D> Collector<T, ?, IntHashMap<D>>
+    groupingByInt(ToIntFunction<? super T> classifier,
+                  Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        BiConsumer<IntHashMap<A>, T> accumulator = (m, t) -> {
+            A container = m.computeIfAbsent(classifier.applyAsInt(t), k -> downstreamSupplier.get());
+            downstreamAccumulator.accept(container, t);
+        };
+        BinaryOperator<IntHashMap<A>> merger = (left, right) -> {
+            if (left.size() >= right.size()) {
+                right.forEach((k, v) -> left.merge(k, v, downstreamCombiner));
+                return left;
+            }
+            else {
+                left.forEach((k, v) -> right.merge(k, v, (r, l) -> downstreamCombiner.apply(l, r)));
+                return right;
+            }
+        };
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            @SuppressWarnings("unchecked")
+            Collector<T, ?, IntHashMap<D>> c = (Collector<T, ?, IntHashMap<D>>) (Collector<T, ?, ?>)
+                    new CollectorImpl<>(IntHashMap<A>::new, accumulator, merger, CH_ID);
+            return c;
+        }
+        else {
+            Function<A, D> downstreamFinisher = downstream.finisher();
+            Function<IntHashMap<A>, IntHashMap<D>> finisher = intermediate -> {
+                IntHashMap<D> result = new IntHashMap<>();
+                intermediate.forEach((k, v) -> result.put(k, downstreamFinisher.apply(v)));
+                return result;
+            };
+            return new CollectorImpl<>(IntHashMap<A>::new, accumulator, merger, finisher, CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * {@code long} classification function, and returning the results in a
+     * {@link LongObjectMap}, whose keys are not boxed.
+     *
+     * <p>The classification function maps elements to some key.  The
+     * collector produces a {@code LongObjectMap<List<T>>} whose keys are the
+     * values resulting from applying the classification function to the input
+     * elements, and whose corresponding values are {@code List}s containing
+     * the input elements which map to the associated key under the
+     * classification function.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability, or
+     * thread-safety of the {@code List} objects returned.
+     *
+     * @implSpec
+     * This produces a result similar to:
+     * <pre>{@code
+     *     groupingByLong(classifier, toList());
+     * }</pre>
+     *
+     * @implNote
+     * The returned {@code Collector} is not concurrent.  For parallel stream
+     * pipelines the map of each leaf is merged into that of its sibling
+     * holding more keys, the merges of distinct subtrees proceeding in
+     * parallel.
+     *
+     * @param <T> the type of the input elements
+     * @param classifier the classifier function mapping input elements to keys
+     * @return a {@code Collector} implementing the group-by operation
+     *
+     * @see #groupingByLong(ToLongFunction, Collector)
+     * @see #groupingBy(Function)
+     * @since 1.8
+     */
+    public static <T> Collector<T, ?, LongObjectMap<List<T>>>
+    groupingByLong(ToLongFunction<? super T> classifier) {
+        return groupingByLong(classifier, toList());
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by" operation
+     * on input elements of type {@code T}, grouping elements according to a
+     * {@code long} classification function, and then performing a reduction
+     * operation on the values associated with a given key using the specified
+     * downstream {@code Collector}.  The results are returned in a
+     * {@link LongObjectMap}, whose keys are not boxed.
+     *
+     * <p>The classification function maps elements to some key.  The
+     * downstream collector operates on elements of type {@code T} and produces
+     * a result of type {@code D}.  The resulting collector produces a
+     * {@code LongObjectMap<D>}.
+     *
+     * @implNote
+     * The returned {@code Collector} is not concurrent.  For parallel stream
+     * pipelines the map of each leaf is merged into that of its sibling
+     * holding more keys, the merges of distinct subtrees proceeding in
+     * parallel.  The values of each key are combined in encounter order.
+     *
+     * @param <T> the type of the input elements
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingByLong(ToLongFunction)
+     * @see #groupingBy(Function, Collector)
+     * @since 1.8
+     */
+    public static <T, A, D> Collector<T, ?, LongObjectMap<D>>
+    groupingByLong(ToLongFunction<? super T> classifier,
+                   Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        BiConsumer<LongObjectMap<A>, T> accumulator = (m, t) -> {
+            A container = m.computeIfAbsent(classifier.applyAsLong(t), k -> downstreamSupplier.get());
+            downstreamAccumulator.accept(container, t);
+        };
+        BinaryOperator<LongObjectMap<A>> merger = (left, right) -> {
+            if (left.size() >= right.size()) {
+                right.forEach((k, v) -> left.merge(k, v, downstreamCombiner));
+                return left;
+            }
+            else {
+                left.forEach((k, v) -> right.merge(k, v, (r, l) -> downstreamCombiner.apply(l, r)));
+                return right;
+            }
+        };
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            @SuppressWarnings("unchecked")
+            Collector<T, ?, LongObjectMap<D>> c = (Collector<T, ?, LongObjectMap<D>>) (Collector<T, ?, ?>)
+                    new CollectorImpl<>(LongObjectMap<A>::new, accumulator, merger, CH_ID);
+            return c;
+        }
+        else {
+            Function<A, D> downstreamFinisher = downstream.finisher();
+            Function<LongObjectMap<A>, LongObjectMap<D>> finisher = intermediate -> {
+                LongObjectMap<D> result = new LongObjectMap<>();
+                intermediate.forEach((k, v) -> result.put(k, downstreamFinisher.apply(v)));
+                return result;
+            };
+            return new CollectorImpl<>(LongObjectMap<A>::new, accumulator, merger, finisher, CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code Collector} that groups input elements according to a
+     * {@code long} classification function and sums a {@code long}-valued
+     * function of the elements of each group, returning the results in a
+     * {@link LongHashMap}.  Neither keys nor sums are boxed.
+     *
+     * <p>The result is equal to that of
+     * {@code groupingBy(classifier, summingLong(mapper))}, with keys and sums
+     * unboxed.  An {@code int} classification function may be used, its
+     * results being widened to {@code long} keys.
+     *
+     * @implNote
+     * For parallel stream pipelines the map of each leaf is merged into that
+     * of its sibling holding more keys, the merges of distinct subtrees
+     * proceeding in parallel.
+     *
+     * @param <T> the type of the input elements
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the property to be summed
+     * @return a {@code Collector} producing the sum of the property of the
+     *         elements of each group
+     *
+     * @see #groupingByCount(ToLongFunction)
+     * @see #summingLong(ToLongFunction)
+     * @since 1.8
+     */
+    public static <T> Collector<T, ?, LongHashMap>
+    groupingBySum(ToLongFunction<? super T> classifier,
+                  ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapper);
+        return new CollectorImpl<>(LongHashMap::new,
+                                   (LongHashMap m, T t) -> m.merge(classifier.applyAsLong(t),
+                                                                   mapper.applyAsLong(t), Long::sum),
+                                   Collectors::mergeSums, CH_UNORDERED_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} that groups input elements according to a
+     * {@code long} classification function and counts the elements of each
+     * group, returning the results in a {@link LongHashMap}.  Neither keys nor
+     * counts are boxed.
+     *
+     * <p>The result is equal to that of
+     * {@code groupingBy(classifier, counting())}, with keys and counts
+     * unboxed.  An {@code int} classification function may be used, its
+     * results being widened to {@code long} keys.
+     *
+     * @implNote
+     * For parallel stream pipelines the map of each leaf is merged into that
+     * of its sibling holding more keys, the merges of distinct subtrees
+     * proceeding in parallel.
+     *
+     * @param <T> the type of the input elements
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a {@code Collector} producing the number of elements of each
+     *         group
+     *
+     * @see #groupingBySum(ToLongFunction, ToLongFunction)
+     * @see #counting()
+     * @since 1.8
+     */
+    public static <T> Collector<T, ?, LongHashMap>
+    groupingByCount(ToLongFunction<? super T> classifier) {
+        Objects.requireNonNull(classifier);
+        return new CollectorImpl<>(LongHashMap::new,
+                                   (LongHashMap m, T t) -> m.merge(classifier.applyAsLong(t), 1L, Long::sum),
+                                   Collectors::mergeSums, CH_UNORDERED_ID);
+    }
+
+    /**
+     * Adds the values of the mappings of one of two maps of sums to those of
+     * the other, which is the one holding more keys, and returns it.
+     */
+    static LongHashMap mergeSums(LongHashMap left, LongHashMap right) {
+        LongHashMap target = left.size() >= right.size() ? left : right;
+        LongHashMap source = target == left ? right : left;
+        source.forEach((k, v) -> target.merge(k, v, Long::sum));
+        return target;
+    }
+
     /**
      * Returns a {@code Collector} which partitions the input elements according
      * to a {@code Predicate}, and organizes them into a
@@ -1220,7 +1614,7 @@ public final class Collectors {
     public static <T, K, U>
     Collector<T, ?, Map<K,U>> toMap(Function<? super T, ? extends K> keyMapper,
                                     Function<? super T, ? extends U> valueMapper) {
-        return toMap(keyMapper, valueMapper, throwingMerger(), HashMap::new);
+        return toHashMap(keyMapper, valueMapper, throwingMerger());
     }
 
     /**
@@ -1279,7 +1673,7 @@ public final class Collectors {
     Collector<T, ?, Map<K,U>> toMap(Function<? super T, ? extends K> keyMapper,
                                     Function<? super T, ? extends U> valueMapper,
                                     BinaryOperator<U> mergeFunction) {
-        return toMap(keyMapper, valueMapper, mergeFunction, HashMap::new);
+        return toHashMap(keyMapper, valueMapper, mergeFunction);
     }
 
     /**
@@ -1333,6 +1727,24 @@ public final class Collectors {
         return new CollectorImpl<>(mapSupplier, accumulator, mapMerger(mergeFunction), CH_ID);
     }
 
+    /**
+     * Implements {@link #toMap(Function, Function, BinaryOperator)} with a
+     * {@code HashMap} that, if the number of elements of the stream is known,
+     * is allocated with a capacity sufficient to hold that many mappings, up
+     * to a small bound.
+     */
+    private static <T, K, U>
+    Collector<T, ?, Map<K,U>> toHashMap(Function<? super T, ? extends K> keyMapper,
+                                        Function<? super T, ? extends U> valueMapper,
+                                        BinaryOperator<U> mergeFunction) {
+        BiConsumer<Map<K, U>, T> accumulator
+                = (map, element) -> map.merge(keyMapper.apply(element),
+                                              valueMapper.apply(element), mergeFunction);
+        return new CollectorImpl<>(HashMap::new, n -> new HashMap<>(hashCapacity(n)), null,
+                                   accumulator, mapMerger(mergeFunction),
+                                   castingIdentity(), CH_ID);
+    }
+
     /**
      * Returns a concurrent {@code Collector} that accumulates elements into a
      * {@code ConcurrentMap} whose keys and values are the result of applying
@@ -35,6 +35,7 @@
  */
 package java.util.stream;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Objects;
@@ -46,7 +47,8 @@ import java.util.function.IntFunction;
 
 /**
  * Factory methods for transforming streams into duplicate-free streams, using
- * {@link Object#equals(Object)} to determine equality.
+ * {@link Object#equals(Object)} to determine equality of references, and
+ * that of the corresponding boxed type for primitive values.
  *
  * @since 1.8
  */
@@ -191,4 +193,621 @@ final class DistinctOps {
             }
         };
     }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream an int stream
+     * @return the new stream
+     */
+    static IntStream makeInt(AbstractPipeline<?, Integer, ?> upstream) {
+        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
+                                                  StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            <P_IN> Node<Integer> reduce(PipelineHelper<Integer> helper, Spliterator<P_IN> spliterator,
+                                      boolean ordered) {
+                // Each leaf collects its distinct elements in encounter order, and
+                // sets are merged left to right, so the first occurrence of each
+                // element is kept.  Without an order the larger set absorbs the
+                // smaller.
+                TerminalOp<Integer, IntSet> reduceOp
+                        = ReduceOps.<IntSet>makeInt(IntSet::new, IntSet::add,
+                                                     (l, r) -> IntSet.merge(l, r, ordered));
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).toArray());
+            }
+
+            @Override
+            <P_IN> Node<Integer> opEvaluateParallel(PipelineHelper<Integer> helper,
+                                                Spliterator<P_IN> spliterator,
+                                                IntFunction<Integer[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else {
+                    return reduce(helper, spliterator,
+                                  StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags()));
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Integer> opEvaluateParallelLazy(PipelineHelper<Integer> helper,
+                                                           Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    // Not lazy, barrier required to preserve order
+                    return reduce(helper, spliterator, true).spliterator();
+                }
+                else {
+                    // Lazy, so that short-circuiting operations downstream work on
+                    // infinite input; the elements are boxed to be filtered against
+                    // the shared concurrent set of the reference case
+                    Spliterator<Integer> distinct
+                            = new StreamSpliterators.DistinctSpliterator<>(helper.wrapSpliterator(spliterator));
+                    return StreamSupport.stream(distinct, true).mapToInt(i -> i).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        boolean seenAny;
+                        int lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seenAny = false;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            if (!seenAny || t != lastSeen) {
+                                seenAny = true;
+                                downstream.accept(lastSeen = t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        IntSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new IntSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            if (seen.add(t))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream a long stream
+     * @return the new stream
+     */
+    static LongStream makeLong(AbstractPipeline<?, Long, ?> upstream) {
+        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
+                                                  StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            <P_IN> Node<Long> reduce(PipelineHelper<Long> helper, Spliterator<P_IN> spliterator,
+                                      boolean ordered) {
+                // Each leaf collects its distinct elements in encounter order, and
+                // sets are merged left to right, so the first occurrence of each
+                // element is kept.  Without an order the larger set absorbs the
+                // smaller.
+                TerminalOp<Long, LongSet> reduceOp
+                        = ReduceOps.<LongSet>makeLong(LongSet::new, LongSet::add,
+                                                     (l, r) -> LongSet.merge(l, r, ordered));
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).toArray());
+            }
+
+            @Override
+            <P_IN> Node<Long> opEvaluateParallel(PipelineHelper<Long> helper,
+                                                Spliterator<P_IN> spliterator,
+                                                IntFunction<Long[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else {
+                    return reduce(helper, spliterator,
+                                  StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags()));
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Long> opEvaluateParallelLazy(PipelineHelper<Long> helper,
+                                                           Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    // Not lazy, barrier required to preserve order
+                    return reduce(helper, spliterator, true).spliterator();
+                }
+                else {
+                    // Lazy, so that short-circuiting operations downstream work on
+                    // infinite input; the elements are boxed to be filtered against
+                    // the shared concurrent set of the reference case
+                    Spliterator<Long> distinct
+                            = new StreamSpliterators.DistinctSpliterator<>(helper.wrapSpliterator(spliterator));
+                    return StreamSupport.stream(distinct, true).mapToLong(i -> i).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        boolean seenAny;
+                        long lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seenAny = false;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            if (!seenAny || t != lastSeen) {
+                                seenAny = true;
+                                downstream.accept(lastSeen = t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        LongSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new LongSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            if (seen.add(t))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, and returns the
+     * new stream.
+     *
+     * @param upstream a double stream
+     * @return the new stream
+     */
+    static DoubleStream makeDouble(AbstractPipeline<?, Double, ?> upstream) {
+        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
+                                                  StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            <P_IN> Node<Double> reduce(PipelineHelper<Double> helper, Spliterator<P_IN> spliterator,
+                                      boolean ordered) {
+                // Each leaf collects its distinct elements in encounter order, and
+                // sets are merged left to right, so the first occurrence of each
+                // element is kept.  Without an order the larger set absorbs the
+                // smaller.
+                TerminalOp<Double, DoubleSet> reduceOp
+                        = ReduceOps.<DoubleSet>makeDouble(DoubleSet::new, DoubleSet::add,
+                                                     (l, r) -> DoubleSet.merge(l, r, ordered));
+                return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).toArray());
+            }
+
+            @Override
+            <P_IN> Node<Double> opEvaluateParallel(PipelineHelper<Double> helper,
+                                                Spliterator<P_IN> spliterator,
+                                                IntFunction<Double[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else {
+                    return reduce(helper, spliterator,
+                                  StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags()));
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Double> opEvaluateParallelLazy(PipelineHelper<Double> helper,
+                                                           Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    // Not lazy, barrier required to preserve order
+                    return reduce(helper, spliterator, true).spliterator();
+                }
+                else {
+                    // Lazy, so that short-circuiting operations downstream work on
+                    // infinite input; the elements are boxed to be filtered against
+                    // the shared concurrent set of the reference case
+                    Spliterator<Double> distinct
+                            = new StreamSpliterators.DistinctSpliterator<>(helper.wrapSpliterator(spliterator));
+                    return StreamSupport.stream(distinct, true).mapToDouble(i -> i).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedDouble<Double>(sink) {
+                        boolean seenAny;
+                        double lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seenAny = false;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(double t) {
+                            if (!seenAny || Double.doubleToLongBits(t) != Double.doubleToLongBits(lastSeen)) {
+                                seenAny = true;
+                                downstream.accept(lastSeen = t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedDouble<Double>(sink) {
+                        DoubleSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new DoubleSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(double t) {
+                            if (seen.add(t))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Spreads the bits of a hash code so that its low-order bits, which
+     * select the slot of an open-addressing table, depend on all of them.
+     */
+    static int hash(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The greatest number of elements of a primitive distinct set, such that
+     * its table of twice that many slots can be allocated.
+     */
+    private static final int MAX_SET_SIZE = 1 << 29;
+
+    /**
+     * A set of int values, recording distinct elements in the order in
+     * which they were first added.  Elements are held in
+     * an array in that order, indexed by an open-addressing (linear probing)
+     * hash table of one-based positions, with zero marking an empty slot, so
+     * that every int value may be an element and no element is boxed.
+     */
+    static final class IntSet {
+        private int[] elements;
+        private int[] table;
+        private int size;
+
+        IntSet() {
+            elements = new int[16];
+            table = new int[32];
+        }
+
+        /**
+         * Adds the given element if not already present.
+         *
+         * @return {@code true} if the element was added
+         */
+        boolean add(int t) {
+            int[] tab = table;
+            int mask = tab.length - 1;
+            int i = hash(t) & mask, j;
+            while ((j = tab[i]) != 0) {
+                if (elements[j - 1] == t)
+                    return false;
+                i = (i + 1) & mask;
+            }
+            if (size == elements.length) {
+                grow();
+                tab = table;
+                mask = tab.length - 1;
+                for (i = hash(t) & mask; tab[i] != 0; i = (i + 1) & mask) { }
+            }
+            elements[size++] = t;
+            tab[i] = size;
+            return true;
+        }
+
+        /**
+         * Doubles the capacity of the set, keeping the table at most half full.
+         */
+        private void grow() {
+            int n = elements.length;
+            if (n >= MAX_SET_SIZE)
+                throw new IllegalArgumentException(Nodes.BAD_SIZE);
+            int[] es = elements = Arrays.copyOf(elements, n << 1);
+            int[] tab = table = new int[n << 2];
+            int mask = tab.length - 1;
+            for (int k = 0; k < size; k++) {
+                int i = hash(es[k]) & mask;
+                while (tab[i] != 0)
+                    i = (i + 1) & mask;
+                tab[i] = k + 1;
+            }
+        }
+
+        /**
+         * Merges two sets, returning one holding the elements of both.  If
+         * {@code ordered} the result is {@code left}, with the elements of
+         * {@code right} not already present appended in order.
+         */
+        static IntSet merge(IntSet left, IntSet right, boolean ordered) {
+            if (!ordered && left.size < right.size) {
+                IntSet t = left; left = right; right = t;
+            }
+            int[] es = right.elements;
+            for (int k = 0, n = right.size; k < n; k++)
+                left.add(es[k]);
+            return left;
+        }
+
+        /**
+         * Returns the elements in the order in which they were added.
+         */
+        int[] toArray() {
+            return (size == elements.length) ? elements : Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * A set of long values, recording distinct elements in the order in
+     * which they were first added.  Elements are held in
+     * an array in that order, indexed by an open-addressing (linear probing)
+     * hash table of one-based positions, with zero marking an empty slot, so
+     * that every long value may be an element and no element is boxed.
+     */
+    static final class LongSet {
+        private long[] elements;
+        private int[] table;
+        private int size;
+
+        LongSet() {
+            elements = new long[16];
+            table = new int[32];
+        }
+
+        /**
+         * Adds the given element if not already present.
+         *
+         * @return {@code true} if the element was added
+         */
+        boolean add(long t) {
+            int[] tab = table;
+            int mask = tab.length - 1;
+            int i = hash((int) (t ^ (t >>> 32))) & mask, j;
+            while ((j = tab[i]) != 0) {
+                if (elements[j - 1] == t)
+                    return false;
+                i = (i + 1) & mask;
+            }
+            if (size == elements.length) {
+                grow();
+                tab = table;
+                mask = tab.length - 1;
+                for (i = hash((int) (t ^ (t >>> 32))) & mask; tab[i] != 0; i = (i + 1) & mask) { }
+            }
+            elements[size++] = t;
+            tab[i] = size;
+            return true;
+        }
+
+        /**
+         * Doubles the capacity of the set, keeping the table at most half full.
+         */
+        private void grow() {
+            int n = elements.length;
+            if (n >= MAX_SET_SIZE)
+                throw new IllegalArgumentException(Nodes.BAD_SIZE);
+            long[] es = elements = Arrays.copyOf(elements, n << 1);
+            int[] tab = table = new int[n << 2];
+            int mask = tab.length - 1;
+            for (int k = 0; k < size; k++) {
+                long e = es[k];
+                int i = hash((int) (e ^ (e >>> 32))) & mask;
+                while (tab[i] != 0)
+                    i = (i + 1) & mask;
+                tab[i] = k + 1;
+            }
+        }
+
+        /**
+         * Merges two sets, returning one holding the elements of both.  If
+         * {@code ordered} the result is {@code left}, with the elements of
+         * {@code right} not already present appended in order.
+         */
+        static LongSet merge(LongSet left, LongSet right, boolean ordered) {
+            if (!ordered && left.size < right.size) {
+                LongSet t = left; left = right; right = t;
+            }
+            long[] es = right.elements;
+            for (int k = 0, n = right.size; k < n; k++)
+                left.add(es[k]);
+            return left;
+        }
+
+        /**
+         * Returns the elements in the order in which they were added.
+         */
+        long[] toArray() {
+            return (size == elements.length) ? elements : Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * A set of double values, recording distinct elements in the order in
+     * which they were first added; elements are compared as by {@link Double#equals}, that is by
+     * {@link Double#doubleToLongBits}, so that all NaN values are equal to one
+     * another and {@code 0.0} is not equal to {@code -0.0}.  Elements are held in
+     * an array in that order, indexed by an open-addressing (linear probing)
+     * hash table of one-based positions, with zero marking an empty slot, so
+     * that every double value may be an element and no element is boxed.
+     */
+    static final class DoubleSet {
+        private double[] elements;
+        private int[] table;
+        private int size;
+
+        DoubleSet() {
+            elements = new double[16];
+            table = new int[32];
+        }
+
+        /**
+         * Adds the given element if not already present.
+         *
+         * @return {@code true} if the element was added
+         */
+        boolean add(double t) {
+            long bits = Double.doubleToLongBits(t);
+            int[] tab = table;
+            int mask = tab.length - 1;
+            int i = hash((int) (bits ^ (bits >>> 32))) & mask, j;
+            while ((j = tab[i]) != 0) {
+                if (Double.doubleToLongBits(elements[j - 1]) == bits)
+                    return false;
+                i = (i + 1) & mask;
+            }
+            if (size == elements.length) {
+                grow();
+                tab = table;
+                mask = tab.length - 1;
+                for (i = hash((int) (bits ^ (bits >>> 32))) & mask; tab[i] != 0; i = (i + 1) & mask) { }
+            }
+            elements[size++] = t;
+            tab[i] = size;
+            return true;
+        }
+
+        /**
+         * Doubles the capacity of the set, keeping the table at most half full.
+         */
+        private void grow() {
+            int n = elements.length;
+            if (n >= MAX_SET_SIZE)
+                throw new IllegalArgumentException(Nodes.BAD_SIZE);
+            double[] es = elements = Arrays.copyOf(elements, n << 1);
+            int[] tab = table = new int[n << 2];
+            int mask = tab.length - 1;
+            for (int k = 0; k < size; k++) {
+                long bits = Double.doubleToLongBits(es[k]);
+                int i = hash((int) (bits ^ (bits >>> 32))) & mask;
+                while (tab[i] != 0)
+                    i = (i + 1) & mask;
+                tab[i] = k + 1;
+            }
+        }
+
+        /**
+         * Merges two sets, returning one holding the elements of both.  If
+         * {@code ordered} the result is {@code left}, with the elements of
+         * {@code right} not already present appended in order.
+         */
+        static DoubleSet merge(DoubleSet left, DoubleSet right, boolean ordered) {
+            if (!ordered && left.size < right.size) {
+                DoubleSet t = left; left = right; right = t;
+            }
+            double[] es = right.elements;
+            for (int k = 0, n = right.size; k < n; k++)
+                left.add(es[k]);
+            return left;
+        }
+
+        /**
+         * Returns the elements in the order in which they were added.
+         */
+        double[] toArray() {
+            return (size == elements.length) ? elements : Arrays.copyOf(elements, size);
+        }
+    }
 }
@@ -41,6 +41,7 @@ import java.util.OptionalDouble;
 import java.util.PrimitiveIterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.DoubleBinaryOperator;
@@ -362,6 +363,21 @@ abstract class DoublePipeline<E_IN>
         }
     }
 
+    @Override
+    public final Stream<double[]> batch(int size) {
+        return BatchOps.makeDouble(this, size, size, true, -1);
+    }
+
+    @Override
+    public final Stream<double[]> window(int size, int step) {
+        return BatchOps.makeDouble(this, size, step, false, -1);
+    }
+
+    @Override
+    public final Stream<double[]> batchWhile(int maxSize, long timeout, TimeUnit unit) {
+        return BatchOps.makeDouble(this, maxSize, maxSize, true, BatchOps.timeoutNanos(timeout, unit));
+    }
+
     @Override
     public final DoubleStream sorted() {
         return SortedOps.makeDouble(this);
@@ -369,9 +385,7 @@ abstract class DoublePipeline<E_IN>
 
     @Override
     public final DoubleStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires a double-specific map/set implementation.
-        return boxed().distinct().mapToDouble(i -> (double) i);
+        return DistinctOps.makeDouble(this);
     }
 
     // Terminal ops from DoubleStream
@@ -514,8 +528,10 @@ abstract class DoublePipeline<E_IN>
 
     @Override
     public final double[] toArray() {
-        return Nodes.flattenDouble((Node.OfDouble) evaluateToArrayNode(Double[]::new))
-                        .asPrimitiveArray();
+        Node.OfDouble node = (Node.OfDouble) evaluateToArrayNode(Double[]::new);
+        double[] array = Nodes.flattenDouble(node).asPrimitiveArray();
+        Nodes.release(node);
+        return array;
     }
 
     //
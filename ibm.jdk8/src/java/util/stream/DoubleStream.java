@@ -47,6 +47,7 @@ import java.util.PrimitiveIterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleConsumer;
@@ -290,6 +291,100 @@ public interface DoubleStream extends BaseStream<Double, DoubleStream> {
      */
     DoubleStream skip(long n);
 
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * consecutive arrays of {@code size} elements, in encounter order.  The
+     * last array contains fewer than {@code size} elements if the number of
+     * elements of this stream is not a multiple of {@code size}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * See {@link Stream#batch(int)} for how this operation is evaluated.
+     *
+     * @implSpec
+     * The default implementation returns a stream of the batches of the
+     * elements of the {@link #spliterator() spliterator} of this stream, which
+     * is parallel if this stream is parallel, and which closes this stream
+     * when closed.
+     *
+     * @param size the number of elements in each batch
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 1.8
+     */
+    default Stream<double[]> batch(int size) {
+        return BatchOps.wrapDouble(this, size, size, true, -1);
+    }
+
+    /**
+     * Returns a stream of the sliding windows of {@code size} consecutive
+     * elements of this stream, in encounter order, each window starting
+     * {@code step} elements after the start of the previous one.  Windows
+     * extending beyond the last element of this stream are not included.
+     *
+     * <p>For example, {@code DoubleStream.of(1.0, 2.0, 3.0, 4.0, 5.0).window(3, 2)} consists of
+     * the arrays {@code [1, 2, 3]} and {@code [3, 4, 5]}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * See {@link Stream#window(int, int)} for how this operation is evaluated.
+     *
+     * @implSpec
+     * The default implementation returns a stream of the windows of the
+     * elements of the {@link #spliterator() spliterator} of this stream, which
+     * is parallel if this stream is parallel, and which closes this stream
+     * when closed.
+     *
+     * @param size the number of elements in each window
+     * @param step the number of elements between the starts of successive
+     *             windows
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} or {@code step} is not
+     * positive
+     * @since 1.8
+     */
+    default Stream<double[]> window(int size, int step) {
+        return BatchOps.wrapDouble(this, size, step, false, -1);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * consecutive arrays, in encounter order, that are bounded in both size and
+     * time.  An array is complete when it holds {@code maxSize} elements, when
+     * an element is added to it at least the given time after its first
+     * element, or at the end of this stream.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * See {@link Stream#batchWhile(int, long, TimeUnit)} for how this
+     * operation is evaluated.
+     *
+     * @implSpec
+     * The default implementation returns a stream of the batches of the
+     * elements of the {@link #spliterator() spliterator} of this stream, which
+     * is parallel if this stream is parallel, and which closes this stream
+     * when closed.
+     *
+     * @param maxSize the maximum number of elements in each batch
+     * @param timeout the time after the first element of a batch at which the
+     *                batch is complete
+     * @param unit the time unit of the {@code timeout} argument
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code maxSize} is not positive or
+     * {@code timeout} is negative
+     * @throws NullPointerException if {@code unit} is null
+     * @since 1.8
+     */
+    default Stream<double[]> batchWhile(int maxSize, long timeout, TimeUnit unit) {
+        return BatchOps.wrapDouble(this, maxSize, maxSize, true, BatchOps.timeoutNanos(timeout, unit));
+    }
+
     /**
      * Performs an action for each element of this stream.
      *
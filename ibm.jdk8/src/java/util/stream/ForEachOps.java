@@ -296,9 +296,14 @@ final class ForEachOps {
             boolean forkRight = false;
             Sink<S> taskSink = sink;
             ForEachTask<S, T> task = this;
+            StreamProfile profile = helper.getProfile();
+            if (profile != null)
+                profile.started(this);
             while (!isShortCircuit || !taskSink.cancellationRequested()) {
                 if (sizeEstimate <= sizeThreshold ||
                     (leftSplit = rightSplit.trySplit()) == null) {
+                    if (profile != null)
+                        profile.leaf(task, sizeEstimate);
                     task.helper.copyInto(taskSink, rightSplit);
                     break;
                 }
@@ -315,6 +320,8 @@ final class ForEachOps {
                     forkRight = true;
                     taskToFork = leftTask;
                 }
+                if (profile != null)
+                    profile.forked(taskToFork);
                 taskToFork.fork();
                 sizeEstimate = rightSplit.estimateSize();
             }
@@ -389,7 +396,7 @@ final class ForEachOps {
             this.spliterator = spliterator;
             this.targetSize = AbstractTask.suggestTargetSize(spliterator.estimateSize());
             // Size map to avoid concurrent re-sizes
-            this.completionMap = new ConcurrentHashMap<>(Math.max(16, AbstractTask.LEAF_TARGET << 1));
+            this.completionMap = new ConcurrentHashMap<>(Math.max(16, AbstractTask.getLeafTarget() << 1));
             this.action = action;
             this.leftPredecessor = null;
         }
@@ -42,6 +42,7 @@ import java.util.OptionalInt;
 import java.util.PrimitiveIterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.IntBinaryOperator;
@@ -396,6 +397,21 @@ abstract class IntPipeline<E_IN>
             return SliceOps.makeInt(this, n, -1);
     }
 
+    @Override
+    public final Stream<int[]> batch(int size) {
+        return BatchOps.makeInt(this, size, size, true, -1);
+    }
+
+    @Override
+    public final Stream<int[]> window(int size, int step) {
+        return BatchOps.makeInt(this, size, step, false, -1);
+    }
+
+    @Override
+    public final Stream<int[]> batchWhile(int maxSize, long timeout, TimeUnit unit) {
+        return BatchOps.makeInt(this, maxSize, maxSize, true, BatchOps.timeoutNanos(timeout, unit));
+    }
+
     @Override
     public final IntStream sorted() {
         return SortedOps.makeInt(this);
@@ -403,9 +419,7 @@ abstract class IntPipeline<E_IN>
 
     @Override
     public final IntStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires an int-specific map/set implementation.
-        return boxed().distinct().mapToInt(i -> i);
+        return DistinctOps.makeInt(this);
     }
 
     // Terminal ops from IntStream
@@ -541,8 +555,10 @@ abstract class IntPipeline<E_IN>
 
     @Override
     public final int[] toArray() {
-        return Nodes.flattenInt((Node.OfInt) evaluateToArrayNode(Integer[]::new))
-                        .asPrimitiveArray();
+        Node.OfInt node = (Node.OfInt) evaluateToArrayNode(Integer[]::new);
+        int[] array = Nodes.flattenInt(node).asPrimitiveArray();
+        Nodes.release(node);
+        return array;
     }
 
     //
@@ -37,12 +37,14 @@ package java.util.stream;
 
 import java.util.Arrays;
 import java.util.IntSummaryStatistics;
+import java.util.LongHashMap;
 import java.util.Objects;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.PrimitiveIterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.IntBinaryOperator;
@@ -55,6 +57,7 @@ import java.util.function.IntToLongFunction;
 import java.util.function.IntUnaryOperator;
 import java.util.function.ObjIntConsumer;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 /**
  * A sequence of primitive int-valued elements supporting sequential and parallel
@@ -283,6 +286,100 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
      */
     IntStream skip(long n);
 
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * consecutive arrays of {@code size} elements, in encounter order.  The
+     * last array contains fewer than {@code size} elements if the number of
+     * elements of this stream is not a multiple of {@code size}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * See {@link Stream#batch(int)} for how this operation is evaluated.
+     *
+     * @implSpec
+     * The default implementation returns a stream of the batches of the
+     * elements of the {@link #spliterator() spliterator} of this stream, which
+     * is parallel if this stream is parallel, and which closes this stream
+     * when closed.
+     *
+     * @param size the number of elements in each batch
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 1.8
+     */
+    default Stream<int[]> batch(int size) {
+        return BatchOps.wrapInt(this, size, size, true, -1);
+    }
+
+    /**
+     * Returns a stream of the sliding windows of {@code size} consecutive
+     * elements of this stream, in encounter order, each window starting
+     * {@code step} elements after the start of the previous one.  Windows
+     * extending beyond the last element of this stream are not included.
+     *
+     * <p>For example, {@code IntStream.of(1, 2, 3, 4, 5).window(3, 2)} consists of
+     * the arrays {@code [1, 2, 3]} and {@code [3, 4, 5]}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * See {@link Stream#window(int, int)} for how this operation is evaluated.
+     *
+     * @implSpec
+     * The default implementation returns a stream of the windows of the
+     * elements of the {@link #spliterator() spliterator} of this stream, which
+     * is parallel if this stream is parallel, and which closes this stream
+     * when closed.
+     *
+     * @param size the number of elements in each window
+     * @param step the number of elements between the starts of successive
+     *             windows
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} or {@code step} is not
+     * positive
+     * @since 1.8
+     */
+    default Stream<int[]> window(int size, int step) {
+        return BatchOps.wrapInt(this, size, step, false, -1);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * consecutive arrays, in encounter order, that are bounded in both size and
+     * time.  An array is complete when it holds {@code maxSize} elements, when
+     * an element is added to it at least the given time after its first
+     * element, or at the end of this stream.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * See {@link Stream#batchWhile(int, long, TimeUnit)} for how this
+     * operation is evaluated.
+     *
+     * @implSpec
+     * The default implementation returns a stream of the batches of the
+     * elements of the {@link #spliterator() spliterator} of this stream, which
+     * is parallel if this stream is parallel, and which closes this stream
+     * when closed.
+     *
+     * @param maxSize the maximum number of elements in each batch
+     * @param timeout the time after the first element of a batch at which the
+     *                batch is complete
+     * @param unit the time unit of the {@code timeout} argument
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code maxSize} is not positive or
+     * {@code timeout} is negative
+     * @throws NullPointerException if {@code unit} is null
+     * @since 1.8
+     */
+    default Stream<int[]> batchWhile(int maxSize, long timeout, TimeUnit unit) {
+        return BatchOps.wrapInt(this, maxSize, maxSize, true, BatchOps.timeoutNanos(timeout, unit));
+    }
+
     /**
      * Performs an action for each element of this stream.
      *
@@ -519,6 +616,70 @@ public interface IntStream extends BaseStream<Integer, IntStream> {
      */
     long count();
 
+    /**
+     * Returns a map from each key to which the given classification function
+     * maps an element of this stream to the sum of the elements mapped to that
+     * key.  This is a special case of a
+     * <a href="package-summary.html#Reduction">reduction</a> in which neither
+     * keys nor sums are boxed, and is equivalent to:
+     * <pre>{@code
+     *     return collect(LongHashMap::new,
+     *                    (m, e) -> m.merge(classifier.applyAsInt(e), e, Long::sum),
+     *                    (m1, m2) -> m2.forEach((k, v) -> m1.merge(k, v, Long::sum)));
+     * }</pre>
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * @apiNote
+     * This replaces grouping a boxed stream with
+     * {@code boxed().collect(groupingBy(classifier, summingLong(e -> e)))}.
+     * For parallel stream pipelines the map of each leaf is merged into that
+     * of its sibling, the merges of distinct subtrees proceeding in parallel.
+     *
+     * @param classifier a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                   <a href="package-summary.html#Statelessness">stateless</a>
+     *                   function mapping elements to keys
+     * @return a map from each key to the sum of the elements mapped to it
+     * @see Collectors#groupingBySum(ToLongFunction, ToLongFunction)
+     * @since 1.8
+     */
+    default LongHashMap groupingSum(IntUnaryOperator classifier) {
+        Objects.requireNonNull(classifier);
+        return collect(LongHashMap::new,
+                       (m, e) -> m.merge(classifier.applyAsInt(e), e, Long::sum),
+                       (m1, m2) -> m2.forEach((k, v) -> m1.merge(k, v, Long::sum)));
+    }
+
+    /**
+     * Returns a map from each key to which the given classification function
+     * maps an element of this stream to the number of elements mapped to that
+     * key.  This is a special case of a
+     * <a href="package-summary.html#Reduction">reduction</a> in which neither
+     * keys nor counts are boxed, and is equivalent to:
+     * <pre>{@code
+     *     return collect(LongHashMap::new,
+     *                    (m, e) -> m.merge(classifier.applyAsInt(e), 1L, Long::sum),
+     *                    (m1, m2) -> m2.forEach((k, v) -> m1.merge(k, v, Long::sum)));
+     * }</pre>
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * @param classifier a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                   <a href="package-summary.html#Statelessness">stateless</a>
+     *                   function mapping elements to keys
+     * @return a map from each key to the number of elements mapped to it
+     * @see Collectors#groupingByCount(ToLongFunction)
+     * @since 1.8
+     */
+    default LongHashMap groupingCount(IntUnaryOperator classifier) {
+        Objects.requireNonNull(classifier);
+        return collect(LongHashMap::new,
+                       (m, e) -> m.merge(classifier.applyAsInt(e), 1L, Long::sum),
+                       (m1, m2) -> m2.forEach((k, v) -> m1.merge(k, v, Long::sum)));
+    }
+
     /**
      * Returns an {@code OptionalDouble} describing the arithmetic mean of elements of
      * this stream, or an empty optional if this stream is empty.  This is a
@@ -42,6 +42,7 @@ import java.util.OptionalLong;
 import java.util.PrimitiveIterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.IntFunction;
@@ -377,6 +378,21 @@ abstract class LongPipeline<E_IN>
             return SliceOps.makeLong(this, n, -1);
     }
 
+    @Override
+    public final Stream<long[]> batch(int size) {
+        return BatchOps.makeLong(this, size, size, true, -1);
+    }
+
+    @Override
+    public final Stream<long[]> window(int size, int step) {
+        return BatchOps.makeLong(this, size, step, false, -1);
+    }
+
+    @Override
+    public final Stream<long[]> batchWhile(int maxSize, long timeout, TimeUnit unit) {
+        return BatchOps.makeLong(this, maxSize, maxSize, true, BatchOps.timeoutNanos(timeout, unit));
+    }
+
     @Override
     public final LongStream sorted() {
         return SortedOps.makeLong(this);
@@ -384,9 +400,7 @@ abstract class LongPipeline<E_IN>
 
     @Override
     public final LongStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires a long-specific map/set implementation.
-        return boxed().distinct().mapToLong(i -> (long) i);
+        return DistinctOps.makeLong(this);
     }
 
     // Terminal ops from LongStream
@@ -492,8 +506,10 @@ abstract class LongPipeline<E_IN>
 
     @Override
     public final long[] toArray() {
-        return Nodes.flattenLong((Node.OfLong) evaluateToArrayNode(Long[]::new))
-                .asPrimitiveArray();
+        Node.OfLong node = (Node.OfLong) evaluateToArrayNode(Long[]::new);
+        long[] array = Nodes.flattenLong(node).asPrimitiveArray();
+        Nodes.release(node);
+        return array;
     }
 
 
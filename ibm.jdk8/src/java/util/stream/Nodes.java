@@ -375,7 +375,13 @@ final class Nodes {
         }
         else {
             Node.OfInt node = new CollectorTask.OfInt<>(helper, spliterator).invoke();
-            return flattenTree ? flattenInt(node) : node;
+            if (flattenTree) {
+                Node.OfInt flat = flattenInt(node);
+                if (flat != node)
+                    release(node);
+                return flat;
+            }
+            return node;
         }
     }
 
@@ -413,7 +419,13 @@ final class Nodes {
         }
         else {
             Node.OfLong node = new CollectorTask.OfLong<>(helper, spliterator).invoke();
-            return flattenTree ? flattenLong(node) : node;
+            if (flattenTree) {
+                Node.OfLong flat = flattenLong(node);
+                if (flat != node)
+                    release(node);
+                return flat;
+            }
+            return node;
         }
     }
 
@@ -451,7 +463,13 @@ final class Nodes {
         }
         else {
             Node.OfDouble node = new CollectorTask.OfDouble<>(helper, spliterator).invoke();
-            return flattenTree ? flattenDouble(node) : node;
+            if (flattenTree) {
+                Node.OfDouble flat = flattenDouble(node);
+                if (flat != node)
+                    release(node);
+                return flat;
+            }
+            return node;
         }
     }
 
@@ -563,6 +581,31 @@ final class Nodes {
         }
     }
 
+    /**
+     * Release, to the current thread's chunk pool, the chunks of any
+     * primitive spined buffers within a node tree whose contents are no
+     * longer needed, such as a tree that has been flattened into a new
+     * array.  Does nothing unless chunk pooling is enabled.
+     *
+     * @implNote
+     * Neither the node nor any of its descendants may be used afterwards,
+     * so this must only be called on trees that have not escaped the
+     * operation that built them.
+     *
+     * @param node the node tree to release
+     * @see SpinedBuffer.ChunkPool
+     */
+    static void release(Node<?> node) {
+        if (!SpinedBuffer.ChunkPool.ENABLED)
+            return;
+        if (node instanceof SpinedBuffer.OfPrimitive)
+            ((SpinedBuffer.OfPrimitive<?, ?, ?>) node).release();
+        else {
+            for (int i = 0; i < node.getChildCount(); i++)
+                release(node.getChild(i));
+        }
+    }
+
     // Implementations
 
     private static abstract class EmptyNode<T, T_ARR, T_CONS> implements Node<T> {
@@ -1874,14 +1917,22 @@ final class Nodes {
         public void compute() {
             SizedCollectorTask<P_IN, P_OUT, T_SINK, K> task = this;
             Spliterator<P_IN> rightSplit = spliterator, leftSplit;
+            StreamProfile profile = helper.getProfile();
+            if (profile != null)
+                profile.started(this);
             while (rightSplit.estimateSize() > task.targetSize &&
                    (leftSplit = rightSplit.trySplit()) != null) {
                 task.setPendingCount(1);
                 long leftSplitSize = leftSplit.estimateSize();
-                task.makeChild(leftSplit, task.offset, leftSplitSize).fork();
+                K leftTask = task.makeChild(leftSplit, task.offset, leftSplitSize);
+                if (profile != null)
+                    profile.forked(leftTask);
+                leftTask.fork();
                 task = task.makeChild(rightSplit, task.offset + leftSplitSize,
                                       task.length - leftSplitSize);
             }
+            if (profile != null)
+                profile.leaf(task, rightSplit.estimateSize());
 
             assert task.offset + task.length < MAX_ARRAY_SIZE;
             @SuppressWarnings("unchecked")
@@ -163,6 +163,14 @@ abstract class PipelineHelper<P_OUT> {
      */
     abstract<P_IN> Sink<P_IN> wrapSink(Sink<P_OUT> sink);
 
+    /**
+     * Returns the profile recording the evaluation of the pipeline described
+     * by this {@code PipelineHelper}, or {@code null} if it is not profiled.
+     *
+     * @return the profile of the pipeline, or {@code null}
+     */
+    abstract StreamProfile getProfile();
+
     /**
      *
      * @param spliterator
@@ -46,6 +46,7 @@ import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntFunction;
 import java.util.function.IntBinaryOperator;
 import java.util.function.LongBinaryOperator;
 import java.util.function.ObjDoubleConsumer;
@@ -166,13 +167,17 @@ final class ReduceOps {
     public static <T, I> TerminalOp<T, I>
     makeRef(Collector<? super T, I, ?> collector) {
         Supplier<I> supplier = Objects.requireNonNull(collector).supplier();
+        IntFunction<I> sizedSupplier = Collectors.sizedSupplier(collector);
         BiConsumer<I, ? super T> accumulator = collector.accumulator();
         BinaryOperator<I> combiner = collector.combiner();
         class ReducingSink extends Box<I>
                 implements AccumulatingSink<T, I, ReducingSink> {
             @Override
             public void begin(long size) {
-                state = supplier.get();
+                // Presize the container if the number of elements is known
+                state = sizedSupplier != null && size >= 0 && size < Nodes.MAX_ARRAY_SIZE
+                        ? sizedSupplier.apply((int) size)
+                        : supplier.get();
             }
 
             @Override
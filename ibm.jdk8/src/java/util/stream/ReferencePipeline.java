@@ -37,10 +37,12 @@ package java.util.stream;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
@@ -422,6 +424,21 @@ abstract class ReferencePipeline<P_IN, P_OUT>
             return SliceOps.makeRef(this, n, -1);
     }
 
+    @Override
+    public final Stream<List<P_OUT>> batch(int size) {
+        return BatchOps.makeRef(this, size, size, true, -1);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> window(int size, int step) {
+        return BatchOps.makeRef(this, size, step, false, -1);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> batchWhile(int maxSize, long timeout, TimeUnit unit) {
+        return BatchOps.makeRef(this, maxSize, maxSize, true, BatchOps.timeoutNanos(timeout, unit));
+    }
+
     // Terminal operations from Stream
 
     @Override
@@ -499,6 +516,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
     @SuppressWarnings("unchecked")
     public final <R, A> R collect(Collector<? super P_OUT, A, R> collector) {
         A container;
+        Function<Object[], A> arrayFunction;
         if (isParallel()
                 && (collector.characteristics().contains(Collector.Characteristics.CONCURRENT))
                 && (!isOrdered() || collector.characteristics().contains(Collector.Characteristics.UNORDERED))) {
@@ -506,6 +524,13 @@ abstract class ReferencePipeline<P_IN, P_OUT>
             BiConsumer<A, ? super P_OUT> accumulator = collector.accumulator();
             forEach(u -> accumulator.accept(container, u));
         }
+        else if (isParallel()
+                 && StreamOpFlag.SIZED.isKnown(getStreamAndOpFlags())
+                 && (arrayFunction = Collectors.arrayFunction(collector)) != null) {
+            // Gather the elements into a single array of the known size,
+            // rather than combining the containers of each leaf
+            container = arrayFunction.apply(toArray());
+        }
         else {
             container = evaluate(ReduceOps.makeRef(collector));
         }
@@ -127,8 +127,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
-                                                      flags(limit)) {
+        Stream<T> stage = new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
+                                                                 flags(limit)) {
             Spliterator<T> unorderedSkipLimitSpliterator(Spliterator<T> s,
                                                          long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -227,6 +227,11 @@ final class SliceOps {
                 };
             }
         };
+
+        // Only fuse once the stage has been linked to the upstream, which
+        // fails if the upstream has already been linked or consumed
+        SortedOps.fuseLimit(upstream, skip, limit);
+        return stage;
     }
 
     /**
@@ -243,8 +248,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
-                                                   flags(limit)) {
+        IntStream stage = new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
+                                                              flags(limit)) {
             Spliterator.OfInt unorderedSkipLimitSpliterator(
                     Spliterator.OfInt s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -336,6 +341,11 @@ final class SliceOps {
                 };
             }
         };
+
+        // Only fuse once the stage has been linked to the upstream, which
+        // fails if the upstream has already been linked or consumed
+        SortedOps.fuseLimit(upstream, skip, limit);
+        return stage;
     }
 
     /**
@@ -352,8 +362,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
-                                                 flags(limit)) {
+        LongStream stage = new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
+                                                             flags(limit)) {
             Spliterator.OfLong unorderedSkipLimitSpliterator(
                     Spliterator.OfLong s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -445,6 +455,11 @@ final class SliceOps {
                 };
             }
         };
+
+        // Only fuse once the stage has been linked to the upstream, which
+        // fails if the upstream has already been linked or consumed
+        SortedOps.fuseLimit(upstream, skip, limit);
+        return stage;
     }
 
     /**
@@ -461,8 +476,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
-                                                     flags(limit)) {
+        DoubleStream stage = new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
+                                                                   flags(limit)) {
             Spliterator.OfDouble unorderedSkipLimitSpliterator(
                     Spliterator.OfDouble s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -554,6 +569,11 @@ final class SliceOps {
                 };
             }
         };
+
+        // Only fuse once the stage has been linked to the upstream, which
+        // fails if the upstream has already been linked or consumed
+        SortedOps.fuseLimit(upstream, skip, limit);
+        return stage;
     }
 
     private static int flags(long limit) {
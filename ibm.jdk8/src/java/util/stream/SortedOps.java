@@ -104,6 +104,86 @@ final class SortedOps {
         return new OfDouble(upstream);
     }
 
+    /**
+     * Informs a "sorted" operation that it is followed by a "slice"
+     * operation, so that it need produce only the least {@code skip + limit}
+     * elements.  Such an operation retains only those elements, in a bounded
+     * heap, rather than buffering and sorting all of its input, taking
+     * O(n log k) time and O(k) space for n elements, rather than
+     * O(n log n) time and O(n) space.  The slice operation is appended as
+     * usual, and selects its elements from those produced.
+     *
+     * <p>{@code sorted().skip(s).limit(n)} appends two slice operations, the
+     * first of which imposes no limit.  The number of elements it skips is
+     * recorded in the sorted operation, so that when the limit is appended
+     * to it the sorted operation produces only its least {@code s + n}
+     * elements; the skip then discards the first {@code s} of them.
+     *
+     * @param upstream the stream to which the slice operation is appended
+     * @param skip the number of elements to skip
+     * @param limit the maximum size of the slice, or -1 if no limit is to be
+     *        imposed
+     */
+    static void fuseLimit(AbstractPipeline<?, ?, ?> upstream, long skip, long limit) {
+        if (limit < 0) {
+            setTopK(upstream, -1, skip);
+            return;
+        }
+        AbstractPipeline<?, ?, ?> previous = upstream.previousStage();
+        long skipped = (previous == null) ? -1 : skipped(previous);
+        if (skipped >= 0) {
+            // upstream is a skip alone, appended to a sorted operation
+            upstream = previous;
+            skip += skipped;
+        }
+        long k = skip + limit;
+        if (k < 0 || k >= Nodes.MAX_ARRAY_SIZE)
+            return;
+        setTopK(upstream, (int) k, -1);
+    }
+
+    /**
+     * Sets the number of least elements that a sorted operation produces,
+     * and the number of elements skipped by a slice operation appended to it
+     * that imposes no limit; does nothing if the stage is not a sorted
+     * operation.
+     */
+    private static void setTopK(AbstractPipeline<?, ?, ?> stage, int topK, long skipped) {
+        if (stage instanceof OfRef) {
+            ((OfRef<?>) stage).topK = topK;
+            ((OfRef<?>) stage).skipped = skipped;
+        }
+        else if (stage instanceof OfInt) {
+            ((OfInt) stage).topK = topK;
+            ((OfInt) stage).skipped = skipped;
+        }
+        else if (stage instanceof OfLong) {
+            ((OfLong) stage).topK = topK;
+            ((OfLong) stage).skipped = skipped;
+        }
+        else if (stage instanceof OfDouble) {
+            ((OfDouble) stage).topK = topK;
+            ((OfDouble) stage).skipped = skipped;
+        }
+    }
+
+    /**
+     * Returns the number of elements skipped by a slice operation that
+     * imposes no limit appended to the given stage, or -1 if the stage is
+     * not a sorted operation followed by such a slice.
+     */
+    private static long skipped(AbstractPipeline<?, ?, ?> stage) {
+        if (stage instanceof OfRef)
+            return ((OfRef<?>) stage).skipped;
+        else if (stage instanceof OfInt)
+            return ((OfInt) stage).skipped;
+        else if (stage instanceof OfLong)
+            return ((OfLong) stage).skipped;
+        else if (stage instanceof OfDouble)
+            return ((OfDouble) stage).skipped;
+        return -1;
+    }
+
     /**
      * Specialized subtype for sorting reference streams
      */
@@ -114,6 +194,18 @@ final class SortedOps {
         private final boolean isNaturalSort;
         private final Comparator<? super T> comparator;
 
+        /**
+         * The number of least elements to produce, if this operation is
+         * followed by a limit, otherwise -1
+         */
+        int topK = -1;
+
+        /**
+         * The number of elements skipped by a slice operation that imposes
+         * no limit, if this operation is followed by one, otherwise -1
+         */
+        long skipped = -1;
+
         /**
          * Sort using natural order of {@literal <T>} which must be
          * {@code Comparable}.
@@ -148,6 +240,8 @@ final class SortedOps {
             // also naturally sorted then this is a no-op
             if (StreamOpFlag.SORTED.isKnown(flags) && isNaturalSort)
                 return sink;
+            else if (topK >= 0)
+                return new RefTopKSink<>(sink, comparator, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedRefSortingSink<>(sink, comparator);
             else
@@ -163,6 +257,15 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags()) && isNaturalSort) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                // Each leaf retains its least elements, and leaves are merged
+                // in encounter order, so the result is that of a stable sort
+                int k = topK;
+                RefTopK<T> top = ReduceOps.<T, RefTopK<T>>makeRef(() -> new RefTopK<>(comparator, k),
+                                                                  RefTopK::accept, RefTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toArray(generator));
+            }
             else {
                 // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
                 T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
@@ -176,6 +279,18 @@ final class SortedOps {
      * Specialized subtype for sorting int streams.
      */
     private static final class OfInt extends IntPipeline.StatefulOp<Integer> {
+        /**
+         * The number of least elements to produce, if this operation is
+         * followed by a limit, otherwise -1
+         */
+        int topK = -1;
+
+        /**
+         * The number of elements skipped by a slice operation that imposes
+         * no limit, if this operation is followed by one, otherwise -1
+         */
+        long skipped = -1;
+
         OfInt(AbstractPipeline<?, Integer, ?> upstream) {
             super(upstream, StreamShape.INT_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -187,6 +302,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new IntTopKSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedIntSortingSink(sink);
             else
@@ -200,6 +317,12 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                int k = topK;
+                IntTopK top = ReduceOps.makeInt(() -> new IntTopK(k), IntTopK::accept, IntTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toArray());
+            }
             else {
                 Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
 
@@ -215,6 +338,18 @@ final class SortedOps {
      * Specialized subtype for sorting long streams.
      */
     private static final class OfLong extends LongPipeline.StatefulOp<Long> {
+        /**
+         * The number of least elements to produce, if this operation is
+         * followed by a limit, otherwise -1
+         */
+        int topK = -1;
+
+        /**
+         * The number of elements skipped by a slice operation that imposes
+         * no limit, if this operation is followed by one, otherwise -1
+         */
+        long skipped = -1;
+
         OfLong(AbstractPipeline<?, Long, ?> upstream) {
             super(upstream, StreamShape.LONG_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -226,6 +361,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new LongTopKSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedLongSortingSink(sink);
             else
@@ -239,6 +376,12 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                int k = topK;
+                LongTopK top = ReduceOps.makeLong(() -> new LongTopK(k), LongTopK::accept, LongTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toArray());
+            }
             else {
                 Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
 
@@ -254,6 +397,18 @@ final class SortedOps {
      * Specialized subtype for sorting double streams.
      */
     private static final class OfDouble extends DoublePipeline.StatefulOp<Double> {
+        /**
+         * The number of least elements to produce, if this operation is
+         * followed by a limit, otherwise -1
+         */
+        int topK = -1;
+
+        /**
+         * The number of elements skipped by a slice operation that imposes
+         * no limit, if this operation is followed by one, otherwise -1
+         */
+        long skipped = -1;
+
         OfDouble(AbstractPipeline<?, Double, ?> upstream) {
             super(upstream, StreamShape.DOUBLE_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -265,6 +420,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new DoubleTopKSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedDoubleSortingSink(sink);
             else
@@ -278,6 +435,12 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                int k = topK;
+                DoubleTopK top = ReduceOps.makeDouble(() -> new DoubleTopK(k), DoubleTopK::accept, DoubleTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toArray());
+            }
             else {
                 Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
 
@@ -493,6 +656,8 @@ final class SortedOps {
         @Override
         public void end() {
             int[] ints = b.asPrimitiveArray();
+            b.release();
+            b = null;
             Arrays.sort(ints);
             downstream.begin(ints.length);
             if (!cancellationWasRequested) {
@@ -591,6 +756,8 @@ final class SortedOps {
         @Override
         public void end() {
             long[] longs = b.asPrimitiveArray();
+            b.release();
+            b = null;
             Arrays.sort(longs);
             downstream.begin(longs.length);
             if (!cancellationWasRequested) {
@@ -689,6 +856,8 @@ final class SortedOps {
         @Override
         public void end() {
             double[] doubles = b.asPrimitiveArray();
+            b.release();
+            b = null;
             Arrays.sort(doubles);
             downstream.begin(doubles.length);
             if (!cancellationWasRequested) {
@@ -709,4 +878,537 @@ final class SortedOps {
             b.accept(t);
         }
     }
+
+    /**
+     * The least elements of a reference stream, retained in a max-heap
+     * bounded by the number required.  Elements are ordered by the comparator
+     * and then by encounter order, so that of equal elements the first
+     * encountered are retained, as by a stable sort.  Once finished, the
+     * elements are sorted in ascending order, and sets of elements may then be
+     * combined by merging.
+     */
+    private static final class RefTopK<T> {
+        private final Comparator<? super T> comparator;
+        private final int k;
+        private Object[] heap;
+        private long[] order;
+        private int size;
+        private long count;
+        private boolean finished;
+
+        RefTopK(Comparator<? super T> comparator, int k) {
+            this.comparator = comparator;
+            this.k = k;
+            this.heap = new Object[Math.min(k, 16)];
+            this.order = new long[heap.length];
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean greater(Object a, long oa, Object b, long ob) {
+            int c = comparator.compare((T) a, (T) b);
+            return c > 0 || (c == 0 && oa > ob);
+        }
+
+        @SuppressWarnings("unchecked")
+        void accept(T t) {
+            long o = count++;
+            if (size < k) {
+                if (size == heap.length) {
+                    int n = (int) Math.min((long) k, (long) size << 1);
+                    heap = Arrays.copyOf(heap, n);
+                    order = Arrays.copyOf(order, n);
+                }
+                siftUp(size++, t, o);
+            }
+            else if (k > 0 && comparator.compare(t, (T) heap[0]) < 0) {
+                // Greater than any retained element in encounter order, so
+                // must be strictly less than the greatest to replace it
+                siftDown(0, t, o, size);
+            }
+        }
+
+        private void siftUp(int i, Object t, long o) {
+            Object[] h = heap; long[] r = order;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (!greater(t, o, h[p], r[p]))
+                    break;
+                h[i] = h[p];
+                r[i] = r[p];
+                i = p;
+            }
+            h[i] = t;
+            r[i] = o;
+        }
+
+        private void siftDown(int i, Object t, long o, int n) {
+            Object[] h = heap; long[] r = order;
+            int half = n >>> 1;
+            while (i < half) {
+                int c = (i << 1) + 1, right = c + 1;
+                if (right < n && greater(h[right], r[right], h[c], r[c]))
+                    c = right;
+                if (!greater(h[c], r[c], t, o))
+                    break;
+                h[i] = h[c];
+                r[i] = r[c];
+                i = c;
+            }
+            h[i] = t;
+            r[i] = o;
+        }
+
+        /**
+         * Sorts the retained elements in ascending order, in place.
+         */
+        void finish() {
+            if (!finished) {
+                finished = true;
+                Object[] h = heap; long[] r = order;
+                for (int n = size - 1; n > 0; n--) {
+                    Object t = h[n];
+                    long o = r[n];
+                    h[n] = h[0];
+                    r[n] = r[0];
+                    siftDown(0, t, o, n);
+                }
+                order = null;
+            }
+        }
+
+        /**
+         * Merges the elements of {@code other}, which follow those of this
+         * set in encounter order, retaining the least.
+         */
+        @SuppressWarnings("unchecked")
+        void combine(RefTopK<T> other) {
+            finish();
+            other.finish();
+            Object[] a = heap, b = other.heap;
+            int na = size, nb = other.size;
+            int n = (int) Math.min((long) k, (long) na + nb);
+            Object[] m = new Object[n];
+            for (int i = 0, j = 0, x = 0; x < n; x++) {
+                if (j >= nb || (i < na && comparator.compare((T) b[j], (T) a[i]) >= 0))
+                    m[x] = a[i++];
+                else
+                    m[x] = b[j++];
+            }
+            heap = m;
+            size = n;
+        }
+
+        T[] toArray(IntFunction<T[]> generator) {
+            finish();
+            T[] a = generator.apply(size);
+            System.arraycopy(heap, 0, a, 0, size);
+            return a;
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on reference streams followed by a
+     * limit, retaining only the least elements.
+     */
+    private static final class RefTopKSink<T> extends AbstractRefSortingSink<T> {
+        private final int k;
+        private RefTopK<T> top;
+
+        RefTopKSink(Sink<? super T> sink, Comparator<? super T> comparator, int k) {
+            super(sink, comparator);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            top = new RefTopK<>(comparator, k);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void end() {
+            top.finish();
+            Object[] elements = top.heap;
+            int n = top.size;
+            downstream.begin(n);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < n; i++)
+                    downstream.accept((T) elements[i]);
+            }
+            else {
+                for (int i = 0; i < n && !downstream.cancellationRequested(); i++)
+                    downstream.accept((T) elements[i]);
+            }
+            downstream.end();
+            top = null;
+        }
+
+        @Override
+        public void accept(T t) {
+            top.accept(t);
+        }
+    }
+
+    /**
+     * The least elements of an int stream, retained in a max-heap
+     * bounded by the number required, and sorted once finished.
+     */
+    private static final class IntTopK {
+        private final int k;
+        private int[] heap;
+        private int size;
+        private boolean finished;
+
+        IntTopK(int k) {
+            this.k = k;
+            this.heap = new int[Math.min(k, 16)];
+        }
+
+        void accept(int t) {
+            if (size < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, (int) Math.min((long) k, (long) size << 1));
+                siftUp(size++, t);
+            }
+            else if (k > 0 && t < heap[0])
+                siftDown(t);
+        }
+
+        private void siftUp(int i, int t) {
+            int[] h = heap;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (!(t > h[p]))
+                    break;
+                h[i] = h[p];
+                i = p;
+            }
+            h[i] = t;
+        }
+
+        private void siftDown(int t) {
+            int[] h = heap;
+            int n = size, half = n >>> 1, i = 0;
+            while (i < half) {
+                int c = (i << 1) + 1, right = c + 1;
+                if (right < n && h[right] > h[c])
+                    c = right;
+                if (!(h[c] > t))
+                    break;
+                h[i] = h[c];
+                i = c;
+            }
+            h[i] = t;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                Arrays.sort(heap, 0, size);
+            }
+        }
+
+        IntTopK combine(IntTopK other) {
+            finish();
+            other.finish();
+            int[] a = heap, b = other.heap;
+            int na = size, nb = other.size;
+            int n = (int) Math.min((long) k, (long) na + nb);
+            int[] m = new int[n];
+            for (int i = 0, j = 0, x = 0; x < n; x++)
+                m[x] = (j >= nb || (i < na && b[j] >= a[i])) ? a[i++] : b[j++];
+            heap = m;
+            size = n;
+            return this;
+        }
+
+        int[] toArray() {
+            finish();
+            return (size == heap.length) ? heap : Arrays.copyOf(heap, size);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on int streams followed by a limit,
+     * retaining only the least elements.
+     */
+    private static final class IntTopKSink extends AbstractIntSortingSink {
+        private final int k;
+        private IntTopK top;
+
+        IntTopKSink(Sink<? super Integer> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            top = new IntTopK(k);
+        }
+
+        @Override
+        public void end() {
+            top.finish();
+            int[] elements = top.heap;
+            int n = top.size;
+            downstream.begin(n);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < n; i++)
+                    downstream.accept(elements[i]);
+            }
+            else {
+                for (int i = 0; i < n && !downstream.cancellationRequested(); i++)
+                    downstream.accept(elements[i]);
+            }
+            downstream.end();
+            top = null;
+        }
+
+        @Override
+        public void accept(int t) {
+            top.accept(t);
+        }
+    }
+
+    /**
+     * The least elements of a long stream, retained in a max-heap
+     * bounded by the number required, and sorted once finished.
+     */
+    private static final class LongTopK {
+        private final int k;
+        private long[] heap;
+        private int size;
+        private boolean finished;
+
+        LongTopK(int k) {
+            this.k = k;
+            this.heap = new long[Math.min(k, 16)];
+        }
+
+        void accept(long t) {
+            if (size < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, (int) Math.min((long) k, (long) size << 1));
+                siftUp(size++, t);
+            }
+            else if (k > 0 && t < heap[0])
+                siftDown(t);
+        }
+
+        private void siftUp(int i, long t) {
+            long[] h = heap;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (!(t > h[p]))
+                    break;
+                h[i] = h[p];
+                i = p;
+            }
+            h[i] = t;
+        }
+
+        private void siftDown(long t) {
+            long[] h = heap;
+            int n = size, half = n >>> 1, i = 0;
+            while (i < half) {
+                int c = (i << 1) + 1, right = c + 1;
+                if (right < n && h[right] > h[c])
+                    c = right;
+                if (!(h[c] > t))
+                    break;
+                h[i] = h[c];
+                i = c;
+            }
+            h[i] = t;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                Arrays.sort(heap, 0, size);
+            }
+        }
+
+        LongTopK combine(LongTopK other) {
+            finish();
+            other.finish();
+            long[] a = heap, b = other.heap;
+            int na = size, nb = other.size;
+            int n = (int) Math.min((long) k, (long) na + nb);
+            long[] m = new long[n];
+            for (int i = 0, j = 0, x = 0; x < n; x++)
+                m[x] = (j >= nb || (i < na && b[j] >= a[i])) ? a[i++] : b[j++];
+            heap = m;
+            size = n;
+            return this;
+        }
+
+        long[] toArray() {
+            finish();
+            return (size == heap.length) ? heap : Arrays.copyOf(heap, size);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on long streams followed by a limit,
+     * retaining only the least elements.
+     */
+    private static final class LongTopKSink extends AbstractLongSortingSink {
+        private final int k;
+        private LongTopK top;
+
+        LongTopKSink(Sink<? super Long> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            top = new LongTopK(k);
+        }
+
+        @Override
+        public void end() {
+            top.finish();
+            long[] elements = top.heap;
+            int n = top.size;
+            downstream.begin(n);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < n; i++)
+                    downstream.accept(elements[i]);
+            }
+            else {
+                for (int i = 0; i < n && !downstream.cancellationRequested(); i++)
+                    downstream.accept(elements[i]);
+            }
+            downstream.end();
+            top = null;
+        }
+
+        @Override
+        public void accept(long t) {
+            top.accept(t);
+        }
+    }
+
+    /**
+     * The least elements of a double stream as by {@link Double#compare}, retained in a max-heap
+     * bounded by the number required, and sorted once finished.
+     */
+    private static final class DoubleTopK {
+        private final int k;
+        private double[] heap;
+        private int size;
+        private boolean finished;
+
+        DoubleTopK(int k) {
+            this.k = k;
+            this.heap = new double[Math.min(k, 16)];
+        }
+
+        void accept(double t) {
+            if (size < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, (int) Math.min((long) k, (long) size << 1));
+                siftUp(size++, t);
+            }
+            else if (k > 0 && Double.compare(t, heap[0]) < 0)
+                siftDown(t);
+        }
+
+        private void siftUp(int i, double t) {
+            double[] h = heap;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (!(Double.compare(t, h[p]) > 0))
+                    break;
+                h[i] = h[p];
+                i = p;
+            }
+            h[i] = t;
+        }
+
+        private void siftDown(double t) {
+            double[] h = heap;
+            int n = size, half = n >>> 1, i = 0;
+            while (i < half) {
+                int c = (i << 1) + 1, right = c + 1;
+                if (right < n && Double.compare(h[right], h[c]) > 0)
+                    c = right;
+                if (!(Double.compare(h[c], t) > 0))
+                    break;
+                h[i] = h[c];
+                i = c;
+            }
+            h[i] = t;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                Arrays.sort(heap, 0, size);
+            }
+        }
+
+        DoubleTopK combine(DoubleTopK other) {
+            finish();
+            other.finish();
+            double[] a = heap, b = other.heap;
+            int na = size, nb = other.size;
+            int n = (int) Math.min((long) k, (long) na + nb);
+            double[] m = new double[n];
+            for (int i = 0, j = 0, x = 0; x < n; x++)
+                m[x] = (j >= nb || (i < na && Double.compare(b[j], a[i]) >= 0)) ? a[i++] : b[j++];
+            heap = m;
+            size = n;
+            return this;
+        }
+
+        double[] toArray() {
+            finish();
+            return (size == heap.length) ? heap : Arrays.copyOf(heap, size);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on double streams followed by a limit,
+     * retaining only the least elements.
+     */
+    private static final class DoubleTopKSink extends AbstractDoubleSortingSink {
+        private final int k;
+        private DoubleTopK top;
+
+        DoubleTopKSink(Sink<? super Double> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            top = new DoubleTopK(k);
+        }
+
+        @Override
+        public void end() {
+            top.finish();
+            double[] elements = top.heap;
+            int n = top.size;
+            downstream.begin(n);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < n; i++)
+                    downstream.accept(elements[i]);
+            }
+            else {
+                for (int i = 0; i < n && !downstream.cancellationRequested(); i++)
+                    downstream.accept(elements[i]);
+            }
+            downstream.end();
+            top = null;
+        }
+
+        @Override
+        public void accept(double t) {
+            top.accept(t);
+        }
+    }
 }
@@ -35,6 +35,8 @@
  */
 package java.util.stream;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -461,7 +463,7 @@ class SpinedBuffer<E>
          */
         OfPrimitive(int initialCapacity) {
             super(initialCapacity);
-            curChunk = newArray(1 << initialChunkPower);
+            curChunk = newChunk(1 << initialChunkPower);
         }
 
         /**
@@ -469,7 +471,7 @@ class SpinedBuffer<E>
          */
         OfPrimitive() {
             super();
-            curChunk = newArray(1 << initialChunkPower);
+            curChunk = newChunk(1 << initialChunkPower);
         }
 
         @Override
@@ -487,6 +489,23 @@ class SpinedBuffer<E>
         /** Get the length of an array */
         protected abstract int arrayLength(T_ARR array);
 
+        /** Get the current thread's pool of chunks of the proper type */
+        protected abstract ChunkPool chunkPool();
+
+        /**
+         * Create a new chunk of the given power-of-two size, reusing one from
+         * the current thread's pool if chunk pooling is enabled.
+         */
+        @SuppressWarnings("unchecked")
+        private T_ARR newChunk(int size) {
+            if (ChunkPool.ENABLED) {
+                Object chunk = chunkPool().take(size);
+                if (chunk != null)
+                    return (T_ARR) chunk;
+            }
+            return newArray(size);
+        }
+
         /** Iterate an array with the provided consumer */
         protected abstract void arrayForEach(T_ARR array, int from, int to,
                                              T_CONS consumer);
@@ -516,7 +535,7 @@ class SpinedBuffer<E>
                         priorElementCount = Arrays.copyOf(priorElementCount, newSpineSize);
                     }
                     int nextChunkSize = chunkSize(i);
-                    spine[i] = newArray(nextChunkSize);
+                    spine[i] = newChunk(nextChunkSize);
                     priorElementCount[i] = priorElementCount[i-1] + arrayLength(spine[i - 1]);
                     capacity += nextChunkSize;
                 }
@@ -594,6 +613,31 @@ class SpinedBuffer<E>
             spineIndex = 0;
         }
 
+        /**
+         * Return all chunks to the current thread's pool, if chunk pooling is
+         * enabled.  Must only be called once the contents are no longer
+         * needed; neither this buffer nor any spliterator, iterator or array
+         * view previously obtained from it may be used afterwards.
+         */
+        void release() {
+            if (ChunkPool.ENABLED && curChunk != null) {
+                ChunkPool pool = chunkPool();
+                if (spine == null)
+                    pool.give(curChunk, arrayLength(curChunk));
+                else {
+                    for (T_ARR chunk : spine) {
+                        if (chunk != null)
+                            pool.give(chunk, arrayLength(chunk));
+                    }
+                }
+                curChunk = null;
+                spine = null;
+                priorElementCount = null;
+                elementIndex = 0;
+                spineIndex = 0;
+            }
+        }
+
         @SuppressWarnings("overloads")
         public void forEach(T_CONS consumer) {
             // completed chunks, if any
@@ -766,6 +810,11 @@ class SpinedBuffer<E>
             return array.length;
         }
 
+        @Override
+        protected ChunkPool chunkPool() {
+            return ChunkPool.INTS.get();
+        }
+
         @Override
         protected void arrayForEach(int[] array,
                                     int from, int to,
@@ -879,6 +928,11 @@ class SpinedBuffer<E>
             return array.length;
         }
 
+        @Override
+        protected ChunkPool chunkPool() {
+            return ChunkPool.LONGS.get();
+        }
+
         @Override
         protected void arrayForEach(long[] array,
                                     int from, int to,
@@ -994,6 +1048,11 @@ class SpinedBuffer<E>
             return array.length;
         }
 
+        @Override
+        protected ChunkPool chunkPool() {
+            return ChunkPool.DOUBLES.get();
+        }
+
         @Override
         protected void arrayForEach(double[] array,
                                     int from, int to,
@@ -1068,5 +1127,83 @@ class SpinedBuffer<E>
             }
         }
     }
+
+    /**
+     * A per-thread pool of primitive chunks, used by {@link OfPrimitive}
+     * buffers to avoid reallocating chunks for every pipeline when many
+     * pipelines run in succession on the same thread.  Pooling is disabled
+     * unless the system property
+     * {@code java.util.stream.SpinedBuffer.pooled} is {@code true}.
+     *
+     * <p>Chunks are always power-of-two sized, so they are pooled by size.
+     * A buffer takes chunks from the pool of the thread that grows it, and
+     * returns them to the pool of the thread that releases it.  Chunks are
+     * not cleared on reuse, since no element beyond the buffer's count is
+     * ever read.  Buffers are only released where they cannot escape,
+     * after their contents have been copied or sorted out; buffers that are
+     * never released simply become garbage as before.  To bound the memory
+     * held by idle threads, a pool retains at most
+     * {@code MAX_POOLED_ELEMENTS} elements of each type, in chunks of at
+     * most {@code 1 << MAX_POOLED_POWER} elements.
+     */
+    static final class ChunkPool {
+        private static final String POOLED_PROPERTY = "java.util.stream.SpinedBuffer.pooled";
+
+        /** Is chunk pooling enabled? */
+        static final boolean ENABLED = AccessController.doPrivileged(
+                (PrivilegedAction<Boolean>) () -> Boolean.getBoolean(POOLED_PROPERTY));
+
+        /** Largest pooled chunk, as a power of two. */
+        static final int MAX_POOLED_POWER = 20;
+
+        /** Most chunks of any one size retained. */
+        static final int MAX_POOLED_CHUNKS = 4;
+
+        /** Most elements retained across all chunk sizes. */
+        static final long MAX_POOLED_ELEMENTS = 1L << 21;
+
+        static final ThreadLocal<ChunkPool> INTS = ThreadLocal.withInitial(ChunkPool::new);
+        static final ThreadLocal<ChunkPool> LONGS = ThreadLocal.withInitial(ChunkPool::new);
+        static final ThreadLocal<ChunkPool> DOUBLES = ThreadLocal.withInitial(ChunkPool::new);
+
+        // Free chunks, by power of two, each used as a stack
+        private final Object[][] chunks = new Object[MAX_POOLED_POWER + 1][];
+
+        // Number of free chunks of each power of two
+        private final int[] counts = new int[MAX_POOLED_POWER + 1];
+
+        // Total elements in free chunks
+        private long pooled;
+
+        /**
+         * Take a chunk of the given power-of-two size, or return null if
+         * none is pooled.
+         */
+        Object take(int size) {
+            int power = Integer.numberOfTrailingZeros(size);
+            if (power > MAX_POOLED_POWER || counts[power] == 0)
+                return null;
+            int n = --counts[power];
+            Object chunk = chunks[power][n];
+            chunks[power][n] = null;
+            pooled -= size;
+            return chunk;
+        }
+
+        /**
+         * Offer a chunk of the given power-of-two size for reuse, dropping
+         * it if the pool is full.
+         */
+        void give(Object chunk, int size) {
+            int power = Integer.numberOfTrailingZeros(size);
+            if (power > MAX_POOLED_POWER || counts[power] == MAX_POOLED_CHUNKS
+                || pooled + size > MAX_POOLED_ELEMENTS)
+                return;
+            if (chunks[power] == null)
+                chunks[power] = new Object[MAX_POOLED_CHUNKS];
+            chunks[power][counts[power]++] = chunk;
+            pooled += size;
+        }
+    }
 }
 
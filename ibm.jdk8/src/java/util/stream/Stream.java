@@ -42,11 +42,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
@@ -489,6 +491,123 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> skip(long n);
 
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * consecutive lists of {@code size} elements, in encounter order.  The last
+     * list contains fewer than {@code size} elements if the number of elements
+     * of this stream is not a multiple of {@code size}.  There are no
+     * guarantees on the type, mutability, serializability, or thread-safety of
+     * the lists.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * Unlike collecting the elements of a stream into a list and dividing the
+     * list, a sequential stream pipeline retains only the current batch, which
+     * makes this operation suitable for bulk operations on large or unbounded
+     * sources, such as batched inserts:
+     * <pre>{@code
+     *     rows.batch(500).forEach(dao::insertAll);
+     * }</pre>
+     * On parallel pipelines batches are formed concurrently if the number of
+     * elements is known and the stream source splits into parts of known size,
+     * such as an array or an {@code ArrayList}; otherwise this operation, and
+     * those preceding it in the pipeline, are evaluated sequentially.
+     *
+     * @implSpec
+     * The default implementation returns a stream of the batches of the
+     * elements of the {@link #spliterator() spliterator} of this stream, which
+     * is parallel if this stream is parallel, and which closes this stream
+     * when closed.
+     *
+     * @param size the number of elements in each batch
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 1.8
+     */
+    default Stream<List<T>> batch(int size) {
+        return BatchOps.wrapRef(this, size, size, true, -1);
+    }
+
+    /**
+     * Returns a stream of the sliding windows of {@code size} consecutive
+     * elements of this stream, in encounter order.  The first window starts at
+     * the first element of this stream, and each subsequent window starts
+     * {@code step} elements after the start of the previous one; if
+     * {@code step} is greater than {@code size} the elements between windows
+     * are skipped.  Windows extending beyond the last element of this stream
+     * are not included, so the returned stream is empty if this stream has
+     * fewer than {@code size} elements.  There are no guarantees on the type,
+     * mutability, serializability, or thread-safety of the lists.
+     *
+     * <p>For example, {@code Stream.of(1, 2, 3, 4, 5).window(3, 1)} consists of
+     * the lists {@code [1, 2, 3]}, {@code [2, 3, 4]} and {@code [3, 4, 5]}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * A sequential stream pipeline retains only the current window.  Parallel
+     * pipelines are evaluated as described for {@link #batch(int)}.
+     *
+     * @implSpec
+     * The default implementation returns a stream of the windows of the
+     * elements of the {@link #spliterator() spliterator} of this stream, which
+     * is parallel if this stream is parallel, and which closes this stream
+     * when closed.
+     *
+     * @param size the number of elements in each window
+     * @param step the number of elements between the starts of successive
+     *             windows
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} or {@code step} is not
+     * positive
+     * @since 1.8
+     */
+    default Stream<List<T>> window(int size, int step) {
+        return BatchOps.wrapRef(this, size, step, false, -1);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into
+     * consecutive lists, in encounter order, that are bounded in both size and
+     * time.  A list is complete when it holds {@code maxSize} elements, when an
+     * element is added to it at least the given time after its first element,
+     * or at the end of this stream.  There are no guarantees on the type,
+     * mutability, serializability, or thread-safety of the lists.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * The time bound applies to sources that produce elements over time, such
+     * as a stream draining a queue, limiting how long an element is held back
+     * waiting for a batch to fill.  Since the time bound is checked only as
+     * elements arrive, a partially filled list is not passed on while the
+     * source is waiting for its next element.  This operation, and those
+     * preceding it in the pipeline, are always evaluated sequentially.
+     *
+     * @implSpec
+     * The default implementation returns a stream of the batches of the
+     * elements of the {@link #spliterator() spliterator} of this stream, which
+     * is parallel if this stream is parallel, and which closes this stream
+     * when closed.
+     *
+     * @param maxSize the maximum number of elements in each batch
+     * @param timeout the time after the first element of a batch at which the
+     *                batch is complete
+     * @param unit the time unit of the {@code timeout} argument
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code maxSize} is not positive or
+     * {@code timeout} is negative
+     * @throws NullPointerException if {@code unit} is null
+     * @since 1.8
+     */
+    default Stream<List<T>> batchWhile(int maxSize, long timeout, TimeUnit unit) {
+        return BatchOps.wrapRef(this, maxSize, maxSize, true, BatchOps.timeoutNanos(timeout, unit));
+    }
+
     /**
      * Performs an action for each element of this stream.
      *
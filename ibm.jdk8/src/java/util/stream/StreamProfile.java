@@ -0,0 +1,479 @@
+/*===========================================================================
+ * Licensed Materials - Property of IBM
+ * "Restricted Materials of IBM"
+ * 
+ * IBM SDK, Java(tm) Technology Edition, v8
+ * (C) Copyright IBM Corp. 2016, 2016. All Rights Reserved
+ *
+ * US Government Users Restricted Rights - Use, duplication or disclosure
+ * restricted by GSA ADP Schedule Contract with IBM Corp.
+ *===========================================================================
+ */
+/*
+ * Copyright (c) 2016, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A record of the evaluation of a stream pipeline, for diagnosing which
+ * stages of the pipeline, or which parts of a parallel computation, account
+ * for its cost.  For each intermediate operation, and for the terminal
+ * operation, a profile records the number of elements the operation received
+ * and the time spent in it, excluding time spent in operations downstream of
+ * it.  For a parallel pipeline it also records the shape of the fork/join
+ * computation: the number of leaf tasks, the depth of splitting and range of
+ * leaf sizes, and the number of tasks stolen by a thread other than the one
+ * that forked them.
+ *
+ * <p>Profiling is requested for a pipeline by {@link #attach attaching} a
+ * profile before its terminal operation is invoked.  The profile may be
+ * inspected once the terminal operation completes, and is conveniently
+ * reported by a {@link BaseStream#onClose close handler}:
+ *
+ * <pre>{@code
+ *     Stream<Order> orders = allOrders.parallelStream();
+ *     StreamProfile profile = StreamProfile.attach(orders);
+ *     try (Stream<Order> s = orders.onClose(() -> log.info(profile.toString()))) {
+ *         total = s.filter(Order::isOpen).mapToLong(Order::value).sum();
+ *     }
+ * }</pre>
+ *
+ * <p>Times are measured with {@link System#nanoTime} around every element
+ * passed to every stage, and for a parallel pipeline are summed over all
+ * threads; a profiled pipeline therefore runs more slowly than one that is
+ * not profiled, and profiles are intended for diagnosis rather than for
+ * permanent use in production.  Stages that are evaluated as a barrier in a
+ * parallel pipeline, such as {@code sorted()}, additionally record the
+ * elapsed time to evaluate the pipeline up to and including that stage.
+ *
+ * <p>A profile is updated while its pipeline is evaluated, possibly by many
+ * threads, and is safe to read at any time; values read during evaluation
+ * reflect the progress of the evaluation so far.
+ *
+ * @since 1.8
+ */
+public final class StreamProfile {
+
+    /**
+     * The time spent in, and number of elements received by, one operation
+     * of a profiled pipeline.
+     *
+     * @since 1.8
+     */
+    public static final class Stage {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder evaluationNanos = new LongAdder();
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the name of the operation, such as {@code "map"} or
+         * {@code "sorted"}, or {@code "terminal"} for the terminal operation.
+         *
+         * @return the name of the operation
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of elements received by the operation.
+         *
+         * @return the number of elements received
+         */
+        public long getElementCount() {
+            return count.sum();
+        }
+
+        /**
+         * Returns the time spent in the operation, in nanoseconds, excluding
+         * time spent in operations downstream of it, summed over all threads.
+         *
+         * @return the time spent in the operation
+         */
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * Returns the elapsed time, in nanoseconds, to evaluate the pipeline
+         * up to and including this operation, if the operation was evaluated
+         * as a barrier of a parallel pipeline, otherwise zero.
+         *
+         * @return the elapsed time of evaluation as a barrier
+         */
+        public long getEvaluationNanos() {
+            return evaluationNanos.sum();
+        }
+
+        /**
+         * Returns a String summarizing the stage.
+         * @return a String summarizing the stage
+         */
+        public String toString() {
+            return String.format("%-16s %,16d elements %,14.3f ms", name,
+                                 getElementCount(), getNanos() / 1e6);
+        }
+    }
+
+    private final AbstractPipeline<?, ?, ?> source;
+    private final Map<AbstractPipeline<?, ?, ?>, Stage> stages = new IdentityHashMap<>();
+    private final Stage terminal = new Stage("terminal");
+    private final LongAdder elapsedNanos = new LongAdder();
+
+    // Fork/join statistics
+    private final ConcurrentHashMap<ForkJoinTask<?>, Thread> forkers = new ConcurrentHashMap<>();
+    private final LongAdder leafCount = new LongAdder();
+    private final LongAdder stealCount = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0L);
+    private final LongAccumulator minLeafSize = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator maxLeafSize = new LongAccumulator(Math::max, 0L);
+
+    StreamProfile(AbstractPipeline<?, ?, ?> source) {
+        this.source = source;
+    }
+
+    /**
+     * Requests profiling of the evaluation of the given stream's pipeline,
+     * returning the profile in which it is recorded.  If profiling was
+     * already requested for the pipeline, the same profile is returned.
+     *
+     * @param stream the stream, whose terminal operation has not yet been
+     *        invoked
+     * @return the profile of the stream's pipeline
+     * @throws IllegalArgumentException if the stream is not one produced by
+     *         {@link StreamSupport} or the stream operations of this package
+     * @throws IllegalStateException if the stream has already been operated
+     *         upon or closed
+     */
+    public static StreamProfile attach(BaseStream<?, ?> stream) {
+        if (!(stream instanceof AbstractPipeline))
+            throw new IllegalArgumentException("not a pipeline stream");
+        return ((AbstractPipeline<?, ?, ?>) stream).profile();
+    }
+
+    /**
+     * Returns the stages of the pipeline, in order, followed by the terminal
+     * operation.
+     *
+     * @return the stages of the pipeline
+     */
+    public List<Stage> getStages() {
+        List<Stage> list = new ArrayList<>();
+        for (AbstractPipeline<?, ?, ?> p = source.nextStage(); p != null; p = p.nextStage())
+            list.add(stage(p));
+        list.add(terminal);
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Returns the elapsed time, in nanoseconds, of the evaluation of the
+     * terminal operation, or zero if it has not completed.
+     *
+     * @return the elapsed time of the terminal operation
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos.sum();
+    }
+
+    /**
+     * Returns the number of leaf tasks of a parallel evaluation: those that
+     * traversed elements rather than splitting further.
+     *
+     * @return the number of leaf tasks
+     */
+    public long getLeafCount() {
+        return leafCount.sum();
+    }
+
+    /**
+     * Returns the greatest number of splits from a root task to a leaf task.
+     *
+     * @return the greatest depth of splitting
+     */
+    public int getMaxSplitDepth() {
+        return maxDepth.intValue();
+    }
+
+    /**
+     * Returns the least estimated number of elements traversed by a leaf
+     * task, or zero if there were none.
+     *
+     * @return the least leaf size
+     */
+    public long getMinLeafSize() {
+        return leafCount.sum() == 0L ? 0L : minLeafSize.get();
+    }
+
+    /**
+     * Returns the greatest estimated number of elements traversed by a leaf
+     * task.
+     *
+     * @return the greatest leaf size
+     */
+    public long getMaxLeafSize() {
+        return maxLeafSize.get();
+    }
+
+    /**
+     * Returns the number of tasks that were executed by a thread other than
+     * the one that forked them.
+     *
+     * @return the number of stolen tasks
+     */
+    public long getStealCount() {
+        return stealCount.sum();
+    }
+
+    /**
+     * Returns a String reporting the profile, with a line for each stage.
+     * @return a String reporting the profile
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("stream profile: %,.3f ms elapsed", getElapsedNanos() / 1e6));
+        if (getLeafCount() != 0L)
+            sb.append(String.format(", %,d leaves (sizes %,d..%,d, depth %d), %,d steals",
+                                    getLeafCount(), getMinLeafSize(), getMaxLeafSize(),
+                                    getMaxSplitDepth(), getStealCount()));
+        for (Stage s : getStages()) {
+            sb.append(System.lineSeparator()).append("  ").append(s);
+            long e = s.getEvaluationNanos();
+            if (e != 0L)
+                sb.append(String.format(" (barrier %,.3f ms)", e / 1e6));
+        }
+        return sb.toString();
+    }
+
+    // Hooks for AbstractPipeline and fork/join tasks
+
+    /**
+     * Returns the statistics for the given stage, or for the terminal
+     * operation if {@code null}.
+     */
+    Stage stage(AbstractPipeline<?, ?, ?> p) {
+        if (p == null)
+            return terminal;
+        synchronized (stages) {
+            Stage s = stages.get(p);
+            if (s == null)
+                stages.put(p, s = new Stage(nameOf(p)));
+            return s;
+        }
+    }
+
+    /**
+     * Returns a name for the operation of a stage: the name of the method that
+     * created an anonymous stage, such as "map", or of the class of operations
+     * defining it, such as "sorted" for SortedOps.
+     */
+    private static String nameOf(AbstractPipeline<?, ?, ?> p) {
+        Class<?> c = p.getClass();
+        Class<?> d = c.getEnclosingClass();
+        if (d != null && d.getSimpleName().endsWith("Ops")) {
+            String n = d.getSimpleName();
+            return Character.toLowerCase(n.charAt(0)) + n.substring(1, n.length() - 3);
+        }
+        Method m = c.getEnclosingMethod();
+        return (m != null) ? m.getName() : c.getSimpleName();
+    }
+
+    /**
+     * Wraps a sink receiving the output of a stage, to record against its
+     * consumer, which is the next stage or, if {@code null}, the terminal
+     * operation.
+     *
+     * @param consumer the stage whose operation the sink performs
+     * @param shape the shape of the elements received
+     * @param sink the sink to wrap
+     * @param nested the profiling sink downstream of {@code sink}, if any,
+     *        whose time is excluded from that of {@code consumer}
+     */
+    @SuppressWarnings("unchecked")
+    <T> ProfilingSink<T> wrap(AbstractPipeline<?, ?, ?> consumer, StreamShape shape,
+                              Sink<T> sink, ProfilingSink<?> nested) {
+        Stage stage = stage(consumer);
+        switch (shape) {
+            case REFERENCE:
+                return new OfRef<>(stage, sink, nested);
+            case INT_VALUE:
+                return (ProfilingSink<T>) new OfInt(stage, (Sink<Integer>) sink, nested);
+            case LONG_VALUE:
+                return (ProfilingSink<T>) new OfLong(stage, (Sink<Long>) sink, nested);
+            case DOUBLE_VALUE:
+                return (ProfilingSink<T>) new OfDouble(stage, (Sink<Double>) sink, nested);
+            default:
+                throw new IllegalStateException("Unknown shape " + shape);
+        }
+    }
+
+    /** Records the elapsed time of evaluating a stage as a barrier. */
+    void evaluated(AbstractPipeline<?, ?, ?> p, long nanos) {
+        stage(p).evaluationNanos.add(nanos);
+    }
+
+    /** Records the elapsed time of evaluating the terminal operation. */
+    void evaluated(long nanos) {
+        elapsedNanos.add(nanos);
+    }
+
+    /** Records that the given task is being forked by the current thread. */
+    void forked(ForkJoinTask<?> task) {
+        forkers.put(task, Thread.currentThread());
+    }
+
+    /** Records that the given task has started executing. */
+    void started(ForkJoinTask<?> task) {
+        Thread t = forkers.remove(task);
+        if (t != null && t != Thread.currentThread())
+            stealCount.increment();
+    }
+
+    /** Records that the given task is a leaf, about to traverse its elements. */
+    void leaf(CountedCompleter<?> task, long size) {
+        int depth = 0;
+        for (CountedCompleter<?> c = task.getCompleter(); c != null; c = c.getCompleter())
+            depth++;
+        leafCount.increment();
+        maxDepth.accumulate(depth);
+        minLeafSize.accumulate(size);
+        maxLeafSize.accumulate(size);
+    }
+
+    /**
+     * A sink timing the calls to the sink it wraps, and counting the elements
+     * passed to it.  Counts and times are accumulated locally, since each sink
+     * is used by a single thread, and added to the stage when the sink ends.
+     */
+    abstract static class ProfilingSink<T> implements Sink<T> {
+        final Stage stage;
+        final Sink<T> downstream;
+        final ProfilingSink<?> nested;
+        long count, nanos;
+        private long reportedCount, reportedNanos;
+
+        ProfilingSink(Stage stage, Sink<T> downstream, ProfilingSink<?> nested) {
+            this.stage = stage;
+            this.downstream = downstream;
+            this.nested = nested;
+        }
+
+        @Override
+        public void begin(long size) {
+            long t = System.nanoTime();
+            downstream.begin(size);
+            nanos += System.nanoTime() - t;
+        }
+
+        @Override
+        public void end() {
+            long t = System.nanoTime();
+            downstream.end();
+            nanos += System.nanoTime() - t;
+            // The nested sink has ended, so its time is complete
+            long self = nanos - (nested == null ? 0L : nested.nanos);
+            stage.count.add(count - reportedCount);
+            stage.nanos.add(self - reportedNanos);
+            reportedCount = count;
+            reportedNanos = self;
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return downstream.cancellationRequested();
+        }
+    }
+
+    static final class OfRef<T> extends ProfilingSink<T> {
+        OfRef(Stage stage, Sink<T> downstream, ProfilingSink<?> nested) {
+            super(stage, downstream, nested);
+        }
+
+        @Override
+        public void accept(T t) {
+            long s = System.nanoTime();
+            downstream.accept(t);
+            nanos += System.nanoTime() - s;
+            count++;
+        }
+    }
+
+    static final class OfInt extends ProfilingSink<Integer> implements Sink.OfInt {
+        OfInt(Stage stage, Sink<Integer> downstream, ProfilingSink<?> nested) {
+            super(stage, downstream, nested);
+        }
+
+        @Override
+        public void accept(int t) {
+            long s = System.nanoTime();
+            downstream.accept(t);
+            nanos += System.nanoTime() - s;
+            count++;
+        }
+    }
+
+    static final class OfLong extends ProfilingSink<Long> implements Sink.OfLong {
+        OfLong(Stage stage, Sink<Long> downstream, ProfilingSink<?> nested) {
+            super(stage, downstream, nested);
+        }
+
+        @Override
+        public void accept(long t) {
+            long s = System.nanoTime();
+            downstream.accept(t);
+            nanos += System.nanoTime() - s;
+            count++;
+        }
+    }
+
+    static final class OfDouble extends ProfilingSink<Double> implements Sink.OfDouble {
+        OfDouble(Stage stage, Sink<Double> downstream, ProfilingSink<?> nested) {
+            super(stage, downstream, nested);
+        }
+
+        @Override
+        public void accept(double t) {
+            long s = System.nanoTime();
+            downstream.accept(t);
+            nanos += System.nanoTime() - s;
+            count++;
+        }
+    }
+}
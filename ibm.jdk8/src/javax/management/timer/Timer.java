@@ -84,6 +84,10 @@ import javax.management.ObjectName;
  * thread.  Therefore, they should execute rapidly to avoid holding up
  * other listeners or perturbing the regularity of fixed-delay
  * executions.  See {@link NotificationBroadcasterSupport}.
+ * <LI>Notifications are scheduled on a {@link java.util.Timer}, so setting the
+ * system property {@code java.util.Timer.useTimingWheel} to {@code true}
+ * schedules them on a timing wheel, making it cheaper to add and remove
+ * large numbers of notifications.
  * </OL>
  *
  * @since 1.5